@@ -101,6 +101,7 @@ import org.sosy_lab.cpachecker.util.VariableClassificationBuilder;
 import com.google.common.base.Optional;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterables;
+import com.google.common.hash.HashCode;
 
 /**
  * Class that encapsulates the whole CFA creation process.
@@ -224,6 +225,7 @@ private boolean classifyNodes = false;
   private final LogManager logger;
   private final Parser parser;
   private final CFAReduction cfaReduction;
+  private final CFASnapshot snapshot;
   private final ShutdownNotifier shutdownNotifier;
 
   private static class CFACreatorStatistics implements Statistics {
@@ -237,6 +239,7 @@ private boolean classifyNodes = false;
     private final Timer pruningTime = new Timer();
     private final Timer variableClassificationTime = new Timer();
     private final Timer exportTime = new Timer();
+    private final Timer snapshotTime = new Timer();
 
     @Override
     public String getName() {
@@ -260,6 +263,9 @@ private boolean classifyNodes = false;
       if (exportTime.getNumberOfIntervals() > 0) {
         out.println("    Time for CFA export:      " + exportTime);
       }
+      if (snapshotTime.getNumberOfIntervals() > 0) {
+        out.println("    Time for CFA snapshot:    " + snapshotTime);
+      }
     }
   }
 
@@ -308,6 +314,8 @@ private boolean classifyNodes = false;
       cfaReduction = null;
     }
 
+    snapshot = new CFASnapshot(config, logger, removeIrrelevantForSpecification);
+
     stats.parserInstantiationTime.stop();
   }
 
@@ -354,6 +362,23 @@ private boolean classifyNodes = false;
 
     stats.totalTime.start();
     try {
+      HashCode snapshotKey = null;
+      if (snapshot.isEnabled() && language == Language.C) {
+        stats.snapshotTime.start();
+        try {
+          snapshotKey = snapshot.computeKey(sourceFiles);
+          if (snapshotKey != null) {
+            Optional<ImmutableCFA> storedCFA = snapshot.load(snapshotKey);
+            if (storedCFA.isPresent()) {
+              exportCFAIfRequested(storedCFA.get());
+              return storedCFA.get();
+            }
+          }
+        } finally {
+          stats.snapshotTime.stop();
+        }
+      }
+
       // FIRST, parse file(s) and create CFAs for each function
       logger.log(Level.FINE, "Starting parsing of file(s)");
 
@@ -374,14 +399,24 @@ private boolean classifyNodes = false;
         throw new AssertionError();
       }
 
-      return createCFA(c, mainFunction);
+      ImmutableCFA cfa = createCFA(c, mainFunction);
+
+      if (snapshotKey != null) {
+        stats.snapshotTime.start();
+        try {
+          snapshot.store(snapshotKey, cfa);
+        } finally {
+          stats.snapshotTime.stop();
+        }
+      }
+      return cfa;
 
     } finally {
       stats.totalTime.stop();
     }
   }
 
-  private CFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
+  private ImmutableCFA createCFA(ParseResult pParseResult, FunctionEntryNode pMainFunction) throws InvalidConfigurationException, InterruptedException, ParserException {
 
     FunctionEntryNode mainFunction = pMainFunction;
 
@@ -490,10 +525,7 @@ private boolean classifyNodes = false;
     assert CFACheck.check(mainFunction, null, cfaReduction != null);
     stats.checkTime.stop();
 
-    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
-        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
-      exportCFAAsync(immutableCFA);
-    }
+    exportCFAIfRequested(immutableCFA);
 
     logger.log(Level.FINE, "DONE, CFA for", immutableCFA.getNumberOfFunctions(), "functions created.");
 
@@ -891,6 +923,13 @@ v.addInitializer(initializer);
     }
   }
 
+  private void exportCFAIfRequested(final CFA cfa) {
+    if (((exportCfaFile != null) && (exportCfa || exportCfaPerFunction))
+        || ((exportFunctionCallsFile != null) && exportFunctionCalls)) {
+      exportCFAAsync(cfa);
+    }
+  }
+
   private void exportCFAAsync(final CFA cfa) {
     // execute asynchronously, this may take several seconds for large programs on slow disks
     Threads.newThread(new Runnable() {
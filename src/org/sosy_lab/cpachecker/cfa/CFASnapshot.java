@@ -0,0 +1,337 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Level;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.configuration.Option;
+import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.log.LogManager;
+
+import com.google.common.base.Optional;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * A binary snapshot of a fully post-processed CFA
+ * (including loop structure, variable classification, and live variables),
+ * such that repeated runs on the same program can skip parsing and CFA creation.
+ *
+ * The snapshot is identified by a key that is a hash of the content of the source files
+ * (and of the specification files, if the CFA depends on the specification),
+ * of a fingerprint of the CPAchecker build, and of all configuration options
+ * that influence the CFA.
+ * The build fingerprint is necessary because the serialized classes
+ * have explicit serialVersionUIDs, so Java deserialization would not detect
+ * that a snapshot was written by a different build.
+ * If the key of the stored snapshot does not match,
+ * the CFA is created as usual and the snapshot is overwritten.
+ * Any problem with reading or writing a snapshot is logged,
+ * and the CFA is created from the source files instead.
+ */
+@Options(prefix="cfa.snapshot")
+class CFASnapshot {
+
+  private static final int MAGIC = 0x43464153; // "CFAS"
+  private static final int VERSION = 1;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+  private static final int KEY_LENGTH = HASH_FUNCTION.bits() / Byte.SIZE;
+
+  // classes whose code location (jar file or class directory) is part of the build fingerprint,
+  // these are CPAchecker itself and Guava (whose collections are part of the CFA)
+  private static final ImmutableList<Class<?>> FINGERPRINTED_CLASSES =
+      ImmutableList.<Class<?>>of(CFASnapshot.class, ImmutableCollection.class);
+
+  // prefixes and names of options that influence parsing and CFA creation
+  private static final ImmutableSet<String> RELEVANT_OPTION_PREFIXES =
+      ImmutableSet.of("cfa.", "parser.", "liveVar.", "locmapper.");
+  private static final ImmutableSet<String> RELEVANT_OPTIONS = ImmutableSet.of(
+      "language",
+      "analysis.machineModel",
+      "analysis.entryFunction",
+      "analysis.interprocedural",
+      "analysis.functionPointerCalls",
+      "analysis.useGlobalVars",
+      "analysis.summaryEdges",
+      "analysis.functionPointerEdgesForUnknownPointer",
+      "analysis.functionPointerTargets");
+
+  @Option(description="Store a binary snapshot of the CFA in this file and reuse it "
+      + "in later runs of the same CPAchecker build on the same program "
+      + "with the same CFA-related options "
+      + "(header files included by the program are not checked for changes). "
+      + "This option is not secure because the file is read with Java deserialization.")
+  @FileOption(FileOption.Type.OUTPUT_FILE)
+  private Path file = null;
+
+  @Options
+  private static class SpecificationOption {
+
+    @Option(secure=true, name="specification",
+        description="comma-separated list of files with specifications that should be checked"
+          + "\n(see config/specification/ for examples)")
+    @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+    private List<Path> specificationFiles = null;
+
+    private SpecificationOption(Configuration pConfig) throws InvalidConfigurationException {
+      pConfig.inject(this);
+    }
+  }
+
+  private final LogManager logger;
+  private final List<String> relevantOptions;
+
+  // the specification files whose content is part of the key, empty if the CFA does not depend on them
+  private final List<Path> specificationFiles;
+
+  /**
+   * @param pSpecificationIsRelevant Whether the CFA depends on the specification
+   *    (because it is pruned with respect to it).
+   */
+  CFASnapshot(Configuration pConfig, LogManager pLogger, boolean pSpecificationIsRelevant)
+      throws InvalidConfigurationException {
+    pConfig.inject(this);
+    logger = pLogger;
+
+    List<Path> specification = null;
+    if (pSpecificationIsRelevant) {
+      specification = new SpecificationOption(pConfig).specificationFiles;
+    }
+    specificationFiles = specification == null ? ImmutableList.<Path>of() : specification;
+
+    relevantOptions = new ArrayList<>();
+    for (String line : Splitter.on('\n').omitEmptyStrings().trimResults()
+                               .split(pConfig.asPropertiesString())) {
+      if (isRelevantOption(line)) {
+        relevantOptions.add(line);
+      }
+    }
+    Collections.sort(relevantOptions);
+  }
+
+  private static boolean isRelevantOption(String line) {
+    String name = line.split("=", 2)[0].trim();
+    if (RELEVANT_OPTIONS.contains(name)) {
+      return true;
+    }
+    for (String prefix : RELEVANT_OPTION_PREFIXES) {
+      if (name.startsWith(prefix) && !name.startsWith("cfa.snapshot.")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  boolean isEnabled() {
+    return file != null;
+  }
+
+  /**
+   * Compute the key of a snapshot for the given source files.
+   * @return The key, or null if the source files or the build could not be read.
+   */
+  @Nullable HashCode computeKey(List<String> sourceFiles) {
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    hasher.putInt(relevantOptions.size());
+    for (String option : relevantOptions) {
+      putString(hasher, option);
+    }
+    try {
+      putBuildFingerprint(hasher);
+
+      hasher.putInt(sourceFiles.size());
+      for (String sourceFile : sourceFiles) {
+        putFile(hasher, new File(sourceFile));
+      }
+      hasher.putInt(specificationFiles.size());
+      for (Path specificationFile : specificationFiles) {
+        putFile(hasher, specificationFile.toFile());
+      }
+    } catch (IOException e) {
+      logger.logDebugException(e, "Could not read file for computing the CFA snapshot key");
+      return null;
+    }
+    return hasher.hash();
+  }
+
+  private static void putString(Hasher hasher, String s) {
+    hasher.putInt(s.length()).putString(s, StandardCharsets.UTF_8);
+  }
+
+  private static void putFile(Hasher hasher, File file) throws IOException {
+    putString(hasher, file.getPath());
+    byte[] content = Files.readAllBytes(file.toPath());
+    hasher.putInt(content.length).putBytes(content);
+  }
+
+  /**
+   * Add a fingerprint of the build to the hash.
+   * This consists of the path, size, and modification time
+   * of the jar file or of all class files in the class directory
+   * from which each of {@link #FINGERPRINTED_CLASSES} was loaded.
+   * Hashing the content would be more precise, but too expensive for large builds.
+   */
+  private static void putBuildFingerprint(final Hasher hasher) throws IOException {
+    for (Class<?> cls : FINGERPRINTED_CLASSES) {
+      CodeSource source = cls.getProtectionDomain().getCodeSource();
+      if (source == null || source.getLocation() == null) {
+        throw new IOException("Unknown location of " + cls.getName());
+      }
+      java.nio.file.Path location;
+      try {
+        location = java.nio.file.Paths.get(source.getLocation().toURI());
+      } catch (URISyntaxException | IllegalArgumentException e) {
+        throw new IOException("Unsupported location of " + cls.getName(), e);
+      }
+
+      final List<String> entries = new ArrayList<>();
+      Files.walkFileTree(location, new SimpleFileVisitor<java.nio.file.Path>() {
+        @Override
+        public FileVisitResult visitFile(java.nio.file.Path pFile, BasicFileAttributes pAttrs) {
+          if (pAttrs.isRegularFile()
+              && (pFile.toString().endsWith(".class") || pFile.toString().endsWith(".jar"))) {
+            entries.add(pFile + " " + pAttrs.size() + " " + pAttrs.lastModifiedTime().toMillis());
+          }
+          return FileVisitResult.CONTINUE;
+        }
+      });
+      Collections.sort(entries);
+
+      hasher.putInt(entries.size());
+      for (String entry : entries) {
+        putString(hasher, entry);
+      }
+    }
+  }
+
+  /**
+   * Load the stored snapshot if it exists and has the given key.
+   */
+  Optional<ImmutableCFA> load(HashCode key) {
+    File snapshotFile = file.toFile();
+    if (!snapshotFile.isFile()) {
+      return Optional.absent();
+    }
+
+    // ObjectInputStream reads sequentially, so a buffered stream is sufficient
+    try (DataInputStream in = new DataInputStream(
+        new BufferedInputStream(new FileInputStream(snapshotFile)))) {
+      if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+        throw new IOException("file is not a CFA snapshot of the current version");
+      }
+
+      byte[] storedKey = new byte[KEY_LENGTH];
+      in.readFully(storedKey);
+      if (!HashCode.fromBytes(storedKey).equals(key)) {
+        logger.log(Level.FINE, "CFA snapshot in", file, "does not match the current program or configuration");
+        return Optional.absent();
+      }
+
+      ImmutableCFA cfa;
+      ObjectInputStream objectIn = new ObjectInputStream(in);
+      cfa = (ImmutableCFA)objectIn.readObject();
+
+      if (cfa.getVarClassification().isPresent()) {
+        cfa.getVarClassification().get().setLoggerAfterDeserialization(logger);
+      }
+      logger.log(Level.INFO, "Using CFA snapshot from", file);
+      return Optional.of(cfa);
+
+    } catch (IOException | ClassNotFoundException | ClassCastException
+        | IllegalArgumentException | IllegalStateException e) {
+      logger.logUserException(Level.WARNING, e,
+          "Could not read CFA snapshot, creating CFA from source files");
+      return Optional.absent();
+    }
+  }
+
+  /**
+   * Write a snapshot of the given CFA with the given key,
+   * replacing a previously stored snapshot.
+   */
+  void store(HashCode key, ImmutableCFA cfa) {
+    File snapshotFile = file.toFile();
+    File tmpFile = new File(snapshotFile.getPath() + ".tmp");
+    try {
+      File parent = snapshotFile.getAbsoluteFile().getParentFile();
+      if (parent != null) {
+        Files.createDirectories(parent.toPath());
+      }
+
+      try (DataOutputStream out = new DataOutputStream(
+          new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.write(key.asBytes());
+
+        ObjectOutputStream objectOut = new ObjectOutputStream(out);
+        objectOut.writeObject(cfa);
+        objectOut.flush();
+      }
+
+      Files.move(tmpFile.toPath(), snapshotFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      logger.log(Level.FINE, "Stored CFA snapshot in", file);
+
+    } catch (IOException e) {
+      logger.logUserException(Level.WARNING, e, "Could not write CFA snapshot");
+      if (tmpFile.exists() && !tmpFile.delete()) {
+        logger.log(Level.FINE, "Could not delete", tmpFile);
+      }
+    }
+  }
+}
@@ -27,6 +27,7 @@ import java.io.IOException;
 import java.util.List;
 
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -151,6 +152,12 @@ public interface CParser extends Parser {
     @Option(secure=true, description="C dialect for parser")
     private Dialect dialect = Dialect.GNUC;
 
+    @Option(secure=true, description="Number of threads for parsing several source files "
+        + "and for building the CFAs of the functions concurrently. "
+        + "The node numbering of the CFA does not depend on this value.")
+    @IntegerOption(min=1)
+    private int threads = 1;
+
     private ParserOptions() { }
   }
 
@@ -172,7 +179,7 @@ public interface CParser extends Parser {
     }
 
     public static CParser getParser(Configuration config, LogManager logger, ParserOptions options, MachineModel machine) {
-      return EclipseParsers.getCParser(config, logger, options.dialect, machine);
+      return EclipseParsers.getCParser(config, logger, options.dialect, machine, options.threads);
     }
   }
 }
@@ -25,10 +25,21 @@ package org.sosy_lab.cpachecker.cfa;
 
 import static com.google.common.base.Preconditions.*;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.Map;
+import java.util.Set;
 
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
 import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionSummaryEdge;
+import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.util.LiveVariables;
 import org.sosy_lab.cpachecker.util.LoopStructure;
@@ -45,7 +56,9 @@ import com.google.common.collect.SetMultimap;
  * This class represents a CFA after it has been fully created (parsing, linking
  * of functions, etc.).
  */
-class ImmutableCFA implements CFA {
+class ImmutableCFA implements CFA, Serializable {
+
+  private static final long serialVersionUID = 5399965350156780812L;
 
   private final MachineModel machineModel;
   private final ImmutableSortedMap<String, FunctionEntryNode> functions;
@@ -166,4 +179,105 @@ class ImmutableCFA implements CFA {
     return language;
   }
 
+  /**
+   * Nodes do not serialize their adjacent edges
+   * (this would serialize the whole CFA recursively),
+   * so we store the edges of each node explicitly after the other fields.
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+
+    Set<CFANode> nodes = collectConnectedNodes();
+    out.writeInt(nodes.size());
+    for (CFANode node : nodes) {
+      out.writeObject(node);
+      out.writeInt(node.getNumLeavingEdges());
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        out.writeObject(node.getLeavingEdge(i));
+      }
+      out.writeInt(node.getNumEnteringEdges());
+      for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+        out.writeObject(node.getEnteringEdge(i));
+      }
+      out.writeObject(node.getLeavingSummaryEdge());
+      out.writeObject(node.getEnteringSummaryEdge());
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+
+    int maxNodeNumber = 0;
+    int nodeCount = in.readInt();
+    for (int n = 0; n < nodeCount; n++) {
+      CFANode node = (CFANode)in.readObject();
+      int leavingEdges = in.readInt();
+      for (int i = 0; i < leavingEdges; i++) {
+        node.addLeavingEdge((CFAEdge)in.readObject());
+      }
+      int enteringEdges = in.readInt();
+      for (int i = 0; i < enteringEdges; i++) {
+        node.addEnteringEdge((CFAEdge)in.readObject());
+      }
+      FunctionSummaryEdge leavingSummaryEdge = (FunctionSummaryEdge)in.readObject();
+      if (leavingSummaryEdge != null) {
+        node.addLeavingSummaryEdge(leavingSummaryEdge);
+      }
+      FunctionSummaryEdge enteringSummaryEdge = (FunctionSummaryEdge)in.readObject();
+      if (enteringSummaryEdge != null) {
+        node.addEnteringSummaryEdge(enteringSummaryEdge);
+      }
+      maxNodeNumber = Math.max(maxNodeNumber, node.getNodeNumber());
+    }
+
+    // nodes created after loading must not get the numbers of the loaded nodes
+    CFANode.skipNumbersUpTo(maxNodeNumber);
+  }
+
+  /**
+   * Get all nodes whose edges need to be stored.
+   * These are more than the nodes in {@link #allNodes},
+   * e.g., the nodes inside of {@link MultiEdge}s are not part of it.
+   */
+  private Set<CFANode> collectConnectedNodes() {
+    Set<CFANode> nodes = new LinkedHashSet<>();
+    Deque<CFANode> waitlist = new ArrayDeque<>(allNodes);
+    for (FunctionEntryNode entryNode : functions.values()) {
+      waitlist.add(entryNode.getExitNode());
+    }
+
+    while (!waitlist.isEmpty()) {
+      CFANode node = waitlist.poll();
+      if (!nodes.add(node)) {
+        continue;
+      }
+
+      Set<CFAEdge> edges = new LinkedHashSet<>();
+      for (int i = 0; i < node.getNumLeavingEdges(); i++) {
+        edges.add(node.getLeavingEdge(i));
+      }
+      for (int i = 0; i < node.getNumEnteringEdges(); i++) {
+        edges.add(node.getEnteringEdge(i));
+      }
+      if (node.getLeavingSummaryEdge() != null) {
+        edges.add(node.getLeavingSummaryEdge());
+      }
+      if (node.getEnteringSummaryEdge() != null) {
+        edges.add(node.getEnteringSummaryEdge());
+      }
+
+      for (CFAEdge edge : edges) {
+        waitlist.add(edge.getPredecessor());
+        waitlist.add(edge.getSuccessor());
+        if (edge instanceof MultiEdge) {
+          for (CFAEdge innerEdge : (MultiEdge)edge) {
+            waitlist.add(innerEdge.getPredecessor());
+            waitlist.add(innerEdge.getSuccessor());
+          }
+        }
+      }
+    }
+    return nodes;
+  }
+
 }
@@ -0,0 +1,131 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
+import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CParameterDeclaration;
+import org.sosy_lab.cpachecker.cfa.ast.c.CVariableDeclaration;
+import org.sosy_lab.cpachecker.cfa.model.BlankEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
+import org.sosy_lab.cpachecker.cfa.model.c.CFunctionEntryNode;
+import org.sosy_lab.cpachecker.cfa.types.MachineModel;
+import org.sosy_lab.cpachecker.cfa.types.c.CFunctionType;
+import org.sosy_lab.cpachecker.util.LiveVariables;
+import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.VariableClassification;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
+
+public class ImmutableCFATest {
+
+  private static ImmutableCFA createCFA() {
+    FunctionExitNode exit = new FunctionExitNode("main");
+    CFunctionDeclaration declaration = new CFunctionDeclaration(FileLocation.DUMMY,
+        CFunctionType.NO_ARGS_VOID_FUNCTION, "main", ImmutableList.<CParameterDeclaration>of());
+    FunctionEntryNode entry = new CFunctionEntryNode(FileLocation.DUMMY, declaration, exit,
+        ImmutableList.<String>of(), Optional.<CVariableDeclaration>absent());
+    exit.setEntryNode(entry);
+    CFANode middle = new CFANode("main");
+
+    addEdge(new BlankEdge("", FileLocation.DUMMY, entry, middle, "first"));
+    addEdge(new BlankEdge("", FileLocation.DUMMY, middle, exit, "second"));
+
+    return new ImmutableCFA(MachineModel.LINUX32,
+        ImmutableMap.of("main", entry),
+        ImmutableSetMultimap.of("main", entry, "main", middle, "main", (CFANode)exit),
+        entry,
+        Optional.<LoopStructure>absent(),
+        Optional.<VariableClassification>absent(),
+        Optional.<LiveVariables>absent(),
+        Language.C);
+  }
+
+  private static void addEdge(CFAEdge edge) {
+    edge.getPredecessor().addLeavingEdge(edge);
+    edge.getSuccessor().addEnteringEdge(edge);
+  }
+
+  private static ImmutableCFA roundTrip(ImmutableCFA cfa)
+      throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(cfa);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return (ImmutableCFA)in.readObject();
+    }
+  }
+
+  @Test
+  public void testEdgesAreRestored() throws Exception {
+    ImmutableCFA cfa = createCFA();
+    ImmutableCFA copy = roundTrip(cfa);
+
+    FunctionEntryNode entry = copy.getMainFunction();
+    assertThat(copy.getAllNodes()).hasSize(3);
+    assertThat(entry.getNumLeavingEdges()).isEqualTo(1);
+    CFAEdge first = entry.getLeavingEdge(0);
+    assertThat(first.getDescription()).isEqualTo("first");
+    assertThat(first.getSuccessor().getNumEnteringEdges()).isEqualTo(1);
+    assertThat(first.getSuccessor().getEnteringEdge(0)).isSameAs(first);
+    CFAEdge second = first.getSuccessor().getLeavingEdge(0);
+    assertThat(second.getSuccessor()).isSameAs(entry.getExitNode());
+    assertThat(entry.getExitNode().getEntryNode()).isSameAs(entry);
+  }
+
+  @Test
+  public void testNodeNumbersAreKept() throws Exception {
+    ImmutableCFA cfa = createCFA();
+    ImmutableCFA copy = roundTrip(cfa);
+
+    assertThat(copy.getMainFunction().getNodeNumber())
+        .isEqualTo(cfa.getMainFunction().getNodeNumber());
+    assertThat(new CFANode("main").getNodeNumber())
+        .isGreaterThan(copy.getAllNodes().last().getNodeNumber());
+  }
+
+  @Test
+  public void testFileLocationSingletonIsKept() throws Exception {
+    ImmutableCFA copy = roundTrip(createCFA());
+
+    assertThat(copy.getMainFunction().getLeavingEdge(0).getFileLocation())
+        .isSameAs(FileLocation.DUMMY);
+  }
+}
@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AArraySubscriptExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 5221446025223702190L;
 
   private final AExpression arrayExpression;
   private final AExpression subscriptExpression;
@@ -35,6 +35,7 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ABinaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = 5182566278188489250L;
 
   private final AExpression operand1;
   private final AExpression operand2;
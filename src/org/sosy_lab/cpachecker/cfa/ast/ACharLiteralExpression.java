@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
  */
 public abstract class ACharLiteralExpression extends ALiteralExpression {
 
+  private static final long serialVersionUID = 7796433115593736539L;
 
   private final char character;
 
@@ -33,6 +33,8 @@ import com.google.common.collect.ImmutableList;
 
 public abstract class AFunctionDeclaration extends AbstractDeclaration {
 
+  private static final long serialVersionUID = 5042523579730407115L;
+
   private final List<AParameterDeclaration> parameters;
 
   public AFunctionDeclaration(FileLocation pFileLocation, IAFunctionType pType, String pName,
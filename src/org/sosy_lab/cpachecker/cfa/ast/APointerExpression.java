@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class APointerExpression extends AbstractLeftHandSide {
 
+  private static final long serialVersionUID = 438211738509186129L;
+
   private final AExpression operand;
 
   public APointerExpression(FileLocation pFileLocation, Type pType, final AExpression pOperand) {
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.types.Type;
 
 public abstract class AUnaryExpression extends AbstractExpression {
 
+  private static final long serialVersionUID = 3455021104373449645L;
+
   private final AExpression operand;
   private final AUnaryOperator  operator;
 
@@ -31,6 +31,8 @@ import com.google.common.base.Optional;
 
 public abstract class AbstractReturnStatement extends AbstractAstNode implements AReturnStatement {
 
+  private static final long serialVersionUID = -1711091714546400714L;
+
   private final Optional<? extends AExpression> expression;
   private final Optional<? extends AAssignment> assignment;
 
@@ -25,12 +25,15 @@ package org.sosy_lab.cpachecker.cfa.ast;
 
 import static com.google.common.base.Preconditions.*;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Objects;
 
 import com.google.common.collect.Iterables;
 
-public class FileLocation {
+public class FileLocation implements Serializable {
+
+  private static final long serialVersionUID = 6652099907084949014L;
 
   private final int endingLine;
   private final String fileName;
@@ -57,17 +60,29 @@ public class FileLocation {
   }
 
   public static final FileLocation DUMMY = new FileLocation(0, "<none>", 0, 0, 0) {
+    private static final long serialVersionUID = -3012034075570811723L;
+
     @Override
     public String toString() {
       return "none";
     }
+
+    private Object readResolve() {
+      return DUMMY;
+    }
   };
 
   public static final FileLocation MULTIPLE_FILES = new FileLocation(0, "<multiple files>", 0, 0, 0) {
+    private static final long serialVersionUID = 3235948369590766425L;
+
     @Override
     public String toString() {
       return getFileName();
     }
+
+    private Object readResolve() {
+      return MULTIPLE_FILES;
+    }
   };
 
   public static FileLocation merge(List<FileLocation> locations) {
@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.ast.AExpression;
 
 public class CArrayRangeDesignator extends CDesignator {
 
+  private static final long serialVersionUID = -4065587981731926614L;
+
   private final AExpression rangeFloor;
   private final AExpression rangeCeiling;
 
@@ -29,7 +29,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CArraySubscriptExpression extends AArraySubscriptExpression implements CLeftHandSide {
 
-
+  private static final long serialVersionUID = 1423563469857105588L;
 
   public CArraySubscriptExpression(final FileLocation pFileLocation,
                                       final CType pType,
@@ -31,8 +31,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CFunctionCallExpression extends AFunctionCallExpression implements CRightHandSide {
 
-
-
+  private static final long serialVersionUID = -6988848677403435313L;
 
   public CFunctionCallExpression(final FileLocation pFileLocation,
                                     final CType pType,
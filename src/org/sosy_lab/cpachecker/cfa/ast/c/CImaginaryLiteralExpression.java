@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public final class CImaginaryLiteralExpression extends ALiteralExpression implements CLiteralExpression {
 
+  private static final long serialVersionUID = -9116381364175170706L;
+
   private final CLiteralExpression value;
 
   public CImaginaryLiteralExpression(FileLocation pFileLocation,
@@ -29,7 +29,7 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public final class CInitializerExpression extends AInitializerExpression implements CInitializer {
 
-
+  private static final long serialVersionUID = -6200595996744927003L;
 
   public CInitializerExpression(final FileLocation pFileLocation,
                                    final CExpression pExpression) {
@@ -29,7 +29,7 @@ import org.sosy_lab.cpachecker.cfa.types.c.CType;
 
 public class CUnaryExpression extends AUnaryExpression implements CExpression {
 
-
+  private static final long serialVersionUID = 5379645036788595101L;
 
   public CUnaryExpression(final FileLocation pFileLocation,
                              final CType pType, final CExpression pOperand,
@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JSimpleType;
  */
 public abstract class JArrayLengthExpression extends AbstractExpression implements JExpression, JAstNode, JRightHandSide {
 
+  private static final long serialVersionUID = 516308932030534988L;
+
   private JArrayLengthExpression(FileLocation pFileLocation, JExpression pQualifier) {
     super(pFileLocation, JSimpleType.getInt());
   }
@@ -73,6 +75,9 @@ public abstract class JArrayLengthExpression extends AbstractExpression implemen
   }
 
   private static class JSubArrayLengthExpression extends JArrayLengthExpression {
+
+    private static final long serialVersionUID = 8802765135651390260L;
+
     private final JArraySubscriptExpression qualifier;
 
     public JSubArrayLengthExpression(FileLocation pFileLocation, JArraySubscriptExpression pQualifier) {
@@ -94,6 +99,8 @@ public abstract class JArrayLengthExpression extends AbstractExpression implemen
 
   private static class JTopArrayLengthExpression extends JArrayLengthExpression {
 
+    private static final long serialVersionUID = -6837154694264525463L;
+
     private final JIdExpression qualifier;
 
     private JTopArrayLengthExpression(FileLocation pFileLocation, JIdExpression pQualifier) {
@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JArraySubscriptExpression extends AArraySubscriptExpression implements JLeftHandSide {
 
+  private static final long serialVersionUID = 6789544965776457718L;
+
   public JArraySubscriptExpression(FileLocation pFileLocation, JType pType, JExpression pArrayExpression,
       JExpression pSubscriptExpression) {
     super(pFileLocation, pType, pArrayExpression, pSubscriptExpression);
@@ -41,6 +41,7 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JBooleanLiteralExpression extends ALiteralExpression implements JLiteralExpression {
 
+  private static final long serialVersionUID = -7336662865253219744L;
 
   final Boolean value;
 
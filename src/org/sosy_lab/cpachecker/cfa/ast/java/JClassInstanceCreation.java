@@ -50,6 +50,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JClassOrInterfaceType;
  */
 public class JClassInstanceCreation extends JMethodInvocationExpression implements JRightHandSide {
 
+  private static final long serialVersionUID = -1982923542770705936L;
+
   //TODO Type Variables , AnonymousClassDeclaration
 
   public JClassInstanceCreation(FileLocation pFileLocation,
@@ -44,6 +44,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
  */
 public class JExpressionStatement extends AExpressionStatement implements JStatement {
 
+  private static final long serialVersionUID = 6450337481399256988L;
+
   public JExpressionStatement(FileLocation pFileLocation, JExpression pExpression) {
     super(pFileLocation, pExpression);
   }
@@ -43,6 +43,8 @@ import com.google.common.base.Optional;
  */
 public class JObjectReferenceReturn extends JReturnStatement {
 
+  private static final long serialVersionUID = -8486086258538316135L;
+
   private final JClassType classReference;
 
   public JObjectReferenceReturn(FileLocation pFileLocation, JClassType pClassReference) {
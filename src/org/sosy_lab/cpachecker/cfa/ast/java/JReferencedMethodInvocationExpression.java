@@ -46,6 +46,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JType;
  */
 public class JReferencedMethodInvocationExpression extends JMethodInvocationExpression {
 
+  private static final long serialVersionUID = -812556110104059475L;
+
   private final JIdExpression qualifier;
 
   public JReferencedMethodInvocationExpression(FileLocation pFileLocation, JType pType, JExpression pFunctionName,
@@ -39,6 +39,8 @@ import org.sosy_lab.cpachecker.cfa.types.java.JClassType;
  */
 public class JSuperConstructorInvocation extends JClassInstanceCreation {
 
+  private static final long serialVersionUID = 6032016345260574391L;
+
   public JSuperConstructorInvocation(FileLocation pFileLocation, JClassType pType, JExpression pFunctionName,
       List<? extends JExpression> pParameters, JConstructorDeclaration pDeclaration) {
     super(pFileLocation, pType, pFunctionName, pParameters, pDeclaration);
@@ -31,6 +31,8 @@ import com.google.common.base.Optional;
 
 public class AStatementEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -986617331342251990L;
+
   protected final AStatement statement;
 
   protected AStatementEdge(String pRawStatement, AStatement pStatement,
@@ -31,6 +31,8 @@ import com.google.common.base.Optional;
 
 public class AssumeEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -6671230412240068920L;
+
   private final boolean truthAssumption;
   protected final AExpression expression;
 
@@ -26,20 +26,32 @@ package org.sosy_lab.cpachecker.cfa.model;
 import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.Iterables.getLast;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.sosy_lab.common.UniqueIdGenerator;
 import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
-public class CFANode implements Comparable<CFANode> {
+public class CFANode implements Comparable<CFANode>, Serializable {
+
+  private static final long serialVersionUID = 2540637245423461504L;
 
   private static final UniqueIdGenerator idGenerator = new UniqueIdGenerator();
 
-  private final int nodeNumber;
+  // nodes created by the current thread while local numbering is active,
+  // see startLocalNumbering()
+  private static final ThreadLocal<List<CFANode>> locallyNumberedNodes = new ThreadLocal<>();
+
+  private int nodeNumber;
 
-  private final List<CFAEdge> leavingEdges = new ArrayList<>(1);
-  private final List<CFAEdge> enteringEdges = new ArrayList<>(1);
+  // The edges are not serialized together with the node,
+  // because this would serialize the whole CFA recursively.
+  // Instead, the serialized form of a CFA contains all edges separately.
+  private transient List<CFAEdge> leavingEdges = new ArrayList<>(1);
+  private transient List<CFAEdge> enteringEdges = new ArrayList<>(1);
 
   // is start node of a loop?
   private boolean isLoopStart = false;
@@ -48,8 +60,8 @@ public class CFANode implements Comparable<CFANode> {
   private final String functionName;
 
   // list of summary edges
-  private FunctionSummaryEdge leavingSummaryEdge = null;
-  private FunctionSummaryEdge enteringSummaryEdge = null;
+  private transient FunctionSummaryEdge leavingSummaryEdge = null;
+  private transient FunctionSummaryEdge enteringSummaryEdge = null;
 
   // reverse postorder sort id, smaller if it appears later in sorting
   private int reversePostorderId = 0;
@@ -58,7 +70,69 @@ public class CFANode implements Comparable<CFANode> {
     assert !pFunctionName.isEmpty();
 
     functionName = pFunctionName;
-    nodeNumber = idGenerator.getFreshId();
+
+    List<CFANode> localNodes = locallyNumberedNodes.get();
+    if (localNodes == null) {
+      nodeNumber = idGenerator.getFreshId();
+    } else {
+      nodeNumber = localNodes.size();
+      localNodes.add(this);
+    }
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    leavingEdges = new ArrayList<>(1);
+    enteringEdges = new ArrayList<>(1);
+  }
+
+  /**
+   * Make sure that all nodes that are created from now on get numbers
+   * that are larger than the given one.
+   * This is necessary after nodes were deserialized, because they keep their numbers.
+   */
+  public static void skipNumbersUpTo(int pNodeNumber) {
+    while (idGenerator.getFreshId() < pNodeNumber) {
+      // skip
+    }
+  }
+
+  /**
+   * Let all nodes that are created by the current thread from now on
+   * get preliminary numbers that are only unique within this thread,
+   * until {@link #stopLocalNumbering()} is called.
+   * This allows to create the CFAs of several functions concurrently
+   * and to assign the final node numbers deterministically afterwards
+   * with {@link #assignGlobalNumbers(List)}.
+   */
+  public static void startLocalNumbering() {
+    checkState(locallyNumberedNodes.get() == null, "Local numbering of CFA nodes already started");
+    locallyNumberedNodes.set(new ArrayList<CFANode>());
+  }
+
+  /**
+   * Stop the local numbering that was started with {@link #startLocalNumbering()}
+   * and return all nodes that were created in the meantime, in the order of their creation.
+   */
+  public static List<CFANode> stopLocalNumbering() {
+    List<CFANode> localNodes = locallyNumberedNodes.get();
+    checkState(localNodes != null, "Local numbering of CFA nodes not started");
+    locallyNumberedNodes.remove();
+    return localNodes;
+  }
+
+  /**
+   * Replace the preliminary numbers of nodes created during local numbering
+   * with global ones, such that the nodes get the same numbers
+   * as if they had been created by the current thread right now.
+   * This must be called before the nodes are put into any sorted collection.
+   *
+   * @param nodes The result of {@link #stopLocalNumbering()}.
+   */
+  public static void assignGlobalNumbers(List<CFANode> nodes) {
+    for (CFANode node : nodes) {
+      node.nodeNumber = idGenerator.getFreshId();
+    }
   }
 
   public int getNodeNumber() {
@@ -0,0 +1,96 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa.model;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class CFANodeTest {
+
+  @After
+  public void cleanup() {
+    try {
+      CFANode.stopLocalNumbering();
+    } catch (IllegalStateException e) {
+      // local numbering was not active
+    }
+  }
+
+  @Test
+  public void testLocalNumbersAreIndependentOfGlobalNumbers() {
+    new CFANode("f");
+    CFANode.startLocalNumbering();
+    CFANode first = new CFANode("f");
+    CFANode second = new CFANode("f");
+
+    assertThat(first.getNodeNumber()).isEqualTo(0);
+    assertThat(second.getNodeNumber()).isEqualTo(1);
+    assertThat(CFANode.stopLocalNumbering()).containsExactly(first, second).inOrder();
+  }
+
+  @Test
+  public void testGlobalNumbersAsForSequentialCreation() {
+    CFANode.startLocalNumbering();
+    List<CFANode> localNodes = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      localNodes.add(new CFANode("f"));
+    }
+    CFANode.assignGlobalNumbers(CFANode.stopLocalNumbering());
+
+    CFANode before = localNodes.get(0);
+    CFANode after = new CFANode("f");
+    for (int i = 0; i < localNodes.size(); i++) {
+      assertThat(localNodes.get(i).getNodeNumber()).isEqualTo(before.getNodeNumber() + i);
+    }
+    assertThat(after.getNodeNumber()).isEqualTo(before.getNodeNumber() + localNodes.size());
+  }
+
+  @Test
+  public void testLocalNumberingIsPerThread() throws InterruptedException {
+    CFANode globalNode = new CFANode("f");
+    CFANode.startLocalNumbering();
+    final CFANode[] otherNode = new CFANode[1];
+    Thread other = new Thread() {
+      @Override
+      public void run() {
+        otherNode[0] = new CFANode("g");
+      }
+    };
+    other.start();
+    other.join();
+
+    assertThat(CFANode.stopLocalNumbering()).isEmpty();
+    assertThat(otherNode[0].getNodeNumber()).isGreaterThan(globalNode.getNodeNumber());
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testStopWithoutStart() {
+    CFANode.stopLocalNumbering();
+  }
+}
@@ -34,6 +34,8 @@ import com.google.common.base.Optional;
 
 public class FunctionCallEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = 1123652816990544391L;
+
   protected final AFunctionCall functionCall;
   protected final FunctionSummaryEdge summaryEdge;
 
@@ -28,6 +28,8 @@ import static com.google.common.base.Preconditions.*;
 
 public class FunctionExitNode extends CFANode {
 
+  private static final long serialVersionUID = -3959179513974369093L;
+
   private FunctionEntryNode entryNode;
 
   public FunctionExitNode(String pFunctionName) {
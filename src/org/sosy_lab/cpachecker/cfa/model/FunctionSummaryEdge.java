@@ -31,6 +31,8 @@ import org.sosy_lab.cpachecker.cfa.ast.FileLocation;
 
 public  class FunctionSummaryEdge extends AbstractCFAEdge {
 
+  private static final long serialVersionUID = -3739233753653351153L;
+
   private final AFunctionCall expression;
   private final FunctionEntryNode functionEntry;
 
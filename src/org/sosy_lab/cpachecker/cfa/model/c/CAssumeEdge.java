@@ -33,7 +33,7 @@ import com.google.common.base.Optional;
 
 public class CAssumeEdge extends AssumeEdge {
 
-
+  private static final long serialVersionUID = -5503585331986893588L;
 
   public CAssumeEdge(String pRawStatement, FileLocation pFileLocation, CFANode pPredecessor,
       CFANode pSuccessor, CExpression pExpression, boolean pTruthAssumption) {
@@ -36,6 +36,8 @@ import com.google.common.base.Optional;
 
 public class CFunctionEntryNode extends FunctionEntryNode {
 
+  private static final long serialVersionUID = 2842145920804682872L;
+
   public CFunctionEntryNode(final FileLocation pFileLocation,
       final CFunctionDeclaration pFunctionDefinition,
       final FunctionExitNode pExitNode,
@@ -29,6 +29,8 @@ import org.sosy_lab.cpachecker.cfa.model.CFANode;
 
 public class CLabelNode extends CFANode {
 
+  private static final long serialVersionUID = 8892083950079343559L;
+
   private final String label;
 
   public CLabelNode(String pFunctionName, String pLabel) {
@@ -36,6 +36,7 @@ import com.google.common.base.Optional;
 
 public class CReturnStatementEdge extends AReturnStatementEdge {
 
+  private static final long serialVersionUID = 5737066272286118023L;
 
   public CReturnStatementEdge(String pRawStatement, CReturnStatement pRawAST,
       FileLocation pFileLocation, CFANode pPredecessor, FunctionExitNode pSuccessor) {
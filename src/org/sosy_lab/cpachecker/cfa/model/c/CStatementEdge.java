@@ -32,6 +32,7 @@ import com.google.common.base.Optional;
 
 public class CStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = 5805753392018410966L;
 
   public CStatementEdge(String pRawStatement, CStatement pStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFANode pSuccessor) {
@@ -33,6 +33,8 @@ import com.google.common.base.Optional;
 
 public class JAssumeEdge extends AssumeEdge {
 
+  private static final long serialVersionUID = -6542536643286498561L;
+
   public JAssumeEdge(String pRawStatement, FileLocation pFileLocation, CFANode pPredecessor,
       CFANode pSuccessor, JExpression pExpression, boolean pTruthAssumption) {
 
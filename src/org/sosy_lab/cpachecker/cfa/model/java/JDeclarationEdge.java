@@ -34,7 +34,7 @@ import com.google.common.base.Optional;
 
 public class JDeclarationEdge extends ADeclarationEdge {
 
-
+  private static final long serialVersionUID = -7886750885374479647L;
 
   public JDeclarationEdge(final String pRawSignature, final FileLocation pFileLocation,
       final CFANode pPredecessor, final CFANode pSuccessor, final JDeclaration pDeclaration) {
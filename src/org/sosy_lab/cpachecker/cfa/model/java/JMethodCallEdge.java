@@ -36,7 +36,7 @@ import com.google.common.base.Optional;
 
 public class JMethodCallEdge extends FunctionCallEdge {
 
-
+  private static final long serialVersionUID = -9140333786990328347L;
 
   public JMethodCallEdge(String pRawStatement,
       FileLocation pFileLocation, CFANode pPredecessor, JMethodEntryNode pSuccessor,
@@ -30,6 +30,7 @@ import org.sosy_lab.cpachecker.cfa.model.FunctionReturnEdge;
 
 public class JMethodReturnEdge extends FunctionReturnEdge {
 
+  private static final long serialVersionUID = 7583009974602150870L;
 
   public JMethodReturnEdge(FileLocation pFileLocation,
       FunctionExitNode pPredecessor, CFANode pSuccessor,
@@ -32,6 +32,7 @@ import com.google.common.base.Optional;
 
 public class JStatementEdge extends AStatementEdge {
 
+  private static final long serialVersionUID = -6397253349071017171L;
 
   public JStatementEdge(String pRawStatement, JStatement pStatement,
       FileLocation pFileLocation, CFANode pPredecessor, CFANode pSuccessor) {
@@ -223,6 +223,12 @@ class ASTConverter {
   // they are in the same run) unique
   private static int anonTypeCounter = 0;
 
+  // Anonymous types inside of functions get names that are unique per function
+  // instead (cf. CFABuilder), such that the names do not depend on whether
+  // and in which order functions are converted concurrently.
+  private static final ThreadLocal<String> functionLocalAnonTypePrefix = new ThreadLocal<>();
+  private static final ThreadLocal<Integer> functionLocalAnonTypeCounter = new ThreadLocal<>();
+
 
   private final Sideassignments sideAssignmentStack;
   private final String staticVariablePrefix;
@@ -1982,7 +1988,7 @@ class ASTConverter {
       if (d.getStorageClass() == IASTDeclSpecifier.sc_typedef) {
         name += ((IASTSimpleDeclaration)d.getParent()).getDeclarators()[0].getName().getRawSignature();
       } else {
-        name += anonTypeCounter++;
+        name += getFreshAnonTypeId();
       }
     }
 
@@ -1994,6 +2000,32 @@ class ASTConverter {
     return compositeType;
   }
 
+  /**
+   * Use names for anonymous types that are created by the current thread
+   * which are unique for the given prefix until {@link #stopFunctionLocalAnonTypeNames()}
+   * is called.
+   * The prefix needs to be chosen deterministically and unique per function.
+   */
+  static void startFunctionLocalAnonTypeNames(String prefix) {
+    functionLocalAnonTypePrefix.set(prefix);
+    functionLocalAnonTypeCounter.set(0);
+  }
+
+  static void stopFunctionLocalAnonTypeNames() {
+    functionLocalAnonTypePrefix.remove();
+    functionLocalAnonTypeCounter.remove();
+  }
+
+  private static String getFreshAnonTypeId() {
+    String prefix = functionLocalAnonTypePrefix.get();
+    if (prefix == null) {
+      return Integer.toString(anonTypeCounter++);
+    }
+    int id = functionLocalAnonTypeCounter.get();
+    functionLocalAnonTypeCounter.set(id + 1);
+    return prefix + "_" + id;
+  }
+
   private CEnumType convert(IASTEnumerationSpecifier d) {
     List<CEnumerator> list = new ArrayList<>(d.getEnumerators().length);
     Long lastValue = -1L; // initialize with -1, so the first one gets value 0
@@ -2014,7 +2046,7 @@ class ASTConverter {
     // when the enum has no name we create one
     // (this may be the case when the enum declaration is surrounded by a typedef)
     if (name.isEmpty()) {
-      name = "__anon_type_" + anonTypeCounter++;
+      name = "__anon_type_" + getFreshAnonTypeId();
     }
 
     CEnumType enumType = new CEnumType(d.isConst(), d.isVolatile(), list, name, origName);
@@ -27,11 +27,13 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.eclipse.cdt.core.dom.ast.DOMException;
 import org.eclipse.cdt.core.dom.ast.IASTDeclSpecifier;
@@ -96,13 +98,17 @@ class ASTTypeConverter {
     filePrefix = pFilePrefix;
     niceFileNameFunction = pNiceFileNameFunction;
     if (!typeConversions.containsKey(filePrefix)) {
-      typeConversions.put(filePrefix, new IdentityHashMap<IType, CType>());
+      typeConversions.putIfAbsent(filePrefix,
+          Collections.synchronizedMap(new IdentityHashMap<IType, CType>()));
     }
   }
 
   /** cache for all ITypes, so that they don't have to be parsed again and again
-   *  (Eclipse seems to give us identical objects for identical types already). */
-  private final static Map<String, Map<IType, CType>> typeConversions = new HashMap<>();
+   *  (Eclipse seems to give us identical objects for identical types already).
+   *  Function bodies may be converted concurrently, so all accesses to the maps
+   *  are synchronized on the map, and a type is converted completely
+   *  while holding this lock (cf. {@link #convert(IType)}). */
+  private final static ConcurrentMap<String, Map<IType, CType>> typeConversions = new ConcurrentHashMap<>();
 
   /**
    * This can be used to rename a CType in case of Types with equal names but
@@ -113,24 +119,33 @@ class ASTTypeConverter {
   }
 
   static IType getTypeFromTypeConversion(CType ourCType, String filePrefix) {
-    for (Entry<IType, CType> entry : typeConversions.get(filePrefix).entrySet()) {
-      if (ourCType.equals(entry.getValue())) {
-        return entry.getKey();
+    Map<IType, CType> conversions = typeConversions.get(filePrefix);
+    synchronized (conversions) {
+      for (Entry<IType, CType> entry : conversions.entrySet()) {
+        if (ourCType.equals(entry.getValue())) {
+          return entry.getKey();
+        }
       }
     }
     return null;
   }
 
   CType convert(IType t) {
-    CType result = typeConversions.get(filePrefix).get(t);
-    if (result == null) {
-      result = checkNotNull(convert0(t));
-      // re-check, in some cases we updated the map already
-      if (!typeConversions.get(filePrefix).containsKey(t)) {
-        typeConversions.get(filePrefix).put(t, result);
+    Map<IType, CType> conversions = typeConversions.get(filePrefix);
+    // Hold the lock during the whole conversion, such that no other thread
+    // can see the preliminary entry that convert0 adds for composite types
+    // or convert the same type a second time.
+    synchronized (conversions) {
+      CType result = conversions.get(t);
+      if (result == null) {
+        result = checkNotNull(convert0(t));
+        // re-check, in some cases we updated the map already
+        if (!conversions.containsKey(t)) {
+          conversions.put(t, result);
+        }
       }
+      return result;
     }
-    return result;
   }
 
   /** converts types BOOL, INT,..., PointerTypes, ComplexTypes */
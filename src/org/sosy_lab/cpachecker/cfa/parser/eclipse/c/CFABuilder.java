@@ -31,6 +31,11 @@ import java.util.List;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -45,8 +50,10 @@ import org.eclipse.cdt.core.dom.ast.IASTProblemDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclSpecifier;
 import org.eclipse.cdt.core.dom.ast.IASTSimpleDeclaration;
 import org.eclipse.cdt.core.dom.ast.IASTTranslationUnit;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.Triple;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.log.LogManager;
@@ -70,11 +77,13 @@ import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.exceptions.CParserException;
 
 import com.google.common.base.Function;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Builder to traverse AST.
@@ -107,20 +116,29 @@ class CFABuilder extends ASTVisitor {
   private final CSourceOriginMapping sourceOriginMapping;
 
   private final MachineModel machine;
+  private final LogManager parentLogger;
   private final LogManagerWithoutDuplicates logger;
   private final CheckBindingVisitor checkBinding;
 
   private final Configuration config;
+  private final int threads;
 
   private boolean encounteredAsm = false;
+  private boolean foundUndefinedIdentifiers = false;
   private Sideassignments sideAssignmentStack = null;
 
+  /**
+   * @param pThreads The number of threads that are used for building
+   *    the CFAs of the functions concurrently (1 for sequential building).
+   */
   public CFABuilder(Configuration pConfig, LogManager pLogger,
       Function<String, String> pNiceFileNameFunction,
       CSourceOriginMapping pSourceOriginMapping,
-      MachineModel pMachine) {
+      MachineModel pMachine, int pThreads) {
 
+    parentLogger = pLogger;
     logger = new LogManagerWithoutDuplicates(pLogger);
+    threads = pThreads;
     niceFileNameFunction = pNiceFileNameFunction;
     sourceOriginMapping = pSourceOriginMapping;
     machine = pMachine;
@@ -307,6 +325,8 @@ class CFABuilder extends ASTVisitor {
       ((CDeclaration)decl.getFirst()).getType().accept(fillInAllBindingsVisitor);
     }
 
+    boolean buildConcurrently = threads > 1;
+    List<FunctionToBuild> functions = new ArrayList<>();
     for (Triple<List<IASTFunctionDefinition>, String, GlobalScope> triple : functionDeclarations) {
       GlobalScope actScope = triple.getThird();
 
@@ -318,21 +338,38 @@ class CFABuilder extends ASTVisitor {
       ImmutableMap<String, CTypeDefDeclaration> actTypeDefs = actScope.getTypeDefs();
       ImmutableMap<String, CSimpleDeclaration> actVars = actScope.getGlobalVars();
       for (IASTFunctionDefinition declaration : triple.getFirst()) {
-          handleFunctionDefinition(actScope,
+        FunctionToBuild function = handleFunctionDefinition(actScope,
                                    triple.getSecond(),
                                    declaration,
                                    actFunctions,
                                    actTypes,
                                    actTypeDefs,
-                                   actVars);
+                                   actVars,
+                                   functions.size(),
+                                   buildConcurrently);
+        functions.add(function);
+        if (!buildConcurrently) {
+          function.build();
+          addFunction(function);
+        }
+      }
+    }
+
+    if (buildConcurrently) {
+      // CDT resolves bindings and types lazily, which is not thread-safe,
+      // so we let it do this for all functions on this thread first.
+      ResolveBindingsVisitor resolveBindings = new ResolveBindingsVisitor();
+      for (FunctionToBuild function : functions) {
+        function.declaration.accept(resolveBindings);
       }
+      buildFunctionsConcurrently(functions);
     }
 
     if (encounteredAsm) {
       logger.log(Level.WARNING, "Inline assembler ignored, analysis is probably unsound!");
     }
 
-    if (checkBinding.foundUndefinedIdentifiers()) {
+    if (checkBinding.foundUndefinedIdentifiers() || foundUndefinedIdentifiers) {
       throw new CParserException("Invalid C code because of undefined identifiers mentioned above.");
     }
 
@@ -344,27 +381,81 @@ class CFABuilder extends ASTVisitor {
     return result;
   }
 
-  private void handleFunctionDefinition(final GlobalScope actScope,
+  /**
+   * Create the builder for the CFA of a function.
+   *
+   * @param index The index of this function in the program,
+   *    which is used for naming anonymous types inside of it.
+   * @param concurrent Whether the builder will run concurrently to other builders.
+   */
+  private FunctionToBuild handleFunctionDefinition(final GlobalScope actScope,
                                         String fileName,
                                         IASTFunctionDefinition declaration,
                                         ImmutableMap<String, CFunctionDeclaration> functions,
                                         ImmutableMap<String, CComplexTypeDeclaration> types,
                                         ImmutableMap<String, CTypeDefDeclaration> typedefs,
-                                        ImmutableMap<String, CSimpleDeclaration> globalVars) {
+                                        ImmutableMap<String, CSimpleDeclaration> globalVars,
+                                        int index,
+                                        boolean concurrent) {
 
     FunctionScope localScope = new FunctionScope(functions, types, typedefs, globalVars, fileName);
     CFAFunctionBuilder functionBuilder;
+    CheckBindingVisitor functionCheckBinding = checkBinding;
 
     try {
-      functionBuilder = new CFAFunctionBuilder(config, logger, localScope, niceFileNameFunction,
-          sourceOriginMapping,
-          machine, fileName, sideAssignmentStack, checkBinding);
+      if (!concurrent) {
+        functionBuilder = new CFAFunctionBuilder(config, logger, localScope, niceFileNameFunction,
+            sourceOriginMapping,
+            machine, fileName, sideAssignmentStack, checkBinding);
+      } else {
+        // the builder will run on another thread,
+        // so it must not share any mutable state with other builders
+        functionCheckBinding = new CheckBindingVisitor(parentLogger);
+        functionBuilder = new CFAFunctionBuilder(config, new LogManagerWithoutDuplicates(parentLogger),
+            localScope, niceFileNameFunction,
+            sourceOriginMapping,
+            machine, fileName, new Sideassignments(), functionCheckBinding);
+      }
     } catch (InvalidConfigurationException e) {
       throw new CFAGenerationRuntimeException("Invalid configuration");
     }
 
-    declaration.accept(functionBuilder);
+    return new FunctionToBuild(declaration, actScope, functionBuilder, functionCheckBinding, index);
+  }
+
+  /**
+   * Build the CFAs of the given functions on several threads.
+   * The results are added to the program in the given order,
+   * such that the final node numbers are the same as for sequential building.
+   */
+  private void buildFunctionsConcurrently(List<FunctionToBuild> functions) {
+    // important to use daemon threads here, because an exception may leave the tasks running
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, functions.size()),
+        Threads.threadFactoryBuilder().setDaemon(true).setNameFormat("CFABuilder-worker-%d").build());
+    try {
+      List<Future<FunctionToBuild>> results = new ArrayList<>(functions.size());
+      for (FunctionToBuild function : functions) {
+        results.add(executor.submit(function));
+      }
+
+      for (Future<FunctionToBuild> result : results) {
+        FunctionToBuild function = Uninterruptibles.getUninterruptibly(result);
+        CFANode.assignGlobalNumbers(function.locallyNumberedNodes);
+        addFunction(function);
+      }
 
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t);
+
+      throw new UnexpectedCheckedException("building CFA of function", t);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void addFunction(final FunctionToBuild function) {
+    CFAFunctionBuilder functionBuilder = function.functionBuilder;
     FunctionEntryNode startNode = functionBuilder.getStartNode();
     String functionName = startNode.getFunctionName();
 
@@ -373,17 +464,72 @@ class CFABuilder extends ASTVisitor {
           + " in " + startNode.getFileLocation() + " and " + cfas.get(functionName).getFileLocation());
     }
     cfas.put(functionName, startNode);
-    cfaNodes.putAll(functionName, functionBuilder.getCfaNodes());
+    cfaNodes.putAll(functionName, function.cfaNodes);
     globalDeclarations.addAll(from(functionBuilder.getGlobalDeclarations()).transform(new Function<Pair<ADeclaration, String>, Triple<ADeclaration, String, GlobalScope>>() {
 
       @Override
       public Triple<ADeclaration, String, GlobalScope> apply(Pair<ADeclaration, String> pInput) {
-        return Triple.of(pInput.getFirst(), pInput.getSecond(), actScope);
+        return Triple.of(pInput.getFirst(), pInput.getSecond(), function.scope);
       }}).toList());
     globalDecls.addAll(functionBuilder.getGlobalDeclarations());
 
     encounteredAsm |= functionBuilder.didEncounterAsm();
-    functionBuilder.finish();
+    foundUndefinedIdentifiers |= function.checkBinding.foundUndefinedIdentifiers();
+  }
+
+  /**
+   * The CFA of a single function, which can be built independently
+   * of the CFAs of all other functions.
+   */
+  private static class FunctionToBuild implements Callable<FunctionToBuild> {
+
+    private final IASTFunctionDefinition declaration;
+    private final GlobalScope scope;
+    private final CFAFunctionBuilder functionBuilder;
+    private final CheckBindingVisitor checkBinding;
+    private final int index;
+
+    private Set<CFANode> cfaNodes = null;
+    private List<CFANode> locallyNumberedNodes = null;
+
+    private FunctionToBuild(IASTFunctionDefinition pDeclaration, GlobalScope pScope,
+        CFAFunctionBuilder pFunctionBuilder, CheckBindingVisitor pCheckBinding, int pIndex) {
+      declaration = pDeclaration;
+      scope = pScope;
+      functionBuilder = pFunctionBuilder;
+      checkBinding = pCheckBinding;
+      index = pIndex;
+    }
+
+    /**
+     * Build the CFA on the current thread.
+     * Anonymous types get names that do not depend on other functions,
+     * such that they are the same no matter whether functions are built concurrently.
+     */
+    private void build() {
+      ASTConverter.startFunctionLocalAnonTypeNames(Integer.toString(index));
+      try {
+        declaration.accept(functionBuilder);
+      } finally {
+        ASTConverter.stopFunctionLocalAnonTypeNames();
+      }
+      cfaNodes = functionBuilder.getCfaNodes();
+      functionBuilder.finish();
+    }
+
+    /**
+     * Build the CFA on the current thread with preliminary node numbers.
+     */
+    @Override
+    public FunctionToBuild call() {
+      CFANode.startLocalNumbering();
+      try {
+        build();
+      } finally {
+        locallyNumberedNodes = CFANode.stopLocalNumbering();
+      }
+      return this;
+    }
   }
 
   @Override
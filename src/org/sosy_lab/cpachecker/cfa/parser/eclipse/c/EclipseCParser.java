@@ -32,6 +32,11 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.eclipse.cdt.core.dom.ast.IASTCompoundStatement;
 import org.eclipse.cdt.core.dom.ast.IASTDeclaration;
@@ -54,6 +59,8 @@ import org.eclipse.cdt.internal.core.parser.InternalParserUtil;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContent;
 import org.eclipse.cdt.internal.core.parser.scanner.InternalFileContentProvider;
 import org.eclipse.core.runtime.CoreException;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.io.Path;
@@ -72,8 +79,10 @@ import org.sosy_lab.cpachecker.exceptions.CParserException;
 import com.google.common.base.Function;
 import com.google.common.base.Functions;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.Uninterruptibles;
 
 /**
  * Wrapper for Eclipse CDT 7.0 and 8.* (internal version number since 5.2.*)
@@ -88,16 +97,18 @@ class EclipseCParser implements CParser {
 
   private final LogManager logger;
   private final Configuration config;
+  private final int threads;
 
   private final Timer parseTimer = new Timer();
   private final Timer cfaTimer = new Timer();
 
   public EclipseCParser(Configuration pConfig, LogManager pLogger,
-      Dialect dialect, MachineModel pMachine) {
+      Dialect dialect, MachineModel pMachine, int pThreads) {
 
     this.logger = pLogger;
     this.machine = pMachine;
     this.config = pConfig;
+    this.threads = pThreads;
 
     switch (dialect) {
     case C99:
@@ -140,9 +151,24 @@ class EclipseCParser implements CParser {
   @Override
   public ParseResult parseFile(List<FileToParse> pFilenames, CSourceOriginMapping sourceOriginMapping) throws CParserException, IOException, InvalidConfigurationException {
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>();
-    for (FileToParse f: pFilenames) {
-      astUnits.add(parse(wrapFile(f.getFileName())));
+    List<IASTTranslationUnit> astUnits;
+    if (threads > 1 && pFilenames.size() > 1) {
+      List<Callable<IASTTranslationUnit>> tasks = new ArrayList<>(pFilenames.size());
+      for (final FileToParse f : pFilenames) {
+        tasks.add(new Callable<IASTTranslationUnit>() {
+            @Override
+            public IASTTranslationUnit call() throws CParserException, IOException {
+              return parse0(wrapFile(f.getFileName()));
+            }
+          });
+      }
+      astUnits = parseConcurrently(tasks);
+
+    } else {
+      astUnits = new ArrayList<>();
+      for (FileToParse f: pFilenames) {
+        astUnits.add(parse(wrapFile(f.getFileName())));
+      }
     }
     return buildCFA(astUnits, sourceOriginMapping);
   }
@@ -150,13 +176,66 @@ class EclipseCParser implements CParser {
   @Override
   public ParseResult parseString(List<FileContentToParse> codeFragments, CSourceOriginMapping sourceOriginMapping) throws CParserException, InvalidConfigurationException {
 
-    List<IASTTranslationUnit> astUnits = new ArrayList<>();
-    for (FileContentToParse f : codeFragments) {
-      astUnits.add(parse(wrapCode(f)));
+    List<IASTTranslationUnit> astUnits;
+    if (threads > 1 && codeFragments.size() > 1) {
+      List<Callable<IASTTranslationUnit>> tasks = new ArrayList<>(codeFragments.size());
+      for (final FileContentToParse f : codeFragments) {
+        tasks.add(new Callable<IASTTranslationUnit>() {
+            @Override
+            public IASTTranslationUnit call() throws CParserException {
+              return parse0(wrapCode(f));
+            }
+          });
+      }
+      try {
+        astUnits = parseConcurrently(tasks);
+      } catch (IOException e) {
+        throw new AssertionError("Parsing code fragments does not read files", e);
+      }
+
+    } else {
+      astUnits = new ArrayList<>();
+      for (FileContentToParse f : codeFragments) {
+        astUnits.add(parse(wrapCode(f)));
+      }
     }
     return buildCFA(astUnits, sourceOriginMapping);
   }
 
+  /**
+   * Run the given parsing tasks on several threads
+   * and return the translation units in the order of the tasks.
+   * The parse timer measures the wall time of all tasks together.
+   */
+  private List<IASTTranslationUnit> parseConcurrently(List<Callable<IASTTranslationUnit>> tasks)
+      throws CParserException, IOException {
+    parseTimer.start();
+    // important to use daemon threads here, because an exception may leave the tasks running
+    ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, tasks.size()),
+        Threads.threadFactoryBuilder().setDaemon(true).setNameFormat("CParser-worker-%d").build());
+    try {
+      List<Future<IASTTranslationUnit>> results = new ArrayList<>(tasks.size());
+      for (Callable<IASTTranslationUnit> task : tasks) {
+        results.add(executor.submit(task));
+      }
+
+      List<IASTTranslationUnit> astUnits = new ArrayList<>(tasks.size());
+      for (Future<IASTTranslationUnit> result : results) {
+        astUnits.add(Uninterruptibles.getUninterruptibly(result));
+      }
+      return astUnits;
+
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, CParserException.class, IOException.class);
+
+      throw new UnexpectedCheckedException("parsing of source file", t);
+    } finally {
+      executor.shutdownNow();
+      parseTimer.stop();
+    }
+  }
+
   /**
    * This method parses a single file where no prefix for static variables is needed.
    */
@@ -263,6 +342,18 @@ class EclipseCParser implements CParser {
 
   private IASTTranslationUnit parse(FileContent codeReader) throws CParserException {
     parseTimer.start();
+    try {
+      return parse0(codeReader);
+    } finally {
+      parseTimer.stop();
+    }
+  }
+
+  /**
+   * Parse the given code without measuring the time,
+   * this method may be called concurrently.
+   */
+  private IASTTranslationUnit parse0(FileContent codeReader) throws CParserException {
     try {
       IASTTranslationUnit result = getASTTranslationUnit(codeReader);
 
@@ -291,8 +382,6 @@ class EclipseCParser implements CParser {
       throw new CParserException(e);
     } catch (CoreException e) {
       throw new CParserException(e);
-    } finally {
-      parseTimer.stop();
     }
   }
 
@@ -320,7 +409,7 @@ class EclipseCParser implements CParser {
 
     Function<String, String> niceFileNameFunction = createNiceFileNameFunction(asts);
     try {
-      CFABuilder builder = new CFABuilder(config, logger, niceFileNameFunction, sourceOriginMapping, machine);
+      CFABuilder builder = new CFABuilder(config, logger, niceFileNameFunction, sourceOriginMapping, machine, threads);
 
       // we don't need any file prefix if we only have one file
       if (asts.size() == 1) {
@@ -0,0 +1,121 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cfa.parser.eclipse.c;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.eclipse.cdt.core.dom.ast.ASTVisitor;
+import org.eclipse.cdt.core.dom.ast.IASTExpression;
+import org.eclipse.cdt.core.dom.ast.IASTName;
+import org.eclipse.cdt.core.dom.ast.IArrayType;
+import org.eclipse.cdt.core.dom.ast.IBinding;
+import org.eclipse.cdt.core.dom.ast.ICompositeType;
+import org.eclipse.cdt.core.dom.ast.IEnumerator;
+import org.eclipse.cdt.core.dom.ast.IField;
+import org.eclipse.cdt.core.dom.ast.IFunction;
+import org.eclipse.cdt.core.dom.ast.IFunctionType;
+import org.eclipse.cdt.core.dom.ast.IPointerType;
+import org.eclipse.cdt.core.dom.ast.IQualifierType;
+import org.eclipse.cdt.core.dom.ast.IType;
+import org.eclipse.cdt.core.dom.ast.ITypedef;
+import org.eclipse.cdt.core.dom.ast.IVariable;
+
+/**
+ * Visitor that resolves the bindings of all names and the types of all
+ * expressions in a part of the AST, including everything that is reachable
+ * from these types (e.g., fields).
+ *
+ * CDT computes this information lazily and caches it in the AST and
+ * in its scopes, which is not thread-safe.
+ * This visitor is used before the CFAs of several functions are built
+ * concurrently, such that the builders afterwards only read from the AST.
+ */
+class ResolveBindingsVisitor extends ASTVisitor {
+
+  private final Set<IType> visitedTypes = Collections.newSetFromMap(new IdentityHashMap<IType, Boolean>());
+
+  ResolveBindingsVisitor() {
+    super(false);
+    shouldVisitNames = true;
+    shouldVisitExpressions = true;
+  }
+
+  @Override
+  public int visit(IASTName pName) {
+    resolve(pName.resolveBinding());
+    return PROCESS_CONTINUE;
+  }
+
+  @Override
+  public int visit(IASTExpression pExpression) {
+    resolve(pExpression.getExpressionType());
+    return PROCESS_CONTINUE;
+  }
+
+  private void resolve(IBinding pBinding) {
+    if (pBinding instanceof IVariable) {
+      resolve(((IVariable)pBinding).getType());
+    } else if (pBinding instanceof IFunction) {
+      resolve(((IFunction)pBinding).getType());
+    } else if (pBinding instanceof IType) {
+      resolve((IType)pBinding);
+    } else if (pBinding instanceof IEnumerator) {
+      ((IEnumerator)pBinding).getValue();
+    }
+  }
+
+  private void resolve(IType pType) {
+    if (pType == null || !visitedTypes.add(pType)) {
+      return;
+    }
+
+    if (pType instanceof IPointerType) {
+      resolve(((IPointerType)pType).getType());
+
+    } else if (pType instanceof IArrayType) {
+      ((IArrayType)pType).getSize();
+      resolve(((IArrayType)pType).getType());
+
+    } else if (pType instanceof ITypedef) {
+      resolve(((ITypedef)pType).getType());
+
+    } else if (pType instanceof IQualifierType) {
+      resolve(((IQualifierType)pType).getType());
+
+    } else if (pType instanceof IFunctionType) {
+      IFunctionType functionType = (IFunctionType)pType;
+      resolve(functionType.getReturnType());
+      for (IType parameterType : functionType.getParameterTypes()) {
+        resolve(parameterType);
+      }
+
+    } else if (pType instanceof ICompositeType) {
+      for (IField field : ((ICompositeType)pType).getFields()) {
+        resolve(field.getType());
+      }
+    }
+  }
+}
@@ -43,6 +43,8 @@ import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
  */
 class CProgramCounterValueAssumeEdge extends CAssumeEdge implements ProgramCounterValueAssumeEdge {
 
+  private static final long serialVersionUID = -816688565892425912L;
+
   /**
    * The program counter value assumed.
    */
@@ -47,6 +47,8 @@ import com.google.common.base.Preconditions;
  */
 public class SingleLoopHead extends CFANode {
 
+  private static final long serialVersionUID = 2333698713286347924L;
+
   /**
    * The program counter value assignment edges leading to the loop head.
    */
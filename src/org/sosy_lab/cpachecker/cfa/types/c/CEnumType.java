@@ -26,6 +26,9 @@ package org.sosy_lab.cpachecker.cfa.types.c;
 import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.Iterables.transform;
 
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
@@ -40,9 +43,10 @@ import org.sosy_lab.cpachecker.cfa.ast.c.CSimpleDeclarationVisitor;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 
-public final class CEnumType implements CComplexType {
+public final class CEnumType implements CComplexType, Serializable {
 
-  private final ImmutableList<CEnumerator> enumerators;
+  private static final long serialVersionUID = -986078271714119880L;
+  private transient ImmutableList<CEnumerator> enumerators;
   private final String name;
   private final String origName;
   private boolean isConst;
@@ -123,6 +127,8 @@ public final class CEnumType implements CComplexType {
 
   public static final class CEnumerator extends AbstractSimpleDeclaration implements CSimpleDeclaration {
 
+    private static final long serialVersionUID = -2526725372840523651L;
+
     private final @Nullable Long  value;
     private CEnumType             enumType;
     private final String         qualifiedName;
@@ -283,4 +289,16 @@ public final class CEnumType implements CComplexType {
   public CEnumType getCanonicalType(boolean pForceConst, boolean pForceVolatile) {
     return new CEnumType(isConst || pForceConst, isVolatile || pForceVolatile, enumerators, name, origName);
   }
+
+  private void writeObject(java.io.ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+
+    out.writeObject(new ArrayList<>(enumerators));
+  }
+
+  @SuppressWarnings("unchecked")
+  private void readObject(java.io.ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    enumerators = ImmutableList.copyOf((ArrayList<CEnumerator>)in.readObject());
+  }
 }
@@ -26,17 +26,29 @@ package org.sosy_lab.cpachecker.core.algorithm;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
 import org.sosy_lab.common.Classes;
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.ClassOption;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -56,14 +68,21 @@ import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.StopOperator;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.cpa.arg.ARGMergeJoinCPAEnabledAnalysis;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.util.AbstractStates;
+import org.sosy_lab.cpachecker.util.CPAs;
 
 import com.google.common.base.Functions;
 import com.google.common.base.Optional;
+import com.google.common.base.Predicate;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 public class CPAAlgorithm implements Algorithm, StatisticsProvider {
@@ -87,6 +106,10 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     private int   countMerge        = 0;
     private int   countStop         = 0;
     private int   countBreak        = 0;
+    private int   countParallelBatches = 0;
+    private int   maxParallelBatchSize = 0;
+    private int   countSkippedExpansions = 0;
+    private int   countAdjustedInWorkers = 0;
 
     @Override
     public String getName() {
@@ -110,6 +133,12 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       out.println("Number of times merged:          " + countMerge);
       out.println("Number of times stopped:         " + countStop);
       out.println("Number of times breaked:         " + countBreak);
+      if (countParallelBatches > 0) {
+        out.println("Number of parallel batches:      " + countParallelBatches);
+        out.println("Max size of parallel batch:      " + maxParallelBatchSize);
+        out.println("Number of discarded expansions:  " + countSkippedExpansions);
+        out.println("Number of parallel adjustments:  " + countAdjustedInWorkers);
+      }
       out.println();
       out.println("Total time for CPA algorithm:     " + totalTimer + " (Max: " + totalTimer.getMaxTime().formatAs(TimeUnit.SECONDS) + ")");
       out.println("  Time for choose from waitlist:  " + chooseTimer);
@@ -138,6 +167,21 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
         + " Useful for incomplete analysis with no counterexample checking.")
     private boolean reportFalseAsUnknown = false;
 
+    @Option(secure=true, name="parallelExploration.threads",
+        description="Number of threads that compute the abstract successors of several states"
+        + " from the waitlist in parallel (1 means sequential exploration)."
+        + " If all precision adjustments are thread-safe, the precision of the successors is adjusted"
+        + " by these threads, too, except for target states, for which it is done sequentially."
+        + " Merge, stop, and adding to the reached set are done sequentially and in waitlist order."
+        + " Transfer relations that are not thread-safe (e.g., of the predicate analysis)"
+        + " are called by one thread at a time."
+        + " With BAM, the outermost block is explored in parallel, which has no effect"
+        + " if a wrapped transfer relation is not thread-safe or with cpa.bam.handleRecursiveProcedures."
+        + " Note that the states of a batch are expanded before the successors of the first one are added,"
+        + " so the exploration order (and thus, e.g., the first counterexample found) may differ from a sequential run.")
+    @IntegerOption(min=1)
+    private int parallelThreads = 1;
+
     private final ForcedCovering forcedCovering;
 
     private final ConfigurableProgramAnalysis cpa;
@@ -166,7 +210,8 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     }
 
     public CPAAlgorithm newInstance() {
-      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener, reportFalseAsUnknown);
+      return new CPAAlgorithm(cpa, logger, shutdownNotifier, forcedCovering, iterationListener, reportFalseAsUnknown,
+          parallelThreads);
     }
   }
 
@@ -198,11 +243,26 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private final AlgorithmStatus status;
 
+  private final int parallelThreads;
+
+  /**
+   * Lock that serializes calls to the transfer relation in parallel exploration
+   * if not all transfer relations of the CPA are thread-safe, null otherwise.
+   */
+  private final @Nullable Lock transferLock;
+
+  /**
+   * Whether the worker threads of the parallel exploration adjust the precision
+   * of the successors, which is the case if all precision adjustments of the CPA are thread-safe.
+   */
+  private final boolean adjustPrecisionInWorkers;
+
   private CPAAlgorithm(ConfigurableProgramAnalysis cpa, LogManager logger,
       ShutdownNotifier pShutdownNotifier,
       ForcedCovering pForcedCovering,
       AlgorithmIterationListener pIterationListener,
-      boolean pIsImprecise) {
+      boolean pIsImprecise,
+      int pParallelThreads) {
 
     this.cpa = cpa;
     this.logger = logger;
@@ -210,12 +270,50 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
     this.forcedCovering = pForcedCovering;
     this.iterationListener = pIterationListener;
     status = AlgorithmStatus.SOUND_AND_PRECISE.withPrecise(!pIsImprecise);
+    parallelThreads = pParallelThreads;
+
+    if (parallelThreads > 1 && !hasOnlyThreadSafeTransferRelations(cpa)) {
+      logger.log(Level.WARNING, "Not all transfer relations of the analysis are thread-safe,"
+          + " successors of different states will not be computed concurrently.");
+      transferLock = new ReentrantLock();
+    } else {
+      transferLock = null;
+    }
+
+    if (parallelThreads > 1 && !hasOnlyThreadSafePrecisionAdjustments(cpa)) {
+      logger.log(Level.WARNING, "Not all precision adjustments of the analysis are thread-safe,"
+          + " the precision of successors will be adjusted sequentially.");
+      adjustPrecisionInWorkers = false;
+    } else {
+      adjustPrecisionInWorkers = parallelThreads > 1;
+    }
+  }
+
+  private static boolean hasOnlyThreadSafeTransferRelations(ConfigurableProgramAnalysis pCpa) {
+    return CPAs.asIterable(pCpa).allMatch(new Predicate<ConfigurableProgramAnalysis>() {
+          @Override
+          public boolean apply(ConfigurableProgramAnalysis pInput) {
+            return pInput.getTransferRelation() instanceof ThreadSafeTransferRelation;
+          }
+        });
+  }
+
+  private static boolean hasOnlyThreadSafePrecisionAdjustments(ConfigurableProgramAnalysis pCpa) {
+    return CPAs.asIterable(pCpa).allMatch(new Predicate<ConfigurableProgramAnalysis>() {
+          @Override
+          public boolean apply(ConfigurableProgramAnalysis pInput) {
+            return pInput.getPrecisionAdjustment() instanceof ThreadSafePrecisionAdjustment;
+          }
+        });
   }
 
   @Override
   public AlgorithmStatus run(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     stats.totalTimer.start();
     try {
+      if (parallelThreads > 1) {
+        return runParallel0(reachedSet);
+      }
       return run0(reachedSet);
     } finally {
       stats.totalTimer.stopIfRunning();
@@ -231,10 +329,6 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
   private AlgorithmStatus run0(final ReachedSet reachedSet) throws CPAException, InterruptedException {
     final TransferRelation transferRelation = cpa.getTransferRelation();
-    final MergeOperator mergeOperator = cpa.getMergeOperator();
-    final StopOperator stopOperator = cpa.getStopOperator();
-    final PrecisionAdjustment precisionAdjustment =
-        cpa.getPrecisionAdjustment();
 
     while (reachedSet.hasWaitingState()) {
       shutdownNotifier.shutdownIfNecessary();
@@ -243,11 +337,7 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
 
       // Pick next state using strategy
       // BFS, DFS or top sort according to the configuration
-      int size = reachedSet.getWaitlist().size();
-      if (size >= stats.maxWaitlistSize) {
-        stats.maxWaitlistSize = size;
-      }
-      stats.countWaitlistSize += size;
+      updateWaitlistStatistics(reachedSet);
 
       stats.chooseTimer.start();
       final AbstractState state = reachedSet.popFromWaitlist();
@@ -258,18 +348,9 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       logger.log(Level.ALL, "Current state is", state, "with precision",
           precision);
 
-      if (forcedCovering != null) {
-        stats.forcedCoveringTimer.start();
-        try {
-          boolean stop = forcedCovering.tryForcedCovering(state, precision, reachedSet);
-
-          if (stop) {
-            // TODO: remove state from reached set?
-            continue;
-          }
-        } finally {
-          stats.forcedCoveringTimer.stop();
-        }
+      if (tryForcedCovering(state, precision, reachedSet)) {
+        // TODO: remove state from reached set?
+        continue;
       }
 
       stats.transferTimer.start();
@@ -282,140 +363,445 @@ public class CPAAlgorithm implements Algorithm, StatisticsProvider {
       // TODO When we have a nice way to mark the analysis result as incomplete,
       // we could continue analysis on a CPATransferException with the next state from waitlist.
 
-      int numSuccessors = successors.size();
-      logger.log(Level.FINER, "Current state has", numSuccessors,
-          "successors");
-      stats.countSuccessors += numSuccessors;
-      stats.maxSuccessors = Math.max(numSuccessors, stats.maxSuccessors);
+      if (handleSuccessors(state, precision, successors, reachedSet)) {
+        return status;
+      }
 
-      for (AbstractState successor : Iterables.consumingIterable(successors)) {
-        logger.log(Level.FINER, "Considering successor of current state");
-        logger.log(Level.ALL, "Successor of", state, "\nis", successor);
+      if (iterationListener != null) {
+        iterationListener.afterAlgorithmIteration(this, reachedSet);
+      }
+    }
+    return status;
+  }
 
-        stats.precisionTimer.start();
-        PrecisionAdjustmentResult precAdjustmentResult;
-        try {
-          Optional<PrecisionAdjustmentResult> precAdjustmentOptional =
-              precisionAdjustment.prec(
-                  successor, precision, reachedSet,
-                  Functions.<AbstractState>identity(),
-                  successor);
-          if (!precAdjustmentOptional.isPresent()) {
+  /**
+   * Variant of {@link #run0(ReachedSet)} that takes up to {@link #parallelThreads}
+   * states from the waitlist at once and computes their successors concurrently.
+   * If all precision adjustments of the CPA are thread-safe, the worker threads
+   * also adjust the precision of the successors, except for target states
+   * (and the successors after them), for which a BREAK has to be handled in waitlist order.
+   * All other steps are done sequentially and in the order in which
+   * the states were taken from the waitlist, such that the reached set is only
+   * modified by the calling thread.
+   */
+  private AlgorithmStatus runParallel0(final ReachedSet reachedSet) throws CPAException, InterruptedException {
+    final TransferRelation transferRelation = cpa.getTransferRelation();
+    final PrecisionAdjustment precisionAdjustment = cpa.getPrecisionAdjustment();
+
+    // important to use daemon threads here, because an exception may leave the tasks running
+    ExecutorService executor = Executors.newFixedThreadPool(parallelThreads,
+        Threads.threadFactoryBuilder().setDaemon(true).setNameFormat("CPAAlgorithm-worker-%d").build());
+    try {
+      while (reachedSet.hasWaitingState()) {
+        shutdownNotifier.shutdownIfNecessary();
+
+        // Pick next states using strategy
+        List<AbstractState> batch = new ArrayList<>(parallelThreads);
+        List<Precision> precisions = new ArrayList<>(parallelThreads);
+
+        while (batch.size() < parallelThreads && reachedSet.hasWaitingState()) {
+          updateWaitlistStatistics(reachedSet);
+
+          stats.chooseTimer.start();
+          final AbstractState state = reachedSet.popFromWaitlist();
+          final Precision precision = reachedSet.getPrecision(state);
+          stats.chooseTimer.stop();
+
+          logger.log(Level.FINER, "Retrieved state from waitlist");
+          logger.log(Level.ALL, "Current state is", state, "with precision",
+              precision);
+
+          if (tryForcedCovering(state, precision, reachedSet)) {
+            stats.countIterations++;
             continue;
           }
-          precAdjustmentResult = precAdjustmentOptional.get();
-        } finally {
-          stats.precisionTimer.stop();
+
+          batch.add(state);
+          precisions.add(precision);
         }
 
-        successor = precAdjustmentResult.abstractState();
-        Precision successorPrecision = precAdjustmentResult.precision();
-        Action action = precAdjustmentResult.action();
-
-        if (action == Action.BREAK) {
-          stats.stopTimer.start();
-          boolean stop;
-          try {
-            stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
-          } finally {
-            stats.stopTimer.stop();
-          }
+        if (batch.isEmpty()) {
+          continue;
+        }
+        stats.countParallelBatches++;
+        stats.maxParallelBatchSize = Math.max(batch.size(), stats.maxParallelBatchSize);
+
+        // The reached set is not modified until all tasks have finished,
+        // so the precision adjustment in the worker threads may read it.
+        List<Future<Expansion>> results = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+          final AbstractState state = batch.get(i);
+          final Precision precision = precisions.get(i);
+          results.add(executor.submit(new Callable<Expansion>() {
+              @Override
+              public Expansion call() throws CPAException, InterruptedException {
+                return expand(transferRelation, precisionAdjustment, state, precision, reachedSet);
+              }
+            }));
+        }
 
-          if (AbstractStates.isTargetState(successor) && stop) {
-            // don't signal BREAK for covered states
-            // no need to call merge and stop either, so just ignore this state
-            // and handle next successor
-            stats.countStop++;
-            logger.log(Level.FINER,
-                "Break was signalled but ignored because the state is covered.");
-            continue;
+        // this also includes the time for the precision adjustment in the worker threads
+        stats.transferTimer.start();
+        List<Expansion> expansions = new ArrayList<>(batch.size());
+        try {
+          for (Future<Expansion> result : results) {
+            expansions.add(result.get());
+          }
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
 
-          } else {
-            stats.countBreak++;
-            logger.log(Level.FINER, "Break signalled, CPAAlgorithm will stop.");
+          throw new UnexpectedCheckedException("parallel computation of abstract successors", t);
+        } finally {
+          for (Future<?> result : results) {
+            result.cancel(true);
+          }
+          stats.transferTimer.stop();
+        }
 
-            // add the new state
-            reachedSet.add(successor, successorPrecision);
+        for (int i = 0; i < batch.size(); i++) {
+          AbstractState state = batch.get(i);
+          Expansion expansion = expansions.get(i);
+          stats.countIterations++;
+
+          if (!reachedSet.contains(state)) {
+            // The state was merged into another one while handling the successors
+            // of a previous state of this batch. The sequential algorithm
+            // would not have expanded it, so we ignore its successors.
+            // The merge may have moved them to the merged state in the ARG,
+            // which will be expanded again anyway.
+            logger.log(Level.FINER, "State was removed from reached set, ignoring its successors");
+            stats.countSkippedExpansions++;
+            expansion.discard();
+            continue;
+          }
 
-            if (!successors.isEmpty()) {
-              // re-add the old state to the waitlist, there are unhandled
-              // successors left that otherwise would be forgotten
-              reachedSet.reAddToWaitlist(state);
+          stats.countAdjustedInWorkers += expansion.adjustedSuccessors.size();
+          if (handleSuccessors(state, precisions.get(i), expansion.numSuccessors,
+              expansion.adjustedSuccessors, expansion.unadjustedSuccessors, reachedSet)) {
+            // re-add the states whose successors were not handled yet,
+            // they will be expanded again, so their current successors are dropped
+            for (int j = i + 1; j < batch.size(); j++) {
+              expansions.get(j).discard();
+              AbstractState unhandledState = batch.get(j);
+              if (reachedSet.contains(unhandledState)) {
+                reachedSet.reAddToWaitlist(unhandledState);
+              }
             }
-
             return status;
           }
+
+          if (iterationListener != null) {
+            iterationListener.afterAlgorithmIteration(this, reachedSet);
+          }
         }
-        assert action == Action.CONTINUE : "Enum Action has unhandled values!";
-
-        Collection<AbstractState> reached = reachedSet.getReached(successor);
-
-        // An optimization, we don't bother merging if we know that the
-        // merge operator won't do anything (i.e., it is merge-sep).
-        if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
-          stats.mergeTimer.start();
-          try {
-            List<AbstractState> toRemove = new ArrayList<>();
-            List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
-
-            logger.log(Level.FINER, "Considering", reached.size(),
-                "states from reached set for merge");
-            for (AbstractState reachedState : reached) {
-              AbstractState mergedState =
-                  mergeOperator.merge(successor, reachedState,
-                      successorPrecision);
-
-              if (!mergedState.equals(reachedState)) {
-                logger.log(Level.FINER,
-                    "Successor was merged with state from reached set");
-                logger.log(Level.ALL, "Merged", successor, "\nand",
-                    reachedState, "\n-->", mergedState);
-                stats.countMerge++;
-
-                toRemove.add(reachedState);
-                toAdd.add(Pair.of(mergedState, successorPrecision));
-              }
-            }
-            reachedSet.removeAll(toRemove);
-            reachedSet.addAll(toAdd);
+      }
+      return status;
 
-            if (mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis) {
-              ((ARGMergeJoinCPAEnabledAnalysis)mergeOperator).cleanUp(reachedSet);
-            }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
 
-          } finally {
-            stats.mergeTimer.stop();
-          }
+  /**
+   * The successors of a state as computed by a worker thread.
+   */
+  private static class Expansion {
+
+    private final int numSuccessors;
+
+    /**
+     * The results of the precision adjustment for the first successors, in order.
+     */
+    private final List<Optional<PrecisionAdjustmentResult>> adjustedSuccessors;
+
+    /**
+     * The remaining successors, whose precision still needs to be adjusted.
+     */
+    private final List<AbstractState> unadjustedSuccessors;
+
+    private Expansion(int pNumSuccessors,
+        List<Optional<PrecisionAdjustmentResult>> pAdjustedSuccessors,
+        List<AbstractState> pUnadjustedSuccessors) {
+      numSuccessors = pNumSuccessors;
+      adjustedSuccessors = pAdjustedSuccessors;
+      unadjustedSuccessors = pUnadjustedSuccessors;
+    }
+
+    /**
+     * Drop successors that were computed in advance but will not be handled.
+     */
+    private void discard() {
+      for (Optional<PrecisionAdjustmentResult> result : adjustedSuccessors) {
+        if (result.isPresent()) {
+          discardSuccessors(Collections.singleton(result.get().abstractState()));
+        }
+      }
+      discardSuccessors(unadjustedSuccessors);
+    }
+  }
+
+  /**
+   * Compute the successors of a state and, if {@link #adjustPrecisionInWorkers} is set,
+   * adjust their precision. This method is called by the worker threads.
+   * The precision adjustment stops at the first target state and after the first BREAK,
+   * the main thread adjusts the precision of the remaining successors,
+   * such that BREAK for target states is handled exactly as in the sequential algorithm.
+   */
+  private Expansion expand(TransferRelation transferRelation, PrecisionAdjustment precisionAdjustment,
+      AbstractState state, Precision precision, ReachedSet reachedSet)
+          throws CPAException, InterruptedException {
+    Collection<? extends AbstractState> successors = computeSuccessors(transferRelation, state, precision);
+
+    List<Optional<PrecisionAdjustmentResult>> adjustedSuccessors = new ArrayList<>();
+    List<AbstractState> unadjustedSuccessors = new ArrayList<>(successors);
+
+    if (adjustPrecisionInWorkers) {
+      Iterator<AbstractState> it = unadjustedSuccessors.iterator();
+      while (it.hasNext()) {
+        AbstractState successor = it.next();
+        if (AbstractStates.isTargetState(successor)) {
+          break;
+        }
+        shutdownNotifier.shutdownIfNecessary();
+
+        Optional<PrecisionAdjustmentResult> result = precisionAdjustment.prec(
+            successor, precision, reachedSet,
+            Functions.<AbstractState>identity(),
+            successor);
+        it.remove();
+        adjustedSuccessors.add(result);
+
+        if (result.isPresent() && result.get().action() == Action.BREAK) {
+          break;
+        }
+      }
+    }
+    return new Expansion(successors.size(), adjustedSuccessors, unadjustedSuccessors);
+  }
+
+  /**
+   * Drop successors that were computed in advance but will not be handled.
+   * The ARG transfer relation has already linked them to their parent,
+   * so they are removed from the ARG again.
+   */
+  private static void discardSuccessors(Collection<? extends AbstractState> successors) {
+    for (AbstractState successor : successors) {
+      if (successor instanceof ARGState && !((ARGState)successor).isDestroyed()) {
+        ((ARGState)successor).removeFromARG();
+      }
+    }
+  }
+
+  private Collection<? extends AbstractState> computeSuccessors(TransferRelation transferRelation,
+      AbstractState state, Precision precision) throws CPAException, InterruptedException {
+    if (transferLock == null) {
+      return transferRelation.getAbstractSuccessors(state, precision);
+    }
+    transferLock.lockInterruptibly();
+    try {
+      return transferRelation.getAbstractSuccessors(state, precision);
+    } finally {
+      transferLock.unlock();
+    }
+  }
+
+  private void updateWaitlistStatistics(final ReachedSet reachedSet) {
+    int size = reachedSet.getWaitlist().size();
+    if (size >= stats.maxWaitlistSize) {
+      stats.maxWaitlistSize = size;
+    }
+    stats.countWaitlistSize += size;
+  }
+
+  private boolean tryForcedCovering(final AbstractState state, final Precision precision,
+      final ReachedSet reachedSet) throws CPAException, InterruptedException {
+    if (forcedCovering == null) {
+      return false;
+    }
+    stats.forcedCoveringTimer.start();
+    try {
+      return forcedCovering.tryForcedCovering(state, precision, reachedSet);
+    } finally {
+      stats.forcedCoveringTimer.stop();
+    }
+  }
+
+  /**
+   * Apply precision adjustment, merge and stop to the successors of a state
+   * and add them to the reached set.
+   * @return true if the analysis should stop because of a BREAK action
+   */
+  private boolean handleSuccessors(final AbstractState state, final Precision precision,
+      final Collection<? extends AbstractState> successors, final ReachedSet reachedSet)
+          throws CPAException, InterruptedException {
+    return handleSuccessors(state, precision, successors.size(),
+        ImmutableList.<Optional<PrecisionAdjustmentResult>>of(), successors, reachedSet);
+  }
+
+  /**
+   * Apply precision adjustment, merge and stop to the successors of a state
+   * and add them to the reached set.
+   * @param numSuccessors the number of successors of the state
+   * @param adjustedSuccessors the results of the precision adjustment
+   *        that a worker thread already applied to the first successors
+   * @param successors the remaining successors, whose precision still needs to be adjusted
+   * @return true if the analysis should stop because of a BREAK action
+   */
+  private boolean handleSuccessors(final AbstractState state, final Precision precision,
+      final int numSuccessors, final List<Optional<PrecisionAdjustmentResult>> adjustedSuccessors,
+      final Collection<? extends AbstractState> successors, final ReachedSet reachedSet)
+          throws CPAException, InterruptedException {
+    final MergeOperator mergeOperator = cpa.getMergeOperator();
+    final StopOperator stopOperator = cpa.getStopOperator();
+    final PrecisionAdjustment precisionAdjustment =
+        cpa.getPrecisionAdjustment();
+
+    logger.log(Level.FINER, "Current state has", numSuccessors,
+        "successors");
+    stats.countSuccessors += numSuccessors;
+    stats.maxSuccessors = Math.max(numSuccessors, stats.maxSuccessors);
+
+    final Iterator<Optional<PrecisionAdjustmentResult>> adjusted = adjustedSuccessors.iterator();
+    final Iterator<? extends AbstractState> unadjusted = Iterables.consumingIterable(successors).iterator();
+    boolean skippedSuccessor = false;
+
+    while (adjusted.hasNext() || unadjusted.hasNext()) {
+      logger.log(Level.FINER, "Considering successor of current state");
+
+      Optional<PrecisionAdjustmentResult> precAdjustmentOptional;
+      if (adjusted.hasNext()) {
+        precAdjustmentOptional = adjusted.next();
+      } else {
+        AbstractState successor = unadjusted.next();
+        logger.log(Level.ALL, "Successor of", state, "\nis", successor);
+
+        stats.precisionTimer.start();
+        try {
+          precAdjustmentOptional =
+              precisionAdjustment.prec(
+                  successor, precision, reachedSet,
+                  Functions.<AbstractState>identity(),
+                  successor);
+        } finally {
+          stats.precisionTimer.stop();
         }
+      }
+      if (!precAdjustmentOptional.isPresent()) {
+        continue;
+      }
+      PrecisionAdjustmentResult precAdjustmentResult = precAdjustmentOptional.get();
+
+      AbstractState successor = precAdjustmentResult.abstractState();
+      if (successor instanceof ARGState && ((ARGState)successor).isDestroyed()) {
+        // A BREAK that a worker thread got for a later successor has removed
+        // this successor from the ARG (cf. ARGPrecisionAdjustment).
+        // The state is re-added to the waitlist below, so it will be recomputed.
+        skippedSuccessor = true;
+        continue;
+      }
+      Precision successorPrecision = precAdjustmentResult.precision();
+      Action action = precAdjustmentResult.action();
 
+      if (action == Action.BREAK) {
         stats.stopTimer.start();
         boolean stop;
         try {
-          stop = stopOperator.stop(successor, reached, successorPrecision);
+          stop = stopOperator.stop(successor, reachedSet.getReached(successor), successorPrecision);
         } finally {
           stats.stopTimer.stop();
         }
 
-        if (stop) {
-          logger.log(Level.FINER,
-              "Successor is covered or unreachable, not adding to waitlist");
+        if (AbstractStates.isTargetState(successor) && stop) {
+          // don't signal BREAK for covered states
+          // no need to call merge and stop either, so just ignore this state
+          // and handle next successor
           stats.countStop++;
+          logger.log(Level.FINER,
+              "Break was signalled but ignored because the state is covered.");
+          continue;
 
         } else {
-          logger.log(Level.FINER,
-              "No need to stop, adding successor to waitlist");
+          stats.countBreak++;
+          logger.log(Level.FINER, "Break signalled, CPAAlgorithm will stop.");
 
-          stats.addTimer.start();
+          // add the new state
           reachedSet.add(successor, successorPrecision);
-          stats.addTimer.stop();
+
+          if (adjusted.hasNext() || unadjusted.hasNext() || skippedSuccessor) {
+            // re-add the old state to the waitlist, there are unhandled
+            // successors left that otherwise would be forgotten
+            reachedSet.reAddToWaitlist(state);
+          }
+
+          return true;
         }
       }
+      assert action == Action.CONTINUE : "Enum Action has unhandled values!";
 
-      if (iterationListener != null) {
-        iterationListener.afterAlgorithmIteration(this, reachedSet);
+      Collection<AbstractState> reached = reachedSet.getReached(successor);
+
+      // An optimization, we don't bother merging if we know that the
+      // merge operator won't do anything (i.e., it is merge-sep).
+      if (mergeOperator != MergeSepOperator.getInstance() && !reached.isEmpty()) {
+        stats.mergeTimer.start();
+        try {
+          List<AbstractState> toRemove = new ArrayList<>();
+          List<Pair<AbstractState, Precision>> toAdd = new ArrayList<>();
+
+          logger.log(Level.FINER, "Considering", reached.size(),
+              "states from reached set for merge");
+          for (AbstractState reachedState : reached) {
+            AbstractState mergedState =
+                mergeOperator.merge(successor, reachedState,
+                    successorPrecision);
+
+            if (!mergedState.equals(reachedState)) {
+              logger.log(Level.FINER,
+                  "Successor was merged with state from reached set");
+              logger.log(Level.ALL, "Merged", successor, "\nand",
+                  reachedState, "\n-->", mergedState);
+              stats.countMerge++;
+
+              toRemove.add(reachedState);
+              toAdd.add(Pair.of(mergedState, successorPrecision));
+            }
+          }
+          reachedSet.removeAll(toRemove);
+          reachedSet.addAll(toAdd);
+
+          if (mergeOperator instanceof ARGMergeJoinCPAEnabledAnalysis) {
+            ((ARGMergeJoinCPAEnabledAnalysis)mergeOperator).cleanUp(reachedSet);
+          }
+
+        } finally {
+          stats.mergeTimer.stop();
+        }
+      }
+
+      stats.stopTimer.start();
+      boolean stop;
+      try {
+        stop = stopOperator.stop(successor, reached, successorPrecision);
+      } finally {
+        stats.stopTimer.stop();
+      }
+
+      if (stop) {
+        logger.log(Level.FINER,
+            "Successor is covered or unreachable, not adding to waitlist");
+        stats.countStop++;
+
+      } else {
+        logger.log(Level.FINER,
+            "No need to stop, adding successor to waitlist");
+
+        stats.addTimer.start();
+        reachedSet.add(successor, successorPrecision);
+        stats.addTimer.stop();
       }
     }
-    return status;
+    return false;
   }
 
   @Override
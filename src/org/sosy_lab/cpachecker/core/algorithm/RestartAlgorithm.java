@@ -28,17 +28,27 @@ import static com.google.common.base.Strings.isNullOrEmpty;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.AbstractStates.IS_TARGET_STATE;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.Triple;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.ConfigurationBuilder;
 import org.sosy_lab.common.configuration.FileOption;
@@ -71,6 +81,8 @@ import org.sosy_lab.cpachecker.util.resources.ResourceLimitChecker;
 
 import com.google.common.base.Splitter;
 import com.google.common.base.Strings;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterators;
 import com.google.common.collect.PeekingIterator;
 
@@ -79,12 +91,16 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   private static final Splitter CONFIG_FILE_CONDITION_SPLITTER = Splitter.on("::").trimResults().limit(2);
 
+  /** How often to report that we are still waiting for the remaining analyses of a portfolio to stop. */
+  private static final long PARALLEL_SHUTDOWN_TIMEOUT_SECONDS = 10;
+
   private static class RestartAlgorithmStatistics implements Statistics {
 
     private final int noOfAlgorithms;
     private final Collection<Statistics> subStats;
     private int noOfAlgorithmsUsed = 0;
     private Timer totalTime = new Timer();
+    private List<ParallelAnalysis> parallelAnalyses = ImmutableList.of();
 
     public RestartAlgorithmStatistics(int pNoOfAlgorithms) {
       noOfAlgorithms = pNoOfAlgorithms;
@@ -123,13 +139,40 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       out.println("Number of algorithms provided:    " + noOfAlgorithms);
       out.println("Number of algorithms used:        " + noOfAlgorithmsUsed);
 
-      printSubStatistics(out, result, reached);
+      if (parallelAnalyses.isEmpty()) {
+        printSubStatistics(out, result, reached);
+        return;
+      }
+
+      out.println("Total time for all algorithms:    " + totalTime);
+      for (ParallelAnalysis analysis : parallelAnalyses) {
+        out.println();
+        String text = "Statistics for algorithm " + analysis.number + " of " + noOfAlgorithms
+            + " (" + analysis.configFile + ")";
+        out.println(text);
+        out.println(Strings.repeat("=", text.length()));
+        out.println("Result of algorithm " + analysis.number + ": " + analysis.getResultDescription());
+        out.println("Total time for algorithm " + analysis.number + ": " + analysis.time);
+
+        if (analysis.statisticsSnapshot != null) {
+          // the analysis was closed already
+          out.print(analysis.statisticsSnapshot);
+        } else {
+          // statistics of each analysis refer to its own reached set
+          printStatisticsCollection(analysis.subStats, out,
+              analysis.isUsed ? result : Result.UNKNOWN, analysis.reached);
+        }
+      }
     }
 
     private void printSubStatistics(PrintStream out, Result result, ReachedSet reached) {
       out.println("Total time for algorithm " + noOfAlgorithmsUsed + ": " + totalTime);
+      printStatisticsCollection(subStats, out, result, reached);
+    }
 
-      for (Statistics s : subStats) {
+    private static void printStatisticsCollection(Collection<Statistics> pStats,
+        PrintStream out, Result result, ReachedSet reached) {
+      for (Statistics s : pStats) {
         String name = s.getName();
         if (!isNullOrEmpty(name)) {
           name = name + " statistics";
@@ -143,12 +186,134 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   }
 
+  /**
+   * One analysis of a portfolio that is run on its own thread
+   * with its own CPA, reached set, and {@link ShutdownNotifier}.
+   */
+  private static class ParallelAnalysis implements Callable<ParallelAnalysis> {
+
+    private final int number;
+    private final Path configFile;
+    private final ShutdownNotifier shutdownNotifier;
+    private final LogManager logger;
+    private final Collection<Statistics> subStats = new ArrayList<>();
+    private final Timer time = new Timer();
+
+    private Configuration config;
+    private Algorithm algorithm;
+    private @Nullable ConfigurableProgramAnalysis cpa;
+    private ReachedSet reached;
+
+    // written by the thread of this analysis and read after its termination
+    private volatile @Nullable AlgorithmStatus status = null;
+    private volatile @Nullable CPAException failure = null;
+    private volatile boolean interrupted = false;
+    private volatile boolean terminated = false;
+    private boolean isUsed = false;
+
+    // statistics printed before the analysis was closed, if it was not used
+    private @Nullable String statisticsSnapshot = null;
+
+    private ParallelAnalysis(int pNumber, Path pConfigFile,
+        ShutdownNotifier pShutdownNotifier, LogManager pLogger) {
+      number = pNumber;
+      configFile = pConfigFile;
+      shutdownNotifier = pShutdownNotifier;
+      logger = pLogger;
+    }
+
+    @Override
+    public ParallelAnalysis call() {
+      time.start();
+      ResourceLimitChecker limits = null;
+      try {
+        // the limits are started on the thread of this analysis,
+        // because a cpu-time limit only measures this thread
+        limits = ResourceLimitChecker.fromConfigurationForCurrentThread(config, logger, shutdownNotifier);
+        limits.start();
+        status = algorithm.run(reached);
+      } catch (InvalidConfigurationException e) {
+        failure = new CPAException("Invalid resource limits", e);
+        logger.logUserException(Level.WARNING, e, "Analysis " + number + " not started");
+      } catch (CPAException e) {
+        failure = e;
+        logger.logUserException(Level.WARNING, e, "Analysis " + number + " not completed");
+      } catch (InterruptedException e) {
+        interrupted = true;
+        logger.logUserException(Level.INFO, e, "Analysis " + number + " stopped");
+      } finally {
+        if (limits != null) {
+          limits.cancel();
+        }
+        time.stop();
+        terminated = true;
+      }
+      return this;
+    }
+
+    /**
+     * Print the statistics of this (unused) analysis to a string
+     * and release the resources of its CPA and algorithm.
+     * Must not be called while the analysis is running.
+     */
+    private void close() {
+      assert !isUsed;
+      ByteArrayOutputStream statisticsOutput = new ByteArrayOutputStream();
+      PrintStream out = new PrintStream(statisticsOutput);
+      RestartAlgorithmStatistics.printStatisticsCollection(subStats, out, Result.UNKNOWN, reached);
+      out.flush();
+      statisticsSnapshot = statisticsOutput.toString();
+
+      if (cpa != null) {
+        CPAs.closeCpaIfPossible(cpa, logger);
+      }
+      CPAs.closeIfPossible(algorithm, logger);
+    }
+
+    /**
+     * Check whether the analysis finished with a verdict that can be trusted,
+     * i.e., a precise counterexample or a sound and complete proof.
+     */
+    private boolean hasConclusiveResult() {
+      if (status == null) {
+        return false;
+      }
+      if (from(reached).anyMatch(IS_TARGET_STATE) && status.isPrecise()) {
+        // If the algorithm is not _precise_, verdict "false" actually means "unknown".
+        return true;
+      }
+      return status.isSound() && !reached.hasWaitingState();
+    }
+
+    private String getResultDescription() {
+      if (failure != null) {
+        return "failed";
+      } else if (interrupted) {
+        return "stopped";
+      } else if (status == null) {
+        return "not finished";
+      } else if (hasConclusiveResult()) {
+        return "conclusive";
+      } else {
+        return "inconclusive";
+      }
+    }
+  }
+
   @Option(secure=true, required=true, description = "List of files with configurations to use. "
       + "A filename can be suffixed with :if-interrupted, :if-failed, and :if-terminated "
       + "which means that this configuration will only be used if the previous configuration ended with a matching condition.")
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private List<Path> configFiles;
 
+  @Option(secure=true, description = "Run all configurations of restartAlgorithm.configFiles "
+      + "at the same time on separate threads instead of one after another (portfolio mode). "
+      + "The first analysis that finishes with a sound result is used and all others are stopped. "
+      + "Conditions like :if-failed are ignored in this mode. "
+      + "The cpu-time limit of each configuration (limits.time.cpu) is applied "
+      + "to the cpu time of the thread of the analysis instead of the whole process.")
+  private boolean runInParallel = false;
+
   private final LogManager logger;
   private final ShutdownNotifier shutdownNotifier;
   private final RestartAlgorithmStatistics stats;
@@ -185,6 +350,10 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     CFANode mainFunction = AbstractStates.extractLocation(pReached.getFirstState());
     assert mainFunction != null : "Location information needed";
 
+    if (runInParallel) {
+      return runPortfolio(reached, mainFunction);
+    }
+
     PeekingIterator<Path> configFilesIterator = Iterators.peekingIterator(configFiles.iterator());
 
     AlgorithmStatus status = AlgorithmStatus.UNSOUND_AND_PRECISE;
@@ -205,7 +374,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
         singleConfigFileName = Paths.get(CONFIG_FILE_CONDITION_SPLITTER.split(singleConfigFileName.toString()).iterator().next());
 
         try {
-          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownNotifier);
+          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(singleConfigFileName, mainFunction, singleShutdownNotifier,
+              stats.noOfAlgorithmsUsed + 1, stats.getSubStatistics());
           currentAlgorithm = currentAlg.getFirst();
           currentCpa = currentAlg.getSecond();
           currentReached = currentAlg.getThird();
@@ -331,6 +501,146 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     return status;
   }
 
+  /**
+   * Portfolio variant of {@link #run(ReachedSet)}:
+   * all configurations are started at once, the first analysis
+   * with a conclusive result wins and all other analyses are stopped.
+   */
+  private AlgorithmStatus runPortfolio(ForwardingReachedSet reached, CFANode mainFunction)
+      throws CPAException, InterruptedException {
+    List<ParallelAnalysis> analyses = new ArrayList<>(configFiles.size());
+    ExecutorService executor = null;
+    stats.totalTime.start();
+    try {
+      for (Path configFile : configFiles) {
+        List<String> parts = CONFIG_FILE_CONDITION_SPLITTER.splitToList(configFile.toString());
+        if (parts.size() == 2) {
+          logger.logf(Level.INFO, "Ignoring condition %s of restart configuration '%s' because all configurations are run in parallel.", parts.get(1), parts.get(0));
+        }
+        Path singleConfigFileName = Paths.get(parts.get(0));
+        ParallelAnalysis analysis = new ParallelAnalysis(analyses.size() + 1, singleConfigFileName,
+            ShutdownNotifier.createWithParent(shutdownNotifier), logger);
+
+        try {
+          analysis.config = createSingleConfig(singleConfigFileName);
+          Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> currentAlg = createNextAlgorithm(analysis.config, mainFunction, analysis.shutdownNotifier,
+              analysis.number, analysis.subStats);
+          analysis.algorithm = currentAlg.getFirst();
+          analysis.cpa = currentAlg.getSecond();
+          analysis.reached = currentAlg.getThird();
+        } catch (InvalidConfigurationException e) {
+          logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + singleConfigFileName.toString() + " is invalid");
+          continue;
+        } catch (IOException e) {
+          logger.logUserException(Level.WARNING, e, "Skipping one analysis because the configuration file " + singleConfigFileName.toString() + " could not be read");
+          continue;
+        }
+
+        if (analysis.algorithm instanceof StatisticsProvider) {
+          ((StatisticsProvider)analysis.algorithm).collectStatistics(analysis.subStats);
+        }
+        analyses.add(analysis);
+        shutdownNotifier.shutdownIfNecessary();
+      }
+
+      stats.parallelAnalyses = ImmutableList.copyOf(analyses);
+      stats.noOfAlgorithmsUsed = analyses.size();
+      if (analyses.isEmpty()) {
+        logger.log(Level.INFO, "No further configuration available.");
+        return AlgorithmStatus.UNSOUND_AND_PRECISE;
+      }
+
+      logger.logf(Level.INFO, "Starting %d analyses in parallel.", analyses.size());
+
+      // important to use daemon threads here, because an analysis may ignore the shutdown request
+      executor = Executors.newFixedThreadPool(analyses.size(),
+          Threads.threadFactoryBuilder().setDaemon(true).setNameFormat("RestartAlgorithm-analysis-%d").build());
+      CompletionService<ParallelAnalysis> completionService = new ExecutorCompletionService<>(executor);
+      for (ParallelAnalysis analysis : analyses) {
+        completionService.submit(analysis);
+      }
+
+      for (int i = 0; i < analyses.size(); i++) {
+        ParallelAnalysis finished;
+        try {
+          finished = completionService.take().get();
+        } catch (ExecutionException e) {
+          Throwable t = e.getCause();
+          Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+
+          throw new UnexpectedCheckedException("parallel analysis of restart algorithm", t);
+        }
+
+        if (finished.hasConclusiveResult()) {
+          logger.logf(Level.INFO, "Analysis %d (%s) finished with a conclusive result, stopping the other analyses.", finished.number, finished.configFile);
+          useResultOf(reached, finished);
+          return finished.status;
+        }
+        logger.logf(Level.INFO, "Analysis %d (%s) finished without a conclusive result.", finished.number, finished.configFile);
+      }
+
+      shutdownNotifier.shutdownIfNecessary();
+
+      // No analysis was conclusive, fall back to the first one that terminated normally.
+      // If none did, behave like the sequential mode after the last configuration.
+      ParallelAnalysis fallback = analyses.get(analyses.size() - 1);
+      for (ParallelAnalysis analysis : analyses) {
+        if (analysis.status != null) {
+          fallback = analysis;
+          break;
+        }
+      }
+      if (fallback.failure != null) {
+        throw fallback.failure;
+      }
+      logger.log(Level.INFO, "No further configuration available.");
+      useResultOf(reached, fallback);
+      return fallback.status != null ? fallback.status : AlgorithmStatus.UNSOUND_AND_PRECISE;
+
+    } finally {
+      for (ParallelAnalysis analysis : analyses) {
+        analysis.shutdownNotifier.requestShutdown("Analysis terminated"); // shutdown any remaining components
+      }
+      if (executor != null) {
+        stopAnalyses(executor);
+      }
+      // release the resources of all analyses whose result is not used,
+      // like the sequential mode does before switching to the next analysis
+      for (ParallelAnalysis analysis : analyses) {
+        if (!analysis.isUsed && (executor == null || analysis.terminated)) {
+          analysis.close();
+        }
+      }
+      stats.totalTime.stop();
+    }
+  }
+
+  private void useResultOf(ForwardingReachedSet reached, ParallelAnalysis analysis) {
+    analysis.isUsed = true;
+    currentAlgorithm = analysis.algorithm;
+    if (reached instanceof HistoryForwardingReachedSet && analysis.cpa != null) {
+      ((HistoryForwardingReachedSet) reached).saveCPA(analysis.cpa);
+    }
+    reached.setDelegate(analysis.reached);
+  }
+
+  /**
+   * Wait for the remaining analyses of a portfolio to react on their shutdown request,
+   * such that they can be closed and their statistics are not printed while they are still running.
+   * If we are interrupted while waiting, the analyses that are still running are not closed.
+   */
+  private void stopAnalyses(ExecutorService executor) {
+    executor.shutdownNow();
+    try {
+      while (!executor.awaitTermination(PARALLEL_SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+        logger.log(Level.WARNING, "Waiting for the remaining parallel analyses to stop.");
+      }
+    } catch (InterruptedException e) {
+      logger.log(Level.WARNING, "Not all parallel analyses stopped, their resources are not released.");
+      Thread.currentThread().interrupt();
+    }
+  }
+
   @Options
   private static class RestartAlgorithmOptions {
 
@@ -364,12 +674,13 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   }
 
-  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier) throws InvalidConfigurationException, CPAException, IOException {
-
-    ReachedSet reached;
-    ConfigurableProgramAnalysis cpa;
-    Algorithm algorithm;
+  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Path singleConfigFileName, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier,
+      int pAnalysisNumber, Collection<Statistics> pStatsCollection) throws InvalidConfigurationException, CPAException, IOException {
+    return createNextAlgorithm(createSingleConfig(singleConfigFileName), mainFunction, singleShutdownNotifier,
+        pAnalysisNumber, pStatsCollection);
+  }
 
+  private Configuration createSingleConfig(Path singleConfigFileName) throws InvalidConfigurationException, IOException {
     ConfigurationBuilder singleConfigBuilder = Configuration.builder();
     singleConfigBuilder.copyFrom(globalConfig);
     singleConfigBuilder.clearOption("restartAlgorithm.configFiles");
@@ -378,14 +689,26 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     if (globalConfig.hasProperty("specification")) {
       singleConfigBuilder.copyOptionFrom(globalConfig, "specification");
     }
-    Configuration singleConfig = singleConfigBuilder.build();
-    LogManager singleLogger = logger.withComponentName("Analysis" + (stats.noOfAlgorithmsUsed+1));
+    return singleConfigBuilder.build();
+  }
+
+  private Triple<Algorithm, ConfigurableProgramAnalysis, ReachedSet> createNextAlgorithm(Configuration singleConfig, CFANode mainFunction, ShutdownNotifier singleShutdownNotifier,
+      int pAnalysisNumber, Collection<Statistics> pStatsCollection) throws InvalidConfigurationException, CPAException {
+
+    ReachedSet reached;
+    ConfigurableProgramAnalysis cpa;
+    Algorithm algorithm;
+
+    LogManager singleLogger = logger.withComponentName("Analysis" + pAnalysisNumber);
 
     RestartAlgorithmOptions singleOptions = new RestartAlgorithmOptions();
     singleConfig.inject(singleOptions);
 
-    ResourceLimitChecker singleLimits = ResourceLimitChecker.fromConfiguration(singleConfig, singleLogger, singleShutdownNotifier);
-    singleLimits.start();
+    if (!runInParallel) {
+      // in portfolio mode, each analysis starts its limits on its own thread
+      ResourceLimitChecker singleLimits = ResourceLimitChecker.fromConfiguration(singleConfig, singleLogger, singleShutdownNotifier);
+      singleLimits.start();
+    }
 
     if (singleOptions.runCBMCasExternalTool) {
       algorithm = new ExternalCBMCAlgorithm(filename, singleConfig, singleLogger);
@@ -393,8 +716,8 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       reached = new ReachedSetFactory(singleConfig, singleLogger).create();
     } else {
       ReachedSetFactory singleReachedSetFactory = new ReachedSetFactory(singleConfig, singleLogger);
-      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownNotifier, stats);
-      algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownNotifier, stats, singleReachedSetFactory, singleOptions);
+      cpa = createCPA(singleReachedSetFactory, singleConfig, singleLogger, singleShutdownNotifier, pStatsCollection);
+      algorithm = createAlgorithm(cpa, singleConfig, singleLogger, singleShutdownNotifier, singleReachedSetFactory, singleOptions);
       reached = createInitialReachedSetForRestart(cpa, mainFunction, singleReachedSetFactory, singleLogger);
     }
 
@@ -418,14 +741,14 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
 
   private ConfigurableProgramAnalysis createCPA(ReachedSetFactory pReachedSetFactory,
       Configuration pConfig, LogManager singleLogger, ShutdownNotifier singleShutdownNotifier,
-      RestartAlgorithmStatistics stats) throws InvalidConfigurationException, CPAException {
+      Collection<Statistics> pStatsCollection) throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating CPAs");
 
     CPABuilder builder = new CPABuilder(pConfig, singleLogger, singleShutdownNotifier, pReachedSetFactory);
     ConfigurableProgramAnalysis cpa = builder.buildCPAWithSpecAutomatas(cfa);
 
     if (cpa instanceof StatisticsProvider) {
-      ((StatisticsProvider)cpa).collectStatistics(stats.getSubStatistics());
+      ((StatisticsProvider)cpa).collectStatistics(pStatsCollection);
     }
     return cpa;
   }
@@ -434,7 +757,7 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
       final ConfigurableProgramAnalysis cpa, Configuration pConfig,
       final LogManager singleLogger,
       final ShutdownNotifier singleShutdownNotifier,
-      final RestartAlgorithmStatistics stats, ReachedSetFactory singleReachedSetFactory,
+      ReachedSetFactory singleReachedSetFactory,
       RestartAlgorithmOptions pOptions)
   throws InvalidConfigurationException, CPAException {
     singleLogger.log(Level.FINE, "Creating algorithms");
@@ -454,11 +777,11 @@ public class RestartAlgorithm implements Algorithm, StatisticsProvider {
     }
 
     if (pOptions.collectAssumptions) {
-      algorithm = new AssumptionCollectorAlgorithm(algorithm, cpa, cfa, shutdownNotifier, pConfig, singleLogger);
+      algorithm = new AssumptionCollectorAlgorithm(algorithm, cpa, cfa, singleShutdownNotifier, pConfig, singleLogger);
     }
 
     if (pOptions.unknownIfUnrestrictedProgram) {
-      algorithm = new RestrictedProgramDomainAlgorithm(algorithm, cpa, cfa, singleLogger, pConfig, shutdownNotifier);
+      algorithm = new RestrictedProgramDomainAlgorithm(algorithm, cpa, cfa, singleLogger, pConfig, singleShutdownNotifier);
     }
 
     return algorithm;
@@ -27,15 +27,19 @@ import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState.FILTER_ABSTRACTION_STATES;
 import static org.sosy_lab.cpachecker.util.AbstractStates.*;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
+import org.sosy_lab.common.io.Path;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.CFA;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -47,6 +51,7 @@ import org.sosy_lab.cpachecker.core.algorithm.invariants.CPAInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.DoNothingInvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.InvariantGenerator;
 import org.sosy_lab.cpachecker.core.algorithm.invariants.KInductionInvariantGenerator;
+import org.sosy_lab.cpachecker.core.algorithm.invariants.ParallelInvariantGenerator;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
@@ -54,6 +59,8 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.conditions.AdjustableConditionCPA;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.cpa.arg.ARGCPA;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.assumptions.storage.AssumptionStorageState;
 import org.sosy_lab.cpachecker.cpa.bounds.BoundsCPA;
 import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
@@ -75,6 +82,7 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerVie
 import com.google.common.base.Predicate;
 import com.google.common.base.Predicates;
 import com.google.common.collect.FluentIterable;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 @Options(prefix="bmc")
@@ -103,6 +111,20 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
   @Option(secure=true, description="Generate additional invariants by induction and add them to the induction hypothesis.")
   private boolean addInvariantsByInduction = true;
 
+  @Option(secure=true, description="Configuration files of further analyses "
+      + "(e.g., with intervals or octagons) that generate invariants for the induction hypothesis. "
+      + "They run in parallel to each other and to the other invariant generators, "
+      + "and each invariant is used by the induction check as soon as it is found.")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private List<Path> parallelInvariantGenerationConfigs = ImmutableList.of();
+
+  @Option(secure=true, description="Check the reachability of target states incrementally "
+      + "on one prover stack: each ARG state is defined only by the segment from its parents, "
+      + "and the definitions stay asserted across loop bounds, "
+      + "such that each new bound only adds the newly unrolled part of the program. "
+      + "This requires the ARGCPA.")
+  private boolean incremental = false;
+
   @Option(secure=true, description="Adds pre-loop information to the induction hypothesis. "
       + "This is unsound and should generally not be used; however "
       + "it is provided as an implementation of the technique introduced in "
@@ -131,6 +153,9 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
   private final TargetLocationProvider targetLocationProvider;
 
+  /** The incremental encoding for the prover of the current run, or null. */
+  private IncrementalReachabilityEncoding reachabilityEncoding = null;
+
   protected AbstractBMCAlgorithm(Algorithm pAlgorithm, ConfigurableProgramAnalysis pCPA,
                       Configuration pConfig, LogManager pLogger,
                       ReachedSetFactory pReachedSetFactory,
@@ -161,15 +186,41 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
       stepCaseAlgorithm = null;
     }
 
+    boolean parallelInvariantGeneration = !pIsInvariantGenerator
+        && induction
+        && !parallelInvariantGenerationConfigs.isEmpty();
+    List<InvariantGenerator> invariantGenerators = new ArrayList<>();
     if (!pIsInvariantGenerator
         && induction
         && addInvariantsByInduction) {
       addInvariantsByInduction = false;
-      invariantGenerator = KInductionInvariantGenerator.create(pConfig, pLogger,
-          pShutdownNotifier, pCFA, pReachedSetFactory);
+      invariantGenerators.add(KInductionInvariantGenerator.create(pConfig, pLogger,
+          pShutdownNotifier, pCFA, pReachedSetFactory));
 
     } else if (induction && addInvariantsByAI) {
-      invariantGenerator = CPAInvariantGenerator.create(pConfig, pLogger, pShutdownNotifier, cfa);
+      Configuration invariantConfig = pConfig;
+      if (parallelInvariantGeneration) {
+        // results are only retrieved incrementally, so the generator needs to run on its own
+        invariantConfig = Configuration.builder()
+            .copyFrom(pConfig)
+            .setOption("invariantGeneration.async", "true")
+            .build();
+      }
+      invariantGenerators.add(CPAInvariantGenerator.create(invariantConfig, pLogger, pShutdownNotifier, cfa));
+    }
+
+    if (parallelInvariantGeneration) {
+      for (Path configFile : parallelInvariantGenerationConfigs) {
+        Configuration invariantConfig = Configuration.builder()
+            .copyFrom(pConfig)
+            .setOption("invariantGeneration.config", configFile.toString())
+            .setOption("invariantGeneration.async", "true")
+            .build();
+        invariantGenerators.add(CPAInvariantGenerator.create(invariantConfig, pLogger, pShutdownNotifier, cfa));
+      }
+      invariantGenerator = new ParallelInvariantGenerator(invariantGenerators);
+    } else if (!invariantGenerators.isEmpty()) {
+      invariantGenerator = invariantGenerators.get(0);
     } else {
       invariantGenerator = new DoNothingInvariantGenerator();
     }
@@ -184,6 +235,10 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
     pmgr = predCpa.getPathFormulaManager();
     shutdownNotifier = pShutdownNotifier;
 
+    if (incremental && CPAs.retrieveCPA(cpa, ARGCPA.class) == null) {
+      throw new InvalidConfigurationException("ARGCPA needed for incremental BMC");
+    }
+
     targetLocationProvider = new TargetLocationProvider(reachedSetFactory, shutdownNotifier, logger, pConfig, cfa);
   }
 
@@ -231,6 +286,11 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
           @SuppressWarnings("resource")
           KInductionProver kInductionProver = createInductionProver()) {
 
+        // the definitions of the incremental encoding live on this prover
+        reachabilityEncoding = incremental
+            ? new IncrementalReachabilityEncoding(bfmgr, solver.getSmtAstMatcher(), stats)
+            : null;
+
         do {
           shutdownNotifier.shutdownIfNecessary();
 
@@ -338,7 +398,13 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
 
   protected boolean boundedModelCheck(final ReachedSet pReachedSet, final ProverEnvironment pProver, CandidateInvariant pInductionProblem) throws CPATransferException, InterruptedException, SolverException {
-    BooleanFormula program = bfmgr.not(pInductionProblem.getAssertion(pReachedSet, fmgr, pmgr));
+    BooleanFormula program;
+    if (reachabilityEncoding != null && pInductionProblem == TargetLocationCandidateInvariant.INSTANCE) {
+      program = reachabilityEncoding.encodeReachability(
+          from(pReachedSet).filter(IS_TARGET_STATE).filter(ARGState.class).toList(), pProver);
+    } else {
+      program = bfmgr.not(pInductionProblem.getAssertion(pReachedSet, fmgr, pmgr));
+    }
     logger.log(Level.INFO, "Starting satisfiability check...");
     stats.satCheck.start();
     pProver.push(program);
@@ -396,7 +462,12 @@ abstract class AbstractBMCAlgorithm implements StatisticsProvider {
 
     if (boundingAssertions) {
       // create formula for unwinding assertions
-      BooleanFormula assertions = BMCHelper.createFormulaFor(stopStates, bfmgr);
+      BooleanFormula assertions;
+      if (reachabilityEncoding != null) {
+        assertions = reachabilityEncoding.encodeReachability(stopStates.filter(ARGState.class).toList(), prover);
+      } else {
+        assertions = BMCHelper.createFormulaFor(stopStates, bfmgr);
+      }
 
       logger.log(Level.INFO, "Starting assertions check...");
 
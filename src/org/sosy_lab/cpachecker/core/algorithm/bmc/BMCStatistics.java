@@ -35,10 +35,13 @@ public class BMCStatistics implements Statistics {
   final Timer satCheck = new Timer();
   final Timer errorPathCreation = new Timer();
   final Timer assertionsCheck = new Timer();
+  final Timer incrementalEncoding = new Timer();
+  int incrementalDefinitions = 0;
 
   final Timer inductionPreparation = new Timer();
   final Timer inductionCheck = new Timer();
   private int inductionCutPoints = 0;
+  int inductionInvariantUpdates = 0;
 
   @Override
   public void printStatistics(PrintStream out, Result pResult, ReachedSet pReached) {
@@ -51,10 +54,15 @@ public class BMCStatistics implements Statistics {
     if (assertionsCheck.getNumberOfIntervals() > 0) {
       out.println("Time for bounding assertions check:  " + assertionsCheck);
     }
+    if (incrementalEncoding.getNumberOfIntervals() > 0) {
+      out.println("Time for incremental encoding:       " + incrementalEncoding);
+      out.println("Number of reachability definitions:  " + incrementalDefinitions);
+    }
     if (inductionCheck.getNumberOfIntervals() > 0) {
       out.println("Number of cut points for induction:  " + inductionCutPoints);
       out.println("Time for induction formula creation: " + inductionPreparation);
       out.println("Time for induction check:            " + inductionCheck);
+      out.println("Number of invariant updates used:    " + inductionInvariantUpdates);
     }
   }
 
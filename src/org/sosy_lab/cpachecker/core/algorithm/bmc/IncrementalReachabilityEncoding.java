@@ -0,0 +1,147 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.bmc;
+
+import static org.sosy_lab.cpachecker.util.AbstractStates.extractStateByType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
+import org.sosy_lab.cpachecker.cpa.predicate.PredicateAbstractState;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.BooleanFormulaManagerView;
+import org.sosy_lab.cpachecker.util.predicates.matching.SmtAstMatcher;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+/**
+ * Encodes the reachability of ARG states incrementally on one prover stack.
+ *
+ * Each ARG state gets a literal that is defined to be equivalent to
+ * its path formula, in which the path formulas of its parents
+ * are replaced by the literals of the parents.
+ * Thus the definition of a state contains only the segment from its parents to the state,
+ * and each definition is asserted only once, when the state is first queried.
+ * The definitions stay on the prover stack for all further loop bounds,
+ * so that the next bound only adds the definitions of the newly unrolled states.
+ */
+final class IncrementalReachabilityEncoding {
+
+  private static final String LITERAL_PREFIX = "__BMC_REACH_";
+
+  private final BooleanFormulaManagerView bfmgr;
+  private final SmtAstMatcher matcher;
+  private final BMCStatistics stats;
+
+  private final Map<ARGState, BooleanFormula> literals = new HashMap<>();
+
+  IncrementalReachabilityEncoding(BooleanFormulaManagerView pBfmgr, SmtAstMatcher pMatcher,
+      BMCStatistics pStats) {
+    bfmgr = pBfmgr;
+    matcher = pMatcher;
+    stats = pStats;
+  }
+
+  /**
+   * Create a formula that is satisfiable together with the formulas on the prover stack
+   * iff one of the given states is reachable.
+   * The definitions of all states (and their ancestors) that were not yet defined
+   * are pushed onto the prover as one new level that is never popped,
+   * so the returned formula needs to be pushed onto the prover after calling this method.
+   */
+  BooleanFormula encodeReachability(Iterable<ARGState> pStates, ProverEnvironment pProver) {
+    stats.incrementalEncoding.start();
+    try {
+      List<BooleanFormula> definitions = new ArrayList<>();
+      Deque<ARGState> waitlist = new ArrayDeque<>();
+      for (ARGState state : pStates) {
+        waitlist.push(state);
+      }
+
+      // define the parents before their children
+      while (!waitlist.isEmpty()) {
+        ARGState state = waitlist.peek();
+        if (literals.containsKey(state)) {
+          waitlist.pop();
+          continue;
+        }
+        boolean parentsDefined = true;
+        for (ARGState parent : state.getParents()) {
+          if (!literals.containsKey(parent)) {
+            waitlist.push(parent);
+            parentsDefined = false;
+          }
+        }
+        if (parentsDefined) {
+          waitlist.pop();
+          definitions.add(define(state));
+        }
+      }
+
+      if (!definitions.isEmpty()) {
+        pProver.push(bfmgr.and(definitions));
+        stats.incrementalDefinitions += definitions.size();
+      }
+
+      List<BooleanFormula> reachable = new ArrayList<>();
+      for (ARGState state : pStates) {
+        reachable.add(literals.get(state));
+      }
+      return bfmgr.or(reachable);
+
+    } finally {
+      stats.incrementalEncoding.stop();
+    }
+  }
+
+  private BooleanFormula define(ARGState pState) {
+    BooleanFormula pathFormula = getPathFormula(pState);
+
+    Map<BooleanFormula, BooleanFormula> parentLiterals = new HashMap<>();
+    for (ARGState parent : pState.getParents()) {
+      BooleanFormula parentFormula = getPathFormula(parent);
+      if (!bfmgr.isTrue(parentFormula)) {
+        parentLiterals.put(parentFormula, literals.get(parent));
+      }
+    }
+
+    // If a parent formula does not occur (e.g., because the state was moved to a merged parent),
+    // its part stays in the segment, which is still equivalent, only larger.
+    BooleanFormula segment = parentLiterals.isEmpty()
+        ? pathFormula
+        : matcher.substitute(pathFormula, parentLiterals);
+
+    BooleanFormula literal = bfmgr.makeVariable(LITERAL_PREFIX + literals.size());
+    literals.put(pState, literal);
+    return bfmgr.equivalence(literal, segment);
+  }
+
+  private static BooleanFormula getPathFormula(ARGState pState) {
+    return extractStateByType(pState, PredicateAbstractState.class).getPathFormula().getFormula();
+  }
+}
@@ -421,6 +421,8 @@ class KInductionProver implements AutoCloseable {
       BooleanFormula oldInvariants = invariants;
       BooleanFormula currentInvariants = getCurrentLoopHeadInvariants(stopLocations);
       while (!isInvariant && !currentInvariants.equals(oldInvariants)) {
+        logger.log(Level.FINE, "Strengthening induction hypothesis with newly generated invariants.");
+        stats.inductionInvariantUpdates++;
         push(fmgr.instantiate(currentInvariants, SSAMap.emptySSAMap().withDefault(1)));
         isInvariant = prover.isUnsat();
 
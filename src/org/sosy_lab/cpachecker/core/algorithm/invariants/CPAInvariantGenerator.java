@@ -134,8 +134,9 @@ public class CPAInvariantGenerator implements InvariantGenerator, StatisticsProv
   // to be able to ask for termination and see thrown exceptions.
   private Future<InvariantSupplier> invariantGenerationFuture = null;
 
-  // In case of (async & adjustConditions), this will point to the last invariant
-  // that the continuously-refining invariant generation produced so far.
+  // After start(), this will point to the last invariant that the
+  // (potentially continuously-refining) invariant generation produced so far.
+  // In case of (async & adjustConditions), get() returns this while the generation is running.
   private final AtomicReference<InvariantSupplier> latestInvariant = new AtomicReference<>();
 
   private volatile boolean programIsSafe = false;
@@ -187,11 +188,9 @@ public class CPAInvariantGenerator implements InvariantGenerator, StatisticsProv
 
     Callable<InvariantSupplier> task = new InvariantGenerationTask(initialLocation);
 
-    if (async) {
-      if (adjustConditions) {
-        latestInvariant.set(InvariantSupplier.TrivialInvariantSupplier.INSTANCE);
-      }
+    latestInvariant.set(InvariantSupplier.TrivialInvariantSupplier.INSTANCE);
 
+    if (async) {
       // start invariant generation asynchronously
       ExecutorService executor = Executors.newSingleThreadExecutor(Threads.threadFactory());
       invariantGenerationFuture = executor.submit(task);
@@ -232,6 +231,12 @@ public class CPAInvariantGenerator implements InvariantGenerator, StatisticsProv
     }
   }
 
+  @Override
+  public InvariantSupplier getCurrentInvariants() {
+    checkState(invariantGenerationFuture != null);
+    return verifyNotNull(latestInvariant.get());
+  }
+
   @Override
   public boolean isProgramSafe() {
     return programIsSafe;
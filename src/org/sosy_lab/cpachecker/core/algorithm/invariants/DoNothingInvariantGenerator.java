@@ -43,6 +43,11 @@ public class DoNothingInvariantGenerator implements InvariantGenerator {
     return InvariantSupplier.TrivialInvariantSupplier.INSTANCE;
   }
 
+  @Override
+  public InvariantSupplier getCurrentInvariants() {
+    return InvariantSupplier.TrivialInvariantSupplier.INSTANCE;
+  }
+
   @Override
   public boolean isProgramSafe() {
     return false;
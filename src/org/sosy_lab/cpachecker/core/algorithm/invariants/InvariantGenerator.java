@@ -71,6 +71,17 @@ public interface InvariantGenerator {
    */
   InvariantSupplier get() throws CPAException, InterruptedException;
 
+  /**
+   * Retrieve the invariants that are available at the moment,
+   * without waiting for a running invariant generation to finish.
+   * Can be called only after {@link #start(CFANode)} was called.
+   *
+   * In contrast to {@link #get()}, this method never blocks and never fails.
+   * If the invariant generation is still running or has failed,
+   * the returned invariant may be weaker (in the extreme case, trivially true).
+   */
+  InvariantSupplier getCurrentInvariants();
+
   /**
    * Return whether the invariant generation has already proved
    * that the specification holds, and no further checks are necessary.
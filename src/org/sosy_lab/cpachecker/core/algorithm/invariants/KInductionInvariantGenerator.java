@@ -198,6 +198,12 @@ public class KInductionInvariantGenerator implements InvariantGenerator, Statist
     }
   }
 
+  @Override
+  public InvariantSupplier getCurrentInvariants() {
+    checkState(invariantGenerationFuture != null);
+    return algorithm.getCurrentInvariants();
+  }
+
   @Override
   public boolean isProgramSafe() {
     return algorithm.isProgramSafe();
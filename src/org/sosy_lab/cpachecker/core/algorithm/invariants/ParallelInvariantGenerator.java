@@ -0,0 +1,153 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.algorithm.invariants;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.sosy_lab.cpachecker.cfa.model.AssumeEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.Statistics;
+import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.exceptions.UnrecognizedCodeException;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
+import org.sosy_lab.solver.api.BooleanFormula;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Invariant generator that runs several other invariant generators
+ * in parallel and combines their results.
+ *
+ * The component generators should be configured for asynchronous execution.
+ * Retrieving the invariants never blocks: {@link #get()} returns
+ * the conjunction of the invariants each component has published so far,
+ * so repeated calls see the invariants as soon as they are found.
+ */
+public class ParallelInvariantGenerator implements InvariantGenerator, StatisticsProvider {
+
+  private final ImmutableList<InvariantGenerator> generators;
+
+  private boolean started = false;
+
+  public ParallelInvariantGenerator(List<? extends InvariantGenerator> pGenerators) {
+    checkArgument(!pGenerators.isEmpty());
+    generators = ImmutableList.copyOf(pGenerators);
+  }
+
+  @Override
+  public void start(CFANode pInitialLocation) {
+    checkState(!started);
+    started = true;
+    for (InvariantGenerator generator : generators) {
+      generator.start(pInitialLocation);
+    }
+  }
+
+  @Override
+  public void cancel() {
+    checkState(started);
+    for (InvariantGenerator generator : generators) {
+      generator.cancel();
+    }
+  }
+
+  @Override
+  public InvariantSupplier get() {
+    return getCurrentInvariants();
+  }
+
+  @Override
+  public InvariantSupplier getCurrentInvariants() {
+    checkState(started);
+    List<InvariantSupplier> suppliers = new ArrayList<>(generators.size());
+    for (InvariantGenerator generator : generators) {
+      InvariantSupplier supplier = generator.getCurrentInvariants();
+      if (supplier != InvariantSupplier.TrivialInvariantSupplier.INSTANCE) {
+        suppliers.add(supplier);
+      }
+    }
+
+    switch (suppliers.size()) {
+    case 0:
+      return InvariantSupplier.TrivialInvariantSupplier.INSTANCE;
+    case 1:
+      return suppliers.get(0);
+    default:
+      return new ConjunctiveInvariantSupplier(suppliers);
+    }
+  }
+
+  @Override
+  public boolean isProgramSafe() {
+    for (InvariantGenerator generator : generators) {
+      if (generator.isProgramSafe()) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Override
+  public void injectInvariant(CFANode pLocation, AssumeEdge pAssumption) throws UnrecognizedCodeException {
+    for (InvariantGenerator generator : generators) {
+      generator.injectInvariant(pLocation, pAssumption);
+    }
+  }
+
+  @Override
+  public void collectStatistics(Collection<Statistics> pStatsCollection) {
+    for (InvariantGenerator generator : generators) {
+      if (generator instanceof StatisticsProvider) {
+        ((StatisticsProvider)generator).collectStatistics(pStatsCollection);
+      }
+    }
+  }
+
+  /**
+   * {@link InvariantSupplier} that returns the conjunction
+   * of the invariants of several other suppliers.
+   */
+  private static class ConjunctiveInvariantSupplier implements InvariantSupplier {
+
+    private final List<InvariantSupplier> suppliers;
+
+    private ConjunctiveInvariantSupplier(List<InvariantSupplier> pSuppliers) {
+      suppliers = pSuppliers;
+    }
+
+    @Override
+    public BooleanFormula getInvariantFor(CFANode pNode, FormulaManagerView pFmgr, PathFormulaManager pPfmgr) {
+      List<BooleanFormula> invariants = new ArrayList<>(suppliers.size());
+      for (InvariantSupplier supplier : suppliers) {
+        invariants.add(supplier.getInvariantFor(pNode, pFmgr, pPfmgr));
+      }
+      return pFmgr.getBooleanFormulaManager().and(invariants);
+    }
+  }
+}
@@ -29,6 +29,7 @@ import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
 import org.sosy_lab.cpachecker.core.interfaces.Targetable;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
@@ -38,8 +39,9 @@ import com.google.common.base.Optional;
 /**
  * Implementation of prec operator which does not change the precision or
  * the state, but checks for target states and signals a break in this case.
+ * The counters are shared, so {@link #prec} is synchronized.
  */
-public class BreakOnTargetsPrecisionAdjustment implements PrecisionAdjustment {
+public class BreakOnTargetsPrecisionAdjustment implements ThreadSafePrecisionAdjustment {
 
   /**
    * the counter for targets found so far
@@ -84,7 +86,7 @@ public class BreakOnTargetsPrecisionAdjustment implements PrecisionAdjustment {
   }
 
   @Override
-  public Optional<PrecisionAdjustmentResult> prec(final AbstractState pState,
+  public synchronized Optional<PrecisionAdjustmentResult> prec(final AbstractState pState,
       final Precision pPrecision,
       final UnmodifiableReachedSet pStates,
       Function<AbstractState, AbstractState> projection,
@@ -28,6 +28,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 /**
@@ -35,7 +36,8 @@ import org.sosy_lab.cpachecker.exceptions.CPAException;
  * precision never changes. It does not make any assumptions about the precision,
  * even not that the precision is non-null.
  */
-public class StaticPrecisionAdjustment extends SimplePrecisionAdjustment {
+public class StaticPrecisionAdjustment extends SimplePrecisionAdjustment
+    implements ThreadSafePrecisionAdjustment {
 
   private StaticPrecisionAdjustment() { }
 
@@ -0,0 +1,87 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.defaults;
+
+import java.util.Collection;
+import java.util.List;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeTransferRelation;
+import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+
+/**
+ * Thread-safe {@link TransferRelation} that delegates to a separate instance
+ * of another transfer relation for each thread.
+ *
+ * This can be used for transfer relations that store information
+ * about the current call in fields (e.g., subclasses of {@link ForwardingTransferRelation}).
+ * The instances are created lazily by {@link #createTransferRelation()},
+ * and they must not share mutable state that is not thread-safe.
+ * Note that {@link #strengthen(AbstractState, List, CFAEdge, Precision)}
+ * is delegated to the instance of the calling thread, too,
+ * so it sees the information stored by the previous call
+ * to {@link #getAbstractSuccessorsForEdge(AbstractState, Precision, CFAEdge)}
+ * in the same thread.
+ */
+public abstract class ThreadLocalTransferRelation<T extends TransferRelation>
+    implements ThreadSafeTransferRelation {
+
+  private final ThreadLocal<T> transferRelations = new ThreadLocal<T>() {
+      @Override
+      protected T initialValue() {
+        return createTransferRelation();
+      }
+    };
+
+  /**
+   * Create the instance of the transfer relation for the calling thread.
+   */
+  protected abstract T createTransferRelation();
+
+  @Override
+  public Collection<? extends AbstractState> getAbstractSuccessors(
+      AbstractState pState, Precision pPrecision)
+          throws CPATransferException, InterruptedException {
+    return transferRelations.get().getAbstractSuccessors(pState, pPrecision);
+  }
+
+  @Override
+  public Collection<? extends AbstractState> getAbstractSuccessorsForEdge(
+      AbstractState pState, Precision pPrecision, CFAEdge pCfaEdge)
+          throws CPATransferException, InterruptedException {
+    return transferRelations.get().getAbstractSuccessorsForEdge(pState, pPrecision, pCfaEdge);
+  }
+
+  @Override
+  public Collection<? extends AbstractState> strengthen(AbstractState pState,
+      List<AbstractState> pOtherStates, @Nullable CFAEdge pCfaEdge, Precision pPrecision)
+          throws CPATransferException, InterruptedException {
+    return transferRelations.get().strengthen(pState, pOtherStates, pCfaEdge, pPrecision);
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.interfaces;
+
+/**
+ * This is a marker interface that tells the algorithm that the transfer
+ * relation may be called concurrently from several threads
+ * (for different abstract states).
+ *
+ * Implementations must not keep any mutable state between or during calls
+ * to the methods of {@link TransferRelation}.
+ * Wrapper transfer relations should only implement this interface
+ * if they do not add mutable state themselves,
+ * the algorithm checks all transfer relations of the wrapped CPAs separately.
+ */
+public interface ThreadSafeTransferRelation extends TransferRelation {
+
+}
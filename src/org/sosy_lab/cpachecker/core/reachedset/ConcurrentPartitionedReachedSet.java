@@ -0,0 +1,557 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.GuardedBy;
+
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Maps;
+
+/**
+ * Thread-safe implementation of the reached set that partitions the set
+ * in the same way as {@link PartitionedReachedSet}.
+ *
+ * The locks are striped by partition: each partition has its own lock,
+ * and adding, removing, or re-adding states, as well as updating precisions,
+ * only locks the partition of the state.
+ * The reached states, their precisions, and their order are stored
+ * in concurrent maps, so {@link #contains(AbstractState)},
+ * {@link #getPrecision(AbstractState)}, and iterating over the reached set never block,
+ * and {@link #getReached(AbstractState)} only blocks while the same partition is modified.
+ * The only shared lock is the one of the waitlist, because the waitlists created by a
+ * {@link WaitlistFactory} are not thread-safe.
+ * It is held only for the single operation on the waitlist,
+ * so threads that modify different partitions contend only for this operation.
+ *
+ * All returned collections are views that reflect later changes.
+ * Their iterators never throw {@link java.util.ConcurrentModificationException},
+ * they return the states in the order in which they were added,
+ * but may or may not reflect changes that happen concurrently with the iteration.
+ */
+public class ConcurrentPartitionedReachedSet implements ReachedSet {
+
+  /**
+   * A state in the reached set with its precision and a number
+   * that defines the order in which the states were added.
+   */
+  private static final class ReachedEntry {
+    private final AbstractState state;
+    private final Precision precision;
+    private final long index;
+
+    private ReachedEntry(AbstractState pState, Precision pPrecision, long pIndex) {
+      state = pState;
+      precision = pPrecision;
+      index = pIndex;
+    }
+  }
+
+  private final ConcurrentMap<AbstractState, ReachedEntry> reached = new ConcurrentHashMap<>();
+  private final ConcurrentSkipListMap<Long, AbstractState> insertionOrder = new ConcurrentSkipListMap<>();
+  private final AtomicLong nextIndex = new AtomicLong();
+
+  /**
+   * The states of each partition. Each set is also used as the lock for all
+   * modifications of the states in this partition.
+   * Partitions are never removed (except by {@link #clear()}),
+   * such that nobody can add to a partition that is not in this map anymore.
+   */
+  private final ConcurrentMap<Object, Set<AbstractState>> partitions = new ConcurrentHashMap<>();
+
+  /**
+   * The waitlist is its own lock.
+   * If a partition lock is also needed, it has to be acquired first.
+   */
+  @GuardedBy("waitlist")
+  private final Waitlist waitlist;
+
+  /** the entry that was added to the empty reached set, null if it was removed */
+  private final AtomicReference<ReachedEntry> firstEntry = new AtomicReference<>();
+
+  /** the entry with the highest index, null if it was removed */
+  private final AtomicReference<ReachedEntry> lastEntry = new AtomicReference<>();
+
+  private final Set<AbstractState> unmodifiableReached = new AbstractSet<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        return Iterators.unmodifiableIterator(insertionOrder.values().iterator());
+      }
+
+      @Override
+      public boolean contains(Object pObj) {
+        return reached.containsKey(pObj);
+      }
+
+      @Override
+      public int size() {
+        return reached.size();
+      }
+    };
+
+  public ConcurrentPartitionedReachedSet(WaitlistFactory waitlistFactory) {
+    waitlist = waitlistFactory.createWaitlistInstance();
+  }
+
+  @Override
+  public void add(AbstractState state, Precision precision) throws IllegalArgumentException {
+    Preconditions.checkNotNull(state);
+    Preconditions.checkNotNull(precision);
+
+    Set<AbstractState> partition = getOrCreatePartition(getPartitionKey(state));
+
+    synchronized (partition) {
+      ReachedEntry previous = reached.get(state);
+
+      if (previous != null) {
+        // State was already in the reached set.
+        // As in DefaultReachedSet, we do not add it to the waitlist again,
+        // but the precisions need to be equal.
+        if (!precision.equals(previous.precision)) {
+          throw new IllegalArgumentException("State added to reached set which is already contained, but with a different precision");
+        }
+        return;
+      }
+
+      ReachedEntry entry = new ReachedEntry(state, precision, nextIndex.getAndIncrement());
+      boolean wasEmpty = reached.isEmpty();
+      reached.put(state, entry);
+      insertionOrder.put(entry.index, state);
+      partition.add(state);
+      if (wasEmpty) {
+        updateFirstEntry(entry);
+      }
+      updateLastEntry(entry);
+
+      synchronized (waitlist) {
+        waitlist.add(state);
+      }
+    }
+  }
+
+  private void updateFirstEntry(ReachedEntry entry) {
+    ReachedEntry first;
+    do {
+      first = firstEntry.get();
+      if (first != null && first.index < entry.index) {
+        return; // an earlier state was added concurrently
+      }
+    } while (!firstEntry.compareAndSet(first, entry));
+  }
+
+  private void updateLastEntry(ReachedEntry entry) {
+    ReachedEntry last;
+    do {
+      last = lastEntry.get();
+      if (last != null && last.index > entry.index) {
+        return; // a later state was added concurrently
+      }
+    } while (!lastEntry.compareAndSet(last, entry));
+  }
+
+  @Override
+  public void addAll(Iterable<Pair<AbstractState, Precision>> toAdd) {
+    for (Pair<AbstractState, Precision> pair : toAdd) {
+      add(pair.getFirst(), pair.getSecond());
+    }
+  }
+
+  @Override
+  public void reAddToWaitlist(AbstractState s) {
+    Preconditions.checkNotNull(s);
+
+    Set<AbstractState> partition = getOrCreatePartition(getPartitionKey(s));
+    synchronized (partition) {
+      Preconditions.checkArgument(reached.containsKey(s), "State has to be in the reached set");
+
+      synchronized (waitlist) {
+        if (!waitlist.contains(s)) {
+          waitlist.add(s);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void updatePrecision(AbstractState s, Precision newPrecision) {
+    Preconditions.checkNotNull(s);
+    Preconditions.checkNotNull(newPrecision);
+
+    Set<AbstractState> partition = getOrCreatePartition(getPartitionKey(s));
+    synchronized (partition) {
+      ReachedEntry oldEntry = reached.get(s);
+      if (oldEntry == null) {
+        throw new IllegalArgumentException("State needs to be in the reached set in order to change the precision.");
+      }
+      reached.put(s, new ReachedEntry(s, newPrecision, oldEntry.index));
+    }
+  }
+
+  @Override
+  public void remove(AbstractState state) {
+    Preconditions.checkNotNull(state);
+
+    Set<AbstractState> partition = partitions.get(getPartitionKey(state));
+    if (partition != null) {
+      synchronized (partition) {
+        // remove from the waitlist first, such that no state is popped
+        // from the waitlist after it was removed from the reached set
+        synchronized (waitlist) {
+          waitlist.remove(state);
+        }
+
+        ReachedEntry entry = reached.remove(state);
+        if (entry != null) {
+          insertionOrder.remove(entry.index);
+        }
+        partition.remove(state);
+
+        ReachedEntry first = firstEntry.get();
+        if (first != null && state.equals(first.state)) {
+          firstEntry.compareAndSet(first, null);
+        }
+        ReachedEntry last = lastEntry.get();
+        if (last != null && state.equals(last.state)) {
+          lastEntry.compareAndSet(last, null);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void removeAll(Iterable<? extends AbstractState> toRemove) {
+    for (AbstractState state : toRemove) {
+      remove(state);
+    }
+  }
+
+  @Override
+  public void removeOnlyFromWaitlist(AbstractState state) {
+    checkNotNull(state);
+    synchronized (waitlist) {
+      waitlist.remove(state);
+    }
+  }
+
+  /**
+   * Remove all states. This method must not be called concurrently
+   * with other modifications of this reached set.
+   */
+  @Override
+  public void clear() {
+    synchronized (waitlist) {
+      waitlist.clear();
+    }
+    partitions.clear();
+    insertionOrder.clear();
+    reached.clear();
+    nextIndex.set(0);
+    firstEntry.set(null);
+    lastEntry.set(null);
+  }
+
+  @Override
+  public Set<AbstractState> asCollection() {
+    return unmodifiableReached;
+  }
+
+  @Override
+  public Iterator<AbstractState> iterator() {
+    return unmodifiableReached.iterator();
+  }
+
+  @Override
+  public Collection<Precision> getPrecisions() {
+    return new AbstractCollection<Precision>() {
+
+      @Override
+      public Iterator<Precision> iterator() {
+        final Iterator<AbstractState> states = insertionOrder.values().iterator();
+        return new AbstractIterator<Precision>() {
+          @Override
+          protected Precision computeNext() {
+            // skip states that were removed concurrently
+            while (states.hasNext()) {
+              ReachedEntry entry = reached.get(states.next());
+              if (entry != null) {
+                return entry.precision;
+              }
+            }
+            return endOfData();
+          }
+        };
+      }
+
+      @Override
+      public int size() {
+        return reached.size();
+      }
+    };
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(AbstractState state) {
+    return new PartitionView(getPartitionKey(state));
+  }
+
+  @Override
+  public Collection<AbstractState> getReached(CFANode location) {
+    return asCollection();
+  }
+
+  @Override
+  public AbstractState getFirstState() {
+    ReachedEntry first = firstEntry.get();
+    Preconditions.checkState(first != null);
+    return first.state;
+  }
+
+  @Override
+  public AbstractState getLastState() {
+    ReachedEntry last = lastEntry.get();
+    return last == null ? null : last.state;
+  }
+
+  @Override
+  public boolean hasWaitingState() {
+    synchronized (waitlist) {
+      return !waitlist.isEmpty();
+    }
+  }
+
+  @Override
+  public Collection<AbstractState> getWaitlist() {
+    return new AbstractCollection<AbstractState>() {
+
+      @Override
+      public Iterator<AbstractState> iterator() {
+        synchronized (waitlist) {
+          return ImmutableList.copyOf(waitlist).iterator();
+        }
+      }
+
+      @Override
+      public boolean contains(Object obj) {
+        if (!(obj instanceof AbstractState)) {
+          return false;
+        }
+        synchronized (waitlist) {
+          return waitlist.contains((AbstractState)obj);
+        }
+      }
+
+      @Override
+      public boolean isEmpty() {
+        synchronized (waitlist) {
+          return waitlist.isEmpty();
+        }
+      }
+
+      @Override
+      public int size() {
+        synchronized (waitlist) {
+          return waitlist.size();
+        }
+      }
+
+      @Override
+      public String toString() {
+        synchronized (waitlist) {
+          return waitlist.toString();
+        }
+      }
+    };
+  }
+
+  @Override
+  public AbstractState popFromWaitlist() {
+    synchronized (waitlist) {
+      return waitlist.pop();
+    }
+  }
+
+  /**
+   * Remove and return the next state from the waitlist,
+   * or return null if the waitlist is empty.
+   * In contrast to calling {@link #hasWaitingState()} and {@link #popFromWaitlist()},
+   * this is atomic, so it can be used if several threads take states from the waitlist.
+   */
+  public @Nullable AbstractState pollFromWaitlist() {
+    synchronized (waitlist) {
+      if (waitlist.isEmpty()) {
+        return null;
+      }
+      return waitlist.pop();
+    }
+  }
+
+  @Override
+  public Precision getPrecision(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    ReachedEntry entry = reached.get(state);
+    Preconditions.checkArgument(entry != null, "State not in reached set:\n%s", state);
+    return entry.precision;
+  }
+
+  @Override
+  public boolean contains(AbstractState state) {
+    Preconditions.checkNotNull(state);
+    return reached.containsKey(state);
+  }
+
+  @Override
+  public int size() {
+    return reached.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return reached.isEmpty();
+  }
+
+  public int getNumberOfPartitions() {
+    int result = 0;
+    for (Set<AbstractState> partition : partitions.values()) {
+      synchronized (partition) {
+        if (!partition.isEmpty()) {
+          result++;
+        }
+      }
+    }
+    return result;
+  }
+
+  public Map.Entry<Object, Collection<AbstractState>> getMaxPartition() {
+    int max = 0;
+    Map.Entry<Object, Collection<AbstractState>> maxPartition = null;
+
+    for (Map.Entry<Object, Set<AbstractState>> partition : partitions.entrySet()) {
+      synchronized (partition.getValue()) {
+        int size = partition.getValue().size();
+        if (size > max) {
+          max = size;
+          maxPartition = Maps.<Object, Collection<AbstractState>>immutableEntry(
+              partition.getKey(), ImmutableList.copyOf(partition.getValue()));
+        }
+      }
+    }
+    return maxPartition;
+  }
+
+  protected Object getPartitionKey(AbstractState pState) {
+    assert pState instanceof Partitionable : "Partitionable states necessary for ConcurrentPartitionedReachedSet";
+    return ((Partitionable)pState).getPartitionKey();
+  }
+
+  private Set<AbstractState> getOrCreatePartition(Object key) {
+    Set<AbstractState> partition = partitions.get(key);
+    if (partition == null) {
+      Set<AbstractState> newPartition = new LinkedHashSet<>();
+      partition = partitions.putIfAbsent(key, newPartition);
+      if (partition == null) {
+        partition = newPartition;
+      }
+    }
+    return partition;
+  }
+
+  /**
+   * A view on all states of one partition.
+   * The iterator works on a copy of the partition
+   * such that the caller may modify the reached set during the iteration.
+   */
+  private class PartitionView extends AbstractCollection<AbstractState> {
+
+    private final Object key;
+
+    private PartitionView(Object pKey) {
+      key = pKey;
+    }
+
+    @Override
+    public Iterator<AbstractState> iterator() {
+      Set<AbstractState> partition = partitions.get(key);
+      if (partition == null) {
+        return Iterators.emptyIterator();
+      }
+      synchronized (partition) {
+        return ImmutableList.copyOf(partition).iterator();
+      }
+    }
+
+    @Override
+    public boolean contains(Object pObj) {
+      Set<AbstractState> partition = partitions.get(key);
+      if (partition == null) {
+        return false;
+      }
+      synchronized (partition) {
+        return partition.contains(pObj);
+      }
+    }
+
+    @Override
+    public int size() {
+      Set<AbstractState> partition = partitions.get(key);
+      if (partition == null) {
+        return 0;
+      }
+      synchronized (partition) {
+        return partition.size();
+      }
+    }
+  }
+
+  @Override
+  public String toString() {
+    return unmodifiableReached.toString();
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+public class ConcurrentPartitionedReachedSetTest {
+
+  private static class TestState implements AbstractState, Partitionable {
+
+    private final int partition;
+
+    private TestState(int pPartition) {
+      partition = pPartition;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return partition;
+    }
+  }
+
+  private ConcurrentPartitionedReachedSet reached;
+  private Precision precision;
+
+  @Before
+  public void setUp() {
+    reached = new ConcurrentPartitionedReachedSet(TraversalMethod.BFS);
+    precision = mock(Precision.class);
+  }
+
+  @Test
+  public void testPartitions() {
+    TestState s1 = new TestState(1);
+    TestState s2 = new TestState(2);
+    TestState s3 = new TestState(1);
+    reached.add(s1, precision);
+    reached.add(s2, precision);
+    reached.add(s3, precision);
+
+    assertThat(reached.getReached(s1)).containsExactly(s1, s3).inOrder();
+    assertThat(reached.getReached(s2)).containsExactly(s2);
+    assertThat(reached.getNumberOfPartitions()).isEqualTo(2);
+    assertThat(reached.getFirstState()).isSameAs(s1);
+    assertThat(reached.getLastState()).isSameAs(s3);
+
+    reached.remove(s1);
+    assertThat(reached.getReached(s3)).containsExactly(s3);
+    assertThat(reached.asCollection()).containsExactly(s2, s3).inOrder();
+    assertThat(reached.getWaitlist()).containsExactly(s2, s3);
+  }
+
+  @Test
+  public void testViewsReflectChanges() {
+    TestState s1 = new TestState(1);
+    TestState s2 = new TestState(1);
+    reached.add(s1, precision);
+
+    Iterable<AbstractState> partition = reached.getReached(s1);
+    reached.add(s2, precision);
+    assertThat(partition).containsExactly(s1, s2).inOrder();
+
+    // modifying the reached set while iterating over a partition is allowed
+    for (AbstractState state : partition) {
+      reached.remove(state);
+    }
+    assertThat(partition).isEmpty();
+    assertThat(reached.asCollection()).isEmpty();
+  }
+
+  @Test
+  public void testPollFromWaitlist() {
+    TestState s = new TestState(1);
+    reached.add(s, precision);
+    assertThat(reached.pollFromWaitlist()).isSameAs(s);
+    assertThat(reached.pollFromWaitlist()).isNull();
+  }
+
+  @Test(expected=NoSuchElementException.class)
+  public void testPopFromEmptyWaitlist() {
+    reached.add(new TestState(1), precision);
+    reached.popFromWaitlist();
+    reached.popFromWaitlist();
+  }
+
+  @Test(expected=IllegalArgumentException.class)
+  public void testAddWithDifferentPrecision() {
+    TestState s = new TestState(1);
+    reached.add(s, precision);
+    reached.add(s, mock(Precision.class));
+  }
+
+  @Test
+  public void testConcurrentAddAndRemove() throws Exception {
+    final int threads = 4;
+    final int statesPerThread = 1000;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> results = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+        results.add(executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+              for (int i = 0; i < statesPerThread; i++) {
+                TestState state = new TestState(i % 10);
+                reached.add(state, precision);
+                if (i % 2 == 0) {
+                  reached.remove(state);
+                }
+              }
+              return null;
+            }
+          }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    int expectedSize = threads * statesPerThread / 2;
+    assertThat(reached.size()).isEqualTo(expectedSize);
+    assertThat(reached.asCollection()).hasSize(expectedSize);
+    assertThat(reached.getWaitlist()).hasSize(expectedSize);
+
+    int sumOfPartitions = 0;
+    for (int i = 0; i < 10; i++) {
+      sumOfPartitions += reached.getReached(new TestState(i)).size();
+    }
+    assertThat(sumOfPartitions).isEqualTo(expectedSize);
+  }
+
+  @Test
+  public void testConcurrentFirstState() throws Exception {
+    final int threads = 4;
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> results = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+        final int partition = t;
+        results.add(executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() {
+              for (int i = 0; i < 100; i++) {
+                reached.add(new TestState(partition), precision);
+              }
+              return null;
+            }
+          }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // the first and last state are the first and last state in insertion order
+    List<AbstractState> states = new ArrayList<>(reached.asCollection());
+    assertThat(reached.getFirstState()).isSameAs(states.get(0));
+    assertThat(reached.getLastState()).isSameAs(states.get(states.size() - 1));
+  }
+}
@@ -0,0 +1,203 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.reachedset;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.Partitionable;
+import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+
+/**
+ * Microbenchmarks that compare the reached-set implementations
+ * for the operations used by the CPA algorithm.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=ReachedSetBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReachedSetBenchmark {
+
+  private static final Precision PRECISION = new Precision() {};
+
+  private static class PartitionedState implements AbstractState, Partitionable {
+
+    private final Integer partition;
+
+    private PartitionedState(int pPartition) {
+      partition = pPartition;
+    }
+
+    @Override
+    public Object getPartitionKey() {
+      return partition;
+    }
+  }
+
+  public static enum Implementation {
+    NORMAL {
+      @Override
+      ReachedSet create() {
+        return new DefaultReachedSet(TraversalMethod.DFS);
+      }
+    },
+    PARTITIONED {
+      @Override
+      ReachedSet create() {
+        return new PartitionedReachedSet(TraversalMethod.DFS);
+      }
+    },
+    CONCURRENT {
+      @Override
+      ReachedSet create() {
+        return new ConcurrentPartitionedReachedSet(TraversalMethod.DFS);
+      }
+    };
+
+    abstract ReachedSet create();
+  }
+
+  private static List<PartitionedState> createStates(int count, int partitions) {
+    List<PartitionedState> states = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      states.add(new PartitionedState(i % partitions));
+    }
+    return states;
+  }
+
+  /** A filled reached set, used for the single-threaded benchmarks. */
+  @State(Scope.Thread)
+  public static class FilledReachedSet {
+
+    @Param({"NORMAL", "PARTITIONED", "CONCURRENT"})
+    Implementation implementation;
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"1000"})
+    int partitions;
+
+    ReachedSet reached;
+    List<PartitionedState> states;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      states = createStates(size, partitions);
+      reached = implementation.create();
+      for (PartitionedState state : states) {
+        reached.add(state, PRECISION);
+      }
+    }
+
+    PartitionedState randomState() {
+      return states.get(ThreadLocalRandom.current().nextInt(states.size()));
+    }
+  }
+
+  /** A filled concurrent reached set, shared by all benchmark threads. */
+  @State(Scope.Benchmark)
+  public static class SharedReachedSet {
+
+    @Param({"100000"})
+    int size;
+
+    @Param({"1000"})
+    int partitions;
+
+    ConcurrentPartitionedReachedSet reached;
+    List<PartitionedState> states;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      states = createStates(size, partitions);
+      reached = new ConcurrentPartitionedReachedSet(TraversalMethod.DFS);
+      for (PartitionedState state : states) {
+        reached.add(state, PRECISION);
+      }
+    }
+
+    PartitionedState randomState() {
+      return states.get(ThreadLocalRandom.current().nextInt(states.size()));
+    }
+  }
+
+  @Benchmark
+  public void getReached(FilledReachedSet pState, Blackhole pBlackhole) {
+    for (AbstractState reachedState : pState.reached.getReached(pState.randomState())) {
+      pBlackhole.consume(reachedState);
+    }
+  }
+
+  @Benchmark
+  public void removeAndAdd(FilledReachedSet pState) {
+    PartitionedState state = pState.randomState();
+    pState.reached.remove(state);
+    pState.reached.add(state, PRECISION);
+  }
+
+  @Benchmark
+  public void popAndReAdd(FilledReachedSet pState, Blackhole pBlackhole) {
+    AbstractState state = pState.reached.popFromWaitlist();
+    pBlackhole.consume(pState.reached.getPrecision(state));
+    pState.reached.reAddToWaitlist(state);
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void getReachedConcurrently(SharedReachedSet pState, Blackhole pBlackhole) {
+    for (AbstractState reachedState : pState.reached.getReached(pState.randomState())) {
+      pBlackhole.consume(reachedState);
+    }
+  }
+
+  @Benchmark
+  @Threads(4)
+  public void removeAndAddConcurrently(SharedReachedSet pState) {
+    PartitionedState state = new PartitionedState(
+        ThreadLocalRandom.current().nextInt(pState.partitions));
+    pState.reached.add(state, PRECISION);
+    pState.reached.remove(state);
+  }
+}
@@ -43,7 +43,7 @@ import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariableWaitlist;
 public class ReachedSetFactory {
 
   private static enum ReachedSetType {
-    NORMAL, LOCATIONMAPPED, PARTITIONED
+    NORMAL, LOCATIONMAPPED, PARTITIONED, CONCURRENT
   }
 
   @Option(secure=true, name="traversal.order",
@@ -92,7 +92,8 @@ public class ReachedSetFactory {
       + "\nNORMAL: just a simple set"
       + "\nLOCATIONMAPPED: a different set per location "
       + "(faster, states with different locations cannot be merged)"
-      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)")
+      + "\nPARTITIONED: partitioning depending on CPAs (e.g Location, Callstack etc.)"
+      + "\nCONCURRENT: thread-safe variant of PARTITIONED with non-blocking lookups (modifications are serialized)")
   ReachedSetType reachedSet = ReachedSetType.PARTITIONED;
 
   public ReachedSetFactory(Configuration config, LogManager logger) throws InvalidConfigurationException {
@@ -132,6 +133,9 @@ public class ReachedSetFactory {
     case PARTITIONED:
       return new PartitionedReachedSet(waitlistFactory);
 
+    case CONCURRENT:
+      return new ConcurrentPartitionedReachedSet(waitlistFactory);
+
     case LOCATIONMAPPED:
       return new LocationMappedReachedSet(waitlistFactory);
 
@@ -0,0 +1,198 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.core.waitlist;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+import org.sosy_lab.cpachecker.core.interfaces.StateSpacePartition;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.TraversalMethod;
+import org.sosy_lab.cpachecker.core.waitlist.Waitlist.WaitlistFactory;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonVariableWaitlist;
+import org.sosy_lab.cpachecker.cpa.callstack.CallstackState;
+import org.sosy_lab.cpachecker.cpa.composite.CompositeState;
+import org.sosy_lab.cpachecker.cpa.location.LocationCPA;
+import org.sosy_lab.cpachecker.cpa.value.ValueAnalysisState;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+import com.google.common.collect.ImmutableList;
+
+/**
+ * Microbenchmarks for the sub-classes of {@link AbstractSortedWaitlist}.
+ * The states consist of a location in a fixed program from test/programs,
+ * a callstack of varying depth, and a value-analysis state of varying size.
+ * They have no loopstack and no automaton states,
+ * so for the waitlists that sort by those all states have the same key.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=WaitlistBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WaitlistBenchmark {
+
+  private static final String PROGRAM = "test/programs/simple/SynchronousSimulator.c";
+  private static final int MAX_CALLSTACK_DEPTH = 10;
+  private static final int MAX_VALUE_STATE_SIZE = 20;
+
+  public static enum SortedWaitlist {
+    CALLSTACK {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return CallstackSortedWaitlist.factory(pSecondary);
+      }
+    },
+    EXPLICIT {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return ExplicitSortedWaitlist.factory(pSecondary);
+      }
+    },
+    LOOPSTACK {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return LoopstackSortedWaitlist.factory(pSecondary);
+      }
+    },
+    POSTORDER {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return PostorderSortedWaitlist.factory(pSecondary);
+      }
+    },
+    REVERSE_POSTORDER {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return ReversePostorderSortedWaitlist.factory(pSecondary);
+      }
+    },
+    AUTOMATON_MATCHES {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return AutomatonMatchesWaitlist.factory(pSecondary);
+      }
+    },
+    AUTOMATON_FAILED_MATCHES {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return AutomatonFailedMatchesWaitlist.factory(pSecondary);
+      }
+    },
+    AUTOMATON_VARIABLE {
+      @Override
+      WaitlistFactory factory(WaitlistFactory pSecondary) {
+        return AutomatonVariableWaitlist.factory(pSecondary, "x");
+      }
+    };
+
+    abstract WaitlistFactory factory(WaitlistFactory pSecondary);
+  }
+
+  @State(Scope.Thread)
+  public static class FilledWaitlist {
+
+    @Param
+    SortedWaitlist waitlistType;
+
+    @Param({"10000"})
+    int size;
+
+    Waitlist waitlist;
+    final List<AbstractState> states = new ArrayList<>();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+      Configuration config = TestDataTools.configurationForTest().build();
+      CFA cfa = TestDataTools.makeCFA(PROGRAM, config);
+      LocationCPA locationCpa = new LocationCPA(cfa, config);
+      List<CFANode> nodes = new ArrayList<>(cfa.getAllNodes());
+
+      List<CallstackState> callstacks = new ArrayList<>(MAX_CALLSTACK_DEPTH);
+      CallstackState callstack = null;
+      for (int i = 0; i < MAX_CALLSTACK_DEPTH; i++) {
+        callstack = new CallstackState(callstack, "f" + i, cfa.getMainFunction());
+        callstacks.add(callstack);
+      }
+
+      List<ValueAnalysisState> valueStates = new ArrayList<>(MAX_VALUE_STATE_SIZE);
+      ValueAnalysisState valueState = new ValueAnalysisState();
+      for (int i = 0; i < MAX_VALUE_STATE_SIZE; i++) {
+        valueState = ValueAnalysisState.copyOf(valueState);
+        valueState.assignConstant(MemoryLocation.valueOf("main", "x" + i, 0),
+            new NumericValue(i), CNumericTypes.INT);
+        valueStates.add(valueState);
+      }
+
+      // twice as many states as in the waitlist, such that states with different keys are added
+      for (int i = 0; i < 2 * size; i++) {
+        AbstractState location = locationCpa.getInitialState(
+            nodes.get(i % nodes.size()), StateSpacePartition.getDefaultPartition());
+        states.add(new CompositeState(ImmutableList.of(
+            location,
+            callstacks.get(i % callstacks.size()),
+            valueStates.get(i % valueStates.size()))));
+      }
+
+      waitlist = waitlistType.factory(TraversalMethod.DFS).createWaitlistInstance();
+      for (int i = 0; i < size; i++) {
+        waitlist.add(nextState());
+      }
+    }
+
+    AbstractState nextState() {
+      next = (next + 1) % states.size();
+      return states.get(next);
+    }
+  }
+
+  /** Pop the next state and add another one, such that the size of the waitlist stays constant. */
+  @Benchmark
+  public AbstractState popAndAdd(FilledWaitlist pWaitlist) {
+    AbstractState state = pWaitlist.waitlist.pop();
+    pWaitlist.waitlist.add(pWaitlist.nextState());
+    return state;
+  }
+}
@@ -41,7 +41,6 @@ import java.util.Set;
 import java.util.SortedMap;
 
 import javax.annotation.Nullable;
-import javax.xml.parsers.ParserConfigurationException;
 
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.configuration.Configuration;
@@ -94,7 +93,6 @@ import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphType;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeType;
-import org.w3c.dom.Element;
 
 import com.google.common.base.Function;
 import com.google.common.base.Preconditions;
@@ -530,7 +528,7 @@ public class ARGPathExport {
       return result;
     }
 
-    private void appendKeyDefinitions(GraphMlBuilder pDoc, GraphType pGraphType) {
+    private void appendKeyDefinitions(GraphMlBuilder pDoc, GraphType pGraphType) throws IOException {
       if (pGraphType == GraphType.CONDITION) {
         pDoc.appendNewKeyDef(KeyDef.INVARIANT, null);
         pDoc.appendNewKeyDef(KeyDef.NAMED, null);
@@ -672,12 +670,7 @@ public class ARGPathExport {
 
       GraphType graphType = GraphType.PROGRAMPATH;
 
-      GraphMlBuilder doc;
-      try {
-        doc = new GraphMlBuilder(pTarget);
-      } catch (ParserConfigurationException e) {
-        throw new IOException(e);
-      }
+      GraphMlBuilder doc = new GraphMlBuilder(pTarget);
 
       // TODO: Full schema details
       // Version of format..
@@ -911,23 +904,23 @@ public class ARGPathExport {
       return false;
     }
 
-    private void newEdge(GraphMlBuilder pDoc, Edge pEdge) {
-      Element result = pDoc.createEdgeElement(pEdge.source, pEdge.target);
+    private void newEdge(GraphMlBuilder pDoc, Edge pEdge) throws IOException {
+      pDoc.openEdge(pEdge.source, pEdge.target);
       for (KeyDef k : pEdge.label.keyValues.keySet())  {
-        pDoc.addDataElementChild(result, k, pEdge.label.keyValues.get(k));
+        pDoc.appendDataElement(k, pEdge.label.keyValues.get(k));
       }
-      pDoc.appendToAppendable(result);
+      pDoc.closeElement();
     }
 
     private void appendNewNode(GraphMlBuilder pDoc, String pEntryStateNodeId) throws IOException {
-      Element result = pDoc.createNodeElement(pEntryStateNodeId, NodeType.ONPATH);
+      pDoc.openNode(pEntryStateNodeId, NodeType.ONPATH);
       for (NodeFlag f : nodeFlags.get(pEntryStateNodeId)) {
-        pDoc.addDataElementChild(result, f.key, "true");
+        pDoc.appendDataElement(f.key, "true");
       }
       for (String violation : violatedProperties.get(pEntryStateNodeId)) {
-        pDoc.addDataElementChild(result, KeyDef.VIOLATEDPROPERTY, violation);
+        pDoc.appendDataElement(KeyDef.VIOLATEDPROPERTY, violation);
       }
-      pDoc.appendToAppendable(result);
+      pDoc.closeElement();
     }
 
     private Collection<NodeFlag> extractNodeFlags(ARGState pState) {
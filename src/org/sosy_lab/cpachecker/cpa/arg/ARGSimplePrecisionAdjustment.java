@@ -27,9 +27,11 @@ import org.sosy_lab.cpachecker.core.defaults.SimplePrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
-public class ARGSimplePrecisionAdjustment extends SimplePrecisionAdjustment {
+public class ARGSimplePrecisionAdjustment extends SimplePrecisionAdjustment
+    implements ThreadSafePrecisionAdjustment {
 
   private final SimplePrecisionAdjustment wrappedPrecAdjustment;
 
@@ -27,12 +27,14 @@ import static com.google.common.base.Preconditions.*;
 import static com.google.common.collect.FluentIterable.from;
 import static org.sosy_lab.cpachecker.util.AbstractStates.extractLocation;
 
+import java.util.AbstractCollection;
 import java.util.ArrayDeque;
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Set;
 
@@ -47,18 +49,23 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Graphable;
 
 import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Sets;
 
 public class ARGState extends AbstractSingleWrapperState implements Comparable<ARGState>, Graphable {
 
   private static final long serialVersionUID = 2608287648397165040L;
 
-  // We use a List here although we would like to have a Set
-  // because ArrayList is much more memory efficient than e.g. LinkedHashSet.
-  // Also these collections are small and so a slow contains() method won't hurt.
+  private static final ARGState[] NO_STATES = new ARGState[0];
+
+  // We use exactly-sized arrays here although we would like to have a Set,
+  // because there are a lot of ARG states, and most of them have only one parent
+  // and few children, so even an ArrayList would be mostly overhead.
+  // States without children share the same empty array.
+  // Also these arrays are small and so a slow contains() method won't hurt.
   // To enforce set semantics, do not add elements except through addparent()!
-  private final Collection<ARGState> children = new ArrayList<>(1);
-  private final Collection<ARGState> parents = new ArrayList<>(1);
+  private ARGState[] children = NO_STATES;
+  private ARGState[] parents = NO_STATES;
 
   private ARGState mCoveredBy = null;
   private Set<ARGState> mCoveredByThis = null; // lazy initialization because rarely needed
@@ -90,7 +97,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
    * @return A unmodifiable collection of ARGStates without duplicates.
    */
   public Collection<ARGState> getParents() {
-    return Collections.unmodifiableCollection(parents);
+    return new AdjacencyView(false);
   }
 
   public void addParent(ARGState pOtherParent) {
@@ -98,12 +105,12 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
     assert !destroyed : "Don't use destroyed ARGState " + this;
 
     // Manually enforce set semantics.
-    if (!parents.contains(pOtherParent)) {
-      assert !pOtherParent.children.contains(this);
-      parents.add(pOtherParent);
-      pOtherParent.children.add(this);
+    if (!contains(parents, pOtherParent)) {
+      assert !contains(pOtherParent.children, this);
+      parents = append(parents, pOtherParent);
+      pOtherParent.children = append(pOtherParent.children, this);
     } else {
-      assert pOtherParent.children.contains(this);
+      assert contains(pOtherParent.children, this);
     }
   }
 
@@ -113,7 +120,68 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
    */
   public Collection<ARGState> getChildren() {
     assert !destroyed : "Don't use destroyed ARGState " + this;
-    return Collections.unmodifiableCollection(children);
+    return new AdjacencyView(true);
+  }
+
+  /**
+   * Unmodifiable live view of the children or parents of this state.
+   */
+  private final class AdjacencyView extends AbstractCollection<ARGState> {
+
+    private final boolean ofChildren;
+
+    private AdjacencyView(boolean pOfChildren) {
+      ofChildren = pOfChildren;
+    }
+
+    private ARGState[] states() {
+      return ofChildren ? children : parents;
+    }
+
+    @Override
+    public Iterator<ARGState> iterator() {
+      return Iterators.forArray(states());
+    }
+
+    @Override
+    public int size() {
+      return states().length;
+    }
+
+    @Override
+    public boolean contains(Object pO) {
+      return pO instanceof ARGState && ARGState.contains(states(), (ARGState)pO);
+    }
+  }
+
+  private static boolean contains(ARGState[] states, ARGState state) {
+    for (ARGState s : states) {
+      if (s == state) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static ARGState[] append(ARGState[] states, ARGState state) {
+    ARGState[] result = Arrays.copyOf(states, states.length + 1);
+    result[states.length] = state;
+    return result;
+  }
+
+  private static ARGState[] remove(ARGState[] states, ARGState state) {
+    for (int i = 0; i < states.length; i++) {
+      if (states[i] == state) {
+        if (states.length == 1) {
+          return NO_STATES;
+        }
+        ARGState[] result = new ARGState[states.length - 1];
+        System.arraycopy(states, 0, result, 0, i);
+        System.arraycopy(states, i + 1, result, i, states.length - i - 1);
+        return result;
+      }
+    }
+    return states;
   }
 
   /**
@@ -161,7 +229,7 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
       ARGState currentElement = workList.removeFirst();
       if (result.add(currentElement)) {
         // currentElement was not in result
-        workList.addAll(currentElement.children);
+        Collections.addAll(workList, currentElement.children);
       }
     }
     return result;
@@ -247,9 +315,9 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
   }
 
   void deleteChild(ARGState child) {
-    assert (children.contains(child));
-    children.remove(child);
-    child.parents.remove(this);
+    assert contains(children, child);
+    children = remove(children, child);
+    child.parents = remove(child.parents, this);
   }
 
   // small and less important stuff
@@ -306,9 +374,9 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
     sb.append(stateId);
     if (!destroyed) {
       sb.append(", Parents: ");
-      sb.append(stateIdsOf(parents));
+      sb.append(stateIdsOf(Arrays.asList(parents)));
       sb.append(", Children: ");
-      sb.append(stateIdsOf(children));
+      sb.append(stateIdsOf(Arrays.asList(children)));
 
       if (mCoveredBy != null) {
         sb.append(", Covered by: ");
@@ -401,17 +469,17 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
 
     // clear children
     for (ARGState child : children) {
-      assert (child.parents.contains(this));
-      child.parents.remove(this);
+      assert contains(child.parents, this);
+      child.parents = remove(child.parents, this);
     }
-    children.clear();
+    children = NO_STATES;
 
     // clear parents
     for (ARGState parent : parents) {
-      assert (parent.children.contains(this));
-      parent.children.remove(this);
+      assert contains(parent.children, this);
+      parent.children = remove(parent.children, this);
     }
-    parents.clear();
+    parents = NO_STATES;
   }
 
   /**
@@ -431,18 +499,18 @@ public class ARGState extends AbstractSingleWrapperState implements Comparable<A
 
     // copy children
     for (ARGState child : children) {
-      assert (child.parents.contains(this)) : "Inconsistent ARG at " + this;
-      child.parents.remove(this);
+      assert contains(child.parents, this) : "Inconsistent ARG at " + this;
+      child.parents = remove(child.parents, this);
       child.addParent(replacement);
     }
-    children.clear();
+    children = NO_STATES;
 
     for (ARGState parent : parents) {
-      assert (parent.children.contains(this)) : "Inconsistent ARG at " + this;
-      parent.children.remove(this);
+      assert contains(parent.children, this) : "Inconsistent ARG at " + this;
+      parent.children = remove(parent.children, this);
       replacement.addParent(parent);
     }
-    parents.clear();
+    parents = NO_STATES;
 
     if (mCoveredByThis != null) {
       if (replacement.mCoveredByThis == null) {
@@ -0,0 +1,102 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.arg;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
+
+/**
+ * Microbenchmarks for creating ARGs.
+ * The wrapped state is shared, such that only the costs of the ARG itself are measured.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=ARGStateBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ARGStateBenchmark {
+
+  private static final AbstractState WRAPPED_STATE = new AbstractState() {};
+
+  @State(Scope.Thread)
+  public static class Size {
+
+    @Param({"1000"})
+    int states;
+  }
+
+  /** A linear ARG, as created for straight-line code. */
+  @Benchmark
+  public ARGState createPath(Size pSize) {
+    ARGState state = new ARGState(WRAPPED_STATE, null);
+    for (int i = 1; i < pSize.states; i++) {
+      state = new ARGState(WRAPPED_STATE, state);
+    }
+    return state;
+  }
+
+  /**
+   * An ARG with a branching and a merge point for every three states,
+   * as created for a sequence of if-then-else statements with merges.
+   */
+  @Benchmark
+  public ARGState createDiamonds(Size pSize) {
+    ARGState state = new ARGState(WRAPPED_STATE, null);
+    for (int i = 1; i < pSize.states; i += 3) {
+      ARGState thenState = new ARGState(WRAPPED_STATE, state);
+      ARGState elseState = new ARGState(WRAPPED_STATE, state);
+      state = new ARGState(WRAPPED_STATE, thenState);
+      state.addParent(elseState);
+    }
+    return state;
+  }
+
+  /** Create a subtree below a state and remove it again, as done during refinement. */
+  @Benchmark
+  public ARGState createAndRemoveSubtree(Size pSize) {
+    ARGState root = new ARGState(WRAPPED_STATE, null);
+    ARGState state = root;
+    for (int i = 1; i < pSize.states; i++) {
+      state = new ARGState(WRAPPED_STATE, state);
+    }
+    for (ARGState removed : root.getSubgraph()) {
+      if (removed != root) {
+        removed.removeFromARG();
+      }
+    }
+    return root;
+  }
+}
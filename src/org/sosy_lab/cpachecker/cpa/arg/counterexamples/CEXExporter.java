@@ -28,10 +28,14 @@ import static com.google.common.base.Predicates.notNull;
 import static com.google.common.collect.FluentIterable.from;
 
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.logging.Level;
+import java.util.zip.GZIPOutputStream;
 
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
@@ -45,6 +49,7 @@ import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.io.Files;
 import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
 import org.sosy_lab.common.io.PathTemplate;
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
@@ -119,6 +124,11 @@ public class CEXExporter {
   @FileOption(FileOption.Type.OUTPUT_FILE)
   private PathTemplate errorPathAutomatonGraphmlFile = null;
 
+  @Option(secure=true, name="compressGraphml",
+      description="compress the exported graphml error path (witness) with gzip;"
+          + " \".gz\" is appended to the file name")
+  private boolean compressGraphml = false;
+
   @Option(secure=true, name="exportImmediately",
           description="export error paths to files immediately after they were found")
   private boolean dumpErrorPathImmediately = false;
@@ -276,7 +286,7 @@ public class CEXExporter {
       }
     }
 
-    writeErrorPathFile(errorPathAutomatonGraphmlFile, cexIndex, new Appender() {
+    Appender witness = new Appender() {
       @Override
       public void appendTo(Appendable pAppendable) throws IOException {
         witnessExporter.writePath(pAppendable, rootState,
@@ -285,7 +295,12 @@ public class CEXExporter {
                 isTargetPathEdge,
                 counterexample);
       }
-    });
+    };
+    if (compressGraphml) {
+      writeCompressedErrorPathFile(errorPathAutomatonGraphmlFile, cexIndex, witness);
+    } else {
+      writeErrorPathFile(errorPathAutomatonGraphmlFile, cexIndex, witness);
+    }
   }
 
   private Appender createErrorPathWithVariableAssignmentInformation(
@@ -385,6 +400,24 @@ public class CEXExporter {
     }
   }
 
+  private void writeCompressedErrorPathFile(PathTemplate template, int cexIndex, Appender content) {
+    if (template != null) {
+      // fill in index in file name
+      Path file = Paths.get(template.getPath(cexIndex).getPath() + ".gz");
+
+      try {
+        Files.createParentDirs(file);
+        try (Writer w = new OutputStreamWriter(
+            new GZIPOutputStream(file.asByteSink().openBufferedStream()), StandardCharsets.UTF_8)) {
+          content.appendTo(w);
+        }
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e,
+                "Could not write information about the error path to file");
+      }
+    }
+  }
+
   private static Set<Pair<ARGState, ARGState>> getEdgesOfPath(ARGPath pPath) {
     Set<Pair<ARGState, ARGState>> result = Sets.newHashSetWithExpectedSize(pPath.size());
     Iterator<ARGState> it = pPath.asStatesList().iterator();
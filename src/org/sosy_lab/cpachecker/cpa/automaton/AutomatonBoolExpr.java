@@ -319,6 +319,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
       return result;
     }
 
+    AutomatonBoolExpr getOperandExpression() {
+      return operandExpression;
+    }
+
     @Override
     public String toString() {
       return String.format("MATCH FORALL SUCCESSOR EDGES (%s)", operandExpression);
@@ -357,6 +361,10 @@ interface AutomatonBoolExpr extends AutomatonExpression {
       return result;
     }
 
+    AutomatonBoolExpr getOperandExpression() {
+      return operandExpression;
+    }
+
     @Override
     public String toString() {
       return String.format("MATCH EXISTS SUCCESSOR EDGE (%s)", operandExpression);
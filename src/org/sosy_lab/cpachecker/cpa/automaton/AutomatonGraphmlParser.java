@@ -23,6 +23,7 @@
  */
 package org.sosy_lab.cpachecker.cpa.automaton;
 
+import java.io.BufferedInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -43,11 +44,15 @@ import java.util.Objects;
 import java.util.Queue;
 import java.util.Set;
 import java.util.logging.Level;
+import java.util.zip.GZIPInputStream;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import javax.annotation.Nullable;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
@@ -78,10 +83,6 @@ import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.AssumeCase;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.GraphMlTag;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.KeyDef;
 import org.sosy_lab.cpachecker.util.automaton.AutomatonGraphmlCommon.NodeFlag;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
 import org.xml.sax.SAXException;
 import org.xml.sax.helpers.DefaultHandler;
 
@@ -99,6 +100,7 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.collect.SetMultimap;
 
 @Options(prefix="spec")
 public class AutomatonGraphmlParser {
@@ -152,54 +154,40 @@ public class AutomatonGraphmlParser {
   */
   public List<Automaton> parseAutomatonFile(Path pInputFile) throws InvalidConfigurationException {
     CParser cparser = CParser.Factory.getParser(config, logger, CParser.Factory.getOptions(config), machine);
-    try (InputStream input = pInputFile.asByteSource().openStream()) {
-      // Parse the XML document ----
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
-      Document doc = docBuilder.parse(input);
-      doc.getDocumentElement().normalize();
-
-      GraphMlDocumentData docDat = new GraphMlDocumentData(doc);
-
-      // (The one) root node of the graph ----
-      NodeList graphs = doc.getElementsByTagName(GraphMlTag.GRAPH.toString());
-      Preconditions.checkArgument(graphs.getLength() == 1, "The graph file must describe exactly one automaton.");
-      Node graphNode = graphs.item(0);
+    try (InputStream input = openWitness(pInputFile)) {
+      // Read the XML document ----
+      // We only keep the data that is relevant for the automaton instead of building a DOM,
+      // because witnesses can be very large.
+      GraphMlDocumentData docDat = GraphMlDocumentData.read(input, getRelevantEdgeData());
 
       // Extract the information on the automaton ----
-      Node nameAttribute = graphNode.getAttributes().getNamedItem("name");
       String automatonName = WITNESS_AUTOMATON_NAME;
-      if (nameAttribute != null) {
-        automatonName += "_" + nameAttribute.getTextContent();
+      if (docDat.getGraphName() != null) {
+        automatonName += "_" + docDat.getGraphName();
       }
       String initialStateName = null;
 
       // Create transitions ----
       //AutomatonBoolExpr epsilonTrigger = new SubsetMatchEdgeTokens(Collections.<Comparable<Integer>>emptySet());
-      NodeList edges = doc.getElementsByTagName(GraphMlTag.EDGE.toString());
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
+      List<GraphMlEdge> edges = docDat.getEdges();
       Map<String, LinkedList<AutomatonTransition>> stateTransitions = Maps.newHashMap();
       Map<String, Deque<String>> stacks = Maps.newHashMap();
 
       // Create graph
-      Multimap<String, Node> leavingEdges = HashMultimap.create();
-      Multimap<String, Node> enteringEdges = HashMultimap.create();
+      Multimap<String, GraphMlEdge> leavingEdges = HashMultimap.create();
+      Multimap<String, GraphMlEdge> enteringEdges = HashMultimap.create();
       String entryNodeId = null;
 
       Set<String> violationStates = Sets.newHashSet();
 
-      for (int i = 0; i < edges.getLength(); i++) {
-        Node stateTransitionEdge = edges.item(i);
-
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+      for (GraphMlEdge stateTransitionEdge : edges) {
+        String sourceStateId = stateTransitionEdge.source;
+        String targetStateId = stateTransitionEdge.target;
         leavingEdges.put(sourceStateId, stateTransitionEdge);
         enteringEdges.put(targetStateId, stateTransitionEdge);
 
-        Element sourceStateNode = docDat.getNodeWithId(sourceStateId);
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceStateNode);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+        EnumSet<NodeFlag> sourceNodeFlags = docDat.getNodeWithId(sourceStateId).flags;
+        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeWithId(targetStateId).flags;
         if (targetNodeFlags.contains(NodeFlag.ISVIOLATION)) {
           violationStates.add(sourceStateId);
         }
@@ -209,10 +197,9 @@ public class AutomatonGraphmlParser {
       }
 
       // Find entry
-      for (int i = 0; i < nodes.getLength(); ++i) {
-        Node node = nodes.item(i);
-        if (Boolean.parseBoolean(docDat.getDataValueWithDefault(node, KeyDef.ISENTRYNODE, "false"))) {
-          entryNodeId = GraphMlDocumentData.getAttributeValue(node, "id", "Every node needs an id!");
+      for (GraphMlNode node : docDat.getIdToNodeMap().values()) {
+        if (Boolean.parseBoolean(docDat.getDataValueWithDefault(node.entryValue, KeyDef.ISENTRYNODE, "false"))) {
+          entryNodeId = node.id;
           break;
         }
       }
@@ -228,8 +215,8 @@ public class AutomatonGraphmlParser {
       while (!waitlist.isEmpty()) {
         String current = waitlist.poll();
         int newDistance = distances.get(current) + 1;
-        for (Node enteringEdge : enteringEdges.get(current)) {
-          String sourceStateId = GraphMlDocumentData.getAttributeValue(enteringEdge, "source", "Every transition needs a source!");
+        for (GraphMlEdge enteringEdge : enteringEdges.get(current)) {
+          String sourceStateId = enteringEdge.source;
           Integer oldDistance = distances.get(sourceStateId);
           if (oldDistance == null || oldDistance > newDistance) {
             distances.put(sourceStateId, newDistance);
@@ -240,24 +227,23 @@ public class AutomatonGraphmlParser {
       // Sink nodes have infinite distance to the target location, encoded as -1
       distances.put(AutomatonGraphmlCommon.SINK_NODE_ID, -1);
 
-      Set<Node> visitedEdges = new HashSet<>();
-      Queue<Node> waitingEdges = new ArrayDeque<>();
+      Set<GraphMlEdge> visitedEdges = new HashSet<>();
+      Queue<GraphMlEdge> waitingEdges = new ArrayDeque<>();
       waitingEdges.addAll(leavingEdges.get(entryNodeId));
       visitedEdges.addAll(waitingEdges);
       while (!waitingEdges.isEmpty()) {
-        Node stateTransitionEdge = waitingEdges.poll();
+        GraphMlEdge stateTransitionEdge = waitingEdges.poll();
 
-        String sourceStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "source", "Every transition needs a source!");
-        String targetStateId = GraphMlDocumentData.getAttributeValue(stateTransitionEdge, "target", "Every transition needs a target!");
+        String sourceStateId = stateTransitionEdge.source;
+        String targetStateId = stateTransitionEdge.target;
 
-        for (Node successorEdge : leavingEdges.get(targetStateId)) {
+        for (GraphMlEdge successorEdge : leavingEdges.get(targetStateId)) {
           if (visitedEdges.add(successorEdge)) {
             waitingEdges.add(successorEdge);
           }
         }
 
-        Element targetStateNode = docDat.getNodeWithId(targetStateId);
-        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeFlags(targetStateNode);
+        EnumSet<NodeFlag> targetNodeFlags = docDat.getNodeWithId(targetStateId).flags;
 
         final List<AutomatonBoolExpr> assertions = Collections.emptyList();
         boolean leadsToViolationNode = targetNodeFlags.contains(NodeFlag.ISVIOLATION);
@@ -290,9 +276,9 @@ public class AutomatonGraphmlParser {
           stacks.put(sourceStateId, currentStack);
         }
         Deque<String> newStack = currentStack;
-        Set<String> functionEntries = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.FUNCTIONENTRY);
+        Set<String> functionEntries = stateTransitionEdge.getData(KeyDef.FUNCTIONENTRY);
         String functionEntry = Iterables.getOnlyElement(functionEntries, null);
-        Set<String> functionExits = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.FUNCTIONEXIT);
+        Set<String> functionExits = stateTransitionEdge.getData(KeyDef.FUNCTIONEXIT);
         String functionExit = Iterables.getOnlyElement(functionEntries, null);
 
         // If the same function is entered and exited, the stack remains unchanged.
@@ -328,8 +314,8 @@ public class AutomatonGraphmlParser {
 
         // Add assumptions to the transition
         if (considerAssumptions) {
-          Set<String> transAssumes = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTION);
-          Set<String> assumptionScopes = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ASSUMPTIONSCOPE);
+          Set<String> transAssumes = stateTransitionEdge.getData(KeyDef.ASSUMPTION);
+          Set<String> assumptionScopes = stateTransitionEdge.getData(KeyDef.ASSUMPTIONSCOPE);
           Preconditions.checkArgument(assumptionScopes.size() < 2, "At most one assumption scope must be provided for an edge.");
           if (!transAssumes.isEmpty()) {
             Scope scope = this.scope;
@@ -354,10 +340,10 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchOriginLine) {
-          Set<String> originFileTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINFILE);
+          Set<String> originFileTags = stateTransitionEdge.getData(KeyDef.ORIGINFILE);
           Preconditions.checkArgument(originFileTags.size() < 2, "At most one origin-file data tag must be provided for an edge.");
 
-          Set<String> originLineTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINLINE);
+          Set<String> originLineTags = stateTransitionEdge.getData(KeyDef.ORIGINLINE);
           Preconditions.checkArgument(originLineTags.size() <  2, "At most one origin-line data tag must be provided for each edge.");
 
           int matchOriginLineNumber = -1;
@@ -375,10 +361,10 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchOffset) {
-          Set<String> originFileTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.ORIGINFILE);
+          Set<String> originFileTags = stateTransitionEdge.getData(KeyDef.ORIGINFILE);
           Preconditions.checkArgument(originFileTags.size() < 2, "At most one origin-file data tag must be provided for an edge.");
 
-          Set<String> offsetTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.OFFSET);
+          Set<String> offsetTags = stateTransitionEdge.getData(KeyDef.OFFSET);
           Preconditions.checkArgument(offsetTags.size() <  2, "At most one offset data tag must be provided for each edge.");
 
           int offset = -1;
@@ -397,7 +383,7 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchSourcecodeData) {
-          Set<String> sourceCodeDataTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.SOURCECODE);
+          Set<String> sourceCodeDataTags = stateTransitionEdge.getData(KeyDef.SOURCECODE);
           Preconditions.checkArgument(sourceCodeDataTags.size() < 2, "At most one source-code data tag must be provided.");
           final String sourceCode;
           if (sourceCodeDataTags.isEmpty()) {
@@ -432,7 +418,7 @@ public class AutomatonGraphmlParser {
         }
 
         if (matchAssumeCase) {
-          Set<String> assumeCaseTags = GraphMlDocumentData.getDataOnNode(stateTransitionEdge, KeyDef.CONTROLCASE);
+          Set<String> assumeCaseTags = stateTransitionEdge.getData(KeyDef.CONTROLCASE);
 
           if (assumeCaseTags.size() > 0) {
             Preconditions.checkArgument(assumeCaseTags.size() <  2, "At most one assume case tag must be provided for each edge.");
@@ -467,8 +453,7 @@ public class AutomatonGraphmlParser {
         // Multiple CFA edges in a sequence might match the triggers,
         // so in that case we ALSO need a transition back to the source state
         if (strictMatching || !assumptions.isEmpty() || !actions.isEmpty() || leadsToViolationNode) {
-          Element sourceNode = docDat.getNodeWithId(sourceStateId);
-          Set<NodeFlag> sourceNodeFlags = docDat.getNodeFlags(sourceNode);
+          Set<NodeFlag> sourceNodeFlags = docDat.getNodeWithId(sourceStateId).flags;
           boolean sourceIsViolationNode = sourceNodeFlags.contains(NodeFlag.ISVIOLATION);
           matchingTransitions.add(createAutomatonTransition(
               and(conjunctedTriggers,
@@ -485,9 +470,9 @@ public class AutomatonGraphmlParser {
 
       // Create states ----
       List<AutomatonInternalState> automatonStates = Lists.newArrayList();
-      for (String stateId : docDat.getIdToNodeMap().keySet()) {
-        Element stateNode = docDat.getIdToNodeMap().get(stateId);
-        EnumSet<NodeFlag> nodeFlags = docDat.getNodeFlags(stateNode);
+      for (GraphMlNode stateNode : docDat.getIdToNodeMap().values()) {
+        String stateId = stateNode.id;
+        EnumSet<NodeFlag> nodeFlags = stateNode.flags;
 
         List<AutomatonTransition> transitions = stateTransitions.get(stateId);
         if (transitions == null) {
@@ -540,7 +525,7 @@ public class AutomatonGraphmlParser {
 
     } catch (FileNotFoundException e) {
       throw new InvalidConfigurationException("Invalid automaton file provided! File not found!: " + pInputFile.getPath());
-    } catch (IOException | ParserConfigurationException | SAXException e) {
+    } catch (IOException | XMLStreamException e) {
       throw new InvalidConfigurationException("Error while accessing automaton file!", e);
     } catch (InvalidAutomatonException e) {
       throw new InvalidConfigurationException("The automaton provided is invalid!", e);
@@ -750,58 +735,202 @@ public class AutomatonGraphmlParser {
     return pAssumeCode;
   }
 
-  private static class GraphMlDocumentData {
+  /**
+   * Determines the data keys of edges that are needed
+   * to build the automaton with the current options.
+   * All other data of edges is skipped while reading the witness.
+   */
+  private Set<KeyDef> getRelevantEdgeData() {
+    Set<KeyDef> result = EnumSet.of(KeyDef.FUNCTIONENTRY, KeyDef.FUNCTIONEXIT);
+    if (considerAssumptions) {
+      result.add(KeyDef.ASSUMPTION);
+      result.add(KeyDef.ASSUMPTIONSCOPE);
+    }
+    if (matchOriginLine) {
+      result.add(KeyDef.ORIGINFILE);
+      result.add(KeyDef.ORIGINLINE);
+    }
+    if (matchOffset) {
+      result.add(KeyDef.ORIGINFILE);
+      result.add(KeyDef.OFFSET);
+    }
+    if (matchSourcecodeData) {
+      result.add(KeyDef.SOURCECODE);
+    }
+    if (matchAssumeCase) {
+      result.add(KeyDef.CONTROLCASE);
+    }
+    return result;
+  }
 
-    private final HashMap<String, Optional<String>> defaultDataValues = Maps.newHashMap();
-    private final Document doc;
+  /**
+   * Opens a witness file for reading.
+   * Witnesses compressed with gzip are detected by their magic number
+   * and decompressed on the fly.
+   */
+  private static InputStream openWitness(Path pPath) throws IOException {
+    InputStream input = new BufferedInputStream(pPath.asByteSource().openStream());
+    try {
+      input.mark(2);
+      int first = input.read();
+      int second = input.read();
+      input.reset();
+      if (first == (GZIPInputStream.GZIP_MAGIC & 0xff) && second == (GZIPInputStream.GZIP_MAGIC >> 8)) {
+        return new GZIPInputStream(input);
+      }
+      return input;
+    } catch (IOException e) {
+      input.close();
+      throw e;
+    }
+  }
+
+  /** A node of the witness with the information that is relevant for the automaton. */
+  private static class GraphMlNode {
+
+    private final String id;
+    private final EnumSet<NodeFlag> flags = EnumSet.noneOf(NodeFlag.class);
 
-    private Map<String, Element> idToNodeMap = null;
+    /** The value of the entry-node data of this node, or null if not present. */
+    private String entryValue = null;
 
-    public GraphMlDocumentData(Document doc) {
-      this.doc = doc;
+    private GraphMlNode(String pId) {
+      id = pId;
     }
+  }
 
-    public EnumSet<NodeFlag> getNodeFlags(Element pStateNode) {
-      EnumSet<NodeFlag> result = EnumSet.noneOf(NodeFlag.class);
+  /** An edge of the witness with the data that is relevant for the automaton. */
+  private static class GraphMlEdge {
 
-      NodeList dataChilds = pStateNode.getElementsByTagName(GraphMlTag.DATA.toString());
+    private final String source;
+    private final String target;
+    private final SetMultimap<KeyDef, String> data = HashMultimap.create(1, 1);
 
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        String key = attribute.getTextContent();
-        NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
-        if (flag != null) {
-          result.add(flag);
-        }
-      }
+    private GraphMlEdge(String pSource, String pTarget) {
+      source = pSource;
+      target = pTarget;
+    }
 
-      return result;
+    private Set<String> getData(KeyDef pDataKey) {
+      return data.get(pDataKey);
     }
+  }
 
-    public Map<String, Element> getIdToNodeMap() {
-      if (idToNodeMap != null) {
-        return idToNodeMap;
-      }
+  /**
+   * The relevant content of a GraphML witness.
+   * It is read with a streaming XML parser,
+   * and only the node flags and the edge data that is required by the automaton are kept,
+   * such that the memory needed is much smaller than for a DOM of the document.
+   */
+  private static class GraphMlDocumentData {
 
-      idToNodeMap = Maps.newHashMap();
+    private final Map<String, Optional<String>> defaultDataValues = Maps.newHashMap();
+    private final Map<String, GraphMlNode> idToNodeMap = Maps.newLinkedHashMap();
+    private final List<GraphMlEdge> edges = new ArrayList<>();
+    private String graphName = null;
 
-      NodeList nodes = doc.getElementsByTagName(GraphMlTag.NODE.toString());
-      for (int i=0; i<nodes.getLength(); i++) {
-        Element stateNode = (Element) nodes.item(i);
-        String stateId = getNodeId(stateNode);
+    private GraphMlDocumentData() { }
 
-        idToNodeMap.put(stateId, stateNode);
+    private static GraphMlDocumentData read(InputStream pInput, Set<KeyDef> pRelevantEdgeData)
+        throws XMLStreamException {
+      Map<String, KeyDef> relevantEdgeData = Maps.newHashMap();
+      for (KeyDef keyDef : pRelevantEdgeData) {
+        relevantEdgeData.put(keyDef.id, keyDef);
       }
 
+      XMLInputFactory factory = XMLInputFactory.newInstance();
+      factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+      XMLStreamReader reader = factory.createXMLStreamReader(pInput);
+
+      GraphMlDocumentData result = new GraphMlDocumentData();
+      int numberOfGraphs = 0;
+      String currentKey = null;
+      GraphMlNode currentNode = null;
+      GraphMlEdge currentEdge = null;
+
+      try {
+        while (reader.hasNext()) {
+          int event = reader.next();
+
+          if (event == XMLStreamConstants.START_ELEMENT) {
+            String tag = reader.getLocalName();
+
+            if (tag.equals(GraphMlTag.KEY.toString())) {
+              currentKey = getAttributeValue(reader, "id", "Every key needs an id!");
+              result.defaultDataValues.put(currentKey, Optional.<String>absent());
+
+            } else if (tag.equals(GraphMlTag.DEFAULT.toString()) && currentKey != null) {
+              Preconditions.checkArgument(!result.defaultDataValues.get(currentKey).isPresent());
+              result.defaultDataValues.put(currentKey, Optional.of(reader.getElementText()));
+
+            } else if (tag.equals(GraphMlTag.GRAPH.toString())) {
+              numberOfGraphs++;
+              Preconditions.checkArgument(numberOfGraphs == 1, "The graph file must describe exactly one automaton.");
+              result.graphName = reader.getAttributeValue(null, "name");
+
+            } else if (tag.equals(GraphMlTag.NODE.toString())) {
+              currentNode = new GraphMlNode(getAttributeValue(reader, "id", "Every state needs an ID!"));
+              result.idToNodeMap.put(currentNode.id, currentNode);
+
+            } else if (tag.equals(GraphMlTag.EDGE.toString())) {
+              currentEdge = new GraphMlEdge(
+                  getAttributeValue(reader, "source", "Every transition needs a source!"),
+                  getAttributeValue(reader, "target", "Every transition needs a target!"));
+              result.edges.add(currentEdge);
+
+            } else if (tag.equals(GraphMlTag.DATA.toString())) {
+              String key = getAttributeValue(reader, "key", "Every data element must have a key attribute!");
+              if (currentNode != null) {
+                NodeFlag flag = NodeFlag.getNodeFlagByKey(key);
+                if (flag != null) {
+                  currentNode.flags.add(flag);
+                }
+                if (key.equals(KeyDef.ISENTRYNODE.id)) {
+                  currentNode.entryValue = reader.getElementText();
+                }
+              } else if (currentEdge != null) {
+                KeyDef keyDef = relevantEdgeData.get(key);
+                if (keyDef != null) {
+                  currentEdge.data.put(keyDef, reader.getElementText());
+                }
+              }
+            }
+
+          } else if (event == XMLStreamConstants.END_ELEMENT) {
+            String tag = reader.getLocalName();
+            if (tag.equals(GraphMlTag.KEY.toString())) {
+              currentKey = null;
+            } else if (tag.equals(GraphMlTag.NODE.toString())) {
+              currentNode = null;
+            } else if (tag.equals(GraphMlTag.EDGE.toString())) {
+              currentEdge = null;
+            }
+          }
+        }
+      } finally {
+        reader.close();
+      }
+
+      Preconditions.checkArgument(numberOfGraphs == 1, "The graph file must describe exactly one automaton.");
+      return result;
+    }
+
+    private static String getAttributeValue(XMLStreamReader pReader, String attributeName, String exceptionMessage) {
+      String value = pReader.getAttributeValue(null, attributeName);
+      Preconditions.checkNotNull(value, exceptionMessage);
+      return value;
+    }
+
+    public @Nullable String getGraphName() {
+      return graphName;
+    }
+
+    public Map<String, GraphMlNode> getIdToNodeMap() {
       return idToNodeMap;
     }
 
-    private static String getAttributeValue(Node of, String attributeName, String exceptionMessage) {
-      Node attribute = of.getAttributes().getNamedItem(attributeName);
-      Preconditions.checkNotNull(attribute, exceptionMessage);
-      return attribute.getTextContent();
+    public List<GraphMlEdge> getEdges() {
+      return edges;
     }
 
     private Optional<String> getDataDefault(KeyDef dataKey) {
@@ -809,38 +938,17 @@ public class AutomatonGraphmlParser {
       if (result != null) {
         return result;
       }
-
-      NodeList keyDefs = doc.getElementsByTagName(GraphMlTag.KEY.toString());
-      for (int i=0; i<keyDefs.getLength(); i++) {
-        Element keyDef = (Element) keyDefs.item(i);
-        Node id = keyDef.getAttributes().getNamedItem("id");
-        if (dataKey.id.equals(id.getTextContent())) {
-          NodeList defaultTags = keyDef.getElementsByTagName(GraphMlTag.DEFAULT.toString());
-          result = Optional.absent();
-          if (defaultTags.getLength() > 0) {
-            Preconditions.checkArgument(defaultTags.getLength() == 1);
-            result = Optional.of(defaultTags.item(0).getTextContent());
-          }
-          defaultDataValues.put(dataKey.id, result);
-          return result;
-        }
-      }
       return Optional.absent();
     }
 
-    private static String getNodeId(Node stateNode) {
-      return getAttributeValue(stateNode, "id", "Every state needs an ID!");
-    }
-
-    private Element getNodeWithId(String nodeId) {
-      Element result = getIdToNodeMap().get(nodeId);
+    private GraphMlNode getNodeWithId(String nodeId) {
+      GraphMlNode result = idToNodeMap.get(nodeId);
       Preconditions.checkNotNull(result, "Node not found. Id: " + nodeId);
       return result;
     }
 
-    private String getDataValueWithDefault(Node dataOnNode, KeyDef dataKey, final String defaultValue) {
-      Set<String> values = getDataOnNode(dataOnNode, dataKey);
-      if (values.size() == 0) {
+    private String getDataValueWithDefault(@Nullable String value, KeyDef dataKey, final String defaultValue) {
+      if (value == null) {
         Optional<String> dataDefault = getDataDefault(dataKey);
         if (dataDefault.isPresent()) {
           return dataDefault.get();
@@ -848,43 +956,13 @@ public class AutomatonGraphmlParser {
           return defaultValue;
         }
       } else {
-        return values.iterator().next();
-      }
-    }
-
-    private static Set<String> getDataOnNode(Node node, final KeyDef dataKey) {
-      Preconditions.checkNotNull(node);
-      Preconditions.checkArgument(node.getNodeType() == Node.ELEMENT_NODE);
-
-      Element nodeElement = (Element) node;
-      Set<Node> dataNodes = findKeyedDataNode(nodeElement, dataKey);
-
-      Set<String> result = Sets.newHashSet();
-      for (Node n: dataNodes) {
-        result.add(n.getTextContent());
+        return value;
       }
-
-      return result;
-    }
-
-    private static Set<Node> findKeyedDataNode(Element of, final KeyDef dataKey) {
-      Set<Node> result = Sets.newHashSet();
-      NodeList dataChilds = of.getElementsByTagName(GraphMlTag.DATA.toString());
-      for (int i=0; i<dataChilds.getLength(); i++) {
-        Node dataChild = dataChilds.item(i);
-        Node attribute = dataChild.getAttributes().getNamedItem("key");
-        Preconditions.checkNotNull(attribute, "Every data element must have a key attribute!");
-        if (attribute.getTextContent().equals(dataKey.id)) {
-          result.add(dataChild);
-        }
-      }
-      return result;
     }
-
   }
 
   public static boolean isGraphmlAutomaton(Path pPath, LogManager pLogger) throws InvalidConfigurationException {
-    try (InputStream input = pPath.asByteSource().openStream()) {
+    try (InputStream input = openWitness(pPath)) {
       SAXParserFactory.newInstance().newSAXParser().parse(input, new DefaultHandler());
       return true;
     } catch (FileNotFoundException e) {
@@ -24,12 +24,16 @@
 package org.sosy_lab.cpachecker.cpa.automaton;
 
 import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 import org.sosy_lab.common.UniqueIdGenerator;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.StringExpression;
 
+import com.google.common.collect.ImmutableList;
+
 /** Represents a State in the automaton.
  */
 public class AutomatonInternalState {
@@ -66,6 +70,8 @@ public class AutomatonInternalState {
   private final String name;
   /** Outgoing transitions of this state.  */
   private final List<AutomatonTransition> transitions;
+  /** Outgoing transitions of this state that may match on a given type of edge (in order).  */
+  private final Map<CFAEdgeType, ImmutableList<AutomatonTransition>> transitionsByEdgeType;
 
   private final boolean mIsTarget;
 
@@ -76,9 +82,20 @@ public class AutomatonInternalState {
 
   public AutomatonInternalState(String pName, List<AutomatonTransition> pTransitions, boolean pIsTarget, boolean pAllTransitions) {
     this.name = pName;
-    this.transitions = pTransitions;
+    this.transitions = ImmutableList.copyOf(pTransitions);
     this.mIsTarget = pIsTarget;
     this.mAllTransitions = pAllTransitions;
+
+    transitionsByEdgeType = new EnumMap<>(CFAEdgeType.class);
+    for (CFAEdgeType edgeType : CFAEdgeType.values()) {
+      ImmutableList.Builder<AutomatonTransition> candidates = ImmutableList.builder();
+      for (AutomatonTransition t : transitions) {
+        if (t.mayMatch(edgeType)) {
+          candidates.add(t);
+        }
+      }
+      transitionsByEdgeType.put(edgeType, candidates.build());
+    }
   }
 
   public AutomatonInternalState(String pName, List<AutomatonTransition> pTransitions) {
@@ -134,6 +151,15 @@ public class AutomatonInternalState {
     return transitions;
   }
 
+  /**
+   * Returns the outgoing transitions of this state that may match on an edge of the given type,
+   * in the same order as in {@link #getTransitions()}.
+   * All other transitions are guaranteed to not match such an edge.
+   */
+  List<AutomatonTransition> getTransitionsForEdgeType(CFAEdgeType pEdgeType) {
+    return transitionsByEdgeType.get(pEdgeType);
+  }
+
   @Override
   public String toString() {
     return this.name;
@@ -46,12 +46,14 @@ import org.sosy_lab.cpachecker.cfa.CParser;
 import org.sosy_lab.cpachecker.cfa.CParser.ParserOptions;
 import org.sosy_lab.cpachecker.cfa.CProgramScope;
 import org.sosy_lab.cpachecker.cfa.ast.c.CAstNode;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
 import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonASTComparator.ASTMatcher;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.test.TestDataTools;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.io.CharSource;
 import com.google.common.io.CharStreams;
 import com.google.common.truth.FailureStrategy;
@@ -174,6 +176,39 @@ public class AutomatonInternalTest {
     assertThat(ex.eval(args).canNotEvaluate()).isTrue();
   }
 
+  @Test
+  public void testTransitionsForEdgeType() {
+    AutomatonBoolExpr cannot = new AutomatonBoolExpr.CPAQuery("none", "none");
+    List<AutomatonBoolExpr> noAssertions = Collections.emptyList();
+    List<AutomatonAction> noActions = Collections.emptyList();
+
+    AutomatonTransition onAssume = new AutomatonTransition(
+        AutomatonBoolExpr.MatchAssumeEdge.INSTANCE, noAssertions, noActions, AutomatonInternalState.BOTTOM);
+    AutomatonTransition onAssumeAndQuery = new AutomatonTransition(
+        new AutomatonBoolExpr.And(new AutomatonBoolExpr.MatchAssumeCase(true), cannot),
+        noAssertions, noActions, AutomatonInternalState.BOTTOM);
+    AutomatonTransition onAssumeOrQuery = new AutomatonTransition(
+        new AutomatonBoolExpr.Or(AutomatonBoolExpr.MatchAssumeEdge.INSTANCE, cannot),
+        noAssertions, noActions, AutomatonInternalState.BOTTOM);
+    AutomatonTransition notOnAssume = new AutomatonTransition(
+        new AutomatonBoolExpr.Negation(AutomatonBoolExpr.MatchAssumeEdge.INSTANCE),
+        noAssertions, noActions, AutomatonInternalState.BOTTOM);
+    AutomatonTransition never = new AutomatonTransition(
+        AutomatonBoolExpr.FALSE, noAssertions, noActions, AutomatonInternalState.BOTTOM);
+
+    AutomatonInternalState state = new AutomatonInternalState("test",
+        ImmutableList.of(onAssume, onAssumeAndQuery, onAssumeOrQuery, notOnAssume, never));
+
+    assertThat(state.getTransitionsForEdgeType(CFAEdgeType.AssumeEdge))
+        .containsExactly(onAssume, onAssumeAndQuery, onAssumeOrQuery, notOnAssume).inOrder();
+    assertThat(state.getTransitionsForEdgeType(CFAEdgeType.StatementEdge))
+        .containsExactly(onAssumeOrQuery, notOnAssume).inOrder();
+
+    assertThat(onAssume.isTriggerDependingOnlyOnEdge()).isTrue();
+    assertThat(notOnAssume.isTriggerDependingOnlyOnEdge()).isTrue();
+    assertThat(onAssumeAndQuery.isTriggerDependingOnlyOnEdge()).isFalse();
+  }
+
   @Test
   public void testJokerReplacementInPattern() {
     // tests the replacement of Joker expressions in the AST comparison
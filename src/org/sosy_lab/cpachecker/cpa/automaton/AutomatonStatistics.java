@@ -54,11 +54,13 @@ class AutomatonStatistics extends AbstractStatistics {
       // normally automaton is very fast, and time measurements are very imprecise
       // so don't care about very small times
       put(out, 1, "Time for transition matches", trans.matchTime);
+      put(out, 2, "Transitions skipped by edge type", trans.skippedTransitions);
+      put(out, 2, "Transition matches reused from cache", trans.cachedTransitionMatches);
       put(out, 1, "Time for transition assertions", trans.assertionsTime);
       put(out, 1, "Time for transition actions", trans.actionTime);
     }
 
-    if (trans.totalStrengthenTime.getNumberOfIntervals() > 0) {
+    if (trans.totalStrengthenTime.getUpdateCount() > 0) {
       put(out, 0, "Total time for strengthen operator", trans.totalStrengthenTime);
     }
 
@@ -36,6 +36,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.Pair;
@@ -44,32 +45,36 @@ import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
-import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
 import org.sosy_lab.cpachecker.cfa.model.MultiEdge;
 import org.sosy_lab.cpachecker.core.defaults.SingleEdgeTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeTransferRelation;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonState.AutomatonUnknownState;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.util.SourceLocationMapper;
 import org.sosy_lab.cpachecker.util.statistics.StatIntHist;
 import org.sosy_lab.cpachecker.util.statistics.StatKind;
+import org.sosy_lab.cpachecker.util.statistics.StatTimer;
 
 import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
+import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 
 /** The TransferRelation of this CPA determines the AbstractSuccessor of a {@link AutomatonState}
  * and strengthens an {@link AutomatonState.AutomatonUnknownState}.
  */
 @Options(prefix = "cpa.automaton")
-class AutomatonTransferRelation extends SingleEdgeTransferRelation {
+class AutomatonTransferRelation extends SingleEdgeTransferRelation
+    implements ThreadSafeTransferRelation {
 
   @Option(secure=true, description = "Collect information about matched (and traversed) tokens.")
   private boolean collectTokenInformation = false;
@@ -77,12 +82,25 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
   private final ControlAutomatonCPA cpa;
   private final LogManager logger;
 
-  Timer totalPostTime = new Timer();
-  Timer matchTime = new Timer();
-  Timer assertionsTime = new Timer();
-  Timer actionTime = new Timer();
-  Timer totalStrengthenTime = new Timer();
-  StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  // statistics, may be updated by several threads concurrently
+  final StatTimer totalPostTime = new StatTimer("Total time for successor computation");
+  final StatTimer matchTime = new StatTimer("Time for transition matches");
+  final StatTimer assertionsTime = new StatTimer("Time for transition assertions");
+  final StatTimer actionTime = new StatTimer("Time for transition actions");
+  final StatTimer totalStrengthenTime = new StatTimer("Total time for strengthen operator");
+  final StatIntHist automatonSuccessors = new StatIntHist(StatKind.AVG, "Automaton transfer successors");
+  final AtomicInteger skippedTransitions = new AtomicInteger();
+  final AtomicInteger cachedTransitionMatches = new AtomicInteger();
+
+  /**
+   * Results of transition triggers that depend only on the CFA edge,
+   * together with the transition variables that were set during the match.
+   * This avoids repeating (expensive) AST and string matches
+   * each time the same edge is handled in the same automaton state.
+   * Accesses are synchronized on the table.
+   */
+  private final Table<CFAEdge, AutomatonTransition, Pair<ResultValue<Boolean>, Map<Integer, String>>> matchCache =
+      HashBasedTable.create();
 
   public AutomatonTransferRelation(ControlAutomatonCPA pCpa, Configuration config,
       LogManager pLogger) throws InvalidConfigurationException {
@@ -213,10 +231,17 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
       return Collections.singleton(state);
     }
 
+    // Only look at transitions that may match on this type of edge,
+    // all other transitions are known to not match.
+    List<AutomatonTransition> transitions =
+        state.getInternalState().getTransitionsForEdgeType(edge.getEdgeType());
+    int skippedMatches = state.getInternalState().getTransitions().size() - transitions.size();
+    skippedTransitions.addAndGet(skippedMatches);
+
     Collection<AutomatonState> lSuccessors = Sets.newLinkedHashSetWithExpectedSize(2);
     AutomatonExpressionArguments exprArgs = new AutomatonExpressionArguments(state, state.getVars(), otherElements, edge, logger);
     boolean edgeMatched = false;
-    int failedMatches = 0;
+    int failedMatches = skippedMatches;
     boolean nonDetState = state.getInternalState().isNonDetState();
 
     // these transitions cannot be evaluated until last, because they might have sideeffects on other CPAs (dont want to execute them twice)
@@ -224,11 +249,11 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     // the list holds a Transition and the TransitionVariables generated during its match
     List<Pair<AutomatonTransition, Map<Integer, String>>> transitionsToBeTaken = new ArrayList<>(2);
 
-    for (AutomatonTransition t : state.getInternalState().getTransitions()) {
+    for (AutomatonTransition t : transitions) {
       exprArgs.clearTransitionVariables();
 
       matchTime.start();
-      ResultValue<Boolean> match = t.match(exprArgs);
+      ResultValue<Boolean> match = match(t, exprArgs, edge);
       matchTime.stop();
 
       if (match.canNotEvaluate()) {
@@ -320,6 +345,32 @@ class AutomatonTransferRelation extends SingleEdgeTransferRelation {
     }
   }
 
+  private ResultValue<Boolean> match(AutomatonTransition pTransition,
+      AutomatonExpressionArguments pArgs, CFAEdge pEdge) throws CPATransferException {
+    if (!pTransition.isTriggerDependingOnlyOnEdge()) {
+      return pTransition.match(pArgs);
+    }
+
+    Pair<ResultValue<Boolean>, Map<Integer, String>> cachedMatch;
+    synchronized (matchCache) {
+      cachedMatch = matchCache.get(pEdge, pTransition);
+    }
+    if (cachedMatch != null) {
+      cachedTransitionMatches.incrementAndGet();
+      pArgs.putTransitionVariables(cachedMatch.getSecond());
+      return cachedMatch.getFirst();
+    }
+
+    ResultValue<Boolean> match = pTransition.match(pArgs);
+    if (!match.canNotEvaluate()) {
+      Map<Integer, String> transitionVariables = ImmutableMap.copyOf(pArgs.getTransitionVariables());
+      synchronized (matchCache) {
+        matchCache.put(pEdge, pTransition, Pair.of(match, transitionVariables));
+      }
+    }
+    return match;
+  }
+
   private static Map<String, AutomatonVariable> deepCloneVars(Map<String, AutomatonVariable> pOld) {
     Map<String, AutomatonVariable> result = Maps.newHashMapWithExpectedSize(pOld.size());
     for (Entry<String, AutomatonVariable> e : pOld.entrySet()) {
@@ -26,6 +26,7 @@ package org.sosy_lab.cpachecker.cpa.automaton;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 import java.util.ArrayList;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -33,13 +34,33 @@ import java.util.logging.Level;
 import org.sosy_lab.cpachecker.cfa.ast.AStatement;
 import org.sosy_lab.cpachecker.cfa.ast.c.CStatement;
 import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdgeType;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonAction.CPAModification;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.And;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAllSuccessorEdgesBoolExpr;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAnySuccessorEdgesBoolExpr;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeCase;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchAssumeEdge;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeASTComparison;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchCFAEdgeRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchJavaAssert;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelExact;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLabelRegEx;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchLocationDescriptor;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchNonEmptyEdgeTokens;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchPathRelevantEdgesBoolExpr;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.MatchProgramExit;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Negation;
+import org.sosy_lab.cpachecker.cpa.automaton.AutomatonBoolExpr.Or;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.ResultValue;
 import org.sosy_lab.cpachecker.cpa.automaton.AutomatonExpression.StringExpression;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 
 /**
  * A transition in the automaton implements one of the {@link PATTERN_MATCHING_METHODS}.
@@ -54,6 +75,18 @@ class AutomatonTransition {
   private final ImmutableList<AutomatonAction> actions;
   private final StringExpression violatedPropertyDescription;
 
+  /**
+   * The types of CFA edges on which the trigger can possibly match,
+   * such that the transition does not need to be evaluated on all other edges.
+   */
+  private final ImmutableSet<CFAEdgeType> possibleEdgeTypes;
+
+  /**
+   * Whether the result of the trigger (including the transition variables it sets)
+   * is determined by the CFA edge alone, such that it can be cached per edge.
+   */
+  private final boolean triggerDependsOnlyOnEdge;
+
   /**
    * When the parser instances this class it can not assign a followstate because
    * that state might not be created (forward-reference).
@@ -97,6 +130,8 @@ class AutomatonTransition {
       StringExpression pViolatedPropertyDescription) {
 
     this.trigger = checkNotNull(pTrigger);
+    this.possibleEdgeTypes = Sets.immutableEnumSet(getPossibleEdgeTypes(pTrigger));
+    this.triggerDependsOnlyOnEdge = dependsOnlyOnEdge(pTrigger);
 
     if (pAssumption == null) {
       this.assumption = ImmutableList.of();
@@ -126,6 +161,83 @@ class AutomatonTransition {
     }
   }
 
+  /**
+   * Over-approximates the set of edge types on which the given expression may evaluate to true.
+   * Expressions that evaluate to false on an edge never fail to evaluate because of that edge
+   * (i.e., they do not return "cannot evaluate"), so skipping them does not change the result.
+   */
+  private static EnumSet<CFAEdgeType> getPossibleEdgeTypes(AutomatonBoolExpr pExpr) {
+    if (pExpr == AutomatonBoolExpr.FALSE) {
+      return EnumSet.noneOf(CFAEdgeType.class);
+
+    } else if (pExpr instanceof MatchAssumeEdge || pExpr instanceof MatchAssumeCase) {
+      return EnumSet.of(CFAEdgeType.AssumeEdge);
+
+    } else if (pExpr instanceof MatchJavaAssert) {
+      return EnumSet.of(CFAEdgeType.BlankEdge);
+
+    } else if (pExpr instanceof MatchCFAEdgeASTComparison) {
+      // only edges with an AST can match
+      return EnumSet.of(CFAEdgeType.AssumeEdge, CFAEdgeType.StatementEdge,
+          CFAEdgeType.DeclarationEdge, CFAEdgeType.ReturnStatementEdge,
+          CFAEdgeType.FunctionCallEdge);
+
+    } else if (pExpr instanceof And) {
+      EnumSet<CFAEdgeType> result = getPossibleEdgeTypes(((And) pExpr).getA());
+      result.retainAll(getPossibleEdgeTypes(((And) pExpr).getB()));
+      return result;
+
+    } else if (pExpr instanceof Or) {
+      EnumSet<CFAEdgeType> result = getPossibleEdgeTypes(((Or) pExpr).getA());
+      result.addAll(getPossibleEdgeTypes(((Or) pExpr).getB()));
+      return result;
+
+    } else {
+      return EnumSet.allOf(CFAEdgeType.class);
+    }
+  }
+
+  /**
+   * Checks whether the given expression depends only on the CFA edge,
+   * and not on the automaton state, its variables, or the states of other CPAs.
+   */
+  private static boolean dependsOnlyOnEdge(AutomatonBoolExpr pExpr) {
+    if (pExpr == AutomatonBoolExpr.TRUE
+        || pExpr == AutomatonBoolExpr.FALSE
+        || pExpr instanceof MatchProgramExit
+        || pExpr instanceof MatchLabelExact
+        || pExpr instanceof MatchLabelRegEx
+        || pExpr instanceof MatchCFAEdgeASTComparison
+        || pExpr instanceof MatchCFAEdgeRegEx
+        || pExpr instanceof MatchCFAEdgeExact
+        || pExpr instanceof MatchJavaAssert
+        || pExpr instanceof MatchAssumeEdge
+        || pExpr instanceof MatchAssumeCase
+        || pExpr instanceof MatchPathRelevantEdgesBoolExpr
+        || pExpr instanceof MatchNonEmptyEdgeTokens
+        || pExpr instanceof MatchLocationDescriptor) {
+      return true;
+
+    } else if (pExpr instanceof And) {
+      return dependsOnlyOnEdge(((And) pExpr).getA()) && dependsOnlyOnEdge(((And) pExpr).getB());
+
+    } else if (pExpr instanceof Or) {
+      return dependsOnlyOnEdge(((Or) pExpr).getA()) && dependsOnlyOnEdge(((Or) pExpr).getB());
+
+    } else if (pExpr instanceof Negation) {
+      return dependsOnlyOnEdge(((Negation) pExpr).getA());
+
+    } else if (pExpr instanceof MatchAllSuccessorEdgesBoolExpr) {
+      return dependsOnlyOnEdge(((MatchAllSuccessorEdgesBoolExpr) pExpr).getOperandExpression());
+
+    } else if (pExpr instanceof MatchAnySuccessorEdgesBoolExpr) {
+      return dependsOnlyOnEdge(((MatchAnySuccessorEdgesBoolExpr) pExpr).getOperandExpression());
+
+    } else {
+      return false;
+    }
+  }
+
   /**
    * Resolves the follow-state relation for this transition.
    */
@@ -200,6 +312,21 @@ class AutomatonTransition {
     return trigger;
   }
 
+  /**
+   * Returns false if the trigger of this transition cannot match on edges of the given type.
+   */
+  boolean mayMatch(CFAEdgeType pEdgeType) {
+    return possibleEdgeTypes.contains(pEdgeType);
+  }
+
+  /**
+   * Returns true if the result of {@link #match(AutomatonExpressionArguments)}
+   * and the transition variables set by it depend only on the CFA edge.
+   */
+  boolean isTriggerDependingOnlyOnEdge() {
+    return triggerDependsOnlyOnEdge;
+  }
+
   public String getViolatedPropertyDescription(AutomatonExpressionArguments pArgs) {
     if (violatedPropertyDescription == null) {
       if (getFollowState().isTarget()) {
@@ -34,6 +34,7 @@ import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
@@ -41,7 +42,7 @@ import com.google.common.base.Function;
 import com.google.common.base.Optional;
 
 @Options(prefix="cpa.automaton.prec")
-public class ControlAutomatonPrecisionAdjustment implements PrecisionAdjustment {
+public class ControlAutomatonPrecisionAdjustment implements ThreadSafePrecisionAdjustment {
 
   private final @Nullable PrecisionAdjustment wrappedPrec;
   private final AutomatonState topState;
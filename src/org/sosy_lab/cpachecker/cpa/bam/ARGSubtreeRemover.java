@@ -129,6 +129,7 @@ public class ARGSubtreeRemover {
 
     // the main-reachedset contains only the root, exit-states and targets.
     // we assume, that the current refinement was caused by a target-state.
+    data.removeExpandedPrecisions(lastState);
     mainReachedSet.removeSubtree(lastState);
   }
 
@@ -146,7 +147,7 @@ public class ARGSubtreeRemover {
   /**
    * @return <code>true</code>, if the precision of the first element of the given reachedSet changed by this operation; <code>false</code>, otherwise.
    */
-  private static boolean removeSubtree(ReachedSet reachedSet, ARGState argElement,
+  private boolean removeSubtree(ReachedSet reachedSet, ARGState argElement,
                                        List<Precision> newPrecisions, List<Predicate<? super Precision>> pPrecisionTypes) {
     ARGReachedSet argReachSet = new ARGReachedSet(reachedSet);
     boolean updateCacheNeeded = argElement.getParents().contains(reachedSet.getFirstState());
@@ -154,19 +155,20 @@ public class ARGSubtreeRemover {
     return updateCacheNeeded;
   }
 
-  static void removeSubtree(ARGReachedSet reachedSet, ARGState argElement) {
+  static void removeSubtree(BAMDataManager data, ARGReachedSet reachedSet, ARGState argElement) {
     if (BAMTransferRelation.isHeadOfMainFunction(extractLocation(argElement))) {
-      reachedSet.removeSubtree((ARGState)reachedSet.asReachedSet().getLastState());
-    } else {
-      reachedSet.removeSubtree(argElement);
+      argElement = (ARGState)reachedSet.asReachedSet().getLastState();
     }
+    data.removeExpandedPrecisions(argElement);
+    reachedSet.removeSubtree(argElement);
   }
 
-  private static void removeSubtree(ARGReachedSet reachedSet, ARGState argElement,
-                                    List<Precision> newPrecisions, List<Predicate<? super Precision>> pPrecisionTypes) {
+  private void removeSubtree(ARGReachedSet reachedSet, ARGState argElement,
+                             List<Precision> newPrecisions, List<Predicate<? super Precision>> pPrecisionTypes) {
     if (newPrecisions == null || newPrecisions.size() == 0) {
-      removeSubtree(reachedSet, argElement);
+      removeSubtree(data, reachedSet, argElement);
     } else {
+      data.removeExpandedPrecisions(argElement);
       reachedSet.removeSubtree(argElement, newPrecisions, pPrecisionTypes);
     }
   }
@@ -186,8 +188,8 @@ public class ARGSubtreeRemover {
       AbstractState reducedRootState = wrappedReducer.getVariableReducedState(rootState, rootSubtree, rootNode);
       ReachedSet reachedSet = data.initialStateToReachedSet.get(rootState);
 
-      if (removeElement.isDestroyed()) {
-        logger.log(Level.FINER, "state was destroyed before");
+      if (removeElement.isDestroyed() || reachedSet == null) {
+        logger.log(Level.FINER, "state was destroyed or its block evicted before");
         //apparently, removeElement was removed due to prior deletions
         return;
       }
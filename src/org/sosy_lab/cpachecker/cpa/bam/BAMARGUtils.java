@@ -81,7 +81,9 @@ class BAMARGUtils {
         if (edge == null) {
           //this is a summary edge
           Pair<Block, ReachedSet> pair = getCachedReachedSet(cpa, currentElement, reachedSet.getPrecision(currentElement));
-          gatherReachedSets(cpa, pair.getFirst(), pair.getSecond(), blockToReachedSet);
+          if (pair != null) { // null if the block was evicted from the cache
+            gatherReachedSets(cpa, pair.getFirst(), pair.getSecond(), blockToReachedSet);
+          }
         }
         if (!worklist.contains(child)) {
           if (reachedSet.contains(child)) {
@@ -97,7 +99,9 @@ class BAMARGUtils {
     Block rootSubtree = cpa.getBlockPartitioning().getBlockForCallNode(rootNode);
 
     ReachedSet reachSet = cpa.getData().initialStateToReachedSet.get(root);
-    assert reachSet != null;
+    if (reachSet == null) {
+      return null;
+    }
     return Pair.of(rootSubtree, reachSet);
   }
 
@@ -118,7 +118,6 @@ public class BAMCEXSubgraphComputer {
         final BackwardARGState newChild = finishedStates.get(child);
 
         if (data.expandedStateToReducedState.containsKey(child)) {
-          assert data.initialStateToReachedSet.containsKey(currentState) : "parent should be initial state of reached-set";
           // If child-state is an expanded state, we are at the exit-location of a block.
           // In this case, we enter the block (backwards).
           // We must use a cached reachedSet to process further, because the block has its own reachedSet.
@@ -127,7 +126,7 @@ public class BAMCEXSubgraphComputer {
           final ARGState reducedTarget = (ARGState) data.expandedStateToReducedState.get(child);
           BackwardARGState innerTree = computeCounterexampleSubgraphForBlock(currentState, reducedTarget, newChild);
           if (innerTree == DUMMY_STATE_FOR_MISSING_BLOCK) {
-            ARGSubtreeRemover.removeSubtree(reachedSet, currentState);
+            ARGSubtreeRemover.removeSubtree(data, reachedSet, currentState);
             return DUMMY_STATE_FOR_MISSING_BLOCK;
           }
 
@@ -202,6 +201,11 @@ public class BAMCEXSubgraphComputer {
 
     // TODO why do we use 'abstractStateToReachedSet' to get the reachedSet and not 'bamCache'?
     final ReachedSet reachedSet = data.initialStateToReachedSet.get(expandedRoot);
+    if (reachedSet == null) {
+      logger.log(Level.FINE,
+              "Reached set of the block was evicted from the cache. Updating it.");
+      return DUMMY_STATE_FOR_MISSING_BLOCK;
+    }
 
     // we found the reachedSet, corresponding to the root and precision.
     // now try to find the target in the reach set.
@@ -123,11 +123,12 @@ public class BAMCPA extends AbstractSingleWrapperCPA implements StatisticsProvid
     reducer = new TimedReducer(wrappedReducer);
     final BAMCache cache = new BAMCache(config, reducer, logger);
     data = new BAMDataManager(cache, pReachedSetFactory, pLogger);
+    cache.setEvictionListener(data);
 
     if (handleRecursiveProcedures) {
       transfer = new BAMTransferRelationWithFixPointForRecursion(config, logger, this, wrappedProofChecker, data, pShutdownNotifier);
     } else {
-      transfer = new BAMTransferRelation(config, logger, this, wrappedProofChecker, data, pShutdownNotifier);
+      transfer = new ThreadSafeBAMTransferRelation(config, logger, this, wrappedProofChecker, data, pShutdownNotifier);
     }
 
     prec = new BAMPrecisionAdjustment(pCpa.getPrecisionAdjustment(), data, transfer, logger);
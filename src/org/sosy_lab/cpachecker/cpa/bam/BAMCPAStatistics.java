@@ -120,7 +120,9 @@ class BAMCPAStatistics implements Statistics {
     BAMTransferRelation transferRelation = cpa.getTransferRelation();
     TimedReducer reducer = cpa.getReducer();
 
-    int sumCalls = data.bamCache.cacheMisses + data.bamCache.partialCacheHits + data.bamCache.fullCacheHits;
+    BAMCache cache = data.bamCache;
+    int cacheMisses = cache.cacheMisses.get();
+    int sumCalls = cacheMisses + cache.partialCacheHits.get() + cache.fullCacheHits.get();
 
     int sumARTElemets = 0;
     for (ReachedSet subreached : BAMARGUtils.gatherReachedSets(cpa, reached).values()) {
@@ -129,21 +131,27 @@ class BAMCPAStatistics implements Statistics {
 
     out.println("Total size of all ARGs:                                         " + sumARTElemets);
     out.println("Maximum block depth:                                            " + transferRelation.maxRecursiveDepth);
+    out.println("Number of waits for concurrent block analyses:                 " + transferRelation.waitsForConcurrentBlockAnalysis);
     out.println("Total number of recursive CPA calls:                            " + sumCalls);
-    out.println("  Number of cache misses:                                       " + data.bamCache.cacheMisses + " (" + toPercent(data.bamCache.cacheMisses, sumCalls) + " of all calls)");
-    out.println("  Number of partial cache hits:                                 " + data.bamCache.partialCacheHits + " (" + toPercent(data.bamCache.partialCacheHits, sumCalls) + " of all calls)");
-    out.println("  Number of full cache hits:                                    " + data.bamCache.fullCacheHits + " (" + toPercent(data.bamCache.fullCacheHits, sumCalls) + " of all calls)");
-    if (data.bamCache.gatherCacheMissStatistics) {
+    out.println("  Number of cache misses:                                       " + cacheMisses + " (" + toPercent(cacheMisses, sumCalls) + " of all calls)");
+    out.println("  Number of partial cache hits:                                 " + cache.partialCacheHits + " (" + toPercent(cache.partialCacheHits.get(), sumCalls) + " of all calls)");
+    out.println("  Number of full cache hits:                                    " + cache.fullCacheHits + " (" + toPercent(cache.fullCacheHits.get(), sumCalls) + " of all calls)");
+    if (cache.gatherCacheMissStatistics) {
       out.println("Cause for cache misses:                                         ");
-      out.println("  Number of abstraction caused misses:                          " + data.bamCache.abstractionCausedMisses + " (" + toPercent(data.bamCache.abstractionCausedMisses, data.bamCache.cacheMisses) + " of all misses)");
-      out.println("  Number of precision caused misses:                            " + data.bamCache.precisionCausedMisses + " (" + toPercent(data.bamCache.precisionCausedMisses, data.bamCache.cacheMisses) + " of all misses)");
-      out.println("  Number of misses with no similar elements:                    " + data.bamCache.noSimilarCausedMisses + " (" + toPercent(data.bamCache.noSimilarCausedMisses, data.bamCache.cacheMisses) + " of all misses)");
+      out.println("  Number of abstraction caused misses:                          " + cache.abstractionCausedMisses + " (" + toPercent(cache.abstractionCausedMisses.get(), cacheMisses) + " of all misses)");
+      out.println("  Number of precision caused misses:                            " + cache.precisionCausedMisses + " (" + toPercent(cache.precisionCausedMisses.get(), cacheMisses) + " of all misses)");
+      out.println("  Number of misses with no similar elements:                    " + cache.noSimilarCausedMisses + " (" + toPercent(cache.noSimilarCausedMisses.get(), cacheMisses) + " of all misses)");
     }
+    out.println("Number of states in cached blocks:                              " + cache.getCachedStates() + " (max: " + cache.getMaxCachedStates() + ")");
+    out.println("  Number of evicted blocks:                                     " + cache.evictedBlocks);
+    out.println("  Number of evicted states:                                     " + cache.evictedStates);
+    out.println("Number of contended cache shard locks:                          " + cache.contendedShardLocks);
+    out.println("Number of contended reducer locks:                              " + reducer.contendedLocks);
     out.println("Time for reducing abstract states:                            " + reducer.reduceTime + " (Calls: " + reducer.reduceTime.getNumberOfIntervals() + ")");
     out.println("Time for expanding abstract states:                           " + reducer.expandTime + " (Calls: " + reducer.expandTime.getNumberOfIntervals() + ")");
-    out.println("Time for checking equality of abstract states:                " + data.bamCache.equalsTimer + " (Calls: " + data.bamCache.equalsTimer.getNumberOfIntervals() + ")");
-    out.println("Time for computing the hashCode of abstract states:           " + data.bamCache.hashingTimer + " (Calls: " + data.bamCache.hashingTimer.getNumberOfIntervals() + ")");
-    out.println("Time for searching for similar cache entries:                   " + data.bamCache.searchingTimer + " (Calls: " + data.bamCache.searchingTimer.getNumberOfIntervals() + ")");
+    out.println("Time for checking equality of abstract states:                " + cache.getEqualsTime());
+    out.println("Time for computing the hashCode of abstract states:           " + cache.getHashingTime());
+    out.println("Time for searching for similar cache entries:                   " + cache.getSearchingTime());
     out.println("Time for reducing precisions:                                   " + reducer.reducePrecisionTime + " (Calls: " + reducer.reducePrecisionTime.getNumberOfIntervals() + ")");
     out.println("Time for expanding precisions:                                  " + reducer.expandPrecisionTime + " (Calls: " + reducer.expandPrecisionTime.getNumberOfIntervals() + ")");
 
@@ -155,7 +163,7 @@ class BAMCPAStatistics implements Statistics {
     }
 
     //Add to reached set all states from BAM cache
-    Collection<ReachedSet> cachedStates = data.bamCache.getAllCachedReachedStates();
+    Collection<ReachedSet> cachedStates = cache.getAllCachedReachedStates();
     for (ReachedSet set : cachedStates) {
       for (AbstractState state : set.asCollection()) {
         /* Method 'add' add state not only in list of reached states, but also in waitlist,
@@ -25,17 +25,29 @@ package org.sosy_lab.cpachecker.cpa.bam;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
 import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -46,6 +58,23 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 
 import com.google.common.base.Preconditions;
 
+/**
+ * Cache for the reached sets of blocks.
+ *
+ * The cache is split into shards, and all entries for the same block
+ * are stored in the same shard. Each shard has its own lock,
+ * such that blocks can be accessed concurrently.
+ *
+ * Optionally, the total number of abstract states in the cached reached sets
+ * of completely analyzed blocks is bounded. If this bound is exceeded,
+ * the least-recently used complete entries of the current shard are evicted.
+ * Evicted blocks are simply recomputed on the next cache miss.
+ * The {@link EvictionListener} is notified about evicted reached sets,
+ * such that other references to them can be dropped.
+ * Entries whose analysis is not finished (i.e., without return states
+ * or with waiting states) are never evicted, and nothing is evicted
+ * if a proof is generated.
+ */
 @Options(prefix = "cpa.bam")
 public class BAMCache {
 
@@ -55,56 +84,208 @@ public class BAMCache {
   @Option(secure=true, description = "if enabled, the reached set cache is analysed for each cache miss to find the cause of the miss.")
   boolean gatherCacheMissStatistics = false;
 
-  final Timer hashingTimer = new Timer();
-  final Timer equalsTimer = new Timer();
-  final Timer searchingTimer = new Timer();
+  @Option(secure=true, description = "number of independently locked shards of the block cache "
+      + "(all entries of one block are in the same shard)")
+  @IntegerOption(min=1)
+  private int cacheShards = 16;
 
-  int cacheMisses = 0;
-  int partialCacheHits = 0;
-  int fullCacheHits = 0;
+  @Option(secure=true, description = "maximum number of abstract states in the cached reached sets "
+      + "of completely analyzed blocks, least-recently used blocks are evicted "
+      + "and recomputed when necessary (0 for no limit, ignored when generating a proof). "
+      + "This is a soft bound: blocks are only evicted from the shard of the block that is added, "
+      + "and blocks that are still analyzed are never evicted, so the limit can be exceeded.")
+  @IntegerOption(min=0)
+  private int maxCachedStates = 0;
 
-  int abstractionCausedMisses = 0;
-  int precisionCausedMisses = 0;
-  int noSimilarCausedMisses = 0;
+  final AtomicInteger cacheMisses = new AtomicInteger();
+  final AtomicInteger partialCacheHits = new AtomicInteger();
+  final AtomicInteger fullCacheHits = new AtomicInteger();
 
-  private final Map<AbstractStateHash, ReachedSet> preciseReachedCache = new HashMap<>();
-  private final Map<AbstractStateHash, ReachedSet> unpreciseReachedCache = new HashMap<>();
-  private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
-  private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
+  final AtomicInteger abstractionCausedMisses = new AtomicInteger();
+  final AtomicInteger precisionCausedMisses = new AtomicInteger();
+  final AtomicInteger noSimilarCausedMisses = new AtomicInteger();
 
-  private ARGState lastAnalyzedBlock = null;
+  final AtomicInteger contendedShardLocks = new AtomicInteger();
+  final AtomicInteger evictedBlocks = new AtomicInteger();
+  final AtomicInteger evictedStates = new AtomicInteger();
+  private final AtomicInteger cachedStates = new AtomicInteger();
+  private final AtomicInteger maxCachedStatesReached = new AtomicInteger();
+
+  private final Shard[] shards;
+
+  private final ThreadLocal<ARGState> lastAnalyzedBlock = new ThreadLocal<>();
   private final Reducer reducer;
 
   private final LogManager logger;
 
+  private volatile EvictionListener evictionListener = null;
+
+  /** Listener for reached sets that were evicted from the cache. */
+  interface EvictionListener {
+
+    /** Called after the reached set was removed from the cache
+     * (without holding any lock of the cache). */
+    void reachedSetEvicted(ReachedSet reached);
+  }
+
+  private final class Shard {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Timer hashingTimer = new Timer();
+    private final Timer equalsTimer = new Timer();
+    private final Timer searchingTimer = new Timer();
+
+    // in access order, such that the least-recently used entries come first
+    @GuardedBy("lock")
+    private final Map<AbstractStateHash, ReachedSet> preciseReachedCache = new LinkedHashMap<>(16, 0.75f, true);
+    @GuardedBy("lock")
+    private final Map<AbstractStateHash, ReachedSet> unpreciseReachedCache = new HashMap<>();
+    @GuardedBy("lock")
+    private final Map<AbstractStateHash, Collection<AbstractState>> returnCache = new HashMap<>();
+    @GuardedBy("lock")
+    private final Map<AbstractStateHash, ARGState> blockARGCache = new HashMap<>();
+
+    // number of states of each complete entry (those that may be evicted)
+    @GuardedBy("lock")
+    private final Map<AbstractStateHash, Integer> accountedStates = new HashMap<>();
+  }
+
   public BAMCache(Configuration config, Reducer reducer, LogManager logger) throws InvalidConfigurationException {
     config.inject(this);
     this.reducer = reducer;
     this.logger = logger;
+
+    shards = new Shard[cacheShards];
+    for (int i = 0; i < shards.length; i++) {
+      shards[i] = new Shard();
+    }
+  }
+
+  void setEvictionListener(EvictionListener pListener) {
+    evictionListener = pListener;
   }
 
   public boolean doesAggressiveCaching() {
     return aggressiveCaching;
   }
 
+  private Shard getShard(Block context) {
+    return shards[(context.hashCode() & Integer.MAX_VALUE) % shards.length];
+  }
+
+  private Shard lockShard(Block context) {
+    Shard shard = getShard(context);
+    if (!shard.lock.tryLock()) {
+      contendedShardLocks.incrementAndGet();
+      shard.lock.lock();
+    }
+    return shard;
+  }
+
   private AbstractStateHash getHashCode(AbstractState stateKey, Precision precisionKey, Block context) {
     return new AbstractStateHash(stateKey, precisionKey, context);
   }
 
   public void put(AbstractState stateKey, Precision precisionKey, Block context, ReachedSet item) {
-    AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
-    assert !preciseReachedCache.containsKey(hash);
-    preciseReachedCache.put(hash, item);
+    Shard shard = lockShard(context);
+    try {
+      AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
+      assert !shard.preciseReachedCache.containsKey(hash);
+      shard.preciseReachedCache.put(hash, item);
+    } finally {
+      shard.lock.unlock();
+    }
   }
 
   public void put(AbstractState stateKey, Precision precisionKey, Block context, Collection<AbstractState> item,
                    ARGState rootOfBlock) {
-    AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
-    assert preciseReachedCache.get(hash) != null : "key not found in cache";
-    assert allStatesContainedInReachedSet(item, preciseReachedCache.get(hash)) : "output-states must be in reached-set";
-    returnCache.put(hash, item);
-    blockARGCache.put(hash, rootOfBlock);
-    setLastAnalyzedBlock(hash);
+    List<ReachedSet> evicted = Collections.emptyList();
+    Shard shard = lockShard(context);
+    try {
+      AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
+      ReachedSet reached = shard.preciseReachedCache.get(hash);
+      assert reached != null : "key not found in cache";
+      assert allStatesContainedInReachedSet(item, reached) : "output-states must be in reached-set";
+      shard.returnCache.put(hash, item);
+      shard.blockARGCache.put(hash, rootOfBlock);
+      setLastAnalyzedBlock(shard, hash);
+
+      account(shard, hash, reached.size());
+      if (maxCachedStates > 0 && cachedStates.get() > maxCachedStates
+          && !BAMTransferRelation.PCCInformation.isPCCEnabled()) {
+        // the proof needs the ARGs of all blocks
+        evicted = evictColdEntries(shard, hash);
+      }
+    } finally {
+      shard.lock.unlock();
+    }
+
+    EvictionListener listener = evictionListener;
+    if (listener != null) {
+      for (ReachedSet evictedReached : evicted) {
+        listener.reachedSetEvicted(evictedReached);
+      }
+    }
+  }
+
+  @GuardedBy("shard.lock")
+  private void account(Shard shard, AbstractStateHash hash, int size) {
+    Integer oldSize = shard.accountedStates.put(hash, size);
+    int total = cachedStates.addAndGet(size - (oldSize == null ? 0 : oldSize));
+
+    int max;
+    do {
+      max = maxCachedStatesReached.get();
+    } while (total > max && !maxCachedStatesReached.compareAndSet(max, total));
+  }
+
+  @GuardedBy("shard.lock")
+  private void unaccount(Shard shard, AbstractStateHash hash) {
+    Integer oldSize = shard.accountedStates.remove(hash);
+    if (oldSize != null) {
+      cachedStates.addAndGet(-oldSize);
+    }
+  }
+
+  /**
+   * Remove the least-recently used complete entries of a shard
+   * until the number of cached states is below the limit
+   * (or there are no more entries that can be removed from this shard).
+   *
+   * @return the evicted reached sets
+   */
+  @GuardedBy("shard.lock")
+  private List<ReachedSet> evictColdEntries(Shard shard, AbstractStateHash protectedEntry) {
+    List<ReachedSet> evicted = new ArrayList<>();
+    Iterator<Map.Entry<AbstractStateHash, ReachedSet>> it = shard.preciseReachedCache.entrySet().iterator();
+    while (it.hasNext() && cachedStates.get() > maxCachedStates) {
+      Map.Entry<AbstractStateHash, ReachedSet> entry = it.next();
+      AbstractStateHash hash = entry.getKey();
+      Integer size = shard.accountedStates.get(hash);
+      if (size == null || hash.equals(protectedEntry) || entry.getValue().hasWaitingState()) {
+        continue; // block is still being analyzed, or was just added, or may be continued
+      }
+
+      it.remove();
+      shard.returnCache.remove(hash);
+      shard.blockARGCache.remove(hash);
+      unaccount(shard, hash);
+
+      // imprecise entries that point to the evicted reached set
+      Iterator<ReachedSet> unpreciseIt = shard.unpreciseReachedCache.values().iterator();
+      while (unpreciseIt.hasNext()) {
+        if (unpreciseIt.next() == entry.getValue()) {
+          unpreciseIt.remove();
+        }
+      }
+
+      evicted.add(entry.getValue());
+      evictedBlocks.incrementAndGet();
+      evictedStates.addAndGet(size);
+      logger.log(Level.FINEST, "CACHE_EVICTION:", hash);
+    }
+    return evicted;
   }
 
   private boolean allStatesContainedInReachedSet(Collection<AbstractState> pElements, ReachedSet reached) {
@@ -115,11 +296,24 @@ public class BAMCache {
   }
 
   public void removeReturnEntry(AbstractState stateKey, Precision precisionKey, Block context) {
-    returnCache.remove(getHashCode(stateKey, precisionKey, context));
+    Shard shard = lockShard(context);
+    try {
+      AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
+      shard.returnCache.remove(hash);
+      // the block will be analyzed again, so it must not be evicted
+      unaccount(shard, hash);
+    } finally {
+      shard.lock.unlock();
+    }
   }
 
   public void removeBlockEntry(AbstractState stateKey, Precision precisionKey, Block context) {
-    blockARGCache.remove(getHashCode(stateKey, precisionKey, context));
+    Shard shard = lockShard(context);
+    try {
+      shard.blockARGCache.remove(getHashCode(stateKey, precisionKey, context));
+    } finally {
+      shard.lock.unlock();
+    }
   }
 
   /** This function returns a Pair of the reached-set and the returnStates for the given keys.
@@ -127,7 +321,13 @@ public class BAMCache {
    * For a partial cache hit we return the partly computed reached-set and NULL as returnStates. */
   public Pair<ReachedSet, Collection<AbstractState>> get(final AbstractState stateKey, final Precision precisionKey, final Block context) {
 
-    final Pair<ReachedSet, Collection<AbstractState>> pair = get0(stateKey, precisionKey, context);
+    final Pair<ReachedSet, Collection<AbstractState>> pair;
+    Shard shard = lockShard(context);
+    try {
+      pair = get0(shard, stateKey, precisionKey, context);
+    } finally {
+      shard.lock.unlock();
+    }
     Preconditions.checkNotNull(pair);
 
     // get some statistics
@@ -136,11 +336,11 @@ public class BAMCache {
 
     if (reached != null && returnStates != null) { // we have reached-set and elements
       assert allStatesContainedInReachedSet(returnStates, reached) : "output-states must be in reached-set";
-      fullCacheHits++;
+      fullCacheHits.incrementAndGet();
     } else if (reached != null) { // we have cached a partly computed reached-set
-      partialCacheHits++;
+      partialCacheHits.incrementAndGet();
     } else if (returnStates == null) {
-      cacheMisses++;
+      cacheMisses.incrementAndGet();
       if (gatherCacheMissStatistics) {
         findCacheMissCause(stateKey, precisionKey, context);
       }
@@ -151,122 +351,219 @@ public class BAMCache {
     return pair;
   }
 
-  private Pair<ReachedSet, Collection<AbstractState>> get0(final AbstractState stateKey, final Precision precisionKey, final Block context) {
+  @GuardedBy("shard.lock")
+  private Pair<ReachedSet, Collection<AbstractState>> get0(Shard shard, final AbstractState stateKey, final Precision precisionKey, final Block context) {
     AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
 
-    ReachedSet result = preciseReachedCache.get(hash);
+    ReachedSet result = shard.preciseReachedCache.get(hash);
     if (result != null) {
-      setLastAnalyzedBlock(hash);
+      setLastAnalyzedBlock(shard, hash);
       logger.log(Level.FINEST, "CACHE_ACCESS: precise entry");
-      return Pair.of(result, returnCache.get(hash));
+      return Pair.of(result, shard.returnCache.get(hash));
     }
 
     if (aggressiveCaching) {
-      result = unpreciseReachedCache.get(hash);
+      result = shard.unpreciseReachedCache.get(hash);
       if (result != null) {
         AbstractStateHash unpreciseHash = getHashCode(stateKey, result.getPrecision(result.getFirstState()), context);
-        setLastAnalyzedBlock(unpreciseHash);
+        setLastAnalyzedBlock(shard, unpreciseHash);
         logger.log(Level.FINEST, "CACHE_ACCESS: imprecise entry, directly from cache");
-        return Pair.of(result, returnCache.get(unpreciseHash));
+        return Pair.of(result, shard.returnCache.get(unpreciseHash));
       }
 
       //search for similar entry
-      Pair<ReachedSet, Collection<AbstractState>> pair = lookForSimilarState(stateKey, precisionKey, context);
+      Pair<ReachedSet, Collection<AbstractState>> pair = lookForSimilarState(shard, stateKey, precisionKey, context);
       if (pair != null) {
         //found similar element, use this
-        unpreciseReachedCache.put(hash, pair.getFirst());
-        setLastAnalyzedBlock(getHashCode(stateKey, pair.getFirst().getPrecision(pair.getFirst().getFirstState()),
+        shard.unpreciseReachedCache.put(hash, pair.getFirst());
+        setLastAnalyzedBlock(shard, getHashCode(stateKey, pair.getFirst().getPrecision(pair.getFirst().getFirstState()),
                 context));
         logger.log(Level.FINEST, "CACHE_ACCESS: imprecise entry, searched in cache");
         return pair;
       }
     }
 
-    lastAnalyzedBlock = null;
+    lastAnalyzedBlock.remove();
     logger.log(Level.FINEST, "CACHE_ACCESS: entry not available");
     return Pair.of(null, null);
   }
 
-  private void setLastAnalyzedBlock(AbstractStateHash pHash) {
+  @GuardedBy("shard.lock")
+  private void setLastAnalyzedBlock(Shard shard, AbstractStateHash pHash) {
     if (BAMTransferRelation.PCCInformation.isPCCEnabled()) {
-      lastAnalyzedBlock = blockARGCache.get(pHash);
+      lastAnalyzedBlock.set(shard.blockARGCache.get(pHash));
     }
   }
 
+  /**
+   * Return the block that was found by the last cache access of the current thread.
+   */
   public ARGState getLastAnalyzedBlock() {
-    return lastAnalyzedBlock;
+    return lastAnalyzedBlock.get();
   }
 
-  private Pair<ReachedSet, Collection<AbstractState>> lookForSimilarState(AbstractState pStateKey,
+  @GuardedBy("shard.lock")
+  private Pair<ReachedSet, Collection<AbstractState>> lookForSimilarState(Shard shard, AbstractState pStateKey,
                                                                           Precision pPrecisionKey, Block pContext) {
-    searchingTimer.start();
+    shard.searchingTimer.start();
     try {
       int min = Integer.MAX_VALUE;
-      Pair<ReachedSet, Collection<AbstractState>> result = null;
+      AbstractStateHash result = null;
 
-      for (AbstractStateHash cacheKey : preciseReachedCache.keySet()) {
+      // all entries with the same block are in this shard
+      for (AbstractStateHash cacheKey : shard.preciseReachedCache.keySet()) {
         //searchKey != cacheKey, check whether it is the same if we ignore the precision
         AbstractStateHash ignorePrecisionSearchKey = getHashCode(pStateKey, cacheKey.precisionKey, pContext);
         if (ignorePrecisionSearchKey.equals(cacheKey)) {
           int distance = reducer.measurePrecisionDifference(pPrecisionKey, cacheKey.precisionKey);
           if (distance < min) { //prefer similar precisions
             min = distance;
-            result = Pair.of(
-                    preciseReachedCache.get(ignorePrecisionSearchKey),
-                    returnCache.get(ignorePrecisionSearchKey));
+            result = ignorePrecisionSearchKey;
           }
         }
       }
 
-      return result;
+      if (result == null) {
+        return null;
+      }
+      // lookup after iteration, because a lookup changes the iteration order
+      return Pair.of(
+              shard.preciseReachedCache.get(result),
+              shard.returnCache.get(result));
     } finally {
-      searchingTimer.stop();
+      shard.searchingTimer.stop();
     }
   }
 
   private void findCacheMissCause(AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
-    AbstractStateHash searchKey = getHashCode(pStateKey, pPrecisionKey, pContext);
-    for (AbstractStateHash cacheKey : preciseReachedCache.keySet()) {
-      assert !searchKey.equals(cacheKey);
-      //searchKey != cacheKey, check whether it is the same if we ignore the precision
-      AbstractStateHash ignorePrecisionSearchKey = getHashCode(pStateKey, cacheKey.precisionKey, pContext);
-      if (ignorePrecisionSearchKey.equals(cacheKey)) {
-        precisionCausedMisses++;
-        return;
-      }
-      //precision was not the cause. Check abstraction.
-      AbstractStateHash ignoreAbsSearchKey = getHashCode(cacheKey.stateKey, pPrecisionKey, pContext);
-      if (ignoreAbsSearchKey.equals(cacheKey)) {
-        abstractionCausedMisses++;
-        return;
+    Shard shard = lockShard(pContext);
+    try {
+      AbstractStateHash searchKey = getHashCode(pStateKey, pPrecisionKey, pContext);
+      for (AbstractStateHash cacheKey : shard.preciseReachedCache.keySet()) {
+        assert !searchKey.equals(cacheKey);
+        //searchKey != cacheKey, check whether it is the same if we ignore the precision
+        AbstractStateHash ignorePrecisionSearchKey = getHashCode(pStateKey, cacheKey.precisionKey, pContext);
+        if (ignorePrecisionSearchKey.equals(cacheKey)) {
+          precisionCausedMisses.incrementAndGet();
+          return;
+        }
+        //precision was not the cause. Check abstraction.
+        AbstractStateHash ignoreAbsSearchKey = getHashCode(cacheKey.stateKey, pPrecisionKey, pContext);
+        if (ignoreAbsSearchKey.equals(cacheKey)) {
+          abstractionCausedMisses.incrementAndGet();
+          return;
+        }
       }
+      noSimilarCausedMisses.incrementAndGet();
+    } finally {
+      shard.lock.unlock();
     }
-    noSimilarCausedMisses++;
   }
 
   public void clear() {
-    preciseReachedCache.clear();
-    unpreciseReachedCache.clear();
-    returnCache.clear();
+    for (Shard shard : shards) {
+      shard.lock.lock();
+      try {
+        shard.preciseReachedCache.clear();
+        shard.unpreciseReachedCache.clear();
+        shard.returnCache.clear();
+        for (AbstractStateHash hash : new ArrayList<>(shard.accountedStates.keySet())) {
+          unaccount(shard, hash);
+        }
+      } finally {
+        shard.lock.unlock();
+      }
+    }
   }
 
   public boolean containsPreciseKey(AbstractState stateKey, Precision precisionKey, Block context) {
-    AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
-    return preciseReachedCache.containsKey(hash);
+    Shard shard = lockShard(context);
+    try {
+      AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
+      return shard.preciseReachedCache.containsKey(hash);
+    } finally {
+      shard.lock.unlock();
+    }
   }
 
   public void updatePrecisionForEntry(AbstractState stateKey, Precision precisionKey, Block context,
                                       Precision newPrecisionKey) {
-    AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
-    ReachedSet reachedSet = preciseReachedCache.get(hash);
-    if (reachedSet != null) {
-      preciseReachedCache.remove(hash);
-      preciseReachedCache.put(getHashCode(stateKey, newPrecisionKey, context), reachedSet);
+    Shard shard = lockShard(context);
+    try {
+      AbstractStateHash hash = getHashCode(stateKey, precisionKey, context);
+      ReachedSet reachedSet = shard.preciseReachedCache.get(hash);
+      if (reachedSet != null) {
+        AbstractStateHash newHash = getHashCode(stateKey, newPrecisionKey, context);
+        shard.preciseReachedCache.remove(hash);
+        shard.preciseReachedCache.put(newHash, reachedSet);
+
+        Integer size = shard.accountedStates.get(hash);
+        if (size != null) {
+          unaccount(shard, hash);
+          account(shard, newHash, size);
+        }
+      }
+    } finally {
+      shard.lock.unlock();
     }
   }
 
+  /**
+   * Return a snapshot of all reached sets that are currently in the cache.
+   */
   public Collection<ReachedSet> getAllCachedReachedStates() {
-    return preciseReachedCache.values();
+    List<ReachedSet> result = new ArrayList<>();
+    for (Shard shard : shards) {
+      shard.lock.lock();
+      try {
+        result.addAll(shard.preciseReachedCache.values());
+      } finally {
+        shard.lock.unlock();
+      }
+    }
+    return result;
+  }
+
+  int getCachedStates() {
+    return cachedStates.get();
+  }
+
+  int getMaxCachedStates() {
+    return maxCachedStatesReached.get();
+  }
+
+  String getEqualsTime() {
+    List<Timer> timers = new ArrayList<>(shards.length);
+    for (Shard shard : shards) {
+      timers.add(shard.equalsTimer);
+    }
+    return formatTimers(timers);
+  }
+
+  String getHashingTime() {
+    List<Timer> timers = new ArrayList<>(shards.length);
+    for (Shard shard : shards) {
+      timers.add(shard.hashingTimer);
+    }
+    return formatTimers(timers);
+  }
+
+  String getSearchingTime() {
+    List<Timer> timers = new ArrayList<>(shards.length);
+    for (Shard shard : shards) {
+      timers.add(shard.searchingTimer);
+    }
+    return formatTimers(timers);
+  }
+
+  private static String formatTimers(List<Timer> timers) {
+    TimeSpan sum = TimeSpan.ofMillis(0);
+    int calls = 0;
+    for (Timer timer : timers) {
+      sum = TimeSpan.sum(sum, timer.getSumTime());
+      calls += timer.getNumberOfIntervals();
+    }
+    return sum.formatAs(TimeUnit.SECONDS) + " (Calls: " + calls + ")";
   }
 
   private class AbstractStateHash {
@@ -275,34 +572,37 @@ public class BAMCache {
     private final Block context;
     private final AbstractState stateKey;
     private final Precision precisionKey;
+    private final Shard shard;
 
     public AbstractStateHash(AbstractState pStateKey, Precision pPrecisionKey, Block pContext) {
       wrappedHash = reducer.getHashCodeForState(pStateKey, pPrecisionKey);
       context = checkNotNull(pContext);
       stateKey = pStateKey;
       precisionKey = pPrecisionKey;
+      shard = getShard(pContext);
     }
 
     @Override
     public boolean equals(Object pObj) {
       if (!(pObj instanceof AbstractStateHash)) { return false; }
       AbstractStateHash other = (AbstractStateHash) pObj;
-      equalsTimer.start();
+      // the timers are only accessed while the lock of the shard is held
+      shard.equalsTimer.start();
       try {
         return context.equals(other.context)
                 && wrappedHash.equals(other.wrappedHash);
       } finally {
-        equalsTimer.stop();
+        shard.equalsTimer.stop();
       }
     }
 
     @Override
     public int hashCode() {
-      hashingTimer.start();
+      shard.hashingTimer.start();
       try {
         return wrappedHash.hashCode() * 17 + context.hashCode();
       } finally {
-        hashingTimer.stop();
+        shard.hashingTimer.stop();
       }
     }
 
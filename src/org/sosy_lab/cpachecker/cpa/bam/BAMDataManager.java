@@ -23,8 +23,11 @@
  */
 package org.sosy_lab.cpachecker.cpa.bam;
 
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.sosy_lab.common.log.LogManager;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
@@ -32,10 +35,12 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
+import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 
 /** This class contains all additional data-structures needed to run BAM.
- * If possible, we should clear some data sometimes to avoid memory-leaks. */
-public class BAMDataManager {
+ * If possible, we should clear some data sometimes to avoid memory-leaks.
+ * The maps are synchronized, because blocks may be analyzed concurrently. */
+public class BAMDataManager implements BAMCache.EvictionListener {
 
   final LogManager logger;
 
@@ -47,19 +52,25 @@ public class BAMDataManager {
 
   /** abstractStateToReachedSet contains the mapping of non-reduced initial states
    *  to the reached-sets, where the root-state is the corresponding reduced state. */
-  final Map<AbstractState, ReachedSet> initialStateToReachedSet = new HashMap<>();
+  final Map<AbstractState, ReachedSet> initialStateToReachedSet =
+      Collections.synchronizedMap(new HashMap<AbstractState, ReachedSet>());
 
   /** expandedToReducedCache contains the mapping of an expanded state at a block-end towards
    * the corresponding reduced state, from which it was expanded. */
-  final Map<AbstractState, AbstractState> expandedStateToReducedState = new HashMap<>();
+  final Map<AbstractState, AbstractState> expandedStateToReducedState =
+      Collections.synchronizedMap(new HashMap<AbstractState, AbstractState>());
 
   /** expandedToBlockCache contains the mapping of an expanded state at a block-end towards
    * the inner block of the corresponding reduced state, from which it was expanded. */
-  private final Map<AbstractState, Block> expandedStateToBlock = new HashMap<>();
+  private final Map<AbstractState, Block> expandedStateToBlock =
+      Collections.synchronizedMap(new HashMap<AbstractState, Block>());
 
   /** expandedStateToExpandedPrecision contains the mapping an expanded state at a block-end towards
-   * the corresponding expanded precision. */
-  final Map<AbstractState, Precision> expandedStateToExpandedPrecision = new HashMap<>();
+   * the corresponding expanded precision. The entry is removed when the precision is adjusted
+   * or when the state is removed from the ARG. The keys are weak, because successors
+   * that are never handled (e.g., after a BREAK) are dropped without notification. */
+  final Map<AbstractState, Precision> expandedStateToExpandedPrecision =
+      Collections.synchronizedMap(new WeakHashMap<AbstractState, Precision>());
 
   public BAMDataManager(BAMCache pArgCache, ReachedSetFactory pReachedSetFactory, LogManager pLogger) {
     bamCache = pArgCache;
@@ -78,12 +89,43 @@ public class BAMDataManager {
       expandedStateToBlock.put(newState, innerBlock);
     }
 
-    if (oldStateMustExist || expandedStateToExpandedPrecision.containsKey(oldState)) {
-      final Precision expandedPrecision = expandedStateToExpandedPrecision.remove(oldState);
+    // the precision might already have been consumed by the precision adjustment
+    final Precision expandedPrecision = expandedStateToExpandedPrecision.remove(oldState);
+    if (expandedPrecision != null) {
       expandedStateToExpandedPrecision.put(newState, expandedPrecision);
     }
   }
 
+  /** Drop the references to a reached set that was evicted from the {@link BAMCache}.
+   * The ARG of the evicted block is not modified, because other threads might still
+   * read it after getting it from the cache. Its states become garbage
+   * when no expanded state refers to them anymore.
+   * The counterexample computation does not find the reached set of the block anymore
+   * and lets the block be analyzed again. */
+  @Override
+  public void reachedSetEvicted(ReachedSet reached) {
+    synchronized (initialStateToReachedSet) {
+      Iterator<Map.Entry<AbstractState, ReachedSet>> it = initialStateToReachedSet.entrySet().iterator();
+      while (it.hasNext()) {
+        if (it.next().getValue() == reached) {
+          it.remove();
+        }
+      }
+    }
+
+    for (AbstractState state : reached) {
+      expandedStateToExpandedPrecision.remove(state);
+    }
+  }
+
+  /** Forget the expanded precisions of the given state and all its successors,
+   * because the subtree is removed from its reached-set and the ARG. */
+  void removeExpandedPrecisions(ARGState subtreeRoot) {
+    for (ARGState state : subtreeRoot.getSubgraph()) {
+      expandedStateToExpandedPrecision.remove(state);
+    }
+  }
+
   /** unused? */
   void clearCaches() {
     bamCache.clear();
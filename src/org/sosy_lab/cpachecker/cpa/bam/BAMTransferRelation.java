@@ -34,6 +34,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.logging.Level;
 
 import org.sosy_lab.common.Pair;
@@ -70,8 +74,26 @@ import org.sosy_lab.cpachecker.util.CPAs;
 import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
+import com.google.common.collect.MapMaker;
 import com.google.common.collect.Multimap;
 
+/**
+ * Transfer relation of BAM.
+ *
+ * Blocks are analyzed by a nested {@link CPAAlgorithm} on the thread that
+ * reaches the block entry. If parallel exploration is enabled
+ * (cpa.parallelExploration.threads) and the sub-class supports it
+ * (cf. {@link ThreadSafeBAMTransferRelation}), the outermost block is explored in parallel,
+ * and thus the blocks that are entered from there are analyzed concurrently.
+ * This takes effect only if all wrapped transfer relations are thread-safe,
+ * e.g., not for the predicate analysis, otherwise {@link CPAAlgorithm} serializes them.
+ * All nested blocks are analyzed sequentially by the thread that entered them.
+ * Note that reducing and expanding states is still serialized (cf. {@link TimedReducer}),
+ * so the speedup depends on how much time is spent there
+ * (see the number of contended reducer locks in the statistics).
+ * Concurrent requests for the same block and initial state are computed once,
+ * the other threads wait for the result and take it from the cache.
+ */
 public class BAMTransferRelation implements TransferRelation {
 
   @Options
@@ -96,15 +118,47 @@ public class BAMTransferRelation implements TransferRelation {
 
   }
 
+  /**
+   * The blocks that are currently analyzed by one thread.
+   */
+  private static class BlockContext {
+
+    private Block currentBlock;
+    private final List<Triple<AbstractState, Precision, Block>> stack;
+
+    private BlockContext(Block pCurrentBlock, List<Triple<AbstractState, Precision, Block>> pStack) {
+      currentBlock = pCurrentBlock;
+      stack = pStack;
+    }
+  }
+
   final BAMDataManager data;
 
-  protected Block currentBlock;
+  /* Each thread has its own block stack. The worker threads of a parallel CPAAlgorithm
+   * are created by the thread that runs the algorithm, so they inherit a copy
+   * of the stack of the block whose states they explore. */
+  private final ThreadLocal<BlockContext> context = new InheritableThreadLocal<BlockContext>() {
+    @Override
+    protected BlockContext initialValue() {
+      return new BlockContext(null, new ArrayList<Triple<AbstractState, Precision, Block>>());
+    }
+
+    @Override
+    protected BlockContext childValue(BlockContext pParentValue) {
+      return new BlockContext(pParentValue.currentBlock, new ArrayList<>(pParentValue.stack));
+    }
+  };
+
+  /* Locks for the block analyses that are currently running,
+   * identified by the hash of the reduced initial state and precision and the block. */
+  private final ConcurrentMap<Pair<Object, Block>, Lock> blockAnalysisLocks =
+      new MapMaker().weakValues().makeMap();
+
   protected BlockPartitioning partitioning;
-  protected int depth = 0;
-  protected final List<Triple<AbstractState, Precision, Block>> stack = new ArrayList<>();
 
   protected final LogManager logger;
   private final CPAAlgorithmFactory algorithmFactory;
+  private final CPAAlgorithmFactory sequentialAlgorithmFactory;
   private final TransferRelation wrappedTransfer;
   protected final Reducer wrappedReducer;
   protected final BAMCPA bamCPA;
@@ -116,15 +170,21 @@ public class BAMTransferRelation implements TransferRelation {
   private Map<Pair<ARGState, Block>, Collection<ARGState>> correctARGsForBlocks = null;
 
   //Stats
-  int maxRecursiveDepth = 0;
+  final AtomicInteger maxRecursiveDepth = new AtomicInteger();
+  final AtomicInteger waitsForConcurrentBlockAnalysis = new AtomicInteger();
 
-  boolean breakAnalysis = false;
+  volatile boolean breakAnalysis = false;
 
   public BAMTransferRelation(Configuration pConfig, LogManager pLogger, BAMCPA bamCpa,
                              ProofChecker wrappedChecker,
       BAMDataManager pData, ShutdownNotifier pShutdownNotifier) throws InvalidConfigurationException {
     logger = pLogger;
     algorithmFactory = new CPAAlgorithmFactory(bamCpa, logger, pConfig, pShutdownNotifier, null);
+    Configuration sequentialConfig = Configuration.builder()
+        .copyFrom(pConfig)
+        .setOption("cpa.parallelExploration.threads", "1")
+        .build();
+    sequentialAlgorithmFactory = new CPAAlgorithmFactory(bamCpa, logger, sequentialConfig, pShutdownNotifier, null);
     callstackTransfer = (CallstackTransferRelation) (CPAs.retrieveCPA(bamCpa, CallstackCPA.class)).getTransferRelation();
     wrappedTransfer = bamCpa.getWrappedCpa().getTransferRelation();
     wrappedReducer = bamCpa.getReducer();
@@ -145,6 +205,24 @@ public class BAMTransferRelation implements TransferRelation {
     return partitioning;
   }
 
+  /** Return the block that is currently analyzed by the current thread. */
+  protected Block getCurrentBlock() {
+    return context.get().currentBlock;
+  }
+
+  /** Return the stack of blocks that are currently analyzed by the current thread. */
+  protected List<Triple<AbstractState, Precision, Block>> getStack() {
+    return context.get().stack;
+  }
+
+  /**
+   * Whether the outermost block may be explored in parallel.
+   * Only sub-classes that are thread-safe return true.
+   */
+  protected boolean supportsParallelBlockAnalysis() {
+    return false;
+  }
+
   @Override
   public Collection<? extends AbstractState> getAbstractSuccessors(
           final AbstractState pState, final Precision pPrecision)
@@ -167,8 +245,6 @@ public class BAMTransferRelation implements TransferRelation {
       final AbstractState pState, final Precision pPrecision)
           throws CPAException, InterruptedException {
 
-    data.expandedStateToExpandedPrecision.clear();
-
     final CFANode node = extractLocation(pState);
 
     // we are at some location inside the program,
@@ -183,12 +259,13 @@ public class BAMTransferRelation implements TransferRelation {
     if (startNewBlockAnalysis(pState, node)) {
       // we are at the entryNode of a new block and we are in a new context,
       // so we have to start a recursive analysis
-      logger.log(Level.FINEST, "Starting recursive analysis of depth", ++depth);
-      maxRecursiveDepth = Math.max(depth, maxRecursiveDepth);
+      final int depth = getStack().size() + 1;
+      logger.log(Level.FINEST, "Starting recursive analysis of depth", depth);
+      updateMaxRecursiveDepth(depth);
 
       Collection<? extends AbstractState> resultStates = doRecursiveAnalysis(pState, pPrecision, node);
 
-      logger.log(Level.FINEST, "Finished recursive analysis of depth", depth--);
+      logger.log(Level.FINEST, "Finished recursive analysis of depth", depth);
       return resultStates;
     }
 
@@ -210,14 +287,22 @@ public class BAMTransferRelation implements TransferRelation {
     return result;
   }
 
+  private void updateMaxRecursiveDepth(int depth) {
+    int max;
+    do {
+      max = maxRecursiveDepth.get();
+    } while (depth > max && !maxRecursiveDepth.compareAndSet(max, depth));
+  }
+
   /** When a block-start-location is reached, we start a new sub-analysis for the entered block. */
   protected boolean startNewBlockAnalysis(final AbstractState pState, final CFANode node) {
-    return partitioning.isCallNode(node) && !partitioning.getBlockForCallNode(node).equals(currentBlock);
+    return partitioning.isCallNode(node) && !partitioning.getBlockForCallNode(node).equals(getCurrentBlock());
   }
 
   /** When finding a block-exit-location, we do not return any further states.
    * This stops the current running CPA-algorithm, when its waitlist is emtpy. */
   protected boolean exitBlockAnalysis(final AbstractState pState, final CFANode node) {
+    final Block currentBlock = getCurrentBlock();
     return currentBlock != null && currentBlock.isReturnNode(node);
   }
 
@@ -233,7 +318,7 @@ public class BAMTransferRelation implements TransferRelation {
       // If only LoopBlocks are used, we can have recursive Loops, too.
 
       for (CFAEdge e : CFAUtils.leavingEdges(node).filter(CFunctionCallEdge.class)) {
-        for (Block block : Lists.transform(stack, Triple.<Block>getProjectionToThird())) {
+        for (Block block : Lists.transform(getStack(), Triple.<Block>getProjectionToThird())) {
           if (block.getCallNodes().contains(e.getSuccessor())) {
             return true;
           }
@@ -257,9 +342,12 @@ public class BAMTransferRelation implements TransferRelation {
     // -> return these states as successor
     // -> cache the result
 
-    final Block outerSubtree = currentBlock;
-    currentBlock = partitioning.getBlockForCallNode(node);
+    final BlockContext blockContext = context.get();
+    final List<Triple<AbstractState, Precision, Block>> stack = blockContext.stack;
+    final Block outerSubtree = blockContext.currentBlock;
+    final Block currentBlock = partitioning.getBlockForCallNode(node);
     assert currentBlock.getCallNodes().contains(node);
+    blockContext.currentBlock = currentBlock;
 
     logger.log(Level.FINEST, "Reducing state", initialState);
     final AbstractState reducedInitialState = wrappedReducer.getVariableReducedState(initialState, currentBlock, node);
@@ -274,7 +362,7 @@ public class BAMTransferRelation implements TransferRelation {
 
     final Triple<AbstractState, Precision, Block> lastLevel = stack.remove(stack.size() - 1);
     assert lastLevel.equals(currentLevel);
-    currentBlock = outerSubtree;
+    blockContext.currentBlock = outerSubtree;
 
     return resultStates;
   }
@@ -316,6 +404,7 @@ public class BAMTransferRelation implements TransferRelation {
     logger.log(Level.FINEST, "Expanding states with initial state", state);
     logger.log(Level.FINEST, "Expanding states", reducedResult);
 
+    final Block currentBlock = getCurrentBlock();
     final List<AbstractState> expandedResult = new ArrayList<>(reducedResult.size());
     for (Pair<AbstractState, Precision> reducedPair : reducedResult) {
       AbstractState reducedState = reducedPair.getFirst();
@@ -347,6 +436,43 @@ public class BAMTransferRelation implements TransferRelation {
           final AbstractState reducedInitialState, final Precision reducedInitialPrecision)
           throws InterruptedException, CPAException {
 
+    final Block currentBlock = getCurrentBlock();
+
+    // Only one thread analyzes a block with the same initial state,
+    // all others wait and get the result from the cache afterwards.
+    final Lock lock = getBlockAnalysisLock(reducedInitialState, reducedInitialPrecision, currentBlock);
+    if (!lock.tryLock()) {
+      waitsForConcurrentBlockAnalysis.incrementAndGet();
+      lock.lockInterruptibly();
+    }
+    try {
+      return getReducedResult0(initialState, reducedInitialState, reducedInitialPrecision, currentBlock);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private Lock getBlockAnalysisLock(final AbstractState reducedInitialState,
+      final Precision reducedInitialPrecision, final Block currentBlock) {
+    final Pair<Object, Block> key = Pair.of(
+        wrappedReducer.getHashCodeForState(reducedInitialState, reducedInitialPrecision), currentBlock);
+    Lock lock = blockAnalysisLocks.get(key);
+    if (lock == null) {
+      Lock newLock = new ReentrantLock();
+      lock = blockAnalysisLocks.putIfAbsent(key, newLock);
+      if (lock == null) {
+        lock = newLock;
+      }
+    }
+    return lock;
+  }
+
+  private Collection<Pair<AbstractState, Precision>> getReducedResult0(
+          final AbstractState initialState,
+          final AbstractState reducedInitialState, final Precision reducedInitialPrecision,
+          final Block currentBlock)
+          throws InterruptedException, CPAException {
+
     final Collection<AbstractState> reducedResult;
     // statesForFurtherAnalysis is always equal to reducedResult, except one special case (aka re-visiting recursion)
     final Collection<AbstractState> statesForFurtherAnalysis;
@@ -387,7 +513,10 @@ public class BAMTransferRelation implements TransferRelation {
         logger.log(Level.FINEST, "Partial cache hit: starting recursive CPAAlgorithm with partial reached-set with root", reached.getFirstState());
       }
 
-      reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached);
+      // with imprecise caching, the same reached-set may be found for different initial states
+      synchronized (reached) {
+        reducedResult = performCompositeAnalysisWithCPAAlgorithm(reached, currentBlock);
+      }
 
       assert reducedResult != null;
 
@@ -422,11 +551,14 @@ public class BAMTransferRelation implements TransferRelation {
   /** Analyse the block with a 'recursive' call to the CPAAlgorithm.
    * Then analyse the result and get the returnStates. */
   private Collection<AbstractState> performCompositeAnalysisWithCPAAlgorithm(
-          final ReachedSet reached)
+          final ReachedSet reached, final Block currentBlock)
           throws InterruptedException, CPAException {
 
     // CPAAlgorithm is not re-entrant due to statistics
-    final CPAAlgorithm algorithm = algorithmFactory.newInstance();
+    final boolean isOutermostBlock = getStack().size() <= 1;
+    final CPAAlgorithm algorithm = (isOutermostBlock && supportsParallelBlockAnalysis())
+        ? algorithmFactory.newInstance()
+        : sequentialAlgorithmFactory.newInstance();
     algorithm.run(reached);
 
     // if the element is an error element
@@ -491,7 +623,7 @@ public class BAMTransferRelation implements TransferRelation {
 
   private ARGState createAdditionalInfo(ARGState pElem) {
     CFANode node = AbstractStates.extractLocation(pElem);
-    if (partitioning.isCallNode(node) && !partitioning.getBlockForCallNode(node).equals(currentBlock)) {
+    if (partitioning.isCallNode(node) && !partitioning.getBlockForCallNode(node).equals(getCurrentBlock())) {
       BAMARGBlockStartState replaceWith = new BAMARGBlockStartState(pElem.getWrappedState(), null);
       replaceInARG(pElem, replaceWith);
       return replaceWith;
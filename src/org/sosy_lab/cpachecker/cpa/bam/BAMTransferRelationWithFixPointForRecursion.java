@@ -76,7 +76,7 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
 
     final CFANode node = extractLocation(pState);
 
-    if (stack.isEmpty() && isHeadOfMainFunction(node)) {
+    if (getStack().isEmpty() && isHeadOfMainFunction(node)) {
       // we are at the start of the program (root-node of CFA).
       return doFixpointIterationForRecursion(pState, pPrecision, node);
     }
@@ -88,14 +88,14 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
   protected boolean startNewBlockAnalysis(final AbstractState pState, final CFANode node) {
     return partitioning.isCallNode(node)
             && !((ARGState)pState).getParents().isEmpty() // if no parents, we have already started a new block
-            && (!partitioning.getBlockForCallNode(node).equals(currentBlock)
+            && (!partitioning.getBlockForCallNode(node).equals(getCurrentBlock())
                 || isFunctionBlock(partitioning.getBlockForCallNode(node)));
   }
 
   @Override
   protected boolean exitBlockAnalysis(final AbstractState pState, final CFANode node) {
     // special case: returning from a recursive function is only allowed once per state.
-    return super.exitBlockAnalysis(pState, node) && !data.alreadyReturnedFromSameBlock(pState, currentBlock);
+    return super.exitBlockAnalysis(pState, node) && !data.alreadyReturnedFromSameBlock(pState, getCurrentBlock());
   }
 
   /** recursion is handled by callstack-reduction, so we do not check it here. */
@@ -108,7 +108,7 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
           final AbstractState pHeadOfMainFunctionState, final Precision pPrecision, final CFANode pHeadOfMainFunction)
           throws CPAException, InterruptedException {
 
-    assert isHeadOfMainFunction(pHeadOfMainFunction) && stack.isEmpty();
+    assert isHeadOfMainFunction(pHeadOfMainFunction) && getStack().isEmpty();
 
     Collection<? extends AbstractState> resultStates;
     int iterationCounter = 0;
@@ -233,7 +233,7 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
       final AbstractState reducedInitialState, final Precision reducedInitialPrecision) throws CPAException, InterruptedException,
       CPATransferException {
 
-    final CFANode node = currentBlock.getCallNode();
+    final CFANode node = getCurrentBlock().getCallNode();
     final Collection<AbstractState> resultStates;
 
     if (!(node instanceof FunctionEntryNode) || isHeadOfMainFunction(node)) {
@@ -255,7 +255,7 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
       // we are returning from an recursive call.
       // if we would need to do further analysis for recursion later (fixpoint-analysis!),
       // we need to know, where to update the reachedset --> store initialState for later usage
-      potentialRecursionUpdateStates.put(initialState, Iterables.getLast(stack));
+      potentialRecursionUpdateStates.put(initialState, Iterables.getLast(getStack()));
     }
 
     return resultStates;
@@ -274,7 +274,7 @@ public class BAMTransferRelationWithFixPointForRecursion extends BAMTransferRela
 
     final Collection<AbstractState> expandedFunctionReturnStates;
 
-    final Triple<AbstractState, Precision, Block> coveringLevel = getCoveringLevel(stack, Iterables.getLast(stack));
+    final Triple<AbstractState, Precision, Block> coveringLevel = getCoveringLevel(getStack(), Iterables.getLast(getStack()));
     if (coveringLevel != null) {
       // if level is twice in stack, we have endless recursion.
       // with current knowledge we would never abort unrolling the recursion.
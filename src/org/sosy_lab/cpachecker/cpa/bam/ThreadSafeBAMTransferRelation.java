@@ -0,0 +1,53 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.bam;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeTransferRelation;
+import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
+
+/**
+ * The {@link BAMTransferRelation} for programs without handling of recursive procedures.
+ * It keeps all information about the current analysis per thread,
+ * so it may be called concurrently, and the outermost block may be explored in parallel.
+ * This is not the case for {@link BAMTransferRelationWithFixPointForRecursion},
+ * which keeps the state of its fixpoint iteration in fields.
+ */
+final class ThreadSafeBAMTransferRelation extends BAMTransferRelation
+    implements ThreadSafeTransferRelation {
+
+  ThreadSafeBAMTransferRelation(Configuration pConfig, LogManager pLogger, BAMCPA bamCpa,
+      ProofChecker wrappedChecker, BAMDataManager pData, ShutdownNotifier pShutdownNotifier)
+          throws InvalidConfigurationException {
+    super(pConfig, pLogger, bamCpa, wrappedChecker, pData, pShutdownNotifier);
+  }
+
+  @Override
+  protected boolean supportsParallelBlockAnalysis() {
+    return true;
+  }
+}
@@ -23,6 +23,10 @@
  */
 package org.sosy_lab.cpachecker.cpa.bam;
 
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.blocks.Block;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
@@ -31,7 +35,12 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.Reducer;
 
-
+/**
+ * Reducer that measures the time of the wrapped reducer.
+ * Reducing and expanding is serialized, because most wrapped reducers are not thread-safe
+ * (and the timers are neither). With concurrent block analyses this lock can limit
+ * the speedup, so the number of contended acquisitions is counted.
+ */
 class TimedReducer implements Reducer {
 
   final Timer reduceTime = new Timer();
@@ -39,22 +48,35 @@ class TimedReducer implements Reducer {
   final Timer reducePrecisionTime = new Timer();
   final Timer expandPrecisionTime = new Timer();
 
+  final AtomicInteger contendedLocks = new AtomicInteger();
+
+  private final Lock lock = new ReentrantLock();
+
   private final Reducer wrappedReducer;
 
   public TimedReducer(Reducer pWrappedReducer) {
     wrappedReducer = pWrappedReducer;
   }
 
+  private void lock() {
+    if (!lock.tryLock()) {
+      contendedLocks.incrementAndGet();
+      lock.lock();
+    }
+  }
+
   @Override
   public AbstractState getVariableReducedState(
       AbstractState pExpandedState, Block pContext,
       CFANode pCallNode) {
 
+    lock();
     reduceTime.start();
     try {
       return wrappedReducer.getVariableReducedState(pExpandedState, pContext, pCallNode);
     } finally {
       reduceTime.stop();
+      lock.unlock();
     }
   }
 
@@ -63,11 +85,13 @@ class TimedReducer implements Reducer {
       AbstractState pRootState, Block pReducedContext,
       AbstractState pReducedState) {
 
+    lock();
     expandTime.start();
     try {
       return wrappedReducer.getVariableExpandedState(pRootState, pReducedContext, pReducedState);
     } finally {
       expandTime.stop();
+      lock.unlock();
     }
   }
 
@@ -79,21 +103,25 @@ class TimedReducer implements Reducer {
   @Override
   public Precision getVariableReducedPrecision(Precision pPrecision,
       Block pContext) {
+    lock();
     reducePrecisionTime.start();
     try {
       return wrappedReducer.getVariableReducedPrecision(pPrecision, pContext);
     } finally {
       reducePrecisionTime.stop();
+      lock.unlock();
     }
   }
 
   @Override
   public Precision getVariableExpandedPrecision(Precision rootPrecision, Block rootContext, Precision reducedPrecision) {
+    lock();
     expandPrecisionTime.start();
     try {
       return wrappedReducer.getVariableExpandedPrecision(rootPrecision, rootContext, reducedPrecision);
     } finally {
       expandPrecisionTime.stop();
+      lock.unlock();
     }
 
   }
@@ -54,6 +54,7 @@ import org.sosy_lab.cpachecker.cfa.postprocessing.global.singleloop.ProgramCount
 import org.sosy_lab.cpachecker.core.defaults.SingleEdgeTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeTransferRelation;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
 import org.sosy_lab.cpachecker.exceptions.UnsupportedCodeException;
 import org.sosy_lab.cpachecker.util.CFAUtils;
@@ -62,7 +63,8 @@ import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableMap;
 
 @Options(prefix="cpa.callstack")
-public class CallstackTransferRelation extends SingleEdgeTransferRelation {
+public class CallstackTransferRelation extends SingleEdgeTransferRelation
+    implements ThreadSafeTransferRelation {
 
   // set of functions that may not appear in the source code
   // the value of the map entry is the explanation for the user
@@ -84,8 +86,14 @@ public class CallstackTransferRelation extends SingleEdgeTransferRelation {
    * into two calls f-g and g-f, which are both non-recursive.)
    * A function-call in a recursive context will be skipped,
    * if the Option 'skipRecursion' is enabled.
+   * The flag is set per thread, because successors may be computed concurrently.
    */
-  private boolean isRecursiveContext = false;
+  private final ThreadLocal<Boolean> isRecursiveContext = new ThreadLocal<Boolean>() {
+    @Override
+    protected Boolean initialValue() {
+      return false;
+    }
+  };
 
   @Option(secure=true, description = "Skip recursion if it happens only by going via a function pointer (this is unsound)." +
       " Imprecise function pointer tracking often lead to false recursions.")
@@ -287,7 +295,7 @@ public class CallstackTransferRelation extends SingleEdgeTransferRelation {
 
   /** check, if the current function-call has already appeared in the call-stack. */
   protected boolean hasRecursion(final CallstackState pCurrentState, final String pCalledFunction) {
-    if (isRecursiveContext) { // external CPA has seen recursion
+    if (isRecursiveContext.get()) { // external CPA has seen recursion
       return true;
     }
     // iterate through the current stack and search for an equal name
@@ -372,10 +380,10 @@ public class CallstackTransferRelation extends SingleEdgeTransferRelation {
   }
 
   public void enableRecursiveContext() {
-    isRecursiveContext = true;
+    isRecursiveContext.set(true);
   }
 
   public void disableRecursiveContext() {
-    isRecursiveContext = false;
+    isRecursiveContext.set(false);
   }
 }
@@ -29,6 +29,7 @@ import org.sosy_lab.cpachecker.core.defaults.StaticPrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 
 import com.google.common.collect.ImmutableList;
@@ -42,7 +43,8 @@ import com.google.common.collect.ImmutableList;
  * these indexes if they are targets.
  * It does never call other precision adjustment operators.
  */
-class CompositeSimplePrecisionAdjustment extends SimplePrecisionAdjustment {
+class CompositeSimplePrecisionAdjustment extends SimplePrecisionAdjustment
+    implements ThreadSafePrecisionAdjustment {
 
   private final ImmutableList<SimplePrecisionAdjustment> precisionAdjustments;
 
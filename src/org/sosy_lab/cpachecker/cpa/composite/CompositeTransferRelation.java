@@ -45,6 +45,7 @@ import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractStateWithLocation;
 import org.sosy_lab.cpachecker.core.interfaces.ConfigurableProgramAnalysis;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafeTransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.TransferRelation;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.cpa.assumptions.storage.AssumptionStorageTransferRelation;
@@ -57,7 +58,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 
 @Options(prefix="cpa.composite")
-public final class CompositeTransferRelation implements TransferRelation {
+public final class CompositeTransferRelation implements ThreadSafeTransferRelation {
 
   @Option(secure=true,
       description="Split MultiEdges and pass each inner edge to the component CPAs"
@@ -147,10 +147,9 @@ public final class BAMPredicateRefiner extends AbstractBAMBasedRefiner implement
                                           predicateCpa.getSolver());
 
 
-    PrefixProvider prefixProvider = new PredicateBasedPrefixProvider(predicateCpa.getConfiguration(),
+    PrefixProvider prefixProvider = PredicateBasedPrefixProvider.create(predicateCpa.getConfiguration(),
                                           logger,
-                                          predicateCpa.getSolver(),
-                                          predicateCpa.getPathFormulaManager());
+                                          predicateCpa);
 
     RefinementStrategy strategy = new BAMPredicateAbstractionRefinementStrategy(
                                           predicateCpa.getConfiguration(),
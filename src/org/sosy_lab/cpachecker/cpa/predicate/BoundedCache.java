@@ -0,0 +1,124 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+/**
+ * A map-based cache with an optional upper bound on the number of entries.
+ * If the bound is reached, the least-recently used entry is evicted.
+ * The cache counts hits, misses, and evictions for statistics.
+ *
+ * This class is not thread-safe.
+ */
+final class BoundedCache<K, V> {
+
+  private final int maxSize;
+  private final LinkedHashMap<K, V> entries;
+
+  private int hits = 0;
+  private int misses = 0;
+  private int evictions = 0;
+
+  /**
+   * Create a new cache.
+   * @param pMaxSize The maximum number of entries, or 0 for an unbounded cache.
+   */
+  BoundedCache(int pMaxSize) {
+    checkArgument(pMaxSize >= 0, "Cache size must not be negative");
+    maxSize = pMaxSize;
+    entries = new LinkedHashMap<K, V>(16, 0.75f, /*accessOrder=*/true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<K, V> pEldest) {
+        if (maxSize > 0 && size() > maxSize) {
+          evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  /**
+   * Look up a value and mark it as recently used.
+   * @return The cached value, or null if there is none.
+   */
+  @Nullable V get(K key) {
+    V result = entries.get(key);
+    if (result == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return result;
+  }
+
+  boolean contains(K key) {
+    return get(key) != null;
+  }
+
+  /**
+   * Check whether at least one of two keys is in the cache.
+   * This counts as a single lookup for the statistics.
+   */
+  boolean containsAny(K key1, K key2) {
+    if (entries.get(key1) != null || entries.get(key2) != null) {
+      hits++;
+      return true;
+    }
+    misses++;
+    return false;
+  }
+
+  void put(K key, V value) {
+    entries.put(key, value);
+  }
+
+  int size() {
+    return entries.size();
+  }
+
+  int getMaxSize() {
+    return maxSize;
+  }
+
+  int getHits() {
+    return hits;
+  }
+
+  int getMisses() {
+    return misses;
+  }
+
+  int getEvictions() {
+    return evictions;
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import org.junit.Test;
+
+public class BoundedCacheTest {
+
+  @Test
+  public void testUnbounded() {
+    BoundedCache<Integer, String> cache = new BoundedCache<>(0);
+    for (int i = 0; i < 1000; i++) {
+      cache.put(i, Integer.toString(i));
+    }
+    assertThat(cache.size()).isEqualTo(1000);
+    assertThat(cache.getEvictions()).isEqualTo(0);
+  }
+
+  @Test
+  public void testLeastRecentlyUsedIsEvicted() {
+    BoundedCache<Integer, String> cache = new BoundedCache<>(2);
+    cache.put(1, "1");
+    cache.put(2, "2");
+    assertThat(cache.get(1)).isEqualTo("1"); // 2 is now least-recently used
+    cache.put(3, "3");
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.getEvictions()).isEqualTo(1);
+    assertThat(cache.get(2)).isNull();
+    assertThat(cache.get(1)).isEqualTo("1");
+    assertThat(cache.get(3)).isEqualTo("3");
+  }
+
+  @Test
+  public void testHitsAndMisses() {
+    BoundedCache<Integer, String> cache = new BoundedCache<>(10);
+    cache.put(1, "1");
+    cache.get(1);
+    cache.get(2);
+    cache.contains(1);
+
+    assertThat(cache.getHits()).isEqualTo(2);
+    assertThat(cache.getMisses()).isEqualTo(1);
+  }
+
+  @Test
+  public void testContainsAnyCountsOnce() {
+    BoundedCache<Integer, String> cache = new BoundedCache<>(10);
+    cache.put(1, "1");
+
+    assertThat(cache.containsAny(2, 1)).isTrue();
+    assertThat(cache.containsAny(2, 3)).isFalse();
+    assertThat(cache.getHits()).isEqualTo(1);
+    assertThat(cache.getMisses()).isEqualTo(1);
+  }
+}
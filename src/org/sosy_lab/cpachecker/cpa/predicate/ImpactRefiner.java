@@ -74,7 +74,7 @@ public abstract class ImpactRefiner implements Refiner {
         pfmgr,
         solver);
 
-    PrefixProvider prefixProvider = new PredicateBasedPrefixProvider(config, logger, solver, pfmgr);
+    PrefixProvider prefixProvider = PredicateBasedPrefixProvider.create(config, logger, predicateCpa);
 
     RefinementStrategy strategy = new ImpactRefinementStrategy(
         config,
@@ -28,6 +28,7 @@ import static com.google.common.base.Predicates.*;
 import static com.google.common.collect.FluentIterable.from;
 
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
@@ -35,18 +36,19 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.logging.Level;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.common.Pair;
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -56,6 +58,7 @@ import org.sosy_lab.common.time.NestedTimer;
 import org.sosy_lab.common.time.TimeSpan;
 import org.sosy_lab.common.time.Timer;
 import org.sosy_lab.cpachecker.cfa.model.CFANode;
+import org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCache;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicateAbstractionsStorage.AbstractionNode;
 import org.sosy_lab.cpachecker.cpa.predicate.persistence.PredicatePersistenceUtils.PredicateParsingFailedException;
@@ -91,6 +94,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
 
 @Options(prefix = "cpa.predicate")
 public class PredicateAbstractionManager {
@@ -119,6 +123,7 @@ public class PredicateAbstractionManager {
     public final Timer booleanAbstractionTime = new Timer();
     public final NestedTimer abstractionEnumTime = new NestedTimer(); // outer: solver time, inner: bdd time
     public final Timer abstractionSolveTime = new Timer(); // only the time for solving, not for model enumeration
+    public final Timer persistentCacheTime = new Timer();
 
     public long allSatCount = 0;
     public int maxAllSatCount = 0;
@@ -167,6 +172,22 @@ public class PredicateAbstractionManager {
   @Option(secure=true, name = "abs.useCache", description = "use caching of abstractions")
   private boolean useCache = true;
 
+  @Option(secure=true, name = "abs.maxCacheSize",
+      description = "maximum number of entries in each of the abstraction caches "
+          + "(least-recently used entries are evicted first, 0 for no limit). "
+          + "The bound is on the number of entries and not on their memory size, "
+          + "because the size of the cached formulas is not known cheaply.")
+  @IntegerOption(min=0)
+  private int maxCacheSize = 0;
+
+  @Option(name = "abs.persistentCache",
+      description = "file with abstraction results that is read and extended by this run "
+          + "(useful for verifying several versions of the same program, "
+          + "results are keyed by the block formula with normalized SSA indices, "
+          + "the set of predicates, the abstraction options, and the solver)")
+  @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
+  private Path persistentCacheFile = null;
+
   @Option(secure=true, name="refinement.splitItpAtoms",
       description="split each arithmetic equality into two inequalities when extracting predicates from interpolants")
   private boolean splitItpAtoms = false;
@@ -187,20 +208,25 @@ public class PredicateAbstractionManager {
 
   private boolean abstractionReuseDisabledBecauseOfAmbiguity = false;
 
-  private final Map<Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>>, AbstractionFormula> abstractionCache;
+  private final BoundedCache<Pair<BooleanFormula, ImmutableSet<AbstractionPredicate>>, AbstractionFormula> abstractionCache;
 
   // Cache for satisfiability queries: if formula is contained, it is unsat
-  private final Set<BooleanFormula> unsatisfiabilityCache;
+  private final BoundedCache<BooleanFormula, Boolean> unsatisfiabilityCache;
 
   //cache for cartesian abstraction queries. For each predicate, the values
   // are -1: predicate is false, 0: predicate is don't care,
   // 1: predicate is true
-  private final Map<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
+  private final BoundedCache<Pair<BooleanFormula, AbstractionPredicate>, Byte> cartesianAbstractionCache;
 
   private final BooleanFormulaManagerView bfmgr;
 
   private final PredicateAbstractionsStorage abstractionStorage;
 
+  private final @Nullable PersistentAbstractionCache persistentCache;
+
+  // all settings that influence the abstraction result and are part of the persistent-cache key
+  private final String persistentCacheConfiguration;
+
   private Optional<LiveVariables> liveVars;
 
   public PredicateAbstractionManager(
@@ -233,19 +259,41 @@ public class PredicateAbstractionManager {
     }
 
     if (useCache) {
-      abstractionCache = new HashMap<>();
-      unsatisfiabilityCache = new HashSet<>();
+      abstractionCache = new BoundedCache<>(maxCacheSize);
+      unsatisfiabilityCache = new BoundedCache<>(maxCacheSize);
     } else {
       abstractionCache = null;
       unsatisfiabilityCache = null;
     }
 
     if (useCache && (abstractionType != AbstractionType.BOOLEAN)) {
-      cartesianAbstractionCache = new HashMap<>();
+      cartesianAbstractionCache = new BoundedCache<>(maxCacheSize);
     } else {
       cartesianAbstractionCache = null;
     }
 
+    if (persistentCacheFile != null && abstractionType == AbstractionType.ELIMINATION) {
+      // the result of this abstraction type depends on the live variables at the current location
+      throw new InvalidConfigurationException("A persistent abstraction cache cannot be used"
+          + " with cpa.predicate.abstraction.computation=ELIMINATION");
+    }
+    persistentCacheConfiguration = "abstractionType=" + abstractionType
+        + " identifyTrivialPredicates=" + identifyTrivialPredicates
+        + " simplifyAbstractionFormula=" + simplifyAbstractionFormula
+        + " elimDeadVariablePreds=" + elimDeadVariablePredsByGeneralization
+        + " solver=" + fmgr.getVersion();
+
+    PersistentAbstractionCache loadedCache = null;
+    if (persistentCacheFile != null) {
+      try {
+        loadedCache = new PersistentAbstractionCache(persistentCacheFile);
+        logger.log(Level.FINE, "Loaded", loadedCache.size(), "abstractions from", persistentCacheFile);
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not open persistent abstraction cache");
+      }
+    }
+    persistentCache = loadedCache;
+
     abstractionStorage = new PredicateAbstractionsStorage(reuseAbstractionsFrom, logger, fmgr, null);
     SSAMap extractionSsa = SSAMap.emptySSAMap().withDefault(1);
     for (AbstractionNode an : abstractionStorage.getAbstractions().values()) {
@@ -401,9 +449,7 @@ public class PredicateAbstractionManager {
         return result;
       }
 
-      boolean unsatisfiable = unsatisfiabilityCache.contains(symbFormula)
-                            || unsatisfiabilityCache.contains(f);
-      if (unsatisfiable) {
+      if (unsatisfiabilityCache.containsAny(symbFormula, f)) {
         // block is infeasible
         logger.log(Level.FINEST, "Block feasibility of abstraction", stats.numCallsAbstraction, "was cached and is false.");
         stats.numCallsAbstractionCached++;
@@ -413,6 +459,37 @@ public class PredicateAbstractionManager {
       }
     }
 
+    HashCode persistentKey = null;
+    if (persistentCache != null) {
+      stats.persistentCacheTime.start();
+      try {
+        // only computed after the in-memory caches missed, because it needs to dump the formula
+        persistentKey = computePersistentCacheKey(f, ssa, predicates);
+        String storedAbstraction = persistentCache.get(persistentKey);
+        if (storedAbstraction != null) {
+          BooleanFormula stateFormula = fmgr.parse(storedAbstraction);
+          BooleanFormula instantiatedFormula = fmgr.instantiate(stateFormula, ssa);
+          AbstractionFormula result = new AbstractionFormula(fmgr,
+              buildRegionFromFormula(stateFormula), stateFormula,
+              instantiatedFormula, pathFormula, noAbstractionReuse);
+          logger.log(Level.FINEST, "Abstraction", stats.numCallsAbstraction, "was found in persistent cache");
+          logger.log(Level.ALL, "Abstraction result is", result.asFormula());
+          stats.numCallsAbstractionCached++;
+
+          if (useCache) {
+            abstractionCache.put(absKey, result);
+
+            if (result.isFalse()) {
+              unsatisfiabilityCache.put(f, Boolean.TRUE);
+            }
+          }
+          return result;
+        }
+      } finally {
+        stats.persistentCacheTime.stop();
+      }
+    }
+
 
 
     // We update statistics here because we want to ignore calls
@@ -504,7 +581,18 @@ public class PredicateAbstractionManager {
       abstractionCache.put(absKey, result);
 
       if (result.isFalse()) {
-        unsatisfiabilityCache.add(f);
+        unsatisfiabilityCache.put(f, Boolean.TRUE);
+      }
+    }
+
+    if (persistentCache != null) {
+      stats.persistentCacheTime.start();
+      try {
+        persistentCache.put(persistentKey, fmgr.dumpFormula(result.asFormula()).toString());
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not write to persistent abstraction cache");
+      } finally {
+        stats.persistentCacheTime.stop();
       }
     }
 
@@ -798,8 +886,9 @@ public class PredicateAbstractionManager {
 
       for (AbstractionPredicate p : predicates) {
         Pair<BooleanFormula, AbstractionPredicate> cacheKey = Pair.of(f, p);
-        if (useCache && cartesianAbstractionCache.containsKey(cacheKey)) {
-          byte predVal = cartesianAbstractionCache.get(cacheKey);
+        Byte cachedPredVal = useCache ? cartesianAbstractionCache.get(cacheKey) : null;
+        if (cachedPredVal != null) {
+          byte predVal = cachedPredVal;
           stats.numCartesianAbsPredicatesCached++;
 
           stats.abstractionEnumTime.getCurentInnerTimer().start();
@@ -1189,4 +1278,70 @@ public class PredicateAbstractionManager {
     return abstractionStorage.getSuccessorAbstractions(pIdOfLastAbstractionReused);
   }
 
+  private HashCode computePersistentCacheKey(BooleanFormula f, final SSAMap ssa,
+      Collection<AbstractionPredicate> predicates) {
+    List<String> predicateStrings = new ArrayList<>(predicates.size());
+    for (AbstractionPredicate predicate : predicates) {
+      predicateStrings.add(fmgr.dumpFormula(predicate.getSymbolicAtom()).toString());
+    }
+
+    // Normalize the SSA indices, such that the same block gets the same key
+    // regardless of the indices with which it starts.
+    // Variables with their last index are uninstantiated (as in the abstraction result),
+    // all other indices are replaced by their distance to the last index.
+    // Simply uninstantiating all variables would merge different versions of a variable.
+    BooleanFormula normalized = fmgr.renameFreeVariablesAndUFs(f, new Function<String, String>() {
+        @Override
+        public String apply(String pName) {
+          Pair<String, Integer> name = FormulaManagerView.parseName(pName);
+          Integer index = name.getSecond();
+          int lastIndex = ssa.getIndex(name.getFirst());
+          if (index == null || lastIndex < 0) {
+            return pName;
+          } else if (index == lastIndex) {
+            return name.getFirst();
+          } else {
+            return name.getFirst() + "@-" + (lastIndex - index);
+          }
+        }
+      });
+
+    return PersistentAbstractionCache.computeKey(persistentCacheConfiguration,
+        fmgr.dumpFormula(normalized).toString(), predicateStrings);
+  }
+
+  void closePersistentCache() {
+    if (persistentCache != null) {
+      try {
+        persistentCache.close();
+      } catch (IOException e) {
+        logger.logUserException(Level.WARNING, e, "Could not close persistent abstraction cache");
+      }
+    }
+  }
+
+  void printCacheStatistics(PrintStream out) {
+    if (persistentCache != null) {
+      persistentCache.printStatistics(out);
+      out.println("  Time for persistent cache:       " + stats.persistentCacheTime);
+      out.println();
+    }
+    if (!useCache) {
+      return;
+    }
+    printCacheStatistics(out, "Abstraction cache:            ", abstractionCache);
+    printCacheStatistics(out, "Unsatisfiability cache:       ", unsatisfiabilityCache);
+    if (cartesianAbstractionCache != null) {
+      printCacheStatistics(out, "Cartesian abstraction cache:  ", cartesianAbstractionCache);
+    }
+    out.println();
+  }
+
+  private static void printCacheStatistics(PrintStream out, String name, BoundedCache<?, ?> cache) {
+    out.println(name + cache.size() + " entries"
+        + (cache.getMaxSize() > 0 ? " (max. " + cache.getMaxSize() + ")" : ""));
+    out.println("  Hits:                       " + cache.getHits());
+    out.println("  Misses:                     " + cache.getMisses());
+    out.println("  Evictions:                  " + cache.getEvictions());
+  }
 }
@@ -25,10 +25,21 @@ package org.sosy_lab.cpachecker.cpa.predicate;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.logging.Level;
 
+import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.Pair;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.concurrency.Threads;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -42,49 +53,130 @@ import org.sosy_lab.cpachecker.cpa.arg.ARGState;
 import org.sosy_lab.cpachecker.cpa.arg.MutableARGPath;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.solver.SolverException;
 import org.sosy_lab.cpachecker.util.predicates.Solver;
 import org.sosy_lab.solver.api.BooleanFormula;
 import org.sosy_lab.solver.api.InterpolatingProverEnvironmentWithAssumptions;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.BooleanFormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 import org.sosy_lab.cpachecker.util.refinement.InfeasiblePrefix;
 import org.sosy_lab.cpachecker.util.refinement.PrefixProvider;
 
+import com.google.common.base.Throwables;
+import com.google.common.base.Verify;
 import com.google.common.collect.Iterables;
 
 @Options(prefix="cpa.predicate.refinement")
-public class PredicateBasedPrefixProvider implements PrefixProvider {
+public class PredicateBasedPrefixProvider implements PrefixProvider, AutoCloseable {
   @Option(secure=true, description="Max. number of prefixes to extract")
   private int maxPrefixCount = 64;
 
   @Option(secure=true, description="Max. length of feasible prefixes to extract from if at least one prefix was already extracted")
   private int maxPrefixLength = 1024;
 
+  @Option(secure=true, description="Number of threads for computing the interpolant sequences "
+      + "of infeasible prefixes in parallel. Each thread uses its own solver instance, "
+      + "formulas are exchanged with the main solver as strings.")
+  @IntegerOption(min=1)
+  private int interpolationThreads = 1;
+
+  private final Configuration config;
   private final LogManager logger;
+  private final ShutdownNotifier shutdownNotifier;
 
   private final Solver solver;
 
   private final PathFormulaManager pathFormulaManager;
 
+  // only used if interpolationThreads > 1, each worker thread takes a solver from the queue
+  private ExecutorService executor = null;
+  private BlockingQueue<Solver> workerSolvers = null;
+  private final List<Solver> allWorkerSolvers = new ArrayList<>();
+
+  /**
+   * Create a prefix provider that uses the solver of the given PredicateCPA
+   * and that is closed together with this CPA.
+   */
+  public static PredicateBasedPrefixProvider create(Configuration pConfig, LogManager pLogger, PredicateCPA pPredicateCpa) {
+    PredicateBasedPrefixProvider prefixProvider = new PredicateBasedPrefixProvider(pConfig, pLogger,
+        pPredicateCpa.getSolver(), pPredicateCpa.getPathFormulaManager(), pPredicateCpa.getShutdownNotifier());
+    pPredicateCpa.registerForClosing(prefixProvider);
+    return prefixProvider;
+  }
+
   /**
    * This method acts as the constructor of the class.
+   * The caller is responsible for calling {@link #close()}.
    *
    * @param pSolver the solver to use
    */
-  public PredicateBasedPrefixProvider(Configuration config, LogManager pLogger, Solver pSolver, PathFormulaManager pPathFormulaManager) {
+  public PredicateBasedPrefixProvider(Configuration pConfig, LogManager pLogger, Solver pSolver,
+      PathFormulaManager pPathFormulaManager, ShutdownNotifier pShutdownNotifier) {
     try {
-      config.inject(this);
+      pConfig.inject(this);
     } catch (InvalidConfigurationException e) {
       pLogger.log(Level.INFO, "Invalid configuration given to " + getClass().getSimpleName() + ". Using defaults instead.");
     }
 
+    config = pConfig;
     logger = pLogger;
+    shutdownNotifier = pShutdownNotifier;
     solver = pSolver;
     pathFormulaManager = pPathFormulaManager;
   }
 
+  /**
+   * Create the threads and solver instances for parallel interpolation.
+   * @return Whether parallel interpolation is possible.
+   */
+  private boolean initParallelInterpolation() {
+    if (executor != null) {
+      return true;
+    }
+    BlockingQueue<Solver> solvers = new ArrayBlockingQueue<>(interpolationThreads);
+    try {
+      for (int i = 0; i < interpolationThreads; i++) {
+        Solver workerSolver = Solver.create(config, logger, ShutdownNotifier.createWithParent(shutdownNotifier));
+        allWorkerSolvers.add(workerSolver);
+        solvers.add(workerSolver);
+      }
+    } catch (InvalidConfigurationException e) {
+      logger.logUserException(Level.WARNING, e, "Could not create solvers for parallel interpolation of prefixes, using only one thread");
+      closeWorkerSolvers();
+      interpolationThreads = 1;
+      return false;
+    }
+
+    workerSolvers = solvers;
+    // important to use daemon threads here, because close() might not be called in case of errors
+    executor = Executors.newFixedThreadPool(interpolationThreads,
+        Threads.threadFactoryBuilder().setNameFormat("prefix-interpolation-%d").setDaemon(true).build());
+    return true;
+  }
+
+  /**
+   * Stop the threads and close the solver instances for parallel interpolation.
+   */
+  @Override
+  public void close() {
+    if (executor != null) {
+      executor.shutdownNow();
+      executor = null;
+    }
+    workerSolvers = null;
+    closeWorkerSolvers();
+  }
+
+  private void closeWorkerSolvers() {
+    for (Solver workerSolver : allWorkerSolvers) {
+      CPAs.closeIfPossible(workerSolver, logger);
+    }
+    allWorkerSolvers.clear();
+  }
+
   /* (non-Javadoc)
    * @see org.sosy_lab.cpachecker.cpa.predicate.PrefixProvider#getInfeasiblePrefixes(org.sosy_lab.cpachecker.cpa.arg.ARGPath)
    */
@@ -95,6 +187,12 @@ public class PredicateBasedPrefixProvider implements PrefixProvider {
     MutableARGPath feasiblePrefixPath = new MutableARGPath();
     List<Object> feasiblePrefixTerms = new ArrayList<>(path.size());
 
+    // for parallel interpolation: the formulas on the solver stack,
+    // and the pending interpolation tasks together with their prefix paths
+    boolean parallel = interpolationThreads > 1 && initParallelInterpolation();
+    List<BooleanFormula> feasiblePrefixFormulas = new ArrayList<>(path.size());
+    List<Pair<MutableARGPath, Future<List<String>>>> pendingPrefixes = new ArrayList<>();
+
     try (@SuppressWarnings("unchecked")
       InterpolatingProverEnvironmentWithAssumptions<Object> prover =
       (InterpolatingProverEnvironmentWithAssumptions<Object>)solver.newProverEnvironmentWithInterpolation()) {
@@ -108,24 +206,35 @@ public class PredicateBasedPrefixProvider implements PrefixProvider {
           formula = pathFormulaManager.makeAnd(pathFormulaManager.makeEmptyPathFormula(formula), iterator.getOutgoingEdge());
           Object term = prover.push(formula.getFormula());
           feasiblePrefixTerms.add(term);
+          feasiblePrefixFormulas.add(formula.getFormula());
 
           if (iterator.getOutgoingEdge().getEdgeType() == CFAEdgeType.AssumeEdge && prover.isUnsat()) {
             logger.log(Level.FINE, "found infeasible prefix: ", iterator.getOutgoingEdge(), " resulted in an unsat-formula");
 
-            List<BooleanFormula> interpolantSequence = extractInterpolantSequence(feasiblePrefixTerms, prover);
+            if (parallel) {
+              // interpolate in the background and continue searching for more prefixes
+              MutableARGPath prefixPath = new MutableARGPath();
+              prefixPath.addAll(feasiblePrefixPath);
+              pendingPrefixes.add(Pair.of(prefixPath, submitInterpolation(feasiblePrefixFormulas)));
 
-            // add infeasible prefix
-            InfeasiblePrefix infeasiblePrefix = buildInfeasiblePrefix(path, feasiblePrefixPath, interpolantSequence, solver.getFormulaManager());
-            prefixes.add(infeasiblePrefix);
+            } else {
+              List<BooleanFormula> interpolantSequence = extractInterpolantSequence(feasiblePrefixTerms, prover);
+
+              // add infeasible prefix
+              InfeasiblePrefix infeasiblePrefix = buildInfeasiblePrefix(path, feasiblePrefixPath, interpolantSequence, solver.getFormulaManager());
+              prefixes.add(infeasiblePrefix);
+            }
 
             // remove failing operation
             Pair<ARGState, CFAEdge> failingOperation =
                 removeFailingOperation(feasiblePrefixPath, feasiblePrefixTerms, prover);
+            feasiblePrefixFormulas.remove(feasiblePrefixFormulas.size() - 1);
 
             // add noop-operation
             formula = addNoopOperation(feasiblePrefixPath, feasiblePrefixTerms, prover, formula, failingOperation);
+            feasiblePrefixFormulas.add(formula.getFormula());
 
-            if(prefixes.size() >= maxPrefixCount) {
+            if(prefixes.size() + pendingPrefixes.size() >= maxPrefixCount) {
               break;
             }
           }
@@ -135,17 +244,110 @@ public class PredicateBasedPrefixProvider implements PrefixProvider {
           throw new CPAException("Error during computation of prefixes: " + e.getMessage(), e);
         }
 
-        if(!prefixes.isEmpty() && feasiblePrefixPath.size() >= maxPrefixLength) {
+        if((!prefixes.isEmpty() || !pendingPrefixes.isEmpty()) && feasiblePrefixPath.size() >= maxPrefixLength) {
           break;
         }
 
         iterator.advance();
       }
+
+      // collect results of parallel interpolation, in the order the prefixes were found
+      for (Pair<MutableARGPath, Future<List<String>>> pending : pendingPrefixes) {
+        prefixes.add(buildInfeasiblePrefix(path, pending.getFirst(),
+            collectInterpolation(pending.getSecond()), solver.getFormulaManager()));
+      }
+
+    } finally {
+      // no effect for finished tasks, only necessary in case of exceptions
+      for (Pair<MutableARGPath, Future<List<String>>> pending : pendingPrefixes) {
+        pending.getSecond().cancel(true);
+      }
     }
 
     return prefixes;
   }
 
+  /**
+   * Compute the interpolant sequence for an (unsatisfiable) list of formulas
+   * in one of the worker threads.
+   * The formulas are converted to strings here, because formula managers
+   * may not be accessed concurrently and formulas cannot be shared between solver instances.
+   */
+  private Future<List<String>> submitInterpolation(List<BooleanFormula> pFormulas) {
+    FormulaManagerView fmgr = solver.getFormulaManager();
+    final List<String> formulas = new ArrayList<>(pFormulas.size());
+    for (BooleanFormula f : pFormulas) {
+      formulas.add(dumpFormula(fmgr, f));
+    }
+
+    return executor.submit(new Callable<List<String>>() {
+        @Override
+        public List<String> call() throws SolverException, InterruptedException {
+          Solver workerSolver = workerSolvers.take();
+          try {
+            return interpolate(workerSolver, formulas);
+          } finally {
+            workerSolvers.add(workerSolver);
+          }
+        }
+      });
+  }
+
+  private List<String> interpolate(Solver workerSolver, List<String> pFormulas)
+      throws SolverException, InterruptedException {
+    FormulaManagerView workerFmgr = workerSolver.getFormulaManager();
+    List<Object> terms = new ArrayList<>(pFormulas.size());
+
+    try (@SuppressWarnings("unchecked")
+      InterpolatingProverEnvironmentWithAssumptions<Object> prover =
+      (InterpolatingProverEnvironmentWithAssumptions<Object>)workerSolver.newProverEnvironmentWithInterpolation()) {
+
+      for (String f : pFormulas) {
+        terms.add(prover.push(workerFmgr.parse(f)));
+      }
+      Verify.verify(prover.isUnsat(), "Infeasible prefix is satisfiable in separate solver instance");
+
+      List<String> result = new ArrayList<>(terms.size());
+      for (BooleanFormula itp : extractInterpolantSequence(terms, prover)) {
+        result.add(dumpFormula(workerFmgr, itp));
+      }
+      return result;
+    }
+  }
+
+  private List<BooleanFormula> collectInterpolation(Future<List<String>> pFuture)
+      throws CPAException, InterruptedException {
+    List<String> interpolants;
+    try {
+      interpolants = pFuture.get();
+    } catch (ExecutionException e) {
+      Throwable t = e.getCause();
+      Throwables.propagateIfPossible(t, CPAException.class, InterruptedException.class);
+      if (t instanceof SolverException) {
+        throw new CPAException("Error during computation of prefixes: " + t.getMessage(), t);
+      }
+      throw new UnexpectedCheckedException("interpolation of prefix", t);
+    }
+
+    FormulaManagerView fmgr = solver.getFormulaManager();
+    List<BooleanFormula> result = new ArrayList<>(interpolants.size());
+    for (String itp : interpolants) {
+      result.add(fmgr.parse(itp));
+    }
+    return result;
+  }
+
+  private static String dumpFormula(FormulaManagerView fmgr, BooleanFormula f) {
+    // the dump of constant formulas may be empty, which cannot be parsed
+    BooleanFormulaManagerView bfmgr = fmgr.getBooleanFormulaManager();
+    if (bfmgr.isTrue(f)) {
+      return "(assert true)";
+    } else if (bfmgr.isFalse(f)) {
+      return "(assert false)";
+    }
+    return fmgr.dumpFormula(f).toString();
+  }
+
   private <T> List<BooleanFormula> extractInterpolantSequence(List<T> feasiblePrefixFormulas,
       InterpolatingProverEnvironmentWithAssumptions<T> prover) throws SolverException {
 
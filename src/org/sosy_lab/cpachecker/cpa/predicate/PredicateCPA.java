@@ -23,7 +23,9 @@
  */
 package org.sosy_lab.cpachecker.cpa.predicate;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.logging.Level;
 
 import javax.annotation.Nullable;
@@ -58,6 +60,7 @@ import org.sosy_lab.cpachecker.core.interfaces.pcc.ProofChecker;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSetFactory;
 import org.sosy_lab.cpachecker.exceptions.CPAException;
 import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.CPAs;
 import org.sosy_lab.cpachecker.util.blocking.BlockedCFAReducer;
 import org.sosy_lab.cpachecker.util.blocking.interfaces.BlockComputer;
 import org.sosy_lab.cpachecker.util.predicates.AbstractionManager;
@@ -114,6 +117,9 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
   protected final LogManager logger;
   protected final ShutdownNotifier shutdownNotifier;
 
+  // closed before the solver, cf. registerForClosing()
+  private final List<AutoCloseable> resourcesToClose = new ArrayList<>();
+
   private final PredicateAbstractDomain domain;
   private final PredicateTransferRelation transfer;
   private final MergeOperator merge;
@@ -305,8 +311,23 @@ public class PredicateCPA implements ConfigurableProgramAnalysis, StatisticsProv
     solver.getFormulaManager().collectStatistics(pStatsCollection);
   }
 
+  /**
+   * Register an object that uses the solver of this CPA
+   * and needs to be closed before it, e.g., because it has own solver instances.
+   */
+  public synchronized void registerForClosing(AutoCloseable pResource) {
+    resourcesToClose.add(pResource);
+  }
+
   @Override
   public void close() throws Exception {
+    synchronized (this) {
+      for (AutoCloseable resource : resourcesToClose) {
+        CPAs.closeIfPossible(resource, logger);
+      }
+      resourcesToClose.clear();
+    }
+    predicateManager.closePersistentCache();
     solver.close();
   }
 
@@ -409,6 +409,7 @@ public class PredicateCPARefiner extends AbstractARGBasedRefiner implements Stat
 
         final BooleanFormulaManagerView bfmgr = fmgr.getBooleanFormulaManager();
         BooleanFormula traceFormula = bfmgr.makeBoolean(true);
+        List<BooleanFormula> traceBlocks = new ArrayList<>();
 
         // each abstraction location has a corresponding block formula
 
@@ -425,8 +426,9 @@ public class PredicateCPARefiner extends AbstractARGBasedRefiner implements Stat
           final SSAMap blockSsaMap = predState.getAbstractionFormula().getBlockFormula().getSsa();
 
           traceFormula = bfmgr.and(traceFormula, blockFormula);
+          traceBlocks.add(blockFormula);
 
-          if (!BlockOperator.isFirstLocationInFunctionBody(loc) || solver.isUnsat(traceFormula)) { // Add the precondition only if the trace formula is SAT!!
+          if (!BlockOperator.isFirstLocationInFunctionBody(loc) || solver.isUnsat(traceBlocks)) { // Add the precondition only if the trace formula is SAT!!
             result.add(blockFormula);
 
           } else {
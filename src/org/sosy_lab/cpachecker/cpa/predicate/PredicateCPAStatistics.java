@@ -294,6 +294,11 @@ class PredicateCPAStatistics extends AbstractStatistics {
     out.println("Number of SMT sat checks:          " + solver.satChecks);
     out.println("  trivial:                         " + solver.trivialSatChecks);
     out.println("  cached:                          " + solver.cachedSatChecks);
+    if (solver.incrementalSatChecks > 0) {
+      out.println("  incremental:                     " + solver.incrementalSatChecks);
+      out.println("    Reused formulas on stack:      " + solver.reusedPrefixFormulas + " (avg. " + div(solver.reusedPrefixFormulas, solver.incrementalSatChecks) + ", max. " + solver.maxReusedPrefixFormulas + ")");
+      out.println("    Pushed formulas:               " + solver.pushedFormulas);
+    }
     out.println();
     out.println("Max ABE block size:                       " + prec.maxBlockSize);
     out.println("Number of predicates discovered:          " + allDistinctPreds);
@@ -324,6 +329,7 @@ class PredicateCPAStatistics extends AbstractStatistics {
       }
     }
     out.println();
+    amgr.printCacheStatistics(out);
     if (pfMgr != null) {
       int pathFormulaCacheHits = pfMgr.pathFormulaCacheHits;
       int totalPathFormulaComputations = pfMgr.pathFormulaComputationTimer.getNumberOfIntervals() + pathFormulaCacheHits;
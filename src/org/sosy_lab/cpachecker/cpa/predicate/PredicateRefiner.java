@@ -100,7 +100,7 @@ public abstract class PredicateRefiner implements Refiner {
         pfmgr,
         solver);
 
-    PrefixProvider prefixProvider = new PredicateBasedPrefixProvider(config, logger, solver, pfmgr);
+    PrefixProvider prefixProvider = PredicateBasedPrefixProvider.create(config, logger, predicateCpa);
 
     return new PredicateCPARefiner(
         config,
@@ -0,0 +1,329 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.base.Preconditions.checkArgument;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.common.io.Path;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
+/**
+ * A content-addressed store of abstraction results that persists across runs.
+ *
+ * The key of an entry is a hash of the configuration of the abstraction computation
+ * (e.g., the abstraction type and the solver),
+ * of the textual (SMTLIB2) representation of the block formula,
+ * and of the predicates used for the abstraction,
+ * the value is the textual representation of the abstraction result.
+ * Converting formulas to and from strings is left to the caller,
+ * this class only handles the storage.
+ *
+ * The file is an append-only log of records: new entries are written
+ * immediately when they are added, and if a key occurs several times,
+ * the last record wins. On startup, the whole file is read into an in-memory index.
+ * Several processes may use the same file concurrently,
+ * reading the file and appending a record is done while holding a {@link FileLock}.
+ * Superseded and duplicate records can be removed with {@link #compact(Path)}
+ * (cf. {@link PersistentAbstractionCacheTool}),
+ * this must not be done while the file is in use by another process.
+ */
+public class PersistentAbstractionCache implements AutoCloseable {
+
+  private static final int MAGIC = 0x43504143; // "CPAC"
+  private static final int VERSION = 1;
+  private static final int INT_LENGTH = Integer.SIZE / Byte.SIZE;
+  private static final int HEADER_LENGTH = 2 * INT_LENGTH;
+
+  private static final HashFunction HASH_FUNCTION = Hashing.sha256();
+  private static final int KEY_LENGTH = HASH_FUNCTION.bits() / Byte.SIZE;
+
+  /**
+   * File locks are held by the whole JVM and trying to acquire
+   * an overlapping lock from the same JVM throws an exception,
+   * so all file locks of this class are acquired while holding this lock.
+   */
+  private static final Object JVM_LOCK = new Object();
+
+  private final Map<HashCode, String> entries;
+  private final int numRecords;
+  private final RandomAccessFile file;
+  private final FileChannel channel;
+
+  private int hits = 0;
+  private int misses = 0;
+  private int writes = 0;
+
+  /**
+   * Open a store. The file is created if it does not exist yet.
+   */
+  public PersistentAbstractionCache(Path pFile) throws IOException {
+    entries = new HashMap<>();
+    file = new RandomAccessFile(pFile.toFile(), "rw");
+    channel = file.getChannel();
+    boolean success = false;
+    try {
+      synchronized (JVM_LOCK) {
+        try (FileLock lock = channel.lock()) {
+          if (channel.size() == 0) {
+            numRecords = 0;
+            ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_LENGTH);
+            try (DataOutputStream headerOut = new DataOutputStream(header)) {
+              writeHeader(headerOut);
+            }
+            append(header.toByteArray());
+          } else {
+            // Do not close this stream, this would close the channel and release the lock.
+            channel.position(0);
+            InputStream in = new BufferedInputStream(Channels.newInputStream(channel));
+            Pair<Integer, Long> readResult = readRecords(in, pFile.toString(), entries);
+            numRecords = readResult.getFirst();
+            if (readResult.getSecond() < channel.size()) {
+              // drop incomplete last record (e.g., from a killed process) before appending new ones
+              channel.truncate(readResult.getSecond());
+            }
+          }
+        }
+      }
+      success = true;
+    } finally {
+      if (!success) {
+        file.close();
+      }
+    }
+  }
+
+  /**
+   * Compute the key for a given block formula and set of predicates.
+   * The order of the predicates does not matter.
+   * @param blockFormula The dumped block formula, whose SSA indices should be normalized
+   *    such that the same block has the same key in different runs.
+   * @param configuration A description of all settings that influence the abstraction result
+   *    (which are not already represented by the formulas).
+   */
+  public static HashCode computeKey(String configuration, String blockFormula,
+      Iterable<String> predicates) {
+    List<String> sortedPredicates = new ArrayList<>();
+    for (String predicate : predicates) {
+      sortedPredicates.add(predicate);
+    }
+    Collections.sort(sortedPredicates);
+
+    Hasher hasher = HASH_FUNCTION.newHasher();
+    putString(hasher, configuration);
+    putString(hasher, blockFormula);
+    hasher.putInt(sortedPredicates.size());
+    for (String predicate : sortedPredicates) {
+      putString(hasher, predicate);
+    }
+    return hasher.hash();
+  }
+
+  private static void putString(Hasher hasher, String s) {
+    hasher.putInt(s.length()).putString(s, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Look up the abstraction result for a key.
+   * @return The stored abstraction result, or null if there is none.
+   */
+  public @Nullable String get(HashCode key) {
+    String result = entries.get(key);
+    if (result == null) {
+      misses++;
+    } else {
+      hits++;
+    }
+    return result;
+  }
+
+  /**
+   * Store an abstraction result and write it to disk.
+   */
+  public void put(HashCode key, String abstraction) throws IOException {
+    checkArgument(key.bits() == HASH_FUNCTION.bits(), "Invalid key %s", key);
+    if (abstraction.equals(entries.put(key, abstraction))) {
+      return;
+    }
+
+    // encode the record first such that it can be written with a single write while locked
+    ByteArrayOutputStream record = new ByteArrayOutputStream();
+    try (DataOutputStream recordOut = new DataOutputStream(record)) {
+      writeRecord(recordOut, key, abstraction);
+    }
+    synchronized (JVM_LOCK) {
+      try (FileLock lock = channel.lock()) {
+        append(record.toByteArray());
+      }
+    }
+    writes++;
+  }
+
+  /**
+   * Append data at the end of the file. The caller needs to hold the file lock,
+   * otherwise another process might append between positioning and writing.
+   */
+  private void append(byte[] data) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(data);
+    channel.position(channel.size());
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+
+  @Override
+  public void close() throws IOException {
+    file.close();
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Return the number of records in the file when it was opened
+   * (including superseded records).
+   */
+  int getNumberOfRecords() {
+    return numRecords;
+  }
+
+  public void printStatistics(PrintStream pOut) {
+    int lookups = hits + misses;
+    pOut.println("Persistent abstraction cache:      " + entries.size() + " entries");
+    pOut.println("  Entries loaded from disk:        " + (entries.size() - writes));
+    pOut.println("  Entries written in this run:     " + writes);
+    pOut.println("  Hits:                            " + hits
+        + (lookups > 0 ? " (" + (100 * hits / lookups) + "%)" : ""));
+    pOut.println("  Misses:                          " + misses);
+  }
+
+  /**
+   * Rewrite a store such that each key occurs only once.
+   * This must not be called while another process uses the store.
+   * @return The number of removed records.
+   */
+  public static int compact(Path pFile) throws IOException {
+    File file = pFile.toFile();
+    Map<HashCode, String> liveEntries = new HashMap<>();
+    int records;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      records = readRecords(new BufferedInputStream(Channels.newInputStream(raf.getChannel())),
+          file.toString(), liveEntries).getFirst();
+    }
+
+    File tmpFile = new File(file.getPath() + ".tmp");
+    try (DataOutputStream tmpOut = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tmpFile)))) {
+      writeHeader(tmpOut);
+      for (Map.Entry<HashCode, String> entry : liveEntries.entrySet()) {
+        writeRecord(tmpOut, entry.getKey(), entry.getValue());
+      }
+    }
+    if (!tmpFile.renameTo(file)) {
+      throw new IOException("Could not replace " + file + " with compacted file " + tmpFile);
+    }
+    return records - liveEntries.size();
+  }
+
+  private static void writeHeader(DataOutputStream pOut) throws IOException {
+    pOut.writeInt(MAGIC);
+    pOut.writeInt(VERSION);
+  }
+
+  private static void writeRecord(DataOutputStream pOut, HashCode key, String value)
+      throws IOException {
+    byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+    pOut.write(key.asBytes());
+    pOut.writeInt(bytes.length);
+    pOut.write(bytes);
+  }
+
+  /**
+   * Read all records of a file into a map.
+   * A truncated last record (e.g., from a killed process) is ignored.
+   * @return The number of records in the file and the length of the valid part of the file.
+   */
+  private static Pair<Integer, Long> readRecords(InputStream pIn, String fileName,
+      Map<HashCode, String> pEntries) throws IOException {
+    int records = 0;
+    long validLength = HEADER_LENGTH;
+    DataInputStream in = new DataInputStream(pIn);
+    if (in.readInt() != MAGIC) {
+      throw new IOException(fileName + " is not an abstraction cache");
+    }
+    int version = in.readInt();
+    if (version != VERSION) {
+      throw new IOException(fileName + " has unsupported version " + version);
+    }
+
+    byte[] key = new byte[KEY_LENGTH];
+    while (true) {
+      try {
+        in.readFully(key);
+      } catch (EOFException e) {
+        break; // regular end of file (or incomplete key of last record)
+      }
+      try {
+        byte[] value = new byte[in.readInt()];
+        in.readFully(value);
+        pEntries.put(HashCode.fromBytes(key), new String(value, StandardCharsets.UTF_8));
+        records++;
+        validLength += KEY_LENGTH + INT_LENGTH + value.length;
+      } catch (EOFException e) {
+        break; // incomplete last record
+      }
+    }
+    return Pair.of(records, validLength);
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.hash.HashCode;
+
+public class PersistentAbstractionCacheTest {
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private File file;
+  private Path path;
+
+  private static final String CONFIG = "abstractionType=BOOLEAN";
+
+  private static final HashCode KEY1 = PersistentAbstractionCache.computeKey(CONFIG,
+      "(assert (= x 1))", ImmutableList.of("(assert (> x 0))"));
+  private static final HashCode KEY2 = PersistentAbstractionCache.computeKey(CONFIG,
+      "(assert (= x 2))", ImmutableList.of("(assert (> x 0))"));
+
+  @Before
+  public void setUp() {
+    file = new File(tmp.getRoot(), "abstractions.cache");
+    path = Paths.get(file.getPath());
+  }
+
+  @Test
+  public void testKeyIndependentOfPredicateOrder() {
+    HashCode key1 = PersistentAbstractionCache.computeKey(CONFIG, "f", ImmutableList.of("p", "q"));
+    HashCode key2 = PersistentAbstractionCache.computeKey(CONFIG, "f", ImmutableList.of("q", "p"));
+    HashCode key3 = PersistentAbstractionCache.computeKey(CONFIG, "fp", ImmutableList.of("q"));
+    assertThat(key1).isEqualTo(key2);
+    assertThat(key1).isNotEqualTo(key3);
+  }
+
+  @Test
+  public void testKeyDependsOnConfiguration() {
+    HashCode key1 = PersistentAbstractionCache.computeKey(CONFIG, "f", ImmutableList.of("p"));
+    HashCode key2 = PersistentAbstractionCache.computeKey("abstractionType=CARTESIAN",
+        "f", ImmutableList.of("p"));
+    assertThat(key1).isNotEqualTo(key2);
+  }
+
+  @Test
+  public void testSameFileOpenedTwice() throws IOException {
+    // both instances append to the same file, neither must overwrite the records of the other
+    try (PersistentAbstractionCache cache1 = new PersistentAbstractionCache(path);
+         PersistentAbstractionCache cache2 = new PersistentAbstractionCache(path)) {
+      cache1.put(KEY1, "(assert true)");
+      cache2.put(KEY2, "(assert false)");
+    }
+
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      assertThat(cache.size()).isEqualTo(2);
+      assertThat(cache.get(KEY1)).isEqualTo("(assert true)");
+      assertThat(cache.get(KEY2)).isEqualTo("(assert false)");
+    }
+  }
+
+  @Test
+  public void testEntriesArePersisted() throws IOException {
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      assertThat(cache.get(KEY1)).isNull();
+      cache.put(KEY1, "(assert true)");
+    }
+
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      assertThat(cache.size()).isEqualTo(1);
+      assertThat(cache.get(KEY1)).isEqualTo("(assert true)");
+      assertThat(cache.get(KEY2)).isNull();
+    }
+  }
+
+  @Test
+  public void testCompact() throws IOException {
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      cache.put(KEY1, "(assert true)");
+      cache.put(KEY1, "(assert false)");
+      cache.put(KEY2, "(assert true)");
+    }
+    long oldLength = file.length();
+
+    assertThat(PersistentAbstractionCache.compact(path)).isEqualTo(1);
+    assertThat(file.length()).isLessThan(oldLength);
+
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      assertThat(cache.size()).isEqualTo(2);
+      assertThat(cache.get(KEY1)).isEqualTo("(assert false)");
+      assertThat(cache.get(KEY2)).isEqualTo("(assert true)");
+    }
+  }
+
+  @Test
+  public void testTruncatedRecordIsIgnored() throws IOException {
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      cache.put(KEY1, "(assert true)");
+      cache.put(KEY2, "(assert true)");
+    }
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(raf.length() - 3);
+    }
+
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      assertThat(cache.size()).isEqualTo(1);
+      assertThat(cache.get(KEY1)).isEqualTo("(assert true)");
+      cache.put(KEY2, "(assert false)");
+    }
+
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(path)) {
+      assertThat(cache.size()).isEqualTo(2);
+      assertThat(cache.get(KEY2)).isEqualTo("(assert false)");
+    }
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.predicate.persistence;
+
+import java.io.IOException;
+import java.io.PrintStream;
+
+import org.sosy_lab.common.io.Path;
+import org.sosy_lab.common.io.Paths;
+
+/**
+ * Command-line tool for inspecting and compacting a {@link PersistentAbstractionCache}:
+ * <pre>
+ * java -cp cpachecker.jar:lib/java/runtime/* \
+ *     org.sosy_lab.cpachecker.cpa.predicate.persistence.PersistentAbstractionCacheTool \
+ *     (info|compact) FILE
+ * </pre>
+ */
+public class PersistentAbstractionCacheTool {
+
+  private PersistentAbstractionCacheTool() { }
+
+  public static void main(String[] args) throws IOException {
+    if (args.length != 2 || !(args[0].equals("info") || args[0].equals("compact"))) {
+      System.err.println("Usage: PersistentAbstractionCacheTool (info|compact) FILE");
+      System.exit(1);
+    }
+    Path file = Paths.get(args[1]);
+    PrintStream out = System.out;
+
+    if (args[0].equals("compact")) {
+      int removed = PersistentAbstractionCache.compact(file);
+      out.println("Removed " + removed + " superseded records.");
+    }
+
+    try (PersistentAbstractionCache cache = new PersistentAbstractionCache(file)) {
+      int records = cache.getNumberOfRecords();
+      out.println("Entries:          " + cache.size());
+      out.println("Records:          " + records);
+      out.println("Stale records:    " + (records - cache.size()));
+      out.println("File size:        " + file.toFile().length() + " bytes");
+    }
+  }
+}
@@ -27,6 +27,8 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
+import javax.annotation.Nullable;
+
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
 
@@ -48,6 +50,16 @@ public class SMGEdgeHasValueFilter {
   private Integer offset = null;
   private CType type = null;
 
+  @Nullable
+  public SMGObject getObject() {
+    return object;
+  }
+
+  @Nullable
+  public Integer getOffset() {
+    return offset;
+  }
+
   public SMGEdgeHasValueFilter filterByObject(SMGObject pObject) {
     object = pObject;
     return this;
@@ -99,7 +111,7 @@ public class SMGEdgeHasValueFilter {
     return true;
   }
 
-  public Set<SMGEdgeHasValue> filterSet(Set<SMGEdgeHasValue> pEdges) {
+  public Set<SMGEdgeHasValue> filterSet(Iterable<SMGEdgeHasValue> pEdges) {
     Set<SMGEdgeHasValue> returnSet = new HashSet<>();
     for (SMGEdgeHasValue edge : pEdges) {
       if (holdsFor(edge)) {
@@ -118,6 +118,10 @@ final class NeqRelation {
     return false;
   }
 
+  public boolean containsValue(Integer pOne) {
+    return smgValues.containsKey(pOne);
+  }
+
   public void removeValue(Integer pOne) {
     if (smgValues.containsKey(pOne)) {
       for (Integer other : smgValues.get(pOne)) {
@@ -23,11 +23,13 @@
  */
 package org.sosy_lab.cpachecker.cpa.smg.graphs;
 
+import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,13 +40,28 @@ import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValueFilter;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
 
+import com.google.common.collect.ImmutableList;
+
 public class SMG {
-  final private Set<SMGObject> objects = new HashSet<>();
-  final private Set<Integer> values = new HashSet<>();
-  final private Set<SMGEdgeHasValue> hv_edges = new HashSet<>();
-  final private Map<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
-  final private Map<SMGObject, Boolean> object_validity = new HashMap<>();
-  final private NeqRelation neq = new NeqRelation();
+  private Set<SMGObject> objects = new HashSet<>();
+  private Set<Integer> values = new HashSet<>();
+  final private SMGHasValueEdges hv_edges;
+  private Map<Integer, SMGEdgePointsTo> pt_edges = new HashMap<>();
+  private Map<SMGObject, Boolean> object_validity = new HashMap<>();
+  private NeqRelation neq = new NeqRelation();
+
+  /*
+   * The collections above are shared between an SMG and its copies
+   * until one of them is modified (copy-on-write).
+   * The following flags tell whether a collection may be shared
+   * and needs to be copied before modifying it.
+   * The Has-Value edges handle this on their own.
+   */
+  private boolean objectsShared = false;
+  private boolean valuesShared = false;
+  private boolean ptEdgesShared = false;
+  private boolean validityShared = false;
+  private boolean neqShared = false;
 
   final private MachineModel machine_model;
 
@@ -67,10 +84,10 @@ public class SMG {
    *
    */
   public SMG(final MachineModel pMachineModel) {
+    hv_edges = new SMGHasValueEdges();
     SMGEdgePointsTo nullPointer = new SMGEdgePointsTo(nullAddress, nullObject, 0);
 
-    addObject(nullObject);
-    object_validity.put(nullObject, false);
+    addObject(nullObject, false);
 
     addValue(nullAddress);
     addPointsToEdge(nullPointer);
@@ -86,16 +103,69 @@ public class SMG {
    * @param pHeap Original SMG.
    */
   public SMG(final SMG pHeap) {
-    objects.addAll(pHeap.objects);
-    values.addAll(pHeap.values);
-    hv_edges.addAll(pHeap.hv_edges);
-    pt_edges.putAll(pHeap.pt_edges);
+    pHeap.markAllShared();
+    markAllShared();
+
+    objects = pHeap.objects;
+    values = pHeap.values;
+    hv_edges = pHeap.hv_edges.copy();
+    pt_edges = pHeap.pt_edges;
 
-    object_validity.putAll(pHeap.object_validity);
+    object_validity = pHeap.object_validity;
 
     machine_model = pHeap.machine_model;
 
-    neq.putAll(pHeap.neq);
+    neq = pHeap.neq;
+  }
+
+  private void markAllShared() {
+    objectsShared = true;
+    valuesShared = true;
+    ptEdgesShared = true;
+    validityShared = true;
+    neqShared = true;
+  }
+
+  private Set<SMGObject> modifiableObjects() {
+    if (objectsShared) {
+      objects = new HashSet<>(objects);
+      objectsShared = false;
+    }
+    return objects;
+  }
+
+  private Set<Integer> modifiableValues() {
+    if (valuesShared) {
+      values = new HashSet<>(values);
+      valuesShared = false;
+    }
+    return values;
+  }
+
+  private Map<Integer, SMGEdgePointsTo> modifiablePTEdges() {
+    if (ptEdgesShared) {
+      pt_edges = new HashMap<>(pt_edges);
+      ptEdgesShared = false;
+    }
+    return pt_edges;
+  }
+
+  private Map<SMGObject, Boolean> modifiableValidity() {
+    if (validityShared) {
+      object_validity = new HashMap<>(object_validity);
+      validityShared = false;
+    }
+    return object_validity;
+  }
+
+  private NeqRelation modifiableNeq() {
+    if (neqShared) {
+      NeqRelation newNeq = new NeqRelation();
+      newNeq.putAll(neq);
+      neq = newNeq;
+      neqShared = false;
+    }
+    return neq;
   }
 
   @Override
@@ -193,8 +263,12 @@ public class SMG {
    * @param pValue Value to remove
    */
   final public void removeValue(final Integer pValue) {
-    values.remove(pValue);
-    neq.removeValue(pValue);
+    if (values.contains(pValue)) {
+      modifiableValues().remove(pValue);
+    }
+    if (neq.containsValue(pValue)) {
+      modifiableNeq().removeValue(pValue);
+    }
   }
   /**
    * Remove {@link pObj} from the SMG. This method does not remove
@@ -205,8 +279,12 @@ public class SMG {
    * @param pObj Object to remove
    */
   final public void removeObject(final SMGObject pObj) {
-    objects.remove(pObj);
-    object_validity.remove(pObj);
+    if (objects.contains(pObj)) {
+      modifiableObjects().remove(pObj);
+    }
+    if (object_validity.containsKey(pObj)) {
+      modifiableValidity().remove(pObj);
+    }
   }
 
   /**
@@ -218,17 +296,22 @@ public class SMG {
    */
   final public void removeObjectAndEdges(final SMGObject pObj) {
     removeObject(pObj);
-    Iterator<SMGEdgeHasValue> hv_iter = hv_edges.iterator();
-    Iterator<SMGEdgePointsTo> pt_iter = pt_edges.values().iterator();
-    while (hv_iter.hasNext()) {
-      if (hv_iter.next().getObject() == pObj) {
-        hv_iter.remove();
+    hv_edges.removeAllEdgesOf(pObj);
+
+    boolean hasPointsToEdges = false;
+    for (SMGEdgePointsTo pt : pt_edges.values()) {
+      if (pt.getObject() == pObj) {
+        hasPointsToEdges = true;
+        break;
       }
     }
 
-    while (pt_iter.hasNext()) {
-      if (pt_iter.next().getObject() == pObj) {
-        pt_iter.remove();
+    if (hasPointsToEdges) {
+      Iterator<SMGEdgePointsTo> pt_iter = modifiablePTEdges().values().iterator();
+      while (pt_iter.hasNext()) {
+        if (pt_iter.next().getObject() == pObj) {
+          pt_iter.remove();
+        }
       }
     }
   }
@@ -243,8 +326,12 @@ public class SMG {
    *
    */
   final public void addObject(final SMGObject pObj, final boolean pValidity) {
-    objects.add(pObj);
-    object_validity.put(pObj, pValidity);
+    if (!objects.contains(pObj)) {
+      modifiableObjects().add(pObj);
+    }
+    if (!Boolean.valueOf(pValidity).equals(object_validity.get(pObj))) {
+      modifiableValidity().put(pObj, pValidity);
+    }
   }
 
   /**
@@ -255,7 +342,9 @@ public class SMG {
    * @param pValue  Value to add.
    */
   final public void addValue(Integer pValue) {
-    values.add(pValue);
+    if (!values.contains(pValue)) {
+      modifiableValues().add(pValue);
+    }
   }
 
   /**
@@ -266,7 +355,9 @@ public class SMG {
    * @param pEdge Points-To edge to add.
    */
   final public void addPointsToEdge(SMGEdgePointsTo pEdge) {
-    pt_edges.put(pEdge.getValue(), pEdge);
+    if (!pEdge.equals(pt_edges.get(pEdge.getValue()))) {
+      modifiablePTEdges().put(pEdge.getValue(), pEdge);
+    }
   }
 
   /**
@@ -299,7 +390,9 @@ public class SMG {
    * @param pValue the Source of the Points-To edge to be removed
    */
   final public void removePointsToEdge(int pValue) {
-    pt_edges.remove(pValue);
+    if (pt_edges.containsKey(pValue)) {
+      modifiablePTEdges().remove(pValue);
+    }
   }
 
   /**
@@ -317,7 +410,9 @@ public class SMG {
       throw new IllegalArgumentException("Object [" + pObject + "] not in SMG");
     }
 
-    object_validity.put(pObject, pValidity);
+    if (!Boolean.valueOf(pValidity).equals(object_validity.get(pObject))) {
+      modifiableValidity().put(pObject, pValidity);
+    }
   }
 
   /**
@@ -327,8 +422,10 @@ public class SMG {
    * Keeps consistency: no
    */
   public void replaceHVSet(Set<SMGEdgeHasValue> pNewHV) {
+    // pNewHV might be a view on the current edges
+    ImmutableList<SMGEdgeHasValue> newHV = ImmutableList.copyOf(pNewHV);
     hv_edges.clear();
-    hv_edges.addAll(pNewHV);
+    hv_edges.addAll(newHV);
   }
 
   /**
@@ -340,7 +437,9 @@ public class SMG {
    * Keeps consistency: no
    */
   public void addNeqRelation(Integer pV1, Integer pV2) {
-    neq.add_relation(pV1, pV2);
+    if (!neq.neq_exists(pV1, pV2)) {
+      modifiableNeq().add_relation(pV1, pV2);
+    }
   }
 
   /* ********************************************* */
@@ -418,7 +517,8 @@ public class SMG {
    * @return A set of Has-Value edges for which the criteria in p hold
    */
   final public Set<SMGEdgeHasValue> getHVEdges(SMGEdgeHasValueFilter pFilter) {
-    return Collections.unmodifiableSet(pFilter.filterSet(hv_edges));
+    // only look at the edges that can match, instead of all edges
+    return pFilter.filterSet(hv_edges.getEdges(pFilter.getObject(), pFilter.getOffset()));
   }
 
   /**
@@ -551,18 +651,21 @@ public class SMG {
       pV2 = tmp;
     }
 
-    neq.mergeValues(pV1, pV2);
+    modifiableNeq().mergeValues(pV1, pV2);
     removeValue(pV2);
-    Set<SMGEdgeHasValue> new_hv_edges = new HashSet<>();
+    List<SMGEdgeHasValue> old_hv_edges = new ArrayList<>();
     for (SMGEdgeHasValue hv : hv_edges) {
-      if (hv.getValue() != pV2) {
-        new_hv_edges.add(hv);
-      } else {
-        new_hv_edges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
+      if (hv.getValue() == pV2) {
+        old_hv_edges.add(hv);
       }
     }
-    hv_edges.clear();
-    hv_edges.addAll(new_hv_edges);
+    // replace only the affected edges, such that the other edges stay shared
+    for (SMGEdgeHasValue hv : old_hv_edges) {
+      hv_edges.remove(hv);
+    }
+    for (SMGEdgeHasValue hv : old_hv_edges) {
+      hv_edges.add(new SMGEdgeHasValue(hv.getType(), hv.getOffset(), hv.getObject(), pV1));
+    }
     // TODO: Handle PT Edges: I'm not entirely sure how they should be handled
   }
 
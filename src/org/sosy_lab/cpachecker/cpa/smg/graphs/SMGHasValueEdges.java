@@ -0,0 +1,207 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.smg.graphs;
+
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
+
+import com.google.common.base.Function;
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.SetMultimap;
+
+/**
+ * The set of Has-Value edges of an SMG, indexed by source object and offset.
+ *
+ * Copies created with {@link #copy()} share the edges with the original
+ * (copy-on-write): the index is copied on the first modification,
+ * and the edges of an object are copied only if they are modified,
+ * such that copying an SMG and changing a few fields is cheap.
+ *
+ * The set itself is modifiable only via {@link #add(SMGEdgeHasValue)},
+ * {@link #remove(Object)}, {@link #removeAllEdgesOf(SMGObject)}, and {@link #clear()}.
+ */
+final class SMGHasValueEdges extends AbstractSet<SMGEdgeHasValue> {
+
+  private static final Function<SetMultimap<Integer, SMGEdgeHasValue>, Collection<SMGEdgeHasValue>> GET_EDGES =
+      new Function<SetMultimap<Integer, SMGEdgeHasValue>, Collection<SMGEdgeHasValue>>() {
+        @Override
+        public Collection<SMGEdgeHasValue> apply(SetMultimap<Integer, SMGEdgeHasValue> pEdges) {
+          return pEdges.values();
+        }
+      };
+
+  // the edges of each object, by offset (objects without edges have no entry)
+  private Map<SMGObject, SetMultimap<Integer, SMGEdgeHasValue>> edgesByObject;
+
+  // whether edgesByObject is (potentially) shared with another instance
+  private boolean indexShared;
+
+  // the objects whose edges were copied for this instance and can be modified in place
+  private Set<SMGObject> ownedObjects = new HashSet<>();
+
+  private int size;
+
+  SMGHasValueEdges() {
+    edgesByObject = new HashMap<>();
+    indexShared = false;
+    size = 0;
+  }
+
+  private SMGHasValueEdges(SMGHasValueEdges pOther) {
+    edgesByObject = pOther.edgesByObject;
+    indexShared = true;
+    size = pOther.size;
+  }
+
+  /**
+   * Create a copy of this set in constant time.
+   */
+  SMGHasValueEdges copy() {
+    // from now on, both instances need to copy before modifying anything
+    indexShared = true;
+    ownedObjects = new HashSet<>();
+    return new SMGHasValueEdges(this);
+  }
+
+  private SetMultimap<Integer, SMGEdgeHasValue> getModifiableEdgesOf(SMGObject pObject) {
+    if (indexShared) {
+      edgesByObject = new HashMap<>(edgesByObject);
+      indexShared = false;
+    }
+
+    SetMultimap<Integer, SMGEdgeHasValue> edges = edgesByObject.get(pObject);
+    if (edges == null) {
+      edges = HashMultimap.create();
+      edgesByObject.put(pObject, edges);
+      ownedObjects.add(pObject);
+    } else if (ownedObjects.add(pObject)) {
+      edges = HashMultimap.create(edges);
+      edgesByObject.put(pObject, edges);
+    }
+    return edges;
+  }
+
+  @Override
+  public boolean add(SMGEdgeHasValue pEdge) {
+    if (contains(pEdge)) {
+      return false;
+    }
+    getModifiableEdgesOf(pEdge.getObject()).put(pEdge.getOffset(), pEdge);
+    size++;
+    return true;
+  }
+
+  @Override
+  public boolean remove(Object pObj) {
+    if (!contains(pObj)) {
+      return false;
+    }
+    SMGEdgeHasValue edge = (SMGEdgeHasValue) pObj;
+    SetMultimap<Integer, SMGEdgeHasValue> edges = getModifiableEdgesOf(edge.getObject());
+    edges.remove(edge.getOffset(), edge);
+    if (edges.isEmpty()) {
+      edgesByObject.remove(edge.getObject());
+      ownedObjects.remove(edge.getObject());
+    }
+    size--;
+    return true;
+  }
+
+  /**
+   * Remove all edges leading from the given object.
+   */
+  void removeAllEdgesOf(SMGObject pObject) {
+    SetMultimap<Integer, SMGEdgeHasValue> edges = edgesByObject.get(pObject);
+    if (edges != null) {
+      if (indexShared) {
+        edgesByObject = new HashMap<>(edgesByObject);
+        indexShared = false;
+      }
+      edgesByObject.remove(pObject);
+      ownedObjects.remove(pObject);
+      size -= edges.size();
+    }
+  }
+
+  @Override
+  public void clear() {
+    edgesByObject = new HashMap<>();
+    indexShared = false;
+    ownedObjects = new HashSet<>();
+    size = 0;
+  }
+
+  @Override
+  public boolean contains(Object pObj) {
+    if (!(pObj instanceof SMGEdgeHasValue)) {
+      return false;
+    }
+    SMGEdgeHasValue edge = (SMGEdgeHasValue) pObj;
+    SetMultimap<Integer, SMGEdgeHasValue> edges = edgesByObject.get(edge.getObject());
+    return edges != null && edges.containsEntry(edge.getOffset(), edge);
+  }
+
+  /**
+   * Get the edges leading from a given object, optionally restricted to a given offset.
+   * The result is an unmodifiable view.
+   *
+   * @param pObject The source object, or null for edges from all objects.
+   * @param pOffset The offset, or null for edges at all offsets.
+   */
+  Iterable<SMGEdgeHasValue> getEdges(@Nullable SMGObject pObject, @Nullable Integer pOffset) {
+    if (pObject == null) {
+      return this;
+    }
+    SetMultimap<Integer, SMGEdgeHasValue> edges = edgesByObject.get(pObject);
+    if (edges == null) {
+      return Collections.emptySet();
+    }
+    Collection<SMGEdgeHasValue> result = (pOffset == null) ? edges.values() : edges.get(pOffset);
+    return Collections.unmodifiableCollection(result);
+  }
+
+  @Override
+  public Iterator<SMGEdgeHasValue> iterator() {
+    return Iterators.unmodifiableIterator(
+        Iterables.concat(Iterables.transform(edgesByObject.values(), GET_EDGES)).iterator());
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+}
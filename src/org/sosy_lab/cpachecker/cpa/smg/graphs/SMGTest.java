@@ -36,6 +36,7 @@ import org.sosy_lab.cpachecker.cfa.types.MachineModel;
 import org.sosy_lab.cpachecker.cfa.types.c.CType;
 import org.sosy_lab.cpachecker.cpa.smg.AnonymousTypes;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValue;
+import org.sosy_lab.cpachecker.cpa.smg.SMGEdgeHasValueFilter;
 import org.sosy_lab.cpachecker.cpa.smg.SMGEdgePointsTo;
 import org.sosy_lab.cpachecker.cpa.smg.SMGValueFactory;
 import org.sosy_lab.cpachecker.cpa.smg.objects.SMGObject;
@@ -165,6 +166,41 @@ public class SMGTest {
     Assert.assertEquals(1, smg_copy.getHVEdges().size());
   }
 
+  @Test
+  public void copyIndependenceTest() {
+    SMG smg_copy = new SMG(smg);
+    SMGObject obj3 = new SMGRegion(8, "object-3");
+    Integer val3 = Integer.valueOf(3);
+    SMGEdgeHasValue hv3has3at0 = new SMGEdgeHasValue(mockType, 0, obj3, val3);
+
+    smg_copy.addObject(obj3);
+    smg_copy.addValue(val3);
+    smg_copy.addHasValueEdge(hv3has3at0);
+    smg_copy.removeHasValueEdge(hv2has2at0);
+    smg_copy.setValidity(obj1, false);
+    smg_copy.addNeqRelation(val1, val2);
+
+    Assert.assertFalse(smg.getObjects().contains(obj3));
+    Assert.assertFalse(smg.getValues().contains(val3));
+    Assert.assertFalse(smg.getHVEdges().contains(hv3has3at0));
+    Assert.assertTrue(smg.getHVEdges().contains(hv2has2at0));
+    Assert.assertEquals(2, smg.getHVEdges().size());
+    Assert.assertTrue(smg.isObjectValid(obj1));
+    Assert.assertFalse(smg.haveNeqRelation(val1, val2));
+
+    Assert.assertTrue(smg_copy.getHVEdges().contains(hv3has3at0));
+    Assert.assertFalse(smg_copy.getHVEdges().contains(hv2has2at0));
+    Assert.assertEquals(2, smg_copy.getHVEdges().size());
+    Assert.assertFalse(smg_copy.isObjectValid(obj1));
+    Assert.assertTrue(smg_copy.haveNeqRelation(val1, val2));
+
+    // modifying the original must not affect the copy either
+    smg.removeObjectAndEdges(obj2);
+    Assert.assertEquals(0, smg.getHVEdges().size());
+    Assert.assertTrue(smg_copy.getHVEdges(SMGEdgeHasValueFilter.objectFilter(obj2)).contains(hv2has1at4));
+    Assert.assertTrue(smg_copy.getObjects().contains(obj2));
+  }
+
   @Test
   public void addRemoveHasValueEdgeTest() {
     SMG smg = getNewSMG64();
@@ -52,6 +52,7 @@ import org.sosy_lab.cpachecker.core.defaults.SingletonPrecision;
 import org.sosy_lab.cpachecker.core.defaults.StopJoinOperator;
 import org.sosy_lab.cpachecker.core.defaults.StopNeverOperator;
 import org.sosy_lab.cpachecker.core.defaults.StopSepOperator;
+import org.sosy_lab.cpachecker.core.defaults.ThreadLocalTransferRelation;
 import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractDomain;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
@@ -94,6 +95,16 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
   @FileOption(FileOption.Type.OPTIONAL_INPUT_FILE)
   private Path initialPrecisionFile = null;
 
+  @Option(secure=true, description="share a single instance between equal abstract states "
+      + "(hash-consing), which reduces memory usage if many states are equal, "
+      + "and allows faster comparisons of states")
+  private boolean internStates = false;
+
+  @Option(secure=true, description="store the values of abstract states in maps that are indexed "
+      + "by ids of the memory locations instead of sorted trees, "
+      + "which makes lookups and assignments faster especially for states with many variables")
+  private boolean useMemoryLocationIds = false;
+
   public static CPAFactory factory() {
     return AutomaticCPAFactory.forType(ValueAnalysisCPA.class);
   }
@@ -102,6 +113,7 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
   private MergeOperator mergeOperator;
   private StopOperator stopOperator;
   private ValueAnalysisTransferRelation transferRelation;
+  private final TransferRelation threadSafeTransferRelation;
   private VariableTrackingPrecision precision;
   private ValueAnalysisPrecisionAdjustment precisionAdjustment;
   private final ValueAnalysisReducer reducer;
@@ -127,11 +139,17 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
 
     abstractDomain      = DelegateAbstractDomain.<ValueAnalysisState>getInstance();
     transferRelation    = new ValueAnalysisTransferRelation(config, logger, cfa);
+    threadSafeTransferRelation = new ThreadLocalTransferRelation<ValueAnalysisTransferRelation>() {
+        @Override
+        protected ValueAnalysisTransferRelation createTransferRelation() {
+          return new ValueAnalysisTransferRelation(transferRelation);
+        }
+      };
     precision           = initializePrecision(config, cfa);
     mergeOperator       = initializeMergeOperator();
     stopOperator        = initializeStopOperator();
 
-    precisionAdjustment = new ValueAnalysisPrecisionAdjustment(config, cfa);
+    precisionAdjustment = new ValueAnalysisPrecisionAdjustment(config, cfa, internStates);
 
     reducer             = new ValueAnalysisReducer();
     statistics          = new ValueAnalysisCPAStatistics(this, config);
@@ -251,11 +269,14 @@ public class ValueAnalysisCPA implements ConfigurableProgramAnalysisWithBAM, Sta
 
   @Override
   public TransferRelation getTransferRelation() {
-    return transferRelation;
+    return threadSafeTransferRelation;
   }
 
   @Override
   public AbstractState getInitialState(CFANode pNode, StateSpacePartition pPartition) {
+    if (useMemoryLocationIds) {
+      return ValueAnalysisState.withMemoryLocationIds();
+    }
     return new ValueAnalysisState();
   }
 
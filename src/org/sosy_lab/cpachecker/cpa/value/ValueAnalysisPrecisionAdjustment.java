@@ -40,11 +40,11 @@ import org.sosy_lab.cpachecker.core.CPAcheckerResult.Result;
 import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
 import org.sosy_lab.cpachecker.core.interfaces.AbstractState;
 import org.sosy_lab.cpachecker.core.interfaces.Precision;
-import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult;
 import org.sosy_lab.cpachecker.core.interfaces.PrecisionAdjustmentResult.Action;
 import org.sosy_lab.cpachecker.core.interfaces.Statistics;
 import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
+import org.sosy_lab.cpachecker.core.interfaces.ThreadSafePrecisionAdjustment;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
 import org.sosy_lab.cpachecker.cpa.conditions.path.AssignmentsInPathCondition.UniqueAssignmentsInPathConditionState;
@@ -60,9 +60,11 @@ import org.sosy_lab.cpachecker.util.statistics.StatisticsWriter;
 import com.google.common.base.Function;
 import com.google.common.base.Optional;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 
 @Options(prefix="cpa.value.blk")
-public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, StatisticsProvider {
+public class ValueAnalysisPrecisionAdjustment implements ThreadSafePrecisionAdjustment, StatisticsProvider {
 
   @Option(secure=true, description="restrict abstractions to branching points")
   private boolean alwaysAtBranch = false;
@@ -84,11 +86,15 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
 
   private final ImmutableSet<CFANode> loopHeads;
 
+  // canonical instances of the resulting states, null if states are not interned
+  private final Interner<ValueAnalysisState> interner;
+
   // statistics
   final StatCounter abstractions    = new StatCounter("Number of abstraction computations");
   final StatTimer totalLiveness     = new StatTimer("Total time for liveness abstraction");
   final StatTimer totalAbstraction  = new StatTimer("Total time for abstraction computation");
   final StatTimer totalEnforcePath  = new StatTimer("Total time for path thresholds");
+  final StatCounter reusedStates    = new StatCounter("Number of states replaced by equal interned states");
 
   private final Statistics statistics;
 
@@ -99,11 +105,13 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
 
   private final Optional<LiveVariables> liveVariables;
 
-  public ValueAnalysisPrecisionAdjustment(Configuration pConfig, CFA pCfa)
+  public ValueAnalysisPrecisionAdjustment(Configuration pConfig, CFA pCfa, boolean pInternStates)
       throws InvalidConfigurationException {
 
     pConfig.inject(this);
 
+    interner = pInternStates ? Interners.<ValueAnalysisState>newWeakInterner() : null;
+
     if (alwaysAtLoop && pCfa.getAllLoopHeads().isPresent()) {
       loopHeads = pCfa.getAllLoopHeads().get();
     } else {
@@ -119,6 +127,9 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
         writer.put(totalLiveness);
         writer.put(totalAbstraction);
         writer.put(totalEnforcePath);
+        if (interner != null) {
+          writer.put(reusedStates);
+        }
       }
 
       @Override
@@ -166,9 +177,26 @@ public class ValueAnalysisPrecisionAdjustment implements PrecisionAdjustment, St
       totalEnforcePath.stop();
     }
 
+    if (interner != null) {
+      resultState = intern(resultState);
+    }
+
     return Optional.of(PrecisionAdjustmentResult.create(resultState, pPrecision, Action.CONTINUE));
   }
 
+  /**
+   * Replace the given state by an equal state that was already returned before, if any.
+   * The returned state must not be modified anymore.
+   */
+  private ValueAnalysisState intern(ValueAnalysisState pState) {
+    pState.setInterned();
+    ValueAnalysisState canonicalState = interner.intern(pState);
+    if (canonicalState != pState) {
+      reusedStates.inc();
+    }
+    return canonicalState;
+  }
+
   private void enforceLiveness(ValueAnalysisState pState, LocationState location, ValueAnalysisState resultState) {
     CFANode actNode = location.getLocationNode();
 
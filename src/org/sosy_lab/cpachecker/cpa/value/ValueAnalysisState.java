@@ -24,6 +24,7 @@
 package org.sosy_lab.cpachecker.cpa.value;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
 
 import java.io.IOException;
 import java.io.ObjectInputStream;
@@ -59,6 +60,7 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.refinement.ForgetfulState;
 import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+import org.sosy_lab.cpachecker.util.states.PersistentMemoryLocationMap;
 
 import com.google.common.base.Joiner;
 import com.google.common.base.Preconditions;
@@ -84,6 +86,17 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
   private transient PersistentMap<MemoryLocation, Type> memLocToType = PathCopyingPersistentTreeMap.of();
 
+  /**
+   * the cached hash code of this state, 0 if not yet computed
+   */
+  private transient int hashCode = 0;
+
+  /**
+   * whether this state may be shared as canonical instance of an interner,
+   * such states must not be modified anymore
+   */
+  private transient boolean interned = false;
+
   public ValueAnalysisState() {
     constantsMap = PathCopyingPersistentTreeMap.of();
   }
@@ -97,6 +110,22 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     return new ValueAnalysisState(state.constantsMap, state.memLocToType);
   }
 
+  /**
+   * Create an empty state that stores its values in {@link PersistentMemoryLocationMap}s
+   * instead of sorted trees. The successors of this state keep this representation.
+   */
+  public static ValueAnalysisState withMemoryLocationIds() {
+    return new ValueAnalysisState(PersistentMemoryLocationMap.<Value>of(), PersistentMemoryLocationMap.<Type>of());
+  }
+
+  /** Create an empty map of the same kind as the given map. */
+  private static <V> PersistentMap<MemoryLocation, V> emptyMapLike(PersistentMap<MemoryLocation, ?> pMap) {
+    if (pMap instanceof PersistentMemoryLocationMap) {
+      return PersistentMemoryLocationMap.of();
+    }
+    return PathCopyingPersistentTreeMap.of();
+  }
+
   /**
    * This method assigns a value to the variable and puts it in the map.
    *
@@ -112,6 +141,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   }
 
   private void addToConstantsMap(final MemoryLocation pMemLoc, final Value pValue) {
+    beforeModification();
     Value valueToAdd = pValue;
 
     if (valueToAdd instanceof SymbolicValue) {
@@ -160,6 +190,20 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
     }
   }
 
+  private void beforeModification() {
+    checkState(!interned, "Interned states must not be modified, modify a copy instead.");
+    hashCode = 0;
+  }
+
+  /**
+   * Mark this state as (potential) canonical instance of an interner.
+   * Afterwards, all attempts to modify this state fail,
+   * use {@link #copyOf(ValueAnalysisState)} to get a modifiable copy.
+   */
+  void setInterned() {
+    interned = true;
+  }
+
   /**
    * This method removes a variable from the underlying map and returns the removed value.
    *
@@ -185,6 +229,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
     Value value = constantsMap.get(pMemoryLocation);
     Type type = memLocToType.get(pMemoryLocation);
+    beforeModification();
     constantsMap = constantsMap.removeAndCopy(pMemoryLocation);
     memLocToType = memLocToType.removeAndCopy(pMemoryLocation);
 
@@ -330,8 +375,8 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
    */
   @Override
   public ValueAnalysisState join(ValueAnalysisState reachedState) {
-    PersistentMap<MemoryLocation, Value> newConstantsMap = PathCopyingPersistentTreeMap.of();
-    PersistentMap<MemoryLocation, Type> newlocToTypeMap = PathCopyingPersistentTreeMap.of();
+    PersistentMap<MemoryLocation, Value> newConstantsMap = emptyMapLike(constantsMap);
+    PersistentMap<MemoryLocation, Type> newlocToTypeMap = emptyMapLike(memLocToType);
 
     for (Map.Entry<MemoryLocation, Value> otherEntry : reachedState.constantsMap.entrySet()) {
       MemoryLocation key = otherEntry.getKey();
@@ -358,6 +403,9 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
    */
   @Override
   public boolean isLessOrEqual(ValueAnalysisState other) {
+    if (this == other) {
+      return true;
+    }
 
     // also, this element is not less or equal than the other element, if it contains less elements
     if (constantsMap.size() < other.constantsMap.size()) {
@@ -396,12 +444,22 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
 
     ValueAnalysisState otherElement = (ValueAnalysisState) other;
 
+    // cheap check for inequality if both hash codes are already known
+    if (hashCode != 0 && otherElement.hashCode != 0 && hashCode != otherElement.hashCode) {
+      return false;
+    }
+
     return otherElement.constantsMap.equals(constantsMap) && Objects.equals(memLocToType, otherElement.memLocToType);
   }
 
   @Override
   public int hashCode() {
-    return constantsMap.hashCode();
+    int result = hashCode;
+    if (result == 0) {
+      result = constantsMap.hashCode();
+      hashCode = result;
+    }
+    return result;
   }
 
   @Override
@@ -699,6 +757,7 @@ public class ValueAnalysisState implements AbstractQueryableState, FormulaReport
   public void forgetValuesWithIdentifier(String pIdentifier) {
     for (MemoryLocation memoryLocation : constantsMap.keySet()) {
       if (memoryLocation.getIdentifier().equals(pIdentifier)) {
+        beforeModification();
         constantsMap = constantsMap.removeAndCopy(memoryLocation);
         memLocToType = memLocToType.removeAndCopy(memoryLocation);
       }
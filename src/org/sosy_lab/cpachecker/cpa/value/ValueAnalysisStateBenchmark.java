@@ -0,0 +1,104 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.cpa.value.type.NumericValue;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+/**
+ * Microbenchmarks for the operations of {@link ValueAnalysisState}
+ * that are used by the merge and stop operators.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=ValueAnalysisStateBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueAnalysisStateBenchmark {
+
+  /**
+   * Two states with the given number of variables that differ only in the value of the last variable,
+   * and a third state with all but the last variable.
+   */
+  @State(Scope.Thread)
+  public static class States {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    ValueAnalysisState state;
+    ValueAnalysisState otherState;
+    ValueAnalysisState smallerState;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      smallerState = new ValueAnalysisState();
+      for (int i = 0; i < size - 1; i++) {
+        smallerState.assignConstant(variable(i), new NumericValue(i), CNumericTypes.INT);
+      }
+
+      state = ValueAnalysisState.copyOf(smallerState);
+      state.assignConstant(variable(size - 1), new NumericValue(0), CNumericTypes.INT);
+
+      otherState = ValueAnalysisState.copyOf(smallerState);
+      otherState.assignConstant(variable(size - 1), new NumericValue(1), CNumericTypes.INT);
+    }
+
+    private static MemoryLocation variable(int i) {
+      return MemoryLocation.valueOf("main", "x" + i, 0);
+    }
+  }
+
+  @Benchmark
+  public boolean isLessOrEqual(States pStates) {
+    // needs to compare all variables of the smaller state
+    return pStates.state.isLessOrEqual(pStates.smallerState);
+  }
+
+  @Benchmark
+  public boolean isNotLessOrEqual(States pStates) {
+    return pStates.state.isLessOrEqual(pStates.otherState);
+  }
+
+  @Benchmark
+  public ValueAnalysisState join(States pStates) {
+    return pStates.state.join(pStates.otherState);
+  }
+}
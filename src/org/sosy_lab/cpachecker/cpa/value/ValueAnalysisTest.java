@@ -23,6 +23,8 @@
  */
 package org.sosy_lab.cpachecker.cpa.value;
 
+import static com.google.common.truth.Truth.assertThat;
+
 import java.util.Map;
 
 import org.junit.Test;
@@ -65,4 +67,75 @@ public class ValueAnalysisTest {
           "test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
       results.assertIsSafe();
   }
+
+  @Test
+  public void internStatesTest() throws Exception {
+    // check that sharing equal states does not change the result
+
+    Map<String, String> prop = ImmutableMap.of(
+        "CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA",
+        "specification",     "config/specification/default.spc",
+        "ValueAnalysisCPA.precision.variableBlacklist", "somethingElse",
+        "cpa.value.internStates", "true"
+      );
+
+      TestResults results = CPATestRunner.run(
+          prop,
+          "test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
+      results.assertIsSafe();
+  }
+
+  @Test
+  public void memoryLocationIdsTest() throws Exception {
+    // check that storing the values in id-indexed maps does not change the result
+
+    Map<String, String> prop = ImmutableMap.of(
+        "CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA",
+        "specification",     "config/specification/default.spc",
+        "ValueAnalysisCPA.precision.variableBlacklist", "__SELECTED_FEATURE_(\\w)*",
+        "cpa.composite.precAdjust", "COMPONENT",
+        "cpa.value.useMemoryLocationIds", "true"
+      );
+
+      TestResults results = CPATestRunner.run(
+          prop,
+          "test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
+      results.assertIsUnsafe();
+  }
+
+  @Test
+  public void parallelExplorationSafeTest() throws Exception {
+    // check that computing successors and adjusting precisions in parallel does not change the result
+
+    Map<String, String> prop = ImmutableMap.of(
+        "CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA",
+        "specification",     "config/specification/default.spc",
+        "ValueAnalysisCPA.precision.variableBlacklist", "somethingElse",
+        "cpa.parallelExploration.threads", "4"
+      );
+
+      TestResults results = CPATestRunner.run(
+          prop,
+          "test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
+      results.assertIsSafe();
+      assertThat(results.getLog()).doesNotContain("thread-safe");
+  }
+
+  @Test
+  public void parallelExplorationUnsafeTest() throws Exception {
+    // check that the counterexample is still found if successors are computed in parallel
+
+    Map<String, String> prop = ImmutableMap.of(
+        "CompositeCPA.cpas", "cpa.location.LocationCPA, cpa.callstack.CallstackCPA, cpa.value.ValueAnalysisCPA",
+        "specification",     "config/specification/default.spc",
+        "ValueAnalysisCPA.precision.variableBlacklist", "__SELECTED_FEATURE_(\\w)*",
+        "cpa.parallelExploration.threads", "4"
+      );
+
+      TestResults results = CPATestRunner.run(
+          prop,
+          "test/programs/simple/explicit/explicitIgnoreFeatureVars.c");
+      results.assertIsUnsafe();
+      assertThat(results.getLog()).doesNotContain("thread-safe");
+  }
 }
@@ -192,7 +192,7 @@ public class ValueAnalysisTransferRelation
    * This class assigns symbolic values, if they are enabled.
    * Otherwise it forgets the memory location.
    */
-  private MemoryLocationValueHandler unknownValueHandler;
+  private final MemoryLocationValueHandler unknownValueHandler;
 
   /**
    * This List is used to communicate the missing
@@ -229,6 +229,27 @@ public class ValueAnalysisTransferRelation
     constraintsStrengthenOperator = new ConstraintsStrengthenOperator(config);
   }
 
+  /**
+   * Create a transfer relation with the same configuration as the given one.
+   * This class stores information about the current edge in fields,
+   * so each thread that computes successors needs its own instance.
+   * The strengthen operator (and thus its statistics) is shared.
+   */
+  ValueAnalysisTransferRelation(ValueAnalysisTransferRelation pOther) {
+    initAssumptionVars = pOther.initAssumptionVars;
+    assignSymbolicAssumptionVars = pOther.assignSymbolicAssumptionVars;
+    automatonAssumesAsStatements = pOther.automatonAssumesAsStatements;
+    optimizeBooleanVariables = pOther.optimizeBooleanVariables;
+    trackJavaArrayValues = pOther.trackJavaArrayValues;
+
+    machineModel = pOther.machineModel;
+    logger = new LogManagerWithoutDuplicates(pOther.logger);
+    addressedVariables = pOther.addressedVariables;
+    booleanVariables = pOther.booleanVariables;
+    unknownValueHandler = pOther.unknownValueHandler;
+    constraintsStrengthenOperator = pOther.constraintsStrengthenOperator;
+  }
+
   @Override
   protected Collection<ValueAnalysisState> postProcessing(ValueAnalysisState successor) {
     // always return a new state (requirement for strengthening states with interpolants)
@@ -0,0 +1,133 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.cpa.value;
+
+import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.defaults.VariableTrackingPrecision;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Microbenchmark for the transfer relation of the value analysis
+ * on the edges of fixed programs from test/programs.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=ValueAnalysisTransferRelationBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValueAnalysisTransferRelationBenchmark {
+
+  /**
+   * The transfer relation for a program, together with one abstract state
+   * for each reachable edge of the program (the first one found by a breadth-first search).
+   */
+  @State(Scope.Thread)
+  public static class Program {
+
+    @Param({"test/programs/simple/SynchronousSimulator.c", "test/programs/simple/ex2.c"})
+    String program;
+
+    ValueAnalysisTransferRelation transfer;
+    VariableTrackingPrecision precision;
+
+    final List<ValueAnalysisState> states = new ArrayList<>();
+    final List<CFAEdge> edges = new ArrayList<>();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+      Configuration config = TestDataTools.configurationForTest().build();
+      CFA cfa = TestDataTools.makeCFA(program, config);
+      transfer = new ValueAnalysisTransferRelation(config, TestLogManager.getInstance(), cfa);
+      precision = VariableTrackingPrecision.createStaticPrecision(
+          config, cfa.getVarClassification(), ValueAnalysisCPA.class);
+
+      Set<CFAEdge> visited = new HashSet<>();
+      Deque<ValueAnalysisState> waitlist = new ArrayDeque<>();
+      Deque<CFAEdge> waitlistEdges = new ArrayDeque<>();
+      for (CFAEdge edge : leavingEdges(cfa.getMainFunction())) {
+        waitlist.add(new ValueAnalysisState());
+        waitlistEdges.add(edge);
+      }
+
+      while (!waitlist.isEmpty()) {
+        ValueAnalysisState state = waitlist.removeFirst();
+        CFAEdge edge = waitlistEdges.removeFirst();
+        if (!visited.add(edge)) {
+          continue;
+        }
+        states.add(state);
+        edges.add(edge);
+
+        for (ValueAnalysisState successor : transfer.getAbstractSuccessorsForEdge(state, precision, edge)) {
+          for (CFAEdge nextEdge : leavingEdges(edge.getSuccessor())) {
+            waitlist.add(successor);
+            waitlistEdges.add(nextEdge);
+          }
+        }
+      }
+    }
+
+    int nextIndex() {
+      next = (next + 1) % states.size();
+      return next;
+    }
+  }
+
+  @Benchmark
+  public void getAbstractSuccessorsForEdge(Program pProgram, Blackhole pBlackhole)
+      throws CPATransferException {
+    int i = pProgram.nextIndex();
+    pBlackhole.consume(pProgram.transfer.getAbstractSuccessorsForEdge(
+        pProgram.states.get(i), pProgram.precision, pProgram.edges.get(i)));
+  }
+}
@@ -141,7 +141,7 @@ public class ValueAnalysisDelegatingRefiner extends AbstractARGBasedRefiner impl
         ValueAnalysisRefiner.create(cpa),
         new ValueAnalysisPrefixProvider(logger, controlFlowAutomaton, config),
         PredicateRefiner.create(cpa),
-        new PredicateBasedPrefixProvider(config, logger, predicateCpa.getSolver(), predicateCpa.getPathFormulaManager()));
+        PredicateBasedPrefixProvider.create(config, logger, predicateCpa));
   }
 
   protected ValueAnalysisDelegatingRefiner(
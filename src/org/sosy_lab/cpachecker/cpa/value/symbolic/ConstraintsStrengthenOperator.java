@@ -58,6 +58,8 @@ import org.sosy_lab.cpachecker.util.states.MemoryLocation;
 
 /**
  * Strengthener for ValueAnalysis with {@link ConstraintsCPA}.
+ * The instance is shared by the transfer relations of all threads,
+ * so its methods are synchronized.
  */
 @Options(prefix = "cpa.value.symbolic")
 public class ConstraintsStrengthenOperator implements Statistics {
@@ -92,7 +94,7 @@ public class ConstraintsStrengthenOperator implements Statistics {
    *    an empty <code>Collection</code>, if the resulting state is not reachable and
    *    a <code>Collection</code> containing all reachable states, otherwise
    */
-  public Collection<ValueAnalysisState> strengthen(
+  public synchronized Collection<ValueAnalysisState> strengthen(
       final ValueAnalysisState pStateToStrengthen,
       final ConstraintsState pStrengtheningState,
       final CFAEdge pEdge
@@ -278,7 +280,7 @@ public class ConstraintsStrengthenOperator implements Statistics {
   }
 
   @Override
-  public void printStatistics(PrintStream out, Result result, ReachedSet reached) {
+  public synchronized void printStatistics(PrintStream out, Result result, ReachedSet reached) {
     out.println("Total time for strengthening by ConstraintsCPA: " + totalTime);
     out.println("Replaced symbolic expressions: " + replacedSymbolicExpressions);
   }
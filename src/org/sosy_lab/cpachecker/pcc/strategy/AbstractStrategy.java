@@ -23,21 +23,19 @@
  */
 package org.sosy_lab.cpachecker.pcc.strategy;
 
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.NotSerializableException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
-import java.io.OutputStream;
 import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.logging.Level;
-import java.util.zip.ZipEntry;
-import java.util.zip.ZipInputStream;
-import java.util.zip.ZipOutputStream;
 
-import org.sosy_lab.common.Triple;
 import org.sosy_lab.common.configuration.Configuration;
 import org.sosy_lab.common.configuration.FileOption;
 import org.sosy_lab.common.configuration.IntegerOption;
@@ -54,8 +52,7 @@ import org.sosy_lab.cpachecker.core.interfaces.StatisticsProvider;
 import org.sosy_lab.cpachecker.core.interfaces.pcc.PCCStrategy;
 import org.sosy_lab.cpachecker.core.reachedset.ReachedSet;
 import org.sosy_lab.cpachecker.core.reachedset.UnmodifiableReachedSet;
-
-import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
+import org.sosy_lab.cpachecker.pcc.strategy.ChunkedProofFile.Compression;
 
 @Options(prefix="pcc")
 public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvider {
@@ -76,6 +73,14 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   @IntegerOption(min=1)
   protected int numThreads = 1;
 
+  @Option(secure=true,
+      name = "proofCompression",
+      description = "compression of the proof file (each part of the proof is compressed separately)")
+  private Compression compression = Compression.FAST;
+
+  // memory-mapped proof file, opened on first access and shared by all reading threads
+  private ChunkedProofFile.Reader proofReader = null;
+
   public AbstractStrategy(Configuration pConfig, LogManager pLogger) throws InvalidConfigurationException {
     pConfig.inject(this, AbstractStrategy.class);
     numThreads = Math.max(1, numThreads);
@@ -86,38 +91,43 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
   }
 
   @Override
-  @SuppressFBWarnings(value="OS_OPEN_STREAM", justification="Do not close stream o because it wraps stream zos/fos which need to remain open and would be closed if o.close() is called.")
   public void writeProof(UnmodifiableReachedSet pReached) {
+    synchronized (this) {
+      if (proofReader != null) {
+        proofReader.close();
+        proofReader = null;
+      }
+    }
 
-    OutputStream fos = null;
-    try {
-      fos = file.asByteSink().openStream();
-      ZipOutputStream zos = new ZipOutputStream(fos);
-      zos.setLevel(9);
+    // The proof and each additional proof stream are written to a separate chunk,
+    // such that they can be read independently of each other (and in parallel).
+    // The proof is written to a temporary file that replaces the proof file
+    // only if all chunks were written successfully.
+    // The old proof file may still be mapped by streams opened before,
+    // so it must not be overwritten in place.
+    File proofFile = file.toFile();
+    File tmpFile = new File(proofFile.getPath() + ".tmp");
+    boolean success = false;
+    try (ChunkedProofFile.Writer writer =
+        new ChunkedProofFile.Writer(Paths.get(tmpFile.getPath()).asByteSink().openStream(), compression)) {
 
-      ZipEntry ze = new ZipEntry("Proof");
-      zos.putNextEntry(ze);
-      ObjectOutputStream o = new ObjectOutputStream(zos);
       //TODO might also want to write used configuration to the file so that proof checker does not need to get it as an argument
       //write ARG
-      writeProofToStream(o, pReached);
-      o.flush();
-      zos.closeEntry();
+      try (ObjectOutputStream o = new ProofObjectOutputStream(writer.startChunk())) {
+        writeProofToStream(o, pReached);
+      }
 
-   // write additional proof information
-      int index = 0;
+      // write additional proof information
       boolean continueWriting;
-      do{
-        ze = new ZipEntry("Additional "+index);
-        zos.putNextEntry(ze);
-        o = new ObjectOutputStream(zos);
-        continueWriting = writeAdditionalProofStream(o);
-        o.flush();
-        zos.closeEntry();
-        index++;
-      }while (continueWriting);
-
-      zos.close();
+      do {
+        try (ObjectOutputStream o = new ProofObjectOutputStream(writer.startChunk())) {
+          continueWriting = writeAdditionalProofStream(o);
+        }
+      } while (continueWriting);
+
+      writer.commit();
+      success = true;
+
     } catch (NotSerializableException eS) {
       logger.log(Level.SEVERE, "Proof cannot be written. Class " + eS.getMessage() + " does not implement Serializable interface");
     } catch (IOException e) {
@@ -127,9 +137,16 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
     } catch (InterruptedException e) {
       logger.log(Level.SEVERE, "Proof cannot be written due to time out during proof construction");
     } finally {
+      if (!success && tmpFile.exists() && !tmpFile.delete()) {
+        logger.log(Level.WARNING, "Incomplete proof file " + tmpFile + " could not be deleted");
+      }
+    }
+
+    if (success) {
       try {
-        fos.close();
-      } catch (Exception e) {
+        Files.move(tmpFile.toPath(), proofFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
       }
     }
   }
@@ -140,37 +157,48 @@ public abstract class AbstractStrategy implements PCCStrategy, StatisticsProvide
 
   @Override
   public void readProof() throws IOException, ClassNotFoundException, InvalidConfigurationException {
-    Triple<InputStream, ZipInputStream, ObjectInputStream> proofStream = openProofStream();
-    readProofFromStream(proofStream.getThird());
-    proofStream.getThird().close();
-    proofStream.getSecond().close();
-    proofStream.getFirst().close();
+    try (ObjectInputStream proofStream = openProofStream()) {
+      readProofFromStream(proofStream);
+    }
   }
 
   protected boolean writeAdditionalProofStream(final ObjectOutputStream pOut) throws IOException {
     return false;
   }
 
-  protected Triple<InputStream, ZipInputStream, ObjectInputStream> openProofStream() throws IOException {
-    InputStream fis = file.asByteSource().openStream();
-    ZipInputStream zis = new ZipInputStream(fis);
-    ZipEntry entry = zis.getNextEntry();
-    assert entry.getName().equals("Proof");
-    return Triple.of(fis, zis, new ObjectInputStream(zis));
+  /**
+   * Open the main part of the proof.
+   */
+  protected ObjectInputStream openProofStream() throws IOException {
+    return openChunk(0);
   }
 
-  public Triple<InputStream, ZipInputStream, ObjectInputStream> openAdditionalProofStream(final int index)
+  /**
+   * Open an additional part of the proof.
+   * The additional parts can be read independently of each other
+   * (also concurrently), without reading the parts before them.
+   */
+  public ObjectInputStream openAdditionalProofStream(final int index)
       throws IOException {
     if (index < 0) { throw new IllegalArgumentException("Not a valid index. Indices must be at least zero."); }
-    InputStream fis = file.asByteSource().openStream();
-    ZipInputStream zis = new ZipInputStream(fis);
-    ZipEntry entry = null;
-    for (int i = 0; i <= 1 + index; i++) {
-      entry = zis.getNextEntry();
-    }
+    return openChunk(1 + index);
+  }
 
-    assert entry.getName().equals("Additional " + index);
-    return Triple.of(fis, zis, new ObjectInputStream(zis));
+  private ObjectInputStream openChunk(final int chunk) throws IOException {
+    InputStream in;
+    synchronized (this) {
+      if (proofReader == null) {
+        proofReader = new ChunkedProofFile.Reader(file.toFile());
+      }
+      // opening is cheap, and the reader must not be closed concurrently
+      in = proofReader.openChunk(chunk);
+    }
+    try {
+      return new ProofObjectInputStream(in);
+    } catch (IOException e) {
+      in.close();
+      throw e;
+    }
   }
 
   protected abstract void readProofFromStream(ObjectInputStream in) throws ClassNotFoundException, InvalidConfigurationException, IOException;
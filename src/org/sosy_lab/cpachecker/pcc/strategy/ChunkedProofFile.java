@@ -0,0 +1,349 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.base.Preconditions.*;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.sosy_lab.cpachecker.util.ByteBufferInputStream;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.io.CountingOutputStream;
+
+/**
+ * Container format for proof files that consists of independent chunks.
+ *
+ * Chunks are written one after the other while the proof is produced,
+ * and each chunk is compressed separately.
+ * The content of a chunk is not interpreted by this class,
+ * the proof strategies store objects in it with a {@link ProofObjectOutputStream}.
+ * An index at the end of the file stores the position of every chunk,
+ * so a single chunk can be read without decompressing the chunks before it,
+ * and several chunks can be read in parallel.
+ * For reading, the file is memory-mapped (cf. {@link Reader}).
+ *
+ * Layout of a file:
+ * <pre>
+ * header:  magic (int), version (int), compression (byte)
+ * chunks:  the (compressed) content of each chunk
+ * index:   number of chunks (int), offset and length of each chunk (long, long)
+ * trailer: offset of index (long), magic (int)
+ * </pre>
+ */
+public final class ChunkedProofFile {
+
+  public enum Compression {
+    /** store chunks uncompressed */
+    NONE(Deflater.NO_COMPRESSION),
+    /** fast compression with a moderate compression ratio */
+    FAST(Deflater.BEST_SPEED),
+    /** slow compression with the best compression ratio */
+    BEST(Deflater.BEST_COMPRESSION);
+
+    private final int level;
+
+    private Compression(int pLevel) {
+      level = pLevel;
+    }
+  }
+
+  private static final int MAGIC = 0x50434350; // "PCCP"
+  private static final int VERSION = 2;
+  private static final int HEADER_LENGTH = 2 * (Integer.SIZE / Byte.SIZE) + 1;
+  private static final int TRAILER_LENGTH = Long.SIZE / Byte.SIZE + Integer.SIZE / Byte.SIZE;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private ChunkedProofFile() { }
+
+  /**
+   * Writes a proof file chunk by chunk.
+   * After all chunks were written, {@link #commit()} writes the index.
+   * Closing the writer closes the underlying stream.
+   * If the writer is closed without being committed
+   * (e.g., because writing a chunk failed),
+   * the file has no index and is rejected by the {@link Reader}.
+   */
+  public static final class Writer implements Closeable {
+
+    private final CountingOutputStream out;
+    private final Compression compression;
+    private final List<long[]> chunks = new ArrayList<>();
+    private boolean chunkOpen = false;
+    private boolean committed = false;
+
+    public Writer(OutputStream pOut, Compression pCompression) throws IOException {
+      out = new CountingOutputStream(new BufferedOutputStream(pOut, BUFFER_SIZE));
+      compression = checkNotNull(pCompression);
+      writeInt(MAGIC);
+      writeInt(VERSION);
+      out.write(compression.ordinal());
+    }
+
+    /**
+     * Start the next chunk.
+     * The chunk is complete when the returned stream is closed,
+     * only then the next chunk may be started.
+     */
+    public OutputStream startChunk() {
+      checkState(!committed, "Proof file was already committed");
+      checkState(!chunkOpen, "Previous chunk was not closed");
+      chunkOpen = true;
+      return new ChunkOutputStream(out.getCount());
+    }
+
+    /**
+     * Write the index of all chunks and thus complete the file.
+     * This may be called only once, after the last chunk was closed.
+     */
+    public void commit() throws IOException {
+      checkState(!committed, "Proof file was already committed");
+      checkState(!chunkOpen, "Last chunk was not closed");
+      long indexOffset = out.getCount();
+      writeInt(chunks.size());
+      for (long[] chunk : chunks) {
+        writeLong(chunk[0]);
+        writeLong(chunk[1]);
+      }
+      writeLong(indexOffset);
+      writeInt(MAGIC);
+      out.flush();
+      committed = true;
+    }
+
+    public boolean isCommitted() {
+      return committed;
+    }
+
+    @Override
+    public void close() throws IOException {
+      out.close();
+    }
+
+    private void writeInt(int v) throws IOException {
+      out.write(v >>> 24);
+      out.write(v >>> 16);
+      out.write(v >>> 8);
+      out.write(v);
+    }
+
+    private void writeLong(long v) throws IOException {
+      writeInt((int)(v >>> 32));
+      writeInt((int)v);
+    }
+
+    private class ChunkOutputStream extends OutputStream {
+
+      private final long start;
+      private final OutputStream delegate;
+      private final Deflater deflater;
+      private boolean closed = false;
+
+      private ChunkOutputStream(long pStart) {
+        start = pStart;
+        if (compression == Compression.NONE) {
+          deflater = null;
+          delegate = out;
+        } else {
+          deflater = new Deflater(compression.level);
+          delegate = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+        }
+      }
+
+      @Override
+      public void write(int b) throws IOException {
+        delegate.write(b);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        delegate.write(b, off, len);
+      }
+
+      @Override
+      public void flush() throws IOException {
+        delegate.flush();
+      }
+
+      @Override
+      public void close() throws IOException {
+        if (closed) {
+          return;
+        }
+        closed = true;
+        // do not close delegate, this would close the whole file
+        if (deflater != null) {
+          ((DeflaterOutputStream)delegate).finish();
+          deflater.end();
+        }
+        chunks.add(new long[] {start, out.getCount() - start});
+        chunkOpen = false;
+      }
+    }
+  }
+
+  /**
+   * Reads the chunks of a proof file.
+   * The file is memory-mapped once and its index is read once,
+   * afterwards each chunk can be opened in constant time
+   * without reading or decompressing any other chunk.
+   * Instances are thread-safe, several chunks can be read concurrently.
+   *
+   * The mapping is released by the garbage collector
+   * after the reader and all streams opened by it are unreachable.
+   * The file must not be truncated or overwritten in place while it is mapped,
+   * it may only be replaced by another file (cf. {@link java.nio.file.Files#move}).
+   */
+  public static final class Reader implements Closeable {
+
+    private final Compression compression;
+    private volatile ImmutableList<ByteBuffer> chunks;
+
+    /**
+     * Open a proof file.
+     * @throws IOException if the file cannot be read or is not a valid proof file
+     */
+    public Reader(File pFile) throws IOException {
+      try (RandomAccessFile raf = new RandomAccessFile(pFile, "r");
+           FileChannel channel = raf.getChannel()) {
+        if (raf.length() < HEADER_LENGTH + TRAILER_LENGTH || raf.readInt() != MAGIC) {
+          throw new IOException(pFile + " is not a proof file");
+        }
+        int version = raf.readInt();
+        if (version != VERSION) {
+          throw new IOException(pFile + " has unsupported proof format version " + version);
+        }
+        int compressionOrdinal = raf.readByte();
+        if (compressionOrdinal < 0 || compressionOrdinal >= Compression.values().length) {
+          throw new IOException(pFile + " uses an unknown compression");
+        }
+        compression = Compression.values()[compressionOrdinal];
+
+        raf.seek(raf.length() - TRAILER_LENGTH);
+        long indexOffset = raf.readLong();
+        if (raf.readInt() != MAGIC || indexOffset < HEADER_LENGTH || indexOffset > raf.length()) {
+          throw new IOException(pFile + " is incomplete");
+        }
+        raf.seek(indexOffset);
+        int numChunks = raf.readInt();
+        if (numChunks < 0 || numChunks > (raf.length() - indexOffset) / 16) {
+          throw new IOException(pFile + " has an invalid index");
+        }
+        long[] offsets = new long[numChunks];
+        long[] lengths = new long[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+          offsets[i] = raf.readLong();
+          lengths[i] = raf.readLong();
+          if (offsets[i] < HEADER_LENGTH || lengths[i] < 0
+              || offsets[i] + lengths[i] > indexOffset || lengths[i] > Integer.MAX_VALUE) {
+            throw new IOException(pFile + " has an invalid index");
+          }
+        }
+
+        // the mapping stays valid after the file is closed
+        ImmutableList.Builder<ByteBuffer> chunkBuffers = ImmutableList.builder();
+        if (indexOffset <= Integer.MAX_VALUE) {
+          ByteBuffer content = channel.map(FileChannel.MapMode.READ_ONLY, 0, indexOffset);
+          for (int i = 0; i < numChunks; i++) {
+            ByteBuffer chunk = content.duplicate();
+            chunk.position((int)offsets[i]);
+            chunk.limit((int)(offsets[i] + lengths[i]));
+            chunkBuffers.add(chunk.slice());
+          }
+        } else {
+          // a single buffer cannot hold more than 2GB
+          for (int i = 0; i < numChunks; i++) {
+            chunkBuffers.add(channel.map(FileChannel.MapMode.READ_ONLY, offsets[i], lengths[i]));
+          }
+        }
+        chunks = chunkBuffers.build();
+      }
+    }
+
+    public int getNumberOfChunks() {
+      return getChunks().size();
+    }
+
+    private ImmutableList<ByteBuffer> getChunks() {
+      ImmutableList<ByteBuffer> result = chunks;
+      checkState(result != null, "Proof file was already closed");
+      return result;
+    }
+
+    /**
+     * Release the mapped file.
+     * Streams that were opened before can still be read,
+     * but no further chunks can be opened.
+     */
+    @Override
+    public void close() {
+      chunks = null;
+    }
+
+    /**
+     * Open a single chunk for reading.
+     * @param pIndex the index of the chunk, starting with 0
+     * @throws IOException if the file does not have enough chunks
+     */
+    public InputStream openChunk(int pIndex) throws IOException {
+      checkArgument(pIndex >= 0, "Not a valid index. Indices must be at least zero.");
+      ImmutableList<ByteBuffer> allChunks = getChunks();
+      if (pIndex >= allChunks.size()) {
+        throw new IOException("Proof has only " + allChunks.size() + " chunks, cannot read chunk " + pIndex);
+      }
+
+      // each stream needs its own buffer position
+      InputStream in = new ByteBufferInputStream(allChunks.get(pIndex).duplicate());
+      if (compression != Compression.NONE) {
+        final Inflater inflater = new Inflater();
+        in = new InflaterInputStream(in, inflater, BUFFER_SIZE) {
+          @Override
+          public void close() throws IOException {
+            try {
+              super.close();
+            } finally {
+              // InflaterInputStream does not release an inflater that was passed to it
+              inflater.end();
+            }
+          }
+        };
+      }
+      return in;
+    }
+  }
+}
@@ -0,0 +1,194 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.sosy_lab.cpachecker.pcc.strategy.ChunkedProofFile.Compression;
+
+public class ChunkedProofFileTest {
+
+  @Rule
+  public final TemporaryFolder tmp = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setUp() {
+    file = new File(tmp.getRoot(), "proof.obj");
+  }
+
+  private void writeChunks(Compression compression, String... contents) throws IOException {
+    try (ChunkedProofFile.Writer writer =
+        new ChunkedProofFile.Writer(new FileOutputStream(file), compression)) {
+      for (String content : contents) {
+        try (ObjectOutputStream out = new ObjectOutputStream(writer.startChunk())) {
+          out.writeObject(content);
+        }
+      }
+      writer.commit();
+    }
+  }
+
+  private static String readChunk(ChunkedProofFile.Reader reader, int index)
+      throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ObjectInputStream(reader.openChunk(index))) {
+      return (String)in.readObject();
+    }
+  }
+
+  @Test
+  public void testChunksCanBeReadInAnyOrder() throws Exception {
+    for (Compression compression : Compression.values()) {
+      writeChunks(compression, "proof", "first", "second");
+      ChunkedProofFile.Reader reader = new ChunkedProofFile.Reader(file);
+
+      assertThat(reader.getNumberOfChunks()).isEqualTo(3);
+      assertThat(readChunk(reader, 2)).isEqualTo("second");
+      assertThat(readChunk(reader, 0)).isEqualTo("proof");
+      assertThat(readChunk(reader, 1)).isEqualTo("first");
+      assertThat(readChunk(reader, 2)).isEqualTo("second");
+    }
+  }
+
+  @Test
+  public void testChunksCanBeReadConcurrently() throws Exception {
+    final int numChunks = 8;
+    String[] contents = new String[numChunks];
+    for (int i = 0; i < numChunks; i++) {
+      contents[i] = "chunk " + i;
+    }
+    writeChunks(Compression.FAST, contents);
+    final ChunkedProofFile.Reader reader = new ChunkedProofFile.Reader(file);
+
+    final String[] results = new String[numChunks];
+    Thread[] threads = new Thread[numChunks];
+    for (int i = 0; i < numChunks; i++) {
+      final int index = i;
+      threads[i] = new Thread() {
+        @Override
+        public void run() {
+          try {
+            results[index] = readChunk(reader, index);
+          } catch (IOException | ClassNotFoundException e) {
+            throw new AssertionError(e);
+          }
+        }
+      };
+      threads[i].start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(results).asList().containsExactly((Object[])contents).inOrder();
+  }
+
+  @Test(expected=IOException.class)
+  public void testMissingChunk() throws Exception {
+    writeChunks(Compression.FAST, "proof");
+    new ChunkedProofFile.Reader(file).openChunk(1);
+  }
+
+  @Test(expected=IOException.class)
+  public void testTruncatedFile() throws Exception {
+    writeChunks(Compression.NONE, "proof", "first");
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      raf.setLength(raf.length() - 1);
+    }
+    new ChunkedProofFile.Reader(file);
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testUnclosedChunk() throws Exception {
+    try (ChunkedProofFile.Writer writer =
+        new ChunkedProofFile.Writer(new FileOutputStream(file), Compression.FAST)) {
+      OutputStream chunk = writer.startChunk();
+      chunk.write(1);
+      writer.startChunk();
+    }
+  }
+
+  @Test(expected=IOException.class)
+  public void testUncommittedFile() throws Exception {
+    try (ChunkedProofFile.Writer writer =
+        new ChunkedProofFile.Writer(new FileOutputStream(file), Compression.NONE)) {
+      try (ObjectOutputStream out = new ObjectOutputStream(writer.startChunk())) {
+        out.writeObject("proof");
+      }
+      // writing the next chunk fails, so the writer is not committed
+    }
+    new ChunkedProofFile.Reader(file);
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testNoChunkAfterCommit() throws Exception {
+    try (ChunkedProofFile.Writer writer =
+        new ChunkedProofFile.Writer(new FileOutputStream(file), Compression.NONE)) {
+      writer.commit();
+      writer.startChunk();
+    }
+  }
+
+  @Test(expected=IllegalStateException.class)
+  public void testNoChunkAfterReaderClosed() throws Exception {
+    writeChunks(Compression.FAST, "proof");
+    ChunkedProofFile.Reader reader = new ChunkedProofFile.Reader(file);
+    reader.close();
+    reader.openChunk(0);
+  }
+
+  @Test
+  public void testOpenStreamSurvivesReplacedFile() throws Exception {
+    writeChunks(Compression.NONE, "old proof");
+    ChunkedProofFile.Reader reader = new ChunkedProofFile.Reader(file);
+    try (ObjectInputStream in = new ObjectInputStream(reader.openChunk(0))) {
+      reader.close();
+
+      File newFile = tmp.newFile("proof.obj.tmp");
+      File oldFile = file;
+      file = newFile;
+      writeChunks(Compression.NONE, "new proof");
+      Files.move(newFile.toPath(), oldFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      file = oldFile;
+
+      assertThat(in.readObject()).isEqualTo("old proof");
+    }
+    assertThat(readChunk(new ChunkedProofFile.Reader(file), 0)).isEqualTo("new proof");
+  }
+}
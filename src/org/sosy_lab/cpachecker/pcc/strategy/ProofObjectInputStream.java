@@ -0,0 +1,49 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.StreamCorruptedException;
+
+/**
+ * Object stream for reading the content of a chunk of a proof file
+ * that was written by a {@link ProofObjectOutputStream}.
+ */
+public class ProofObjectInputStream extends ObjectInputStream {
+
+  public ProofObjectInputStream(InputStream pIn) throws IOException {
+    super(pIn);
+  }
+
+  @Override
+  protected void readStreamHeader() throws IOException {
+    super.readStreamHeader();
+    short version = readShort();
+    if (version != ProofObjectOutputStream.CODEC_VERSION) {
+      throw new StreamCorruptedException("Unsupported version " + version + " of proof encoding");
+    }
+  }
+}
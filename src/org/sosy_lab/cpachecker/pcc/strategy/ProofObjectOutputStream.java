@@ -0,0 +1,89 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * Object stream for writing the content of a chunk of a proof file.
+ *
+ * In addition to the identity-based sharing of Java serialization,
+ * this stream interns immutable values by equality:
+ * if a value is equal to a value that was already written to this stream,
+ * only a reference to the first value is written.
+ * This is done for strings (e.g., the lines of formula dumps,
+ * such that the declarations of variables are shared between formulas),
+ * memory locations, and boxed numbers, which are repeated in many abstract states.
+ * The reader gets a single instance for all equal values.
+ *
+ * The stream header contains a version of this encoding,
+ * which is checked by {@link ProofObjectInputStream}.
+ * Chunks are independent of each other, each one has its own table of interned values.
+ */
+public class ProofObjectOutputStream extends ObjectOutputStream {
+
+  static final short CODEC_VERSION = 1;
+
+  /**
+   * Classes whose instances are immutable and whose equals() method
+   * compares all serialized fields, such that equal instances can be shared.
+   */
+  private static final ImmutableSet<Class<?>> INTERNED_CLASSES = ImmutableSet.<Class<?>>of(
+      String.class, MemoryLocation.class, Integer.class, Long.class, BigInteger.class);
+
+  private final Map<Object, Object> internedValues = new HashMap<>();
+
+  public ProofObjectOutputStream(OutputStream pOut) throws IOException {
+    super(pOut);
+    enableReplaceObject(true);
+  }
+
+  @Override
+  protected void writeStreamHeader() throws IOException {
+    super.writeStreamHeader();
+    writeShort(CODEC_VERSION);
+  }
+
+  @Override
+  protected Object replaceObject(Object pObj) throws IOException {
+    if (pObj == null || !INTERNED_CLASSES.contains(pObj.getClass())) {
+      return pObj;
+    }
+    Object interned = internedValues.get(pObj);
+    if (interned == null) {
+      internedValues.put(pObj, pObj);
+      return pObj;
+    }
+    return interned;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.pcc.strategy;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.cpachecker.util.states.MemoryLocation;
+
+public class ProofObjectStreamTest {
+
+  private static byte[] write(ObjectOutputStream out, ByteArrayOutputStream bytes, Object content)
+      throws IOException {
+    try {
+      out.writeObject(content);
+    } finally {
+      out.close();
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] writeProof(Object content) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    return write(new ProofObjectOutputStream(bytes), bytes, content);
+  }
+
+  private static Object readProof(byte[] data) throws IOException, ClassNotFoundException {
+    try (ObjectInputStream in = new ProofObjectInputStream(new ByteArrayInputStream(data))) {
+      return in.readObject();
+    }
+  }
+
+  /** A list with many values that are equal but not identical. */
+  private static List<Object> createValues() {
+    List<Object> values = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      values.add(new String("(declare-fun |main::x@1| () (_ BitVec 32))"));
+      values.add(MemoryLocation.valueOf("main", "x", 0));
+      values.add(Long.valueOf(1000 + i % 10));
+    }
+    return values;
+  }
+
+  @Test
+  public void testEqualValuesAreShared() throws Exception {
+    List<Object> values = createValues();
+    @SuppressWarnings("unchecked")
+    List<Object> result = (List<Object>)readProof(writeProof(values));
+
+    assertThat(result).isEqualTo(values);
+    assertThat(result.get(3)).isSameAs(result.get(0));
+    assertThat(result.get(4)).isSameAs(result.get(1));
+    assertThat(result.get(32)).isSameAs(result.get(2));
+  }
+
+  @Test
+  public void testSmallerThanJavaSerialization() throws Exception {
+    List<Object> values = createValues();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    byte[] plain = write(new ObjectOutputStream(bytes), bytes, values);
+
+    assertThat(writeProof(values).length).isLessThan(plain.length / 2);
+  }
+
+  @Test(expected=StreamCorruptedException.class)
+  public void testPlainStreamIsRejected() throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    readProof(write(new ObjectOutputStream(bytes), bytes, "proof"));
+  }
+}
@@ -27,6 +27,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import static com.google.common.base.Predicates.*;
 import static com.google.common.collect.FluentIterable.from;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -80,6 +84,8 @@ import com.google.common.base.Optional;
 import com.google.common.collect.Collections2;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableCollection;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableListMultimap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.collect.ImmutableSortedSet;
@@ -89,7 +95,9 @@ import com.google.common.collect.Ordering;
 import com.google.common.collect.SortedSetMultimap;
 import com.google.common.collect.TreeMultimap;
 
-public class LiveVariables {
+public class LiveVariables implements Serializable {
+
+  private static final long serialVersionUID = 6434516264919573461L;
 
   public enum EvaluationStrategy {
     FUNCTION_WISE, GLOBAL
@@ -159,6 +167,8 @@ public class LiveVariables {
    */
   private static class AllVariablesAsLiveVariables extends LiveVariables {
 
+    private static final long serialVersionUID = 1850279718254815542L;
+
     private FluentIterable<String> allVariables;
     private FluentIterable<ASimpleDeclaration> allVariableDecls;
 
@@ -267,6 +277,46 @@ public class LiveVariables {
     liveVariablesStrings = ImmutableSetMultimap.copyOf(Multimaps.transformValues(liveVariables, FROM_EQUIV_WRAPPER_TO_STRING));
   }
 
+  private Object writeReplace() {
+    return new SerializationProxy(this);
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException {
+    throw new InvalidObjectException("Proxy required");
+  }
+
+  /**
+   * The wrapped declarations cannot be serialized directly
+   * (the equivalence is not serializable),
+   * so we store the plain declarations and wrap them again when reading.
+   */
+  private static class SerializationProxy implements Serializable {
+
+    private static final long serialVersionUID = -7146539462716384562L;
+    private final ImmutableListMultimap<CFANode, ASimpleDeclaration> liveVariables;
+    private final ImmutableList<ASimpleDeclaration> globalVariables;
+    private final VariableClassification variableClassification;
+    private final EvaluationStrategy evaluationStrategy;
+    private final Language language;
+
+    private SerializationProxy(LiveVariables pLiveVariables) {
+      liveVariables = ImmutableListMultimap.copyOf(
+          Multimaps.transformValues(pLiveVariables.liveVariables, FROM_EQUIV_WRAPPER));
+      globalVariables = from(pLiveVariables.globalVariables).transform(FROM_EQUIV_WRAPPER).toList();
+      variableClassification = pLiveVariables.variableClassification;
+      evaluationStrategy = pLiveVariables.evaluationStrategy;
+      language = pLiveVariables.language;
+    }
+
+    private Object readResolve() {
+      return new LiveVariables(Multimaps.transformValues(liveVariables, TO_EQUIV_WRAPPER),
+          variableClassification,
+          from(globalVariables).transform(TO_EQUIV_WRAPPER).toSet(),
+          evaluationStrategy,
+          language);
+    }
+  }
+
   public boolean isVariableLive(ASimpleDeclaration variable, CFANode location) {
     String varName = variable.getQualifiedName();
     final Wrapper<ASimpleDeclaration> wrappedDecl = LIVE_DECL_EQUIVALENCE.wrap(variable);
@@ -24,7 +24,9 @@
 package org.sosy_lab.cpachecker.util;
 
 import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.io.Serializable;
 import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.Collection;
@@ -52,7 +54,9 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multiset;
 import com.google.common.collect.Sets;
 
-public class VariableClassification {
+public class VariableClassification implements Serializable {
+
+  private static final long serialVersionUID = -2806460744196880862L;
 
   private final boolean hasRelevantNonIntAddVars;
 
@@ -84,7 +88,7 @@ public class VariableClassification {
 
   private final Map<Pair<CFAEdge, Integer>, Partition> edgeToPartitions;
 
-  private final LogManager logger;
+  private transient LogManager logger;
 
   VariableClassification(boolean pHasRelevantNonIntAddVars,
       Set<String> pIntBoolVars,
@@ -118,6 +122,14 @@ public class VariableClassification {
     logger = pLogger;
   }
 
+  /**
+   * Set the logger of an instance that was deserialized
+   * (the logger is not serialized together with the instance).
+   */
+  public void setLoggerAfterDeserialization(LogManager pLogger) {
+    logger = checkNotNull(pLogger);
+  }
+
   @VisibleForTesting
   public static VariableClassification empty(LogManager pLogger) {
     return new VariableClassification(false,
@@ -402,7 +414,9 @@ public class VariableClassification {
 
   /** A Partition is a Wrapper for a Collection of vars, values and edges.
   * The Partitions are disjunct, so no variable and no edge is in 2 Partitions. */
-  public static class Partition {
+  public static class Partition implements Serializable {
+
+   private static final long serialVersionUID = 4712308420960817232L;
 
    private final Set<String> vars = new HashSet<>();
    private final Set<BigInteger> values = Sets.newTreeSet();
@@ -24,19 +24,12 @@
 package org.sosy_lab.cpachecker.util.automaton;
 
 import java.io.IOException;
-import java.io.Writer;
 import java.util.Map;
 
 import javax.annotation.Nullable;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
 
 import org.sosy_lab.cpachecker.cfa.ast.c.CDeclaration;
 import org.sosy_lab.cpachecker.cfa.ast.c.CFunctionDeclaration;
@@ -47,9 +40,6 @@ import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
 import org.sosy_lab.cpachecker.cfa.model.FunctionExitNode;
 import org.sosy_lab.cpachecker.cfa.model.c.CDeclarationEdge;
 import org.sosy_lab.cpachecker.cfa.model.c.CFunctionReturnEdge;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 
 import com.google.common.base.Preconditions;
 import com.google.common.collect.Maps;
@@ -212,125 +202,161 @@ public class AutomatonGraphmlCommon {
     }
   }
 
+  /**
+   * Writes a GraphML document element by element to an {@link Appendable},
+   * without building the document in memory.
+   * Nodes and edges are opened with {@link #openNode(String, NodeType)} and
+   * {@link #openEdge(String, String)}, can get data elements with
+   * {@link #appendDataElement(KeyDef, String)}, and are closed with {@link #closeElement()}.
+   */
   public static class GraphMlBuilder {
 
-    private final Document doc;
-    private final Writer target;
+    private static final String INDENTATION = "  ";
 
-    public GraphMlBuilder(Appendable target) throws ParserConfigurationException {
-      DocumentBuilderFactory docFactory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder docBuilder = docFactory.newDocumentBuilder();
+    private final XMLStreamWriter writer;
 
-      this.doc = docBuilder.newDocument();
-      this.target = CharStreams.asWriter(target);
-    }
-
-    public Element createElement(GraphMlTag tag) {
-      return doc.createElement(tag.toString());
-    }
+    private int depth = 0;
+    private boolean elementIsEmpty = false;
 
-    public Element createDataElement(final KeyDef key, final String value) {
-      Element result = createElement(GraphMlTag.DATA);
-      result.setAttribute("key", key.id);
-      result.setTextContent(value);
-      return result;
+    public GraphMlBuilder(Appendable target) throws IOException {
+      try {
+        this.writer = XMLOutputFactory.newInstance().createXMLStreamWriter(CharStreams.asWriter(target));
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public Element createEdgeElement(final String from, final String to) {
-      Element result = createElement(GraphMlTag.EDGE);
-      result.setAttribute("source", from);
-      result.setAttribute("target", to);
-      return result;
+    private void openElement(GraphMlTag tag) throws XMLStreamException {
+      writer.writeCharacters("\n");
+      for (int i = 0; i < depth; i++) {
+        writer.writeCharacters(INDENTATION);
+      }
+      writer.writeStartElement(tag.toString());
+      depth++;
+      elementIsEmpty = true;
     }
 
-    public Element createKeyDefElement(KeyDef keyDef, @Nullable String defaultValue) {
-      return createKeyDefElement(keyDef.id, keyDef.keyFor, keyDef.attrName, keyDef.attrType, defaultValue);
+    public void closeElement() throws IOException {
+      try {
+        Preconditions.checkState(depth > 0);
+        depth--;
+        if (!elementIsEmpty) {
+          writer.writeCharacters("\n");
+          for (int i = 0; i < depth; i++) {
+            writer.writeCharacters(INDENTATION);
+          }
+        }
+        writer.writeEndElement();
+        elementIsEmpty = false;
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public Element createKeyDefElement(String id, String keyFor, String attrName, String attrType,
-        @Nullable String defaultValue) {
-
-      Preconditions.checkNotNull(doc);
-      Preconditions.checkNotNull(id);
-      Preconditions.checkNotNull(keyFor);
-      Preconditions.checkNotNull(attrName);
-      Preconditions.checkNotNull(attrType);
-
-      Element result = createElement(GraphMlTag.KEY);
-
-      result.setAttribute("id", id);
-      result.setAttribute("for", keyFor);
-      result.setAttribute("attr.name", attrName);
-      result.setAttribute("attr.type", attrType);
-
-      if (defaultValue != null) {
-        Element defaultValueElement = createElement(GraphMlTag.DEFAULT);
-        defaultValueElement.setTextContent(defaultValue);
-        result.appendChild(defaultValueElement);
+    public void openEdge(final String from, final String to) throws IOException {
+      try {
+        openElement(GraphMlTag.EDGE);
+        writer.writeAttribute("source", from);
+        writer.writeAttribute("target", to);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
       }
-
-      return result;
     }
 
-    public Element createNodeElement(String nodeId, NodeType nodeType) {
-      Element result = createElement(GraphMlTag.NODE);
-      result.setAttribute("id", nodeId);
+    public void openNode(String nodeId, NodeType nodeType) throws IOException {
+      try {
+        openElement(GraphMlTag.NODE);
+        writer.writeAttribute("id", nodeId);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
 
       if (nodeType != defaultNodeType) {
-        addDataElementChild(result, KeyDef.NODETYPE, nodeType.toString());
+        appendDataElement(KeyDef.NODETYPE, nodeType.toString());
       }
-
-      return result;
     }
 
     public void appendNewNode(String nodeId, NodeType nodeType) throws IOException {
-      Element result = createNodeElement(nodeId, nodeType);
-      appendToAppendable(result);
+      openNode(nodeId, nodeType);
+      closeElement();
     }
 
-    public Element addDataElementChild(Element childOf, final KeyDef key, final String value) {
-      Element result = createDataElement(key, value);
-      childOf.appendChild(result);
-      return result;
+    public void appendDataElement(final KeyDef key, final String value) throws IOException {
+      try {
+        openElement(GraphMlTag.DATA);
+        writer.writeAttribute("key", key.id);
+        writer.writeCharacters(value);
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+      closeElement();
     }
 
-    public void appendDataElement(final KeyDef key, final String value) {
-      Element result = createDataElement(key, value);
-      appendToAppendable(result);
+    public void appendNewKeyDef(KeyDef keyDef, @Nullable String defaultValue) throws IOException {
+      appendNewKeyDef(keyDef.id, keyDef.keyFor, keyDef.attrName, keyDef.attrType, defaultValue);
     }
 
-    public void appendDocHeader() throws IOException {
-      target.append("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n");
-      target.append("<graphml xmlns:xsi=\"http://www.w3.org/2001/XMLSchema-instance\" xmlns=\"http://graphml.graphdrawing.org/xmlns\">\n");
-    }
+    public void appendNewKeyDef(String id, String keyFor, String attrName, String attrType,
+        @Nullable String defaultValue) throws IOException {
 
-    public void appendGraphHeader(GraphType pGraphType, String pSourceLanguage) throws IOException {
-      target.append("<graph edgedefault=\"directed\">");
-      appendDataElement(KeyDef.SOURCECODELANGUAGE, pSourceLanguage);
+      Preconditions.checkNotNull(id);
+      Preconditions.checkNotNull(keyFor);
+      Preconditions.checkNotNull(attrName);
+      Preconditions.checkNotNull(attrType);
+
+      try {
+        openElement(GraphMlTag.KEY);
+        writer.writeAttribute("id", id);
+        writer.writeAttribute("for", keyFor);
+        writer.writeAttribute("attr.name", attrName);
+        writer.writeAttribute("attr.type", attrType);
+
+        if (defaultValue != null) {
+          openElement(GraphMlTag.DEFAULT);
+          writer.writeCharacters(defaultValue);
+          closeElement();
+        }
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
+      closeElement();
     }
 
-    public void appendNewKeyDef(KeyDef keyDef, @Nullable String defaultValue) {
-      appendToAppendable(createKeyDefElement(keyDef, defaultValue));
+    public void appendDocHeader() throws IOException {
+      try {
+        writer.writeStartDocument("UTF-8", "1.0");
+        writer.writeCharacters("\n");
+        writer.writeStartElement("graphml");
+        writer.writeNamespace("xsi", "http://www.w3.org/2001/XMLSchema-instance");
+        writer.writeDefaultNamespace("http://graphml.graphdrawing.org/xmlns");
+        depth++;
+        elementIsEmpty = true;
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
-    public void appendToAppendable(Node n) {
+    public void appendGraphHeader(GraphType pGraphType, String pSourceLanguage) throws IOException {
       try {
-        TransformerFactory tf = TransformerFactory.newInstance();
-        Transformer transformer = tf.newTransformer();
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
-        transformer.transform(new DOMSource(n), new StreamResult(target));
-      } catch (TransformerException ex) {
-          throw new RuntimeException("Error while dumping program path", ex);
+        openElement(GraphMlTag.GRAPH);
+        writer.writeAttribute("edgedefault", "directed");
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
       }
+      appendDataElement(KeyDef.SOURCECODELANGUAGE, pSourceLanguage);
     }
 
     public void appendFooter() throws IOException {
-      target.append("</graph>\n");
-      target.append("</graphml>\n");
+      // close graph and graphml
+      closeElement();
+      closeElement();
+      try {
+        writer.writeCharacters("\n");
+        writer.writeEndDocument();
+        writer.flush();
+      } catch (XMLStreamException e) {
+        throw new IOException(e);
+      }
     }
 
   }
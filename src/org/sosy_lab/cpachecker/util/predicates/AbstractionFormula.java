@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.List;
 import java.util.Set;
 
 import javax.annotation.Nullable;
@@ -41,6 +42,9 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.Region;
 import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
 import org.sosy_lab.cpachecker.util.predicates.pathformula.PathFormula;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 
 /**
@@ -152,20 +156,22 @@ public class AbstractionFormula implements Serializable {
   }
 
   private static class SerializationProxy implements Serializable {
-    private static final long serialVersionUID = 2349286L;
-    private final String instantiatedFormulaDump;
+    private static final long serialVersionUID = 2349287L;
+    // stored line by line, such that equal declarations of different formulas
+    // can be shared by the stream (cf. ProofObjectOutputStream)
+    private final List<String> instantiatedFormulaDump;
     private final PathFormula blockFormula;
 
     public SerializationProxy(AbstractionFormula pAbstractionFormula) {
       FormulaManagerView mgr = GlobalInfo.getInstance().getPredicateFormulaManagerView();
-      instantiatedFormulaDump = mgr.dumpFormula(
-          pAbstractionFormula.asInstantiatedFormula()).toString();
+      instantiatedFormulaDump = ImmutableList.copyOf(Splitter.on('\n').split(mgr.dumpFormula(
+          pAbstractionFormula.asInstantiatedFormula()).toString()));
       blockFormula = pAbstractionFormula.getBlockFormula();
     }
 
     private Object readResolve() {
       FormulaManagerView mgr = GlobalInfo.getInstance().getPredicateFormulaManagerView();
-      BooleanFormula instantiatedFormula = mgr.parse(instantiatedFormulaDump);
+      BooleanFormula instantiatedFormula = mgr.parse(Joiner.on('\n').join(instantiatedFormulaDump));
       BooleanFormula notInstantiated = mgr.uninstantiate(instantiatedFormula);
       return new AbstractionFormula(
           mgr,
@@ -0,0 +1,89 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+/**
+ * A wrapper around a {@link ProverEnvironment} that checks lists of formulas
+ * and keeps them on the solver stack between checks.
+ * For each new query, only the formulas after the longest common prefix
+ * with the previous query are popped and pushed,
+ * such that the solver can reuse what it learned about the prefix.
+ */
+class PrefixSharingProver implements AutoCloseable {
+
+  private final ProverEnvironment prover;
+
+  /** The formulas that are currently on the solver stack, one per level. */
+  private final List<BooleanFormula> stack = new ArrayList<>();
+
+  PrefixSharingProver(ProverEnvironment pProver) {
+    prover = pProver;
+  }
+
+  /**
+   * Return the number of formulas at the start of the given list
+   * that are already on the solver stack.
+   */
+  int getCommonPrefixLength(List<BooleanFormula> constraints) {
+    int maxLength = Math.min(stack.size(), constraints.size());
+    int i = 0;
+    while (i < maxLength && stack.get(i).equals(constraints.get(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  /**
+   * Check whether the conjunction of the given formulas is unsatisfiable.
+   * Afterwards, exactly the given formulas are on the solver stack.
+   * If this method throws an exception, the instance should not be used anymore.
+   */
+  boolean isUnsat(List<BooleanFormula> constraints) throws SolverException, InterruptedException {
+    int commonPrefix = getCommonPrefixLength(constraints);
+
+    while (stack.size() > commonPrefix) {
+      prover.pop();
+      stack.remove(stack.size() - 1);
+    }
+    for (BooleanFormula f : constraints.subList(commonPrefix, constraints.size())) {
+      prover.push(f);
+      stack.add(f);
+    }
+
+    return prover.isUnsat();
+  }
+
+  @Override
+  public void close() {
+    prover.close();
+    stack.clear();
+  }
+}
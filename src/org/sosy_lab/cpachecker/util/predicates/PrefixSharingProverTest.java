@@ -0,0 +1,95 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.ProverEnvironment;
+
+import com.google.common.collect.ImmutableList;
+
+public class PrefixSharingProverTest {
+
+  private ProverEnvironment env;
+  private PrefixSharingProver prover;
+
+  private BooleanFormula a;
+  private BooleanFormula b;
+  private BooleanFormula c;
+  private BooleanFormula d;
+
+  @Before
+  public void setUp() {
+    env = mock(ProverEnvironment.class);
+    prover = new PrefixSharingProver(env);
+    a = mock(BooleanFormula.class);
+    b = mock(BooleanFormula.class);
+    c = mock(BooleanFormula.class);
+    d = mock(BooleanFormula.class);
+  }
+
+  @Test
+  public void testCommonPrefixIsKept() throws SolverException, InterruptedException {
+    prover.isUnsat(ImmutableList.of(a, b, c));
+    assertThat(prover.getCommonPrefixLength(ImmutableList.of(a, b, d))).isEqualTo(2);
+
+    prover.isUnsat(ImmutableList.of(a, b, d));
+
+    InOrder inOrder = inOrder(env);
+    inOrder.verify(env).push(a);
+    inOrder.verify(env).push(b);
+    inOrder.verify(env).push(c);
+    inOrder.verify(env).isUnsat();
+    inOrder.verify(env).pop();
+    inOrder.verify(env).push(d);
+    inOrder.verify(env).isUnsat();
+    verifyNoMoreInteractions(env);
+  }
+
+  @Test
+  public void testShorterQuery() throws SolverException, InterruptedException {
+    prover.isUnsat(ImmutableList.of(a, b, c));
+    prover.isUnsat(ImmutableList.of(a));
+
+    verify(env, times(2)).pop();
+    assertThat(prover.getCommonPrefixLength(ImmutableList.of(a, b))).isEqualTo(1);
+  }
+
+  @Test
+  public void testNoCommonPrefix() throws SolverException, InterruptedException {
+    prover.isUnsat(ImmutableList.of(a, b));
+    assertThat(prover.getCommonPrefixLength(ImmutableList.of(b, a))).isEqualTo(0);
+
+    prover.isUnsat(ImmutableList.of(b, a));
+    verify(env, times(2)).pop();
+    verify(env, times(2)).push(a);
+    verify(env, times(2)).push(b);
+  }
+}
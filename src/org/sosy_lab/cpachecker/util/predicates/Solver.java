@@ -23,11 +23,15 @@
  */
 package org.sosy_lab.cpachecker.util.predicates;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import org.sosy_lab.common.ShutdownNotifier;
 import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.IntegerOption;
 import org.sosy_lab.common.configuration.InvalidConfigurationException;
 import org.sosy_lab.common.configuration.Option;
 import org.sosy_lab.common.configuration.Options;
@@ -82,6 +86,19 @@ public final class Solver implements AutoCloseable {
       description="improve sat-checks with additional constraints for UFs")
   private boolean checkUFs = false;
 
+  @Option(secure=true, name="reuseProverPrefix",
+      description="Check lists of formulas (e.g., paths with common prefixes) incrementally: "
+          + "keep the solver stack between such checks and only replace the formulas "
+          + "after the longest common prefix with a previous check. "
+          + "The interpolating environments for counterexample analysis are pooled the same way.")
+  private boolean reuseProverPrefix = false;
+
+  @Option(secure=true, name="reuseProverPrefix.poolSize",
+      description="Number of prover environments to keep alive for incremental checks "
+          + "(each new check uses the one with the longest common prefix).")
+  @IntegerOption(min=1)
+  private int proverPoolSize = 2;
+
   private final FormulaManagerView fmgr;
   private final BooleanFormulaManagerView bfmgr;
 
@@ -90,6 +107,10 @@ public final class Solver implements AutoCloseable {
 
   private final Map<BooleanFormula, Boolean> unsatCache = Maps.newHashMap();
 
+  // least-recently used prover first
+  @GuardedBy("proverPool")
+  private final List<PrefixSharingProver> proverPool = new ArrayList<>();
+
   private final LogManager logger;
 
   // stats
@@ -97,6 +118,10 @@ public final class Solver implements AutoCloseable {
   public int satChecks = 0;
   public int trivialSatChecks = 0;
   public int cachedSatChecks = 0;
+  public int incrementalSatChecks = 0;
+  public long reusedPrefixFormulas = 0; // sum of reused assertion depths
+  public int maxReusedPrefixFormulas = 0;
+  public long pushedFormulas = 0;
 
   /**
    * Please use {@link #create(Configuration, LogManager, ShutdownNotifier)} in normal code.
@@ -270,6 +295,90 @@ public final class Solver implements AutoCloseable {
     }
   }
 
+  /**
+   * Checks whether the conjunction of a list of formulas is unsat.
+   * If {@link #reuseProverPrefix} is enabled, the formulas are kept
+   * on the stack of a prover environment after the check,
+   * such that later checks of lists with the same prefix
+   * (e.g., several paths that share their first blocks,
+   * or a path that grows by one block per check)
+   * only need to push the differing suffix.
+   * Otherwise this is the same as checking the conjunction with {@link #isUnsat(BooleanFormula)}.
+   *
+   * The pooled provers share the solver context of this instance,
+   * which is not thread-safe, so concurrent calls of this method
+   * (e.g., from parallel analyses sharing one solver) are serialized.
+   */
+  public boolean isUnsat(List<BooleanFormula> constraints) throws SolverException, InterruptedException {
+    if (!reuseProverPrefix || constraints.isEmpty()) {
+      return isUnsat(bfmgr.and(constraints));
+    }
+    synchronized (proverPool) {
+      return isUnsatWithProverPool(constraints);
+    }
+  }
+
+  @GuardedBy("proverPool")
+  private boolean isUnsatWithProverPool(List<BooleanFormula> constraints)
+      throws SolverException, InterruptedException {
+    satChecks++;
+    incrementalSatChecks++;
+
+    // take the prover with the longest common prefix,
+    // or a new one if there is no prover with a common prefix
+    PrefixSharingProver prover = null;
+    int commonPrefix = 0;
+    for (PrefixSharingProver candidate : proverPool) {
+      int candidatePrefix = candidate.getCommonPrefixLength(constraints);
+      if (candidatePrefix > commonPrefix) {
+        prover = candidate;
+        commonPrefix = candidatePrefix;
+      }
+    }
+    if (prover == null) {
+      if (proverPool.size() < proverPoolSize) {
+        prover = new PrefixSharingProver(newProverEnvironment());
+      } else {
+        prover = proverPool.get(0);
+      }
+    }
+    proverPool.remove(prover);
+
+    reusedPrefixFormulas += commonPrefix;
+    maxReusedPrefixFormulas = Math.max(maxReusedPrefixFormulas, commonPrefix);
+    pushedFormulas += constraints.size() - commonPrefix;
+
+    solverTime.start();
+    try {
+      boolean result = prover.isUnsat(constraints);
+      proverPool.add(prover);
+      return result;
+
+    } catch (SolverException | InterruptedException | RuntimeException e) {
+      // the solver stack is in an unknown state, do not reuse the prover
+      prover.close();
+      throw e;
+
+    } finally {
+      solverTime.stop();
+    }
+  }
+
+  /**
+   * Whether {@link #isUnsat(List)} keeps formulas on the solver stack between checks.
+   */
+  public boolean isReusingProverPrefix() {
+    return reuseProverPrefix;
+  }
+
+  /**
+   * The maximal number of prover environments that are kept alive
+   * if {@link #isReusingProverPrefix()} is enabled.
+   */
+  public int getProverPoolSize() {
+    return proverPoolSize;
+  }
+
   /**
    * Helper function for UNSAT core generation.
    * Takes a single API call to perform.
@@ -349,6 +458,13 @@ public final class Solver implements AutoCloseable {
     // such that no exception gets lost and both managers get closed.
     // Taken from https://stackoverflow.com/questions/24705055/wrapping-multiple-autocloseables
     // Guava has Closer, but it does not yet support AutoCloseables.
+    synchronized (proverPool) {
+      for (PrefixSharingProver prover : proverPool) {
+        prover.close();
+      }
+      proverPool.clear();
+    }
+
     Throwable t = null;
     try {
       if (solvingFormulaManager instanceof AutoCloseable) {
@@ -51,6 +51,11 @@ public class BDDManagerFactory {
   // documentation of the packages can be found at source of BDDFactory.init()
   private String bddPackage = "JAVA";
 
+  @Option(secure=true, description = "Serialize all accesses to the BDD package, "
+      + "such that it can be shared between analyses that run in parallel "
+      + "(ignored for Sylvan, which is thread-safe and parallelizes each single operation).")
+  private boolean synchronizeLibraryAccess = false;
+
   private final Configuration config;
   private final LogManager logger;
 
@@ -63,9 +68,14 @@ public class BDDManagerFactory {
 
   public RegionManager createRegionManager() throws InvalidConfigurationException {
     if (bddPackage.equals("SYLVAN")) {
+      // Sylvan is thread-safe, a global lock would only prevent its parallelism
       return new SylvanBDDRegionManager(config, logger);
-    } else {
-      return new JavaBDDRegionManager(bddPackage, config, logger);
     }
+
+    RegionManager rmgr = new JavaBDDRegionManager(bddPackage, config, logger);
+    if (synchronizeLibraryAccess) {
+      rmgr = new SynchronizedRegionManager(rmgr);
+    }
+    return rmgr;
   }
 }
@@ -70,8 +70,8 @@ import com.google.common.collect.Maps;
 /**
  * A wrapper for the javabdd (http://javabdd.sf.net) package.
  *
- * This class is not thread-safe, but it could be easily made so by synchronizing
- * the {@link #createNewVar()} method (assuming the BDDFactory is thread-safe).
+ * This class is not thread-safe, use the option bdd.synchronizeLibraryAccess
+ * to share it between several threads.
  */
 @Options(prefix = "bdd.javabdd")
 class JavaBDDRegionManager implements RegionManager {
@@ -80,6 +80,8 @@ class JavaBDDRegionManager implements RegionManager {
   // Statistics
   private final StatInt cleanupQueueSize = new StatInt(StatKind.AVG, "Size of BDD node cleanup queue");
   private final StatTimer cleanupTimer = new StatTimer("Time for BDD node cleanup");
+  private final StatTimer reorderTimer = new StatTimer("Time for BDD reordering");
+  private final StatInt reorderGain = new StatInt(StatKind.SUM, "Number of BDD nodes removed by reordering");
   private final LogManager logger;
   private final BDDFactory factory;
   private final Region trueFormula;
@@ -105,6 +107,40 @@ class JavaBDDRegionManager implements RegionManager {
   @Option(secure = true,
       description = "Size of the BDD cache in relation to the node table size (set to 0 to use fixed BDD cache size).")
   private double cacheRatio = 0.1;
+
+  static enum ReorderingMethod {
+    NONE(BDDFactory.REORDER_NONE),
+    WIN2(BDDFactory.REORDER_WIN2),
+    WIN2ITE(BDDFactory.REORDER_WIN2ITE),
+    WIN3(BDDFactory.REORDER_WIN3),
+    WIN3ITE(BDDFactory.REORDER_WIN3ITE),
+    SIFT(BDDFactory.REORDER_SIFT),
+    SIFTITE(BDDFactory.REORDER_SIFTITE),
+    RANDOM(BDDFactory.REORDER_RANDOM);
+
+    private final BDDFactory.ReorderMethod method;
+
+    private ReorderingMethod(BDDFactory.ReorderMethod pMethod) {
+      method = pMethod;
+    }
+  }
+
+  @Option(secure = true,
+      description = "Method for dynamic reordering of the BDD variables, "
+          + "which is applied whenever the BDD node table has grown beyond the threshold "
+          + "given by reorderThreshold and reorderGrowthFactor (NONE disables dynamic reordering).")
+  private ReorderingMethod reorderMethod = ReorderingMethod.NONE;
+
+  @Option(secure = true, description = "Number of BDD nodes at which the first dynamic reordering is triggered.")
+  @IntegerOption(min = 1)
+  private int reorderThreshold = 100000;
+
+  @Option(secure = true,
+      description = "After a dynamic reordering, the next one is triggered as soon as "
+          + "the number of BDD nodes has grown by this factor (but not before reorderThreshold is reached).")
+  private double reorderGrowthFactor = 2.0;
+
+  private int nextReorderThreshold;
   private int nextvar = 0;
   private int varcount = 100;
 
@@ -130,6 +166,12 @@ class JavaBDDRegionManager implements RegionManager {
     if (cacheSize == 0) {
       cacheSize = (int)(initTableSize * cacheRatio);
     }
+    if (reorderGrowthFactor <= 1) {
+      throw new InvalidConfigurationException("Invalid value " + reorderGrowthFactor
+          + " for option bdd.javabdd.reorderGrowthFactor, needs to be greater than 1.");
+    }
+    nextReorderThreshold = reorderThreshold;
+
     factory =
         BDDFactory.init(bddPackage.toLowerCase(), initTableSize, cacheSize);
 
@@ -158,10 +200,11 @@ class JavaBDDRegionManager implements RegionManager {
       // calling them with reflection.
       // Registering and immediately unregistering prevents the library
       // from printing stuff to stdout.
+      // The reorder callback is kept because it collects statistics
+      // (and reorderings are rare).
       if (!logger.wouldBeLogged(LOG_LEVEL)) {
         factory.unregisterGCCallback(this, gcCallback);
         factory.unregisterResizeCallback(this, resizeCallback);
-        factory.unregisterReorderCallback(this, reorderCallback);
       }
 
     } catch (NoSuchMethodException e) {
@@ -199,6 +242,18 @@ class JavaBDDRegionManager implements RegionManager {
 
   @SuppressWarnings("unused")
   private void reorderCallback(Integer pre, BDDFactory.ReorderStats stats) {
+    switch (pre) {
+      case 1:
+        reorderTimer.start();
+        break;
+      case 0:
+        reorderTimer.stop();
+        reorderGain.setNextValue(stats.usednum_before - stats.usednum_after);
+        break;
+      default:
+        break;
+    }
+
     if (logger.wouldBeLogged(LOG_LEVEL)) {
       switch (pre) {
         case 1:
@@ -225,6 +280,8 @@ class JavaBDDRegionManager implements RegionManager {
           .putIf(cacheSize >= 0, "Size of BDD cache", cacheSize)
           .put(cleanupQueueSize)
           .put(cleanupTimer)
+          .putIfUpdatedAtLeastOnce(reorderTimer)
+          .putIfUpdatedAtLeastOnce(reorderGain)
 
           .put(
               "Time for BDD garbage collection",
@@ -280,6 +337,15 @@ class JavaBDDRegionManager implements RegionManager {
       varcount *= 1.5;
       factory.setVarNum(varcount);
     }
+    if (reorderMethod != ReorderingMethod.NONE) {
+      // Each variable gets its own block, otherwise the library
+      // would not move it during reordering.
+      try {
+        factory.addVarBlock(nextvar, nextvar, false);
+      } catch (UnsupportedOperationException e) {
+        disableReordering(e);
+      }
+    }
     BDD ret = factory.ithVar(nextvar++);
 
     factory.printOrder();
@@ -318,6 +384,38 @@ class JavaBDDRegionManager implements RegionManager {
     } finally {
       cleanupTimer.stop();
     }
+
+    // This method is called from all public methods,
+    // so this is also the place to check whether we should reorder.
+    reorderIfNecessary();
+  }
+
+  /**
+   * Apply dynamic reordering if the BDD node table has grown beyond the current threshold.
+   * The next threshold is computed from the number of nodes that are left after reordering.
+   */
+  private void reorderIfNecessary() {
+    if (reorderMethod == ReorderingMethod.NONE
+        || factory.getNodeNum() < nextReorderThreshold) {
+      return;
+    }
+
+    try {
+      factory.reorder(reorderMethod.method);
+    } catch (UnsupportedOperationException e) {
+      disableReordering(e);
+      return;
+    }
+
+    // reordering includes a garbage collection, so only live nodes are counted here
+    double nextThreshold = factory.getNodeNum() * reorderGrowthFactor;
+    nextReorderThreshold = (int)Math.min(Integer.MAX_VALUE, Math.max(reorderThreshold, nextThreshold));
+  }
+
+  private void disableReordering(UnsupportedOperationException e) {
+    logger.logDebugException(e);
+    logger.log(Level.WARNING, "BDD package does not support reordering, disabling dynamic reordering.");
+    reorderMethod = ReorderingMethod.NONE;
   }
 
   /**
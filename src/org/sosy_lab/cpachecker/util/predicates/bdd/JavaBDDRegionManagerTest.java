@@ -0,0 +1,124 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.Region;
+
+public class JavaBDDRegionManagerTest {
+
+  private static JavaBDDRegionManager createManager(Configuration config)
+      throws InvalidConfigurationException {
+    return new JavaBDDRegionManager("JAVA", config, TestLogManager.getInstance());
+  }
+
+  /**
+   * Build (x1 & y1) | (x2 & y2) | ... with the variable order x1, x2, ..., y1, y2, ...,
+   * for which the BDD has exponential size.
+   */
+  private static Region buildFormula(JavaBDDRegionManager rmgr, List<Region> xs, List<Region> ys) {
+    Region result = rmgr.makeFalse();
+    for (int i = 0; i < xs.size(); i++) {
+      result = rmgr.makeOr(result, rmgr.makeAnd(xs.get(i), ys.get(i)));
+    }
+    return result;
+  }
+
+  private static String getStatistics(JavaBDDRegionManager rmgr) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (PrintStream out = new PrintStream(bytes, true)) {
+      rmgr.printStatistics(out);
+    }
+    return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testDynamicReordering() throws InvalidConfigurationException {
+    Configuration config = Configuration.builder()
+        .setOption("bdd.javabdd.reorderMethod", "SIFT")
+        .setOption("bdd.javabdd.reorderThreshold", "1")
+        .build();
+    JavaBDDRegionManager rmgr = createManager(config);
+    assertThat(getStatistics(rmgr)).doesNotContain("Time for BDD reordering");
+
+    List<Region> xs = new ArrayList<>();
+    List<Region> ys = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      xs.add(rmgr.createPredicate());
+    }
+    for (int i = 0; i < 8; i++) {
+      ys.add(rmgr.createPredicate());
+    }
+
+    // with the low threshold, the following operations trigger reorderings
+    Region f1 = buildFormula(rmgr, xs, ys);
+    Region f2 = buildFormula(rmgr, xs, ys);
+
+    // BDDs are canonical, and reordering must not change the function represented by a BDD
+    assertThat(f2).isEqualTo(f1);
+    for (int i = 0; i < xs.size(); i++) {
+      Region term = rmgr.makeAnd(xs.get(i), ys.get(i));
+      assertThat(rmgr.makeAnd(term, rmgr.makeNot(f1)).isFalse()).isTrue();
+      assertThat(rmgr.makeAnd(xs.get(i), rmgr.makeNot(ys.get(i))).isFalse()).isFalse();
+    }
+    assertThat(rmgr.makeAnd(f1, rmgr.makeNot(buildFormula(rmgr, xs, ys))).isFalse()).isTrue();
+
+    String stats = getStatistics(rmgr);
+    assertThat(stats).contains("Time for BDD reordering");
+    assertThat(stats).contains("Number of BDD nodes removed by reordering");
+  }
+
+  @Test
+  public void testNoReorderingByDefault() throws InvalidConfigurationException {
+    JavaBDDRegionManager rmgr = createManager(Configuration.defaultConfiguration());
+    List<Region> xs = new ArrayList<>();
+    List<Region> ys = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      xs.add(rmgr.createPredicate());
+      ys.add(rmgr.createPredicate());
+    }
+    buildFormula(rmgr, xs, ys);
+
+    assertThat(getStatistics(rmgr)).doesNotContain("Time for BDD reordering");
+  }
+
+  @Test(expected=InvalidConfigurationException.class)
+  public void testInvalidGrowthFactor() throws InvalidConfigurationException {
+    Configuration config = Configuration.builder()
+        .setOption("bdd.javabdd.reorderGrowthFactor", "1")
+        .build();
+    createManager(config);
+  }
+}
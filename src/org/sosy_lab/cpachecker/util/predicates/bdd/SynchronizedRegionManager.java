@@ -0,0 +1,391 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Set;
+
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.Triple;
+import org.sosy_lab.solver.SolverException;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.cpachecker.util.predicates.PredicateOrderingStrategy;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.Region;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.RegionManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
+
+import com.google.common.base.Function;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A RegionManager that serializes all accesses to a delegate RegionManager,
+ * such that a BDD package that is not thread-safe (e.g., JavaBDD, which has
+ * a single global node table and operation cache) can be shared
+ * between several analyses running in parallel.
+ * This gives no parallelism inside the BDD package,
+ * it only makes sharing the package (and thus its caches) safe.
+ *
+ * All operations of the delegate, of the region builders it creates,
+ * and of the regions it creates are executed while holding the lock of this object.
+ * The regions need to be wrapped as well, because, e.g., {@link Object#toString()}
+ * traverses the node table, which may be modified concurrently otherwise.
+ *
+ * In order to reduce the contention on this lock, each thread has its own cache
+ * of the results of the most frequent operations ({@link #entails(Region, Region)},
+ * {@link #makeNot(Region)}, {@link #makeAnd(Region, Region)}, and {@link #makeOr(Region, Region)}).
+ * The caches are keyed by the identity of the operands
+ * (e.g., the regions of two abstract states that are compared in repeated coverage checks)
+ * and can be accessed without the lock.
+ * The unique table of the BDD package cannot be striped,
+ * because the supported packages have a single global node table.
+ */
+class SynchronizedRegionManager implements RegionManager {
+
+  private static final int ENTAILS = 0;
+  private static final int NOT = 1;
+  private static final int AND = 2;
+  private static final int OR = 3;
+
+  /** Number of entries of the operation cache of each thread (a power of 2). */
+  private static final int OPERATION_CACHE_SIZE = 1 << 12;
+
+  private final RegionManager delegate;
+
+  private final ThreadLocal<OperationCache> operationCache = new ThreadLocal<OperationCache>() {
+      @Override
+      protected OperationCache initialValue() {
+        return new OperationCache();
+      }
+    };
+
+  SynchronizedRegionManager(RegionManager pDelegate) {
+    delegate = checkNotNull(pDelegate);
+  }
+
+  private Region wrap(Region pRegion) {
+    return new SynchronizedRegion(pRegion);
+  }
+
+  private Region unwrap(Region pRegion) {
+    checkArgument(pRegion instanceof SynchronizedRegion
+        && ((SynchronizedRegion)pRegion).getManager() == this,
+        "Region %s was not created by this region manager", pRegion);
+    return ((SynchronizedRegion)pRegion).delegateRegion;
+  }
+
+  private Region[] unwrap(Region[] pRegions) {
+    Region[] result = new Region[pRegions.length];
+    for (int i = 0; i < pRegions.length; i++) {
+      result[i] = unwrap(pRegions[i]);
+    }
+    return result;
+  }
+
+  @Override
+  public boolean entails(Region pF1, Region pF2) throws SolverException, InterruptedException {
+    OperationCache cache = operationCache.get();
+    Boolean result = (Boolean)cache.get(ENTAILS, pF1, pF2);
+    if (result == null) {
+      synchronized (this) {
+        result = delegate.entails(unwrap(pF1), unwrap(pF2));
+      }
+      cache.put(ENTAILS, pF1, pF2, result);
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized Region createPredicate() {
+    return wrap(delegate.createPredicate());
+  }
+
+  @Override
+  public synchronized Set<Region> extractPredicates(Region pF) {
+    ImmutableSet.Builder<Region> result = ImmutableSet.builder();
+    for (Region predicate : delegate.extractPredicates(unwrap(pF))) {
+      result.add(wrap(predicate));
+    }
+    return result.build();
+  }
+
+  @Override
+  public synchronized Region fromFormula(BooleanFormula pF, FormulaManagerView pFmgr,
+      final Function<BooleanFormula, Region> pAtomToRegion) {
+    // the given function returns regions of this manager, but the delegate needs its own regions
+    return wrap(delegate.fromFormula(pF, pFmgr, new Function<BooleanFormula, Region>() {
+        @Override
+        public Region apply(BooleanFormula pAtom) {
+          return unwrap(pAtomToRegion.apply(pAtom));
+        }
+      }));
+  }
+
+  @Override
+  public synchronized Triple<Region, Region, Region> getIfThenElse(Region pF) {
+    Triple<Region, Region, Region> result = delegate.getIfThenElse(unwrap(pF));
+    return Triple.of(wrap(result.getFirst()), wrap(result.getSecond()), wrap(result.getThird()));
+  }
+
+  @Override
+  public synchronized void printStatistics(PrintStream pOut) {
+    delegate.printStatistics(pOut);
+  }
+
+  @Override
+  public String getVersion() {
+    return delegate.getVersion() + " (synchronized)";
+  }
+
+  @Override
+  public synchronized void setVarOrder(ArrayList<Integer> pOrder) {
+    delegate.setVarOrder(pOrder);
+  }
+
+  @Override
+  public synchronized void reorder(PredicateOrderingStrategy pStrategy) {
+    delegate.reorder(pStrategy);
+  }
+
+  @Override
+  public synchronized RegionBuilder builder(ShutdownNotifier pShutdownNotifier) {
+    return new SynchronizedRegionBuilder(delegate.builder(pShutdownNotifier));
+  }
+
+  @Override
+  public synchronized Region makeTrue() {
+    return wrap(delegate.makeTrue());
+  }
+
+  @Override
+  public synchronized Region makeFalse() {
+    return wrap(delegate.makeFalse());
+  }
+
+  @Override
+  public Region makeNot(Region pF) {
+    OperationCache cache = operationCache.get();
+    Region result = (Region)cache.get(NOT, pF, null);
+    if (result == null) {
+      synchronized (this) {
+        result = wrap(delegate.makeNot(unwrap(pF)));
+      }
+      cache.put(NOT, pF, null, result);
+    }
+    return result;
+  }
+
+  @Override
+  public Region makeAnd(Region pF1, Region pF2) {
+    OperationCache cache = operationCache.get();
+    Region result = (Region)cache.get(AND, pF1, pF2);
+    if (result == null) {
+      synchronized (this) {
+        result = wrap(delegate.makeAnd(unwrap(pF1), unwrap(pF2)));
+      }
+      cache.put(AND, pF1, pF2, result);
+    }
+    return result;
+  }
+
+  @Override
+  public Region makeOr(Region pF1, Region pF2) {
+    OperationCache cache = operationCache.get();
+    Region result = (Region)cache.get(OR, pF1, pF2);
+    if (result == null) {
+      synchronized (this) {
+        result = wrap(delegate.makeOr(unwrap(pF1), unwrap(pF2)));
+      }
+      cache.put(OR, pF1, pF2, result);
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized Region makeEqual(Region pF1, Region pF2) {
+    return wrap(delegate.makeEqual(unwrap(pF1), unwrap(pF2)));
+  }
+
+  @Override
+  public synchronized Region makeUnequal(Region pF1, Region pF2) {
+    return wrap(delegate.makeUnequal(unwrap(pF1), unwrap(pF2)));
+  }
+
+  @Override
+  public synchronized Region makeIte(Region pF1, Region pF2, Region pF3) {
+    return wrap(delegate.makeIte(unwrap(pF1), unwrap(pF2), unwrap(pF3)));
+  }
+
+  @Override
+  public synchronized Region makeExists(Region pF1, Region... pF2) {
+    return wrap(delegate.makeExists(unwrap(pF1), unwrap(pF2)));
+  }
+
+  /**
+   * A direct-mapped cache of operation results that is used by a single thread.
+   * A new result replaces the previous entry with the same index.
+   * The operands are compared by identity, thus no lock is needed for a lookup.
+   */
+  private static class OperationCache {
+
+    private final int[] operations = new int[OPERATION_CACHE_SIZE];
+    private final Object[] firstOperands = new Object[OPERATION_CACHE_SIZE];
+    private final Object[] secondOperands = new Object[OPERATION_CACHE_SIZE];
+    private final Object[] results = new Object[OPERATION_CACHE_SIZE];
+
+    private static int index(int pOperation, Region pF1, Region pF2) {
+      int hash = 31 * (31 * pOperation + System.identityHashCode(pF1)) + System.identityHashCode(pF2);
+      return (hash ^ (hash >>> 16)) & (OPERATION_CACHE_SIZE - 1);
+    }
+
+    private Object get(int pOperation, Region pF1, Region pF2) {
+      int i = index(pOperation, pF1, pF2);
+      if (results[i] != null && operations[i] == pOperation
+          && firstOperands[i] == pF1 && secondOperands[i] == pF2) {
+        return results[i];
+      }
+      return null;
+    }
+
+    private void put(int pOperation, Region pF1, Region pF2, Object pResult) {
+      int i = index(pOperation, pF1, pF2);
+      operations[i] = pOperation;
+      firstOperands[i] = pF1;
+      secondOperands[i] = pF2;
+      results[i] = pResult;
+    }
+  }
+
+  /**
+   * A region of the delegate whose methods use the same lock as the manager.
+   */
+  private class SynchronizedRegion implements Region {
+
+    private final Region delegateRegion;
+
+    private SynchronizedRegion(Region pDelegateRegion) {
+      delegateRegion = checkNotNull(pDelegateRegion);
+    }
+
+    private SynchronizedRegionManager getManager() {
+      return SynchronizedRegionManager.this;
+    }
+
+    @Override
+    public boolean isTrue() {
+      synchronized (SynchronizedRegionManager.this) {
+        return delegateRegion.isTrue();
+      }
+    }
+
+    @Override
+    public boolean isFalse() {
+      synchronized (SynchronizedRegionManager.this) {
+        return delegateRegion.isFalse();
+      }
+    }
+
+    @Override
+    public boolean equals(Object pOther) {
+      if (!(pOther instanceof SynchronizedRegion)) {
+        return false;
+      }
+      synchronized (SynchronizedRegionManager.this) {
+        return delegateRegion.equals(((SynchronizedRegion)pOther).delegateRegion);
+      }
+    }
+
+    @Override
+    public int hashCode() {
+      synchronized (SynchronizedRegionManager.this) {
+        return delegateRegion.hashCode();
+      }
+    }
+
+    @Override
+    public String toString() {
+      synchronized (SynchronizedRegionManager.this) {
+        return delegateRegion.toString();
+      }
+    }
+  }
+
+  /**
+   * Region builders operate directly on the BDDs of the delegate,
+   * so they need to use the same lock as the manager.
+   */
+  private class SynchronizedRegionBuilder implements RegionBuilder {
+
+    private final RegionBuilder builderDelegate;
+
+    private SynchronizedRegionBuilder(RegionBuilder pBuilderDelegate) {
+      builderDelegate = pBuilderDelegate;
+    }
+
+    @Override
+    public void startNewConjunction() {
+      synchronized (SynchronizedRegionManager.this) {
+        builderDelegate.startNewConjunction();
+      }
+    }
+
+    @Override
+    public void addPositiveRegion(Region pR) {
+      synchronized (SynchronizedRegionManager.this) {
+        builderDelegate.addPositiveRegion(unwrap(pR));
+      }
+    }
+
+    @Override
+    public void addNegativeRegion(Region pR) {
+      synchronized (SynchronizedRegionManager.this) {
+        builderDelegate.addNegativeRegion(unwrap(pR));
+      }
+    }
+
+    @Override
+    public void finishConjunction() {
+      synchronized (SynchronizedRegionManager.this) {
+        builderDelegate.finishConjunction();
+      }
+    }
+
+    @Override
+    public Region getResult() throws InterruptedException {
+      synchronized (SynchronizedRegionManager.this) {
+        return wrap(builderDelegate.getResult());
+      }
+    }
+
+    @Override
+    public void close() {
+      synchronized (SynchronizedRegionManager.this) {
+        builderDelegate.close();
+      }
+    }
+  }
+}
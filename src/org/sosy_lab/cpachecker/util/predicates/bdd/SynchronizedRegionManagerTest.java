@@ -0,0 +1,149 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.bdd;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.Region;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.RegionManager;
+
+public class SynchronizedRegionManagerTest {
+
+  private static RegionManager createJavaBDDManager() throws InvalidConfigurationException {
+    return new JavaBDDRegionManager("JAVA",
+        Configuration.defaultConfiguration(), TestLogManager.getInstance());
+  }
+
+  @Test
+  public void testConcurrentOperations() throws Exception {
+    final RegionManager rmgr = new SynchronizedRegionManager(createJavaBDDManager());
+    final int threads = 4;
+    final int iterations = 500;
+    final Region shared = rmgr.createPredicate();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<?>> results = new ArrayList<>(threads);
+      for (int t = 0; t < threads; t++) {
+        results.add(executor.submit(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+              for (int i = 0; i < iterations; i++) {
+                // creating variables and building BDDs modify the shared node table
+                Region p = rmgr.createPredicate();
+                Region r = rmgr.makeOr(rmgr.makeAnd(p, shared),
+                                       rmgr.makeAnd(p, rmgr.makeNot(shared)));
+
+                assertThat(r).isEqualTo(p);
+                assertThat(rmgr.entails(r, p)).isTrue();
+                assertThat(rmgr.makeAnd(p, rmgr.makeNot(p)).isFalse()).isTrue();
+                assertThat(rmgr.extractPredicates(r)).containsExactly(p);
+                assertThat(rmgr.makeAnd(p, shared).toString()).isNotEmpty();
+              }
+              return null;
+            }
+          }));
+      }
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // all predicates are distinct variables
+    Region all = rmgr.makeTrue();
+    for (int i = 0; i < 10; i++) {
+      all = rmgr.makeAnd(all, rmgr.createPredicate());
+    }
+    assertThat(rmgr.extractPredicates(all)).hasSize(10);
+  }
+
+  @Test(expected=IllegalArgumentException.class)
+  public void testForeignRegionIsRejected() throws Exception {
+    RegionManager rmgr = new SynchronizedRegionManager(createJavaBDDManager());
+    rmgr.makeNot(createJavaBDDManager().createPredicate());
+  }
+
+  @Test
+  public void testOperationCache() throws Exception {
+    RegionManager delegate = mock(RegionManager.class);
+    when(delegate.createPredicate()).thenReturn(mock(Region.class), mock(Region.class));
+    when(delegate.makeAnd(any(Region.class), any(Region.class))).thenReturn(mock(Region.class));
+    when(delegate.makeOr(any(Region.class), any(Region.class))).thenReturn(mock(Region.class));
+    when(delegate.entails(any(Region.class), any(Region.class))).thenReturn(true);
+    RegionManager rmgr = new SynchronizedRegionManager(delegate);
+
+    Region p = rmgr.createPredicate();
+    Region q = rmgr.createPredicate();
+    Region and = rmgr.makeAnd(p, q);
+    assertThat(rmgr.makeAnd(p, q)).isSameAs(and);
+    assertThat(rmgr.entails(and, p)).isTrue();
+    assertThat(rmgr.entails(and, p)).isTrue();
+
+    verify(delegate, times(1)).makeAnd(any(Region.class), any(Region.class));
+    verify(delegate, times(1)).entails(any(Region.class), any(Region.class));
+
+    // operands are compared by identity, and different operations do not share entries
+    rmgr.makeAnd(q, p);
+    rmgr.makeOr(p, q);
+    verify(delegate, times(2)).makeAnd(any(Region.class), any(Region.class));
+    verify(delegate, times(1)).makeOr(any(Region.class), any(Region.class));
+  }
+
+  @Test
+  public void testOperationCacheIsPerThread() throws Exception {
+    RegionManager delegate = mock(RegionManager.class);
+    when(delegate.createPredicate()).thenReturn(mock(Region.class));
+    when(delegate.makeNot(any(Region.class))).thenReturn(mock(Region.class));
+    final RegionManager rmgr = new SynchronizedRegionManager(delegate);
+    final Region p = rmgr.createPredicate();
+
+    rmgr.makeNot(p);
+    Thread other = new Thread() {
+        @Override
+        public void run() {
+          rmgr.makeNot(p);
+          rmgr.makeNot(p);
+        }
+      };
+    other.start();
+    other.join();
+    rmgr.makeNot(p);
+
+    verify(delegate, times(2)).makeNot(any(Region.class));
+  }
+}
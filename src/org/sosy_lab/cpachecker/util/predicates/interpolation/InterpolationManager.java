@@ -43,6 +43,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import org.sosy_lab.common.Appender;
 import org.sosy_lab.common.Classes.UnexpectedCheckedException;
 import org.sosy_lab.common.ShutdownNotifier;
@@ -110,7 +112,8 @@ public final class InterpolationManager {
       out.println("    Cex.focusing:                     " + cexAnalysisGetUsefulBlocksTimer + " (Max: " + cexAnalysisGetUsefulBlocksTimer.getMaxTime().formatAs(TimeUnit.SECONDS) + ")");
     }
     out.println("    Refinement sat check:             " + satCheckTimer);
-    if (reuseInterpolationEnvironment && satCheckTimer.getNumberOfIntervals() > 0) {
+    if ((reuseInterpolationEnvironment || solver.isReusingProverPrefix())
+        && satCheckTimer.getNumberOfIntervals() > 0) {
       out.println("    Reused formulas on solver stack:  " + reusedFormulasOnSolverStack + " (Avg: " + div(reusedFormulasOnSolverStack, satCheckTimer.getNumberOfIntervals()) + ")");
     }
     out.println("    Interpolant computation:          " + getInterpolantTimer);
@@ -129,6 +132,11 @@ public final class InterpolationManager {
 
   private final Interpolator<?> interpolator;
 
+  // interpolators that keep their solver stack between queries
+  // if solver.reuseProverPrefix is enabled, least-recently used first
+  @GuardedBy("interpolatorPool")
+  private final List<Interpolator<?>> interpolatorPool = new ArrayList<>();
+
   @Option(secure=true, description="apply deletion-filter to the abstract counterexample, to get "
     + "a minimal set of blocks, before applying interpolation-based refinement")
   private boolean getUsefulBlocks = false;
@@ -319,18 +327,50 @@ public final class InterpolationManager {
         }
       }
 
-      final Interpolator<?> currentInterpolator;
-      if (reuseInterpolationEnvironment) {
-        currentInterpolator = checkNotNull(interpolator);
-      } else {
-        currentInterpolator = new Interpolator<>();
-      }
-
       try {
+        List<AbstractState> abstractionStates = pAbstractionStates;
+        if (abstractionStates.isEmpty()) {
+          abstractionStates = new ArrayList<>(Collections.<AbstractState>nCopies(f.size(), null));
+        }
+        assert abstractionStates.size() == f.size() : "each pathFormula must end with an abstract State";
+
+        List<BooleanFormula> usefulFormulas = f;
+        if (getUsefulBlocks) {
+          usefulFormulas = Collections.unmodifiableList(getUsefulBlocks(f));
+        }
+
+        if (dumpInterpolationProblems) {
+          dumpInterpolationProblem(usefulFormulas);
+        }
+
+        // re-order formulas if needed,
+        // this is done before choosing an interpolator,
+        // because a pooled one is chosen by the formulas that will be on its solver stack
+        final List<Triple<BooleanFormula, AbstractState, Integer>> orderedFormulas =
+            orderFormulas(usefulFormulas, abstractionStates);
+        assert orderedFormulas.size() == usefulFormulas.size();
+
+        final Interpolator<?> currentInterpolator;
+        if (reuseInterpolationEnvironment) {
+          currentInterpolator = checkNotNull(interpolator);
+        } else if (solver.isReusingProverPrefix()) {
+          currentInterpolator = takeInterpolatorFromPool(orderedFormulas);
+        } else {
+          currentInterpolator = new Interpolator<>();
+        }
+
+        boolean success = false;
         try {
-          return currentInterpolator.buildCounterexampleTrace(f, pAbstractionStates, elementsOnPath, computeInterpolants);
+          CounterexampleTraceInfo result = currentInterpolator.buildCounterexampleTrace(usefulFormulas, orderedFormulas, elementsOnPath, computeInterpolants);
+          success = true;
+          return result;
         } finally {
-          if (!reuseInterpolationEnvironment) {
+          if (reuseInterpolationEnvironment) {
+            // keep the single environment
+          } else if (success && solver.isReusingProverPrefix()) {
+            returnInterpolatorToPool(currentInterpolator);
+          } else {
+            // after an exception the solver stack is in an unknown state
             currentInterpolator.close();
           }
         }
@@ -357,6 +397,44 @@ public final class InterpolationManager {
     }
   }
 
+  /**
+   * Take the pooled interpolator whose solver stack has the longest common prefix
+   * with the given (already ordered) formulas, such that only the differing suffix needs to be pushed
+   * (cf. {@link Solver#isUnsat(List)}).
+   * If no pooled interpolator shares a prefix, a new one is created,
+   * or the least-recently used one is taken if the pool is full.
+   */
+  private Interpolator<?> takeInterpolatorFromPool(List<Triple<BooleanFormula, AbstractState, Integer>> f) {
+    synchronized (interpolatorPool) {
+      Interpolator<?> result = null;
+      int commonPrefix = 0;
+      for (Interpolator<?> candidate : interpolatorPool) {
+        int candidatePrefix = candidate.getCommonPrefixLength(f);
+        if (candidatePrefix > commonPrefix) {
+          result = candidate;
+          commonPrefix = candidatePrefix;
+        }
+      }
+      if (result == null) {
+        if (interpolatorPool.size() < solver.getProverPoolSize()) {
+          return new Interpolator<>();
+        }
+        result = interpolatorPool.get(0);
+      }
+      interpolatorPool.remove(result);
+      return result;
+    }
+  }
+
+  private void returnInterpolatorToPool(Interpolator<?> pInterpolator) {
+    synchronized (interpolatorPool) {
+      interpolatorPool.add(pInterpolator);
+      if (interpolatorPool.size() > solver.getProverPoolSize()) {
+        interpolatorPool.remove(0).close();
+      }
+    }
+  }
+
   /**
    * Add axioms about bitwise operations to a list of formulas, if such operations
    * are used. This is probably not that helpful currently, we would have to the
@@ -599,26 +677,31 @@ public final class InterpolationManager {
       return CounterexampleTraceInfo.feasible(f, RichModel.of(getModel(pProver)), ImmutableMap.<Integer, Boolean>of());
     }
 
-    // add formula to solver environment
+    // add formula to solver environment,
+    // and remove it afterwards such that the solver stack can be reused
     pProver.push(branchingFormula);
+    try {
 
-    // need to ask solver for satisfiability again,
-    // otherwise model doesn't contain new predicates
-    boolean stillSatisfiable = !pProver.isUnsat();
+      // need to ask solver for satisfiability again,
+      // otherwise model doesn't contain new predicates
+      boolean stillSatisfiable = !pProver.isUnsat();
 
-    if (stillSatisfiable) {
-      Model model = getModel(pProver);
-      return CounterexampleTraceInfo.feasible(f, RichModel.of(model), pmgr.getBranchingPredicateValuesFromModel(model));
+      if (stillSatisfiable) {
+        Model model = getModel(pProver);
+        return CounterexampleTraceInfo.feasible(f, RichModel.of(model), pmgr.getBranchingPredicateValuesFromModel(model));
 
-    } else {
-      // this should not happen
-      logger.log(Level.WARNING, "Could not get precise error path information because of inconsistent reachingPathsFormula!");
+      } else {
+        // this should not happen
+        logger.log(Level.WARNING, "Could not get precise error path information because of inconsistent reachingPathsFormula!");
 
-      dumpInterpolationProblem(f);
-      dumpFormulaToFile("formula", branchingFormula, f.size());
+        dumpInterpolationProblem(f);
+        dumpFormulaToFile("formula", branchingFormula, f.size());
 
-      return CounterexampleTraceInfo.feasible(f, RichModel.empty(),
-          ImmutableMap.<Integer, Boolean>of());
+        return CounterexampleTraceInfo.feasible(f, RichModel.empty(),
+            ImmutableMap.<Integer, Boolean>of());
+      }
+    } finally {
+      pProver.pop();
     }
   }
 
@@ -684,13 +767,14 @@ public final class InterpolationManager {
     /**
      * Counterexample analysis and predicate discovery.
      * @param f the formulas for the path
+     * @param orderedFormulas the formulas of f in the order in which they are checked
      * @param elementsOnPath the ARGElements on the path (may be empty if no branching information is required)
      * @return counterexample info with predicated information
      * @throws CPAException
      */
     private CounterexampleTraceInfo buildCounterexampleTrace(
         List<BooleanFormula> f,
-        List<AbstractState> pAbstractionStates,
+        List<Triple<BooleanFormula, AbstractState, Integer>> orderedFormulas,
         Set<ARGState> elementsOnPath,
         boolean computeInterpolants)
         throws SolverException, CPATransferException, InterruptedException {
@@ -714,27 +798,8 @@ public final class InterpolationManager {
        *      might be computed from the solver's proof for unsatisfiability.
        */
       List<Triple<BooleanFormula, AbstractState, T>> formulasWithStatesAndGroupdIds;
-      List<Triple<BooleanFormula, AbstractState, Integer>> orderedFormulas;
-
-      if (pAbstractionStates.isEmpty()) {
-        pAbstractionStates = new ArrayList<>(Collections.<AbstractState>nCopies(f.size(), null));
-      }
-      assert pAbstractionStates.size() == f.size() : "each pathFormula must end with an abstract State";
 
       try {
-
-        if (getUsefulBlocks) {
-          f = Collections.unmodifiableList(getUsefulBlocks(f));
-        }
-
-        if (dumpInterpolationProblems) {
-          dumpInterpolationProblem(f);
-        }
-
-        // re-order formulas if needed
-        orderedFormulas = orderFormulas(f, pAbstractionStates);
-        assert orderedFormulas.size() == f.size();
-
         // initialize all interpolation group ids with "null"
         formulasWithStatesAndGroupdIds = new ArrayList<>(Collections.<Triple<BooleanFormula, AbstractState, T>>nCopies(f.size(), null));
 
@@ -782,7 +847,8 @@ public final class InterpolationManager {
      * Check the satisfiability of a list of formulas, using them in the given order.
      * This method honors the {@link #incrementalCheck} configuration option.
      * It also updates the SMT solver stack and the {@link #currentlyAssertedFormulas}
-     * list that is used if {@link #reuseInterpolationEnvironment} is enabled.
+     * list that is used if {@link #reuseInterpolationEnvironment}
+     * or {@link Solver#isReusingProverPrefix()} is enabled.
      *
      * @param traceFormulas The list of formulas to check, each formula with its index of where it should be added in the list of interpolation groups.
      * @param itpGroupsIds The list where to store the references to the interpolation groups. This is just a list of 'identifiers' for the formulas.
@@ -891,6 +957,19 @@ public final class InterpolationManager {
       return itpProver.isUnsat();
     }
 
+    /**
+     * The number of formulas at the start of the given list
+     * that are already on the solver stack in the same order.
+     */
+    private int getCommonPrefixLength(List<Triple<BooleanFormula, AbstractState, Integer>> f) {
+      int max = Math.min(f.size(), currentlyAssertedFormulas.size());
+      int i = 0;
+      while (i < max && currentlyAssertedFormulas.get(i).getFirst().equals(f.get(i).getFirst())) {
+        i++;
+      }
+      return i;
+    }
+
     private void close() {
       itpProver.close();
       itpProver = null;
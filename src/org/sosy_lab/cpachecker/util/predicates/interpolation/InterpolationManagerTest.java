@@ -0,0 +1,99 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.interpolation;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.ConfigurationBuilder;
+import org.sosy_lab.common.configuration.InvalidConfigurationException;
+import org.sosy_lab.cpachecker.util.LoopStructure;
+import org.sosy_lab.cpachecker.util.VariableClassification;
+import org.sosy_lab.cpachecker.util.predicates.Solver;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.PathFormulaManager;
+import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerView;
+import org.sosy_lab.solver.api.BooleanFormula;
+import org.sosy_lab.solver.api.NumeralFormula.IntegerFormula;
+import org.sosy_lab.solver.test.SolverBasedTest0;
+
+import com.google.common.base.Optional;
+import com.google.common.collect.ImmutableList;
+
+public class InterpolationManagerTest extends SolverBasedTest0 {
+
+  private InterpolationManager itpMgr;
+
+  private BooleanFormula x_eq_1;
+  private BooleanFormula y_eq_2;
+  private BooleanFormula y_eq_3;
+  private BooleanFormula notBranch;
+
+  @Override
+  protected ConfigurationBuilder createTestConfigBuilder() throws InvalidConfigurationException {
+    // a single pooled environment, such that every check reuses the same solver stack
+    return super.createTestConfigBuilder()
+                .setOption("solver.reuseProverPrefix", "true")
+                .setOption("solver.reuseProverPrefix.poolSize", "1");
+  }
+
+  @Before
+  public void setUp() throws Exception {
+    FormulaManagerView mgrv = new FormulaManagerView(factory, config, logger);
+    Solver solver = new Solver(mgrv, factory, config, logger);
+
+    BooleanFormula branch = bmgr.makeVariable("branch");
+    notBranch = bmgr.not(branch);
+
+    PathFormulaManager pfmgr = mock(PathFormulaManager.class);
+    when(pfmgr.buildBranchingFormula(any(Iterable.class))).thenReturn(branch);
+
+    itpMgr = new InterpolationManager(pfmgr, solver,
+        Optional.<LoopStructure>absent(), Optional.<VariableClassification>absent(),
+        config, ShutdownNotifier.create(), logger);
+
+    IntegerFormula x = imgr.makeVariable("x");
+    IntegerFormula y = imgr.makeVariable("y");
+    x_eq_1 = imgr.equal(x, imgr.makeNumber(1));
+    y_eq_2 = imgr.equal(y, imgr.makeNumber(2));
+    y_eq_3 = imgr.equal(y, imgr.makeNumber(3));
+  }
+
+  @Test
+  public void testFeasibleThenInfeasibleOnPooledEnvironment() throws Exception {
+    assertThat(itpMgr.buildCounterexampleTrace(ImmutableList.of(x_eq_1, y_eq_2)).isSpurious()).isFalse();
+
+    // the branching formula from the feasible check must not be left on the solver stack
+    assertThat(itpMgr.buildCounterexampleTrace(ImmutableList.of(x_eq_1, y_eq_2, notBranch)).isSpurious()).isFalse();
+
+    CounterexampleTraceInfo infeasible = itpMgr.buildCounterexampleTrace(ImmutableList.of(x_eq_1, y_eq_2, y_eq_3));
+    assertThat(infeasible.isSpurious()).isTrue();
+    assertThat(infeasible.getInterpolants()).hasSize(2);
+
+    assertThat(itpMgr.buildCounterexampleTrace(ImmutableList.of(x_eq_1, y_eq_2)).isSpurious()).isFalse();
+  }
+}
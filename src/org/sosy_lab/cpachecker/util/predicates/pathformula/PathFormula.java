@@ -29,6 +29,7 @@ import java.io.IOException;
 import java.io.InvalidObjectException;
 import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.List;
 
 import javax.annotation.Nullable;
 
@@ -37,6 +38,10 @@ import org.sosy_lab.cpachecker.util.predicates.interfaces.view.FormulaManagerVie
 import org.sosy_lab.cpachecker.util.predicates.pathformula.pointeraliasing.PointerTargetSet;
 import org.sosy_lab.solver.api.BooleanFormula;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Splitter;
+import com.google.common.collect.ImmutableList;
+
 public final class PathFormula implements Serializable {
 
   private static final long serialVersionUID = -7716850731790578620L;
@@ -121,16 +126,18 @@ public final class PathFormula implements Serializable {
   private static class SerializationProxy implements Serializable {
     // (de)serialization only works properly for formulae which were built with the same
     // formula manager as used by PredicateCPA
-    private static final long serialVersionUID = 309890892L;
+    private static final long serialVersionUID = 309890893L;
 
-    private final String formulaDump;
+    // stored line by line, such that equal declarations of different formulas
+    // can be shared by the stream (cf. ProofObjectOutputStream)
+    private final List<String> formulaDump;
     private final SSAMap ssa;
     private final int length;
     private final PointerTargetSet pts;
 
     public SerializationProxy(PathFormula pPathFormula) {
       FormulaManagerView mgr = GlobalInfo.getInstance().getPredicateFormulaManagerView();
-      formulaDump = mgr.dumpFormula(pPathFormula.formula).toString();
+      formulaDump = ImmutableList.copyOf(Splitter.on('\n').split(mgr.dumpFormula(pPathFormula.formula).toString()));
       ssa = pPathFormula.ssa;
       length = pPathFormula.length;
       pts = pPathFormula.pts;
@@ -138,7 +145,7 @@ public final class PathFormula implements Serializable {
 
     private Object readResolve() {
       FormulaManagerView mgr = GlobalInfo.getInstance().getPredicateFormulaManagerView();
-      BooleanFormula formula = mgr.parse(formulaDump);
+      BooleanFormula formula = mgr.parse(Joiner.on('\n').join(formulaDump));
       return new PathFormula(formula, ssa, pts, length);
     }
   }
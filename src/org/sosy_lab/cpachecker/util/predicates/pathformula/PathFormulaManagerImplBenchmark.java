@@ -0,0 +1,141 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import static org.sosy_lab.cpachecker.util.CFAUtils.leavingEdges;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.ShutdownNotifier;
+import org.sosy_lab.common.configuration.Configuration;
+import org.sosy_lab.common.log.LogManager;
+import org.sosy_lab.common.log.TestLogManager;
+import org.sosy_lab.cpachecker.cfa.CFA;
+import org.sosy_lab.cpachecker.cfa.model.CFAEdge;
+import org.sosy_lab.cpachecker.core.AnalysisDirection;
+import org.sosy_lab.cpachecker.exceptions.CPATransferException;
+import org.sosy_lab.cpachecker.util.predicates.Solver;
+import org.sosy_lab.cpachecker.util.test.TestDataTools;
+
+/**
+ * Microbenchmark for converting the edges of fixed programs from test/programs
+ * into formulas with {@link PathFormulaManagerImpl#makeAnd(PathFormula, CFAEdge)}.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=PathFormulaManagerImplBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PathFormulaManagerImplBenchmark {
+
+  /**
+   * The path-formula manager for a program, together with one path formula
+   * for each reachable edge of the program (the first one found by a breadth-first search).
+   */
+  @State(Scope.Thread)
+  public static class Program {
+
+    @Param({"test/programs/simple/SynchronousSimulator.c", "test/programs/simple/ex2.c"})
+    String program;
+
+    private Solver solver;
+    PathFormulaManager pfmgr;
+
+    final List<PathFormula> pathFormulas = new ArrayList<>();
+    final List<CFAEdge> edges = new ArrayList<>();
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+      Configuration config = TestDataTools.configurationForTest().build();
+      LogManager logger = TestLogManager.getInstance();
+      ShutdownNotifier shutdownNotifier = ShutdownNotifier.create();
+      CFA cfa = TestDataTools.makeCFA(program, config);
+
+      solver = Solver.create(config, logger, shutdownNotifier);
+      pfmgr = new PathFormulaManagerImpl(solver.getFormulaManager(), config, logger, shutdownNotifier,
+          cfa.getMachineModel(), cfa.getVarClassification(), AnalysisDirection.FORWARD);
+
+      Set<CFAEdge> visited = new HashSet<>();
+      Deque<PathFormula> waitlist = new ArrayDeque<>();
+      Deque<CFAEdge> waitlistEdges = new ArrayDeque<>();
+      for (CFAEdge edge : leavingEdges(cfa.getMainFunction())) {
+        waitlist.add(pfmgr.makeEmptyPathFormula());
+        waitlistEdges.add(edge);
+      }
+
+      while (!waitlist.isEmpty()) {
+        PathFormula pathFormula = waitlist.removeFirst();
+        CFAEdge edge = waitlistEdges.removeFirst();
+        if (!visited.add(edge)) {
+          continue;
+        }
+        pathFormulas.add(pathFormula);
+        edges.add(edge);
+
+        PathFormula successor = pfmgr.makeAnd(pathFormula, edge);
+        for (CFAEdge nextEdge : leavingEdges(edge.getSuccessor())) {
+          waitlist.add(successor);
+          waitlistEdges.add(nextEdge);
+        }
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      solver.close();
+    }
+
+    int nextIndex() {
+      next = (next + 1) % edges.size();
+      return next;
+    }
+  }
+
+  @Benchmark
+  public PathFormula makeAnd(Program pProgram) throws CPATransferException, InterruptedException {
+    int i = pProgram.nextIndex();
+    return pProgram.pfmgr.makeAnd(pProgram.pathFormulas.get(i), pProgram.edges.get(i));
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.predicates.pathformula;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.Pair;
+import org.sosy_lab.common.Triple;
+import org.sosy_lab.cpachecker.cfa.types.c.CNumericTypes;
+import org.sosy_lab.cpachecker.util.predicates.pathformula.SSAMap.SSAMapBuilder;
+
+/**
+ * Microbenchmarks for building and merging {@link SSAMap}s.
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=SSAMapBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SSAMapBenchmark {
+
+  /**
+   * An SSAMap with the given number of variables,
+   * and a second one where every tenth variable has a higher index.
+   */
+  @State(Scope.Thread)
+  public static class Maps {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    SSAMap ssa;
+    SSAMap otherSsa;
+    private int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      ssa = createSSAMap(size);
+
+      SSAMapBuilder builder = ssa.builder();
+      for (int i = 0; i < size; i += 10) {
+        builder.setIndex(variable(i), CNumericTypes.INT, 2);
+      }
+      otherSsa = builder.build();
+    }
+
+    String nextVariable() {
+      next = (next + 1) % size;
+      return variable(next);
+    }
+  }
+
+  private static String variable(int i) {
+    return "main::x" + i;
+  }
+
+  private static SSAMap createSSAMap(int size) {
+    SSAMapBuilder builder = SSAMap.emptySSAMap().builder();
+    for (int i = 0; i < size; i++) {
+      builder.setIndex(variable(i), CNumericTypes.INT, 1);
+    }
+    return builder.build();
+  }
+
+  @Benchmark
+  public SSAMap buildFromScratch(Maps pMaps) {
+    return createSSAMap(pMaps.size);
+  }
+
+  /** The typical operation for an assignment: increment the index of one variable. */
+  @Benchmark
+  public SSAMap incrementIndex(Maps pMaps) {
+    SSAMapBuilder builder = pMaps.ssa.builder();
+    String variable = pMaps.nextVariable();
+    builder.setIndex(variable, CNumericTypes.INT, builder.getIndex(variable) + 1);
+    return builder.build();
+  }
+
+  @Benchmark
+  public Pair<SSAMap, List<Triple<String, Integer, Integer>>> merge(Maps pMaps) {
+    return SSAMap.merge(pMaps.ssa, pMaps.otherSsa);
+  }
+}
@@ -109,6 +109,25 @@ public final class ResourceLimitChecker {
    */
   public static ResourceLimitChecker fromConfiguration(Configuration config,
       LogManager logger, ShutdownNotifier notifier) throws InvalidConfigurationException {
+    return fromConfiguration(config, logger, notifier, false);
+  }
+
+  /**
+   * Create an instance of this class from some configuration options
+   * for an analysis that runs on the current thread while other analyses
+   * run in the same process (e.g., in a portfolio).
+   * The cpu-time limit is then applied to the cpu time of the current thread
+   * instead of the whole process.
+   * The returned instance is not started yet.
+   */
+  public static ResourceLimitChecker fromConfigurationForCurrentThread(Configuration config,
+      LogManager logger, ShutdownNotifier notifier) throws InvalidConfigurationException {
+    return fromConfiguration(config, logger, notifier, true);
+  }
+
+  private static ResourceLimitChecker fromConfiguration(Configuration config,
+      LogManager logger, ShutdownNotifier notifier, boolean threadCpuTime)
+      throws InvalidConfigurationException {
 
     ResourceLimitOptions options = new ResourceLimitOptions();
     config.inject(options);
@@ -118,11 +137,20 @@ public final class ResourceLimitChecker {
       limits.add(WalltimeLimit.fromNowOn(options.walltime));
     }
     if (options.cpuTime.compareTo(TimeSpan.empty()) >= 0) {
-      try {
-        limits.add(ProcessCpuTimeLimit.fromNowOn(options.cpuTime));
-      } catch (JMException e) {
-        logger.logDebugException(e, "Querying cpu time failed");
-        logger.log(Level.WARNING, "Your Java VM does not support measuring the cpu time, cpu time threshold disabled.");
+      if (threadCpuTime) {
+        try {
+          limits.add(ThreadCpuTimeLimit.fromNowOnForCurrentThread(options.cpuTime));
+        } catch (UnsupportedOperationException e) {
+          logger.logDebugException(e, "Querying thread cpu time failed");
+          logger.log(Level.WARNING, "Your Java VM does not support measuring the cpu time of threads, cpu time threshold disabled.");
+        }
+      } else {
+        try {
+          limits.add(ProcessCpuTimeLimit.fromNowOn(options.cpuTime));
+        } catch (JMException e) {
+          logger.logDebugException(e, "Querying cpu time failed");
+          logger.log(Level.WARNING, "Your Java VM does not support measuring the cpu time, cpu time threshold disabled.");
+        }
       }
     }
 
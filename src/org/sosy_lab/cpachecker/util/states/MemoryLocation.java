@@ -28,6 +28,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 import java.io.Serializable;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
 import org.sosy_lab.common.collect.PersistentMap;
@@ -46,6 +49,20 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
   private final String identifier;
   private final long offset;
 
+  // cached hash code, 0 if not yet computed
+  private transient int hashCode = 0;
+
+  // cached id, -1 if not yet computed
+  private transient int id = -1;
+
+  /**
+   * Dense ids of all memory locations that were used as keys
+   * of a {@link PersistentMemoryLocationMap}, in the order of their first use.
+   * Equal memory locations get the same id.
+   */
+  private static final ConcurrentMap<MemoryLocation, Integer> ids = new ConcurrentHashMap<>();
+  private static final AtomicInteger nextId = new AtomicInteger();
+
   /**
    * This function can be used to {@link com.google.common.collect.Iterables#transform transform}
    * a collection of {@link String}s to a collection of {@link MemoryLocation}s, representing the
@@ -110,6 +127,10 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
     MemoryLocation otherLocation = (MemoryLocation) other;
 
+    if (hashCode != 0 && otherLocation.hashCode != 0 && hashCode != otherLocation.hashCode) {
+      return false;
+    }
+
     return Objects.equals(functionName, otherLocation.functionName)
         && Objects.equals(identifier, otherLocation.identifier)
         && offset == otherLocation.offset;
@@ -117,6 +138,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int hashCode() {
+    if (hashCode != 0) {
+      return hashCode;
+    }
 
     int hc = 17;
     int hashMultiplier = 59;
@@ -125,6 +149,7 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     hc = hc * hashMultiplier + identifier.hashCode();
     hc = hc * hashMultiplier + Longs.hashCode(offset);
 
+    hashCode = hc;
     return hc;
   }
 
@@ -191,6 +216,27 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
     return getAsSimpleString();
   }
 
+  /**
+   * Get the id of this memory location, which is equal for equal memory locations
+   * and unique otherwise. Ids are assigned on first use, starting from 0.
+   */
+  int getId() {
+    int result = id;
+    if (result < 0) {
+      Integer existing = ids.get(this);
+      if (existing == null) {
+        Integer newId = nextId.getAndIncrement();
+        existing = ids.putIfAbsent(this, newId);
+        if (existing == null) {
+          existing = newId;
+        }
+      }
+      result = existing;
+      id = result;
+    }
+    return result;
+  }
+
   public static PersistentMap<MemoryLocation, Long> transform(
       PersistentMap<String, Long> pConstantMap) {
 
@@ -205,6 +251,9 @@ public class MemoryLocation implements Comparable<MemoryLocation>, Serializable
 
   @Override
   public int compareTo(MemoryLocation other) {
+    if (this == other) {
+      return 0;
+    }
 
     int result = 0;
 
@@ -0,0 +1,147 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentMap;
+
+/**
+ * Microbenchmarks for lookups of {@link MemoryLocation}s in the maps
+ * that are used by abstract states (e.g., of the value analysis).
+ * Run with "ant microbenchmarks -Dmicrobenchmark.args=MemoryLocationBenchmark".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class MemoryLocationBenchmark {
+
+  /**
+   * Maps with the given number of variables, the keys that were stored in the maps,
+   * and equal keys that were created separately.
+   */
+  @State(Scope.Thread)
+  public static class Maps {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    PersistentMap<MemoryLocation, Integer> treeMap;
+    PersistentMap<MemoryLocation, Integer> idMap;
+    Map<MemoryLocation, Integer> hashMap;
+    MemoryLocation[] storedKeys;
+    MemoryLocation[] freshKeys;
+    String[] identifiers;
+
+    int next = 0;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+      treeMap = PathCopyingPersistentTreeMap.of();
+      idMap = PersistentMemoryLocationMap.of();
+      hashMap = new HashMap<>();
+      storedKeys = new MemoryLocation[size];
+      freshKeys = new MemoryLocation[size];
+      identifiers = new String[size];
+      for (int i = 0; i < size; i++) {
+        identifiers[i] = "x" + i;
+        storedKeys[i] = variable(i);
+        freshKeys[i] = variable(i);
+        treeMap = treeMap.putAndCopy(storedKeys[i], i);
+        idMap = idMap.putAndCopy(storedKeys[i], i);
+        hashMap.put(storedKeys[i], i);
+      }
+    }
+
+    private int nextIndex() {
+      next = (next + 7) % size;
+      return next;
+    }
+
+    private static MemoryLocation variable(int i) {
+      return MemoryLocation.valueOf("main", "x" + i, 0);
+    }
+  }
+
+  @Benchmark
+  public Integer treeGetStoredKey(Maps pMaps) {
+    // the key is found by an identity comparison
+    return pMaps.treeMap.get(pMaps.storedKeys[pMaps.nextIndex()]);
+  }
+
+  @Benchmark
+  public Integer treeGetFreshKey(Maps pMaps) {
+    // the key needs to be compared by its strings
+    return pMaps.treeMap.get(pMaps.freshKeys[pMaps.nextIndex()]);
+  }
+
+  @Benchmark
+  public Integer treeGetNewKey(Maps pMaps) {
+    // the analysis usually creates a new key for each access
+    return pMaps.treeMap.get(MemoryLocation.valueOf("main", pMaps.identifiers[pMaps.nextIndex()], 0));
+  }
+
+  @Benchmark
+  public PersistentMap<MemoryLocation, Integer> treePutAndCopy(Maps pMaps) {
+    return pMaps.treeMap.putAndCopy(pMaps.storedKeys[pMaps.nextIndex()], -1);
+  }
+
+  @Benchmark
+  public Integer idMapGetStoredKey(Maps pMaps) {
+    return pMaps.idMap.get(pMaps.storedKeys[pMaps.nextIndex()]);
+  }
+
+  @Benchmark
+  public Integer idMapGetNewKey(Maps pMaps) {
+    // the id of the new key needs to be looked up
+    return pMaps.idMap.get(MemoryLocation.valueOf("main", pMaps.identifiers[pMaps.nextIndex()], 0));
+  }
+
+  @Benchmark
+  public PersistentMap<MemoryLocation, Integer> idMapPutAndCopy(Maps pMaps) {
+    return pMaps.idMap.putAndCopy(pMaps.storedKeys[pMaps.nextIndex()], -1);
+  }
+
+  @Benchmark
+  public Integer hashGetStoredKey(Maps pMaps) {
+    return pMaps.hashMap.get(pMaps.storedKeys[pMaps.nextIndex()]);
+  }
+}
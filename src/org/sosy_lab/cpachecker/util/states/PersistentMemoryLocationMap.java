@@ -0,0 +1,336 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import javax.annotation.Nullable;
+
+import org.sosy_lab.common.collect.PathCopyingPersistentTreeMap;
+import org.sosy_lab.common.collect.PersistentMap;
+
+/**
+ * Immutable map from {@link MemoryLocation}s to non-null values
+ * with path copying for modifications.
+ * The keys are mapped to dense int ids ({@link MemoryLocation#getId()}),
+ * and the entries are stored in a bitmap-compressed trie indexed by these ids
+ * (a hash array mapped trie, where the id is the hash, so there are no collisions).
+ * Compared to a {@link PathCopyingPersistentTreeMap}, lookups and modifications
+ * need no comparisons of the keys and copy fewer and smaller nodes.
+ *
+ * Iteration is in the order of the ids, which is not the natural order of the keys.
+ * The map is serialized as a {@link PathCopyingPersistentTreeMap},
+ * because ids are only valid inside a single JVM.
+ *
+ * @param <V> type of the values
+ */
+public final class PersistentMemoryLocationMap<V> extends AbstractMap<MemoryLocation, V>
+    implements PersistentMap<MemoryLocation, V>, Serializable {
+
+  private static final long serialVersionUID = 2707464283524950236L;
+
+  /** number of bits of the id that are used per level of the trie */
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  private static final PersistentMemoryLocationMap<Object> EMPTY = new PersistentMemoryLocationMap<>(null, 0, 0);
+
+  /**
+   * A node of the trie. The children of nodes at shift 0 are the entries,
+   * otherwise the children are nodes.
+   * Only children for ids that are present in the map exist.
+   */
+  private static final class Node {
+
+    /** bit i is set if the child for index i exists */
+    private final int bitmap;
+
+    /** the existing children, ordered by their index */
+    private final Object[] children;
+
+    private Node(int pBitmap, Object[] pChildren) {
+      bitmap = pBitmap;
+      children = pChildren;
+    }
+
+    private int position(int bit) {
+      return Integer.bitCount(bitmap & (bit - 1));
+    }
+  }
+
+  private final @Nullable Node root;
+
+  /** number of bits by which the id is shifted to get the index at the root */
+  private final int shift;
+
+  private final int size;
+
+  private PersistentMemoryLocationMap(@Nullable Node pRoot, int pShift, int pSize) {
+    root = pRoot;
+    shift = pShift;
+    size = pSize;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <V> PersistentMemoryLocationMap<V> of() {
+    return (PersistentMemoryLocationMap<V>)EMPTY;
+  }
+
+  public static <V> PersistentMemoryLocationMap<V> copyOf(Map<MemoryLocation, ? extends V> pMap) {
+    PersistentMemoryLocationMap<V> result = of();
+    for (Map.Entry<MemoryLocation, ? extends V> entry : pMap.entrySet()) {
+      result = result.putAndCopy(entry.getKey(), entry.getValue());
+    }
+    return result;
+  }
+
+  /** whether the id can be stored in a trie with the given shift at the root */
+  private static boolean fits(int id, int pShift) {
+    return pShift + BITS >= Integer.SIZE || (id >>> (pShift + BITS)) == 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  private @Nullable Map.Entry<MemoryLocation, V> getEntry(@Nullable Object pKey) {
+    if (root == null || !(pKey instanceof MemoryLocation)) {
+      return null;
+    }
+    int id = ((MemoryLocation)pKey).getId();
+    if (!fits(id, shift)) {
+      return null;
+    }
+
+    Node node = root;
+    int s = shift;
+    while (true) {
+      int bit = 1 << ((id >>> s) & MASK);
+      if ((node.bitmap & bit) == 0) {
+        return null;
+      }
+      Object child = node.children[node.position(bit)];
+      if (s == 0) {
+        return (Map.Entry<MemoryLocation, V>)child;
+      }
+      node = (Node)child;
+      s -= BITS;
+    }
+  }
+
+  @Override
+  public V get(@Nullable Object pKey) {
+    Map.Entry<MemoryLocation, V> entry = getEntry(pKey);
+    return entry == null ? null : entry.getValue();
+  }
+
+  @Override
+  public boolean containsKey(@Nullable Object pKey) {
+    return getEntry(pKey) != null;
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  public PersistentMemoryLocationMap<V> empty() {
+    return of();
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> putAndCopy(MemoryLocation pKey, V pValue) {
+    Map.Entry<MemoryLocation, V> newEntry = new SimpleImmutableEntry<>(checkNotNull(pKey), checkNotNull(pValue));
+    int id = pKey.getId();
+
+    Node newRoot = root;
+    int newShift = shift;
+    if (newRoot == null) {
+      newShift = 0;
+    }
+    while (!fits(id, newShift)) {
+      if (newRoot != null) {
+        // the old trie becomes the child with index 0 of a new root
+        newRoot = new Node(1, new Object[] { newRoot });
+      }
+      newShift += BITS;
+    }
+
+    boolean[] replaced = new boolean[1];
+    newRoot = insert(newRoot, newShift, id, newEntry, replaced);
+    return new PersistentMemoryLocationMap<>(newRoot, newShift, replaced[0] ? size : size + 1);
+  }
+
+  /** Insert the entry for the id and set replaced[0] if there was an entry for the id. */
+  private static Node insert(@Nullable Node node, int s, int id, Object entry, boolean[] replaced) {
+    int bit = 1 << ((id >>> s) & MASK);
+    if (node == null) {
+      Object child = (s == 0) ? entry : insert(null, s - BITS, id, entry, replaced);
+      return new Node(bit, new Object[] { child });
+    }
+
+    int pos = node.position(bit);
+    if ((node.bitmap & bit) != 0) {
+      Object[] newChildren = node.children.clone();
+      if (s == 0) {
+        newChildren[pos] = entry;
+        replaced[0] = true;
+      } else {
+        newChildren[pos] = insert((Node)node.children[pos], s - BITS, id, entry, replaced);
+      }
+      return new Node(node.bitmap, newChildren);
+
+    } else {
+      Object child = (s == 0) ? entry : insert(null, s - BITS, id, entry, replaced);
+      Object[] newChildren = new Object[node.children.length + 1];
+      System.arraycopy(node.children, 0, newChildren, 0, pos);
+      newChildren[pos] = child;
+      System.arraycopy(node.children, pos, newChildren, pos + 1, node.children.length - pos);
+      return new Node(node.bitmap | bit, newChildren);
+    }
+  }
+
+  @Override
+  public PersistentMemoryLocationMap<V> removeAndCopy(Object pKey) {
+    if (getEntry(pKey) == null) {
+      return this;
+    }
+    if (size == 1) {
+      return of();
+    }
+    int id = ((MemoryLocation)pKey).getId();
+    return new PersistentMemoryLocationMap<>(remove(root, shift, id), shift, size - 1);
+  }
+
+  /** Remove the entry for the id, which must exist, and return null if the node gets empty. */
+  private static @Nullable Node remove(Node node, int s, int id) {
+    int bit = 1 << ((id >>> s) & MASK);
+    int pos = node.position(bit);
+
+    if (s > 0) {
+      Node newChild = remove((Node)node.children[pos], s - BITS, id);
+      if (newChild != null) {
+        Object[] newChildren = node.children.clone();
+        newChildren[pos] = newChild;
+        return new Node(node.bitmap, newChildren);
+      }
+    }
+
+    if (node.children.length == 1) {
+      return null;
+    }
+    Object[] newChildren = new Object[node.children.length - 1];
+    System.arraycopy(node.children, 0, newChildren, 0, pos);
+    System.arraycopy(node.children, pos + 1, newChildren, pos, newChildren.length - pos);
+    return new Node(node.bitmap & ~bit, newChildren);
+  }
+
+  @Override
+  public Set<Map.Entry<MemoryLocation, V>> entrySet() {
+    return new AbstractSet<Map.Entry<MemoryLocation, V>>() {
+
+      @Override
+      public Iterator<Map.Entry<MemoryLocation, V>> iterator() {
+        return new EntryIterator<>(root, shift);
+      }
+
+      @Override
+      public int size() {
+        return size;
+      }
+
+      @Override
+      public boolean contains(Object pO) {
+        if (!(pO instanceof Map.Entry<?, ?>)) {
+          return false;
+        }
+        Map.Entry<?, ?> entry = (Map.Entry<?, ?>)pO;
+        V value = get(entry.getKey());
+        return value != null && value.equals(entry.getValue());
+      }
+    };
+  }
+
+  /** Depth-first iteration over the entries of the trie. */
+  private static final class EntryIterator<V> implements Iterator<Map.Entry<MemoryLocation, V>> {
+
+    // the nodes on the path to the next entry and the position of the next child in each of them
+    private final Node[] nodes;
+    private final int[] positions;
+    private int depth = -1;
+
+    private EntryIterator(@Nullable Node pRoot, int pShift) {
+      nodes = new Node[pShift / BITS + 1];
+      positions = new int[nodes.length];
+      if (pRoot != null) {
+        depth = 0;
+        nodes[0] = pRoot;
+      }
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (depth >= 0) {
+        if (positions[depth] >= nodes[depth].children.length) {
+          depth--; // node done, continue with parent
+        } else if (depth == nodes.length - 1) {
+          return true; // next child is an entry
+        } else {
+          nodes[depth + 1] = (Node)nodes[depth].children[positions[depth]++];
+          depth++;
+          positions[depth] = 0;
+        }
+      }
+      return false;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Map.Entry<MemoryLocation, V> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return (Map.Entry<MemoryLocation, V>)nodes[depth].children[positions[depth]++];
+    }
+
+    @Override
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  private Object writeReplace() {
+    return PathCopyingPersistentTreeMap.copyOf(this);
+  }
+}
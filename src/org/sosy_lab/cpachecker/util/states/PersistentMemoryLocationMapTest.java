@@ -0,0 +1,111 @@
+/*
+ *  CPAchecker is a tool for configurable software verification.
+ *  This file is part of CPAchecker.
+ *
+ *  Copyright (C) 2007-2015  Dirk Beyer
+ *  All rights reserved.
+ *
+ *  Licensed under the Apache License, Version 2.0 (the "License");
+ *  you may not use this file except in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing, software
+ *  distributed under the License is distributed on an "AS IS" BASIS,
+ *  WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *  See the License for the specific language governing permissions and
+ *  limitations under the License.
+ *
+ *
+ *  CPAchecker web page:
+ *    http://cpachecker.sosy-lab.org
+ */
+package org.sosy_lab.cpachecker.util.states;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Unit tests for {@link PersistentMemoryLocationMap}.
+ */
+public class PersistentMemoryLocationMapTest {
+
+  private static MemoryLocation variable(int i) {
+    return MemoryLocation.valueOf("main", "x" + i, 0);
+  }
+
+  @Test
+  public void testEmpty() {
+    PersistentMemoryLocationMap<Integer> map = PersistentMemoryLocationMap.of();
+    assertThat(map).isEmpty();
+    assertThat(map.get(variable(0))).isNull();
+    assertThat(map.get("x0")).isNull();
+    assertThat(map.removeAndCopy(variable(0))).isSameAs(map);
+  }
+
+  @Test
+  public void testPutAndCopyKeepsOldMap() {
+    PersistentMemoryLocationMap<Integer> map1 = PersistentMemoryLocationMap.of();
+    PersistentMemoryLocationMap<Integer> map2 = map1.putAndCopy(variable(1), 1);
+    PersistentMemoryLocationMap<Integer> map3 = map2.putAndCopy(variable(1), 2);
+
+    assertThat(map1).isEmpty();
+    assertThat(map2).isEqualTo(ImmutableMap.of(variable(1), 1));
+    assertThat(map3).isEqualTo(ImmutableMap.of(variable(1), 2));
+    assertThat(map3.removeAndCopy(variable(1))).isEmpty();
+    assertThat(map3).hasSize(1);
+  }
+
+  @Test
+  public void testEqualKeysAreFound() {
+    PersistentMemoryLocationMap<Integer> map = PersistentMemoryLocationMap.of();
+    map = map.putAndCopy(MemoryLocation.valueOf("main::y"), 1);
+    assertThat(map.get(MemoryLocation.valueOf("main", "y", 0))).isEqualTo(1);
+    assertThat(map.containsKey(MemoryLocation.valueOf("main", "y", 1))).isFalse();
+  }
+
+  @Test
+  public void testEqualToOtherMaps() {
+    Map<MemoryLocation, Integer> expected = new HashMap<>();
+    PersistentMemoryLocationMap<Integer> map = PersistentMemoryLocationMap.of();
+    for (int i = 0; i < 100; i++) {
+      expected.put(variable(i), i);
+      map = map.putAndCopy(variable(i), i);
+    }
+    assertThat(map).isEqualTo(expected);
+    assertThat(map.hashCode()).isEqualTo(expected.hashCode());
+    assertThat(PersistentMemoryLocationMap.copyOf(expected)).isEqualTo(map);
+  }
+
+  @Test
+  public void testRandomOperations() {
+    // compare against a HashMap, with enough keys for a trie with several levels
+    Random random = new Random(0);
+    Map<MemoryLocation, Integer> expected = new HashMap<>();
+    PersistentMemoryLocationMap<Integer> map = PersistentMemoryLocationMap.of();
+
+    for (int i = 0; i < 20000; i++) {
+      MemoryLocation key = variable(random.nextInt(2000));
+      if (random.nextInt(3) == 0) {
+        expected.remove(key);
+        map = map.removeAndCopy(key);
+      } else {
+        expected.put(key, i);
+        map = map.putAndCopy(key, i);
+      }
+      assertThat(map.size()).isEqualTo(expected.size());
+      assertThat(map.get(key)).isEqualTo(expected.get(key));
+    }
+
+    assertThat(map).isEqualTo(expected);
+    assertThat(map.entrySet()).hasSize(expected.size());
+  }
+}
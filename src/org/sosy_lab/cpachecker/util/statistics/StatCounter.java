@@ -23,31 +23,33 @@
  */
 package org.sosy_lab.cpachecker.util.statistics;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 
 public class StatCounter extends AbstractStatValue {
 
-  private int counter = 0;
+  private final AtomicInteger counter = new AtomicInteger();
 
   public StatCounter(String pTitle) {
     super(StatKind.SUM, pTitle);
   }
 
   public void inc() {
-    counter++;
+    counter.incrementAndGet();
   }
 
   public int getValue() {
-    return counter;
+    return counter.get();
   }
 
   @Override
   public int getUpdateCount() {
-    return counter;
+    return counter.get();
   }
 
   @Override
   public String toString() {
-    return String.format("%8d", counter);
+    return String.format("%8d", counter.get());
   }
 
 }
\ No newline at end of file
@@ -35,7 +35,7 @@ public class StatInt extends AbstractStatValue {
     super(pMainStatisticKind, pTitle);
   }
 
-  public void setNextValue(int newValue) {
+  public synchronized void setNextValue(int newValue) {
     valueSum += newValue;
     valueCount += 1;
     maxValue = Math.max(newValue, maxValue);
@@ -72,7 +72,7 @@ public class StatInt extends AbstractStatValue {
   }
 
   @Override
-  public String toString() {
+  public synchronized String toString() {
     return String.format("%8d (count: %d, min: %d, max: %d, avg: %.2f)",
         valueSum, valueCount, getMinValue(), getMaxValue(), getAverage());
   }
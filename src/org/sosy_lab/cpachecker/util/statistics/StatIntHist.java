@@ -35,18 +35,18 @@ public class StatIntHist extends StatInt {
     super(pMainStatisticKind, pTitle);
   }
 
-  public int getTimesWithValue(Integer value) {
+  public synchronized int getTimesWithValue(Integer value) {
     return hist.count(value);
   }
 
   @Override
-  public void setNextValue(int pNewValue) {
+  public synchronized void setNextValue(int pNewValue) {
     super.setNextValue(pNewValue);
     hist.add(pNewValue);
   }
 
   @Override
-  public String toString() {
+  public synchronized String toString() {
     return super.toString() + " " + hist.toString();
   }
 
@@ -23,12 +23,31 @@
  */
 package org.sosy_lab.cpachecker.util.statistics;
 
-import org.sosy_lab.common.time.Timer;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.sosy_lab.common.time.TimeSpan;
+import org.sosy_lab.common.time.Timer;
 
+/**
+ * Timer for statistics that may be used from several threads concurrently.
+ * Each thread measures with its own {@link Timer},
+ * the printed values are the sums over all threads.
+ */
 public class StatTimer extends AbstractStatValue {
 
-  private final Timer timer = new Timer();
+  private final List<Timer> timers = new CopyOnWriteArrayList<>();
+
+  private final ThreadLocal<Timer> timer = new ThreadLocal<Timer>() {
+      @Override
+      protected Timer initialValue() {
+        Timer newTimer = new Timer();
+        timers.add(newTimer);
+        return newTimer;
+      }
+    };
 
   public StatTimer(StatKind pMainStatisticKind, String pTitle) {
     super(pMainStatisticKind, pTitle);
@@ -39,21 +58,53 @@ public class StatTimer extends AbstractStatValue {
   }
 
   public void start() {
-    timer.start();
+    timer.get().start();
   }
 
   public void stop() {
-    timer.stop();
+    timer.get().stop();
+  }
+
+  /**
+   * Return the sum of the measured intervals of all threads.
+   */
+  public TimeSpan getSumTime() {
+    long sum = 0;
+    for (Timer t : timers) {
+      sum += t.getSumTime().asNanos();
+    }
+    return TimeSpan.ofNanos(sum);
   }
 
   @Override
   public int getUpdateCount() {
-    return timer.getNumberOfIntervals();
+    int intervals = 0;
+    for (Timer t : timers) {
+      intervals += t.getNumberOfIntervals();
+    }
+    return intervals;
   }
 
   @Override
   public String toString() {
-    return timer.toString();
+    if (timers.isEmpty()) {
+      return new Timer().toString();
+    } else if (timers.size() == 1) {
+      return timers.get(0).toString();
+    }
+
+    long sum = getSumTime().asNanos();
+    long max = 0;
+    for (Timer t : timers) {
+      max = Math.max(max, t.getMaxTime().asNanos());
+    }
+    int intervals = getUpdateCount();
+    long avg = intervals == 0 ? 0 : sum / intervals;
+    return String.format("%s (Max: %s), (Avg: %s), (#intervals = %s)",
+        TimeSpan.ofNanos(sum).formatAs(SECONDS),
+        TimeSpan.ofNanos(max).formatAs(SECONDS),
+        TimeSpan.ofNanos(avg).formatAs(SECONDS),
+        intervals);
   }
 
 }